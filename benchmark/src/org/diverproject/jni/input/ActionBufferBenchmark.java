@@ -0,0 +1,133 @@
+package org.diverproject.jni.input;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <h1>Medio do Armazenamento de Aes</h1>
+ *
+ * <p>Mede o armazenamento de uma ao seguido do consumo da ao mais antiga com o mesmo cdigo,
+ * mantendo a quantidade de aes armazenadas constante. Compara o armazenamento de aes com uma
+ * lista percorrida atravs de <code>getCode(int)</code> e <code>isValid()</code>, como era feito
+ * antes. O custo no armazenamento de aes no deve depender da quantidade de aes armazenadas.</p>
+ *
+ * @see ActionBuffer
+ *
+ * @author Andrew
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionBufferBenchmark
+{
+	/**
+	 * Quantidade de cdigos na sequncia que ser percorrida em ordem circular.
+	 */
+	private static final int CODES = 1 << 12;
+
+	/**
+	 * Durao das aes, longa o bastante para que nenhuma expire durante a medio.
+	 */
+	private static final int DURATION = Integer.MAX_VALUE;
+
+	/**
+	 * Quantidade de aes armazenadas durante a medio.
+	 */
+	@Param({ "10", "1000", "10000" })
+	public int actions;
+
+	/**
+	 * Armazenamento de aes medido.
+	 */
+	private ActionBuffer buffer;
+
+	/**
+	 * Lista de aes percorrida para comparao.
+	 */
+	private List<ActionEvent> list;
+
+	/**
+	 * Sequncia de cdigos das aes armazenadas e consumidas.
+	 */
+	private int codes[];
+
+	/**
+	 * Posio do prximo cdigo da sequncia.
+	 */
+	private int next;
+
+	/**
+	 * Cria a sequncia de cdigos e armazena as aes iniciais com cdigos da mesma sequncia.
+	 */
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(1);
+
+		buffer = new ActionBuffer();
+		list = new ArrayList<>();
+		codes = new int[CODES];
+
+		for (int i = 0; i < CODES; i++)
+			codes[i] = random.nextInt(actions);
+
+		for (int i = 0; i < actions; i++)
+		{
+			buffer.add(new ActionEvent(ActionEvent.IV_KEY, codes[i & (CODES - 1)], DURATION));
+			list.add(new ActionEvent(ActionEvent.IV_KEY, codes[i & (CODES - 1)], DURATION));
+		}
+	}
+
+	@Benchmark
+	public boolean buffer()
+	{
+		int code = codes[next++ & (CODES - 1)];
+
+		buffer.add(new ActionEvent(ActionEvent.IV_KEY, code, DURATION));
+
+		return buffer.consume(code);
+	}
+
+	@Benchmark
+	public boolean list()
+	{
+		int code = codes[next++ & (CODES - 1)];
+
+		list.add(new ActionEvent(ActionEvent.IV_KEY, code, DURATION));
+
+		Iterator<ActionEvent> iterator = list.iterator();
+
+		while (iterator.hasNext())
+		{
+			ActionEvent action = iterator.next();
+
+			if (action.isValid() && action.getCode(code))
+			{
+				iterator.remove();
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,122 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KP_ALTERNATIVE;
+import static org.diverproject.jni.input.KeyEvent.KP_CONTROL;
+import static org.diverproject.jni.input.KeyEvent.KP_SHIFT;
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_MAX;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <h1>Medio do Mapeador de Aes</h1>
+ *
+ * <p>Mede a procura da ao de uma sequncia aleatria de teclas pressionadas e soltas, com modificadores
+ * aleatrios, em uma pilha de trs contextos transparentes com ligaes aleatrias. O custo por evento
+ * no deve depender da quantidade de ligaes de cada contexto.</p>
+ *
+ * @see ActionMapper
+ * @see ActionMapCompiler
+ *
+ * @author Andrew
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionMapperBenchmark
+{
+	/**
+	 * Quantidade de eventos na sequncia que ser percorrida em ordem circular.
+	 */
+	private static final int EVENTS = 1 << 12;
+
+	/**
+	 * Quantidade de contextos empilhados no mapeador.
+	 */
+	private static final int CONTEXTS = 3;
+
+	/**
+	 * Combinaes de modificadores usadas nas ligaes e nos eventos.
+	 */
+	private static final int MODIFIERS[] = { 0, KP_SHIFT, KP_CONTROL, KP_ALTERNATIVE, KP_CONTROL | KP_SHIFT };
+
+	/**
+	 * Quantidade de ligaes em cada contexto.
+	 */
+	@Param({ "10", "100", "500" })
+	public int bindings;
+
+	/**
+	 * Mapeador de aes medido.
+	 */
+	private ActionMapper mapper;
+
+	/**
+	 * Sequncia de eventos de tecla compactados, pressionamentos e teclas soltas.
+	 */
+	private long events[];
+
+	/**
+	 * Posio do prximo evento da sequncia.
+	 */
+	private int next;
+
+	/**
+	 * Compila e empilha os contextos com ligaes aleatrias e cria a sequncia de eventos.
+	 * @throws InputException apenas se alguma ligao no puder ser registrada.
+	 */
+
+	@Setup
+	public void setup() throws InputException
+	{
+		Random random = new Random(1);
+
+		mapper = new ActionMapper(new ActionBuffer(), 0);
+
+		for (int context = 0; context < CONTEXTS; context++)
+		{
+			ActionMapCompiler compiler = new ActionMapCompiler("context" + context);
+			compiler.setTransparent(true);
+
+			while (compiler.size() < bindings)
+				compiler.bind(1 + random.nextInt(KEY_MAX - 1), MODIFIERS[random.nextInt(MODIFIERS.length)], compiler.size());
+
+			mapper.push(compiler.compile());
+		}
+
+		events = new long[EVENTS];
+
+		for (int i = 0; i < EVENTS; i += 2)
+		{
+			int key = 1 + random.nextInt(KEY_MAX - 1);
+			int properties = MODIFIERS[random.nextInt(MODIFIERS.length)];
+
+			events[i] = PackedKeyEvent.pack(KT_PRESSED, 0, key, (char) 0, properties);
+			events[i + 1] = PackedKeyEvent.pack(KT_RELEASED, 0, key, (char) 0, properties);
+		}
+	}
+
+	@Benchmark
+	public int map()
+	{
+		return mapper.map(events[next++ & (EVENTS - 1)]);
+	}
+}
@@ -0,0 +1,52 @@
+package org.diverproject.jni.input;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <h1>Executor das Medies</h1>
+ *
+ * <p>Executa as medies do despache de eventos de teclado com o perfil de coleta de lixo,
+ * que informa a taxa de alocao (<code>gc.alloc.rate.norm</code>) de cada medio, alm da
+ * vazo e do tempo mdio. Aceita as mesmas opes de linha de comando do JMH, sendo que sem
+ * nenhuma expresso informada todas as medies deste pacote sero executadas.</p>
+ *
+ * <p>Para executar apenas o despache compactado com a estratgia padro, por exemplo:
+ * <code>KeyboardPipelineBenchmark -p dispatcher=packed -p waitStrategy=backoff</code>.</p>
+ *
+ * @author Andrew
+ */
+
+public final class BenchmarkRunner
+{
+	/**
+	 * No deve ser instanciado, possui apenas o procedimento principal.
+	 */
+
+	private BenchmarkRunner()
+	{
+	}
+
+	/**
+	 * Procedimento principal que executa as medies selecionadas.
+	 * @param args opes de linha de comando aceitas pelo JMH.
+	 * @throws CommandLineOptionException se alguma opo de linha de comando for invlida.
+	 * @throws RunnerException falha durante a execuo das medies.
+	 */
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException
+	{
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class);
+
+		if (commandLine.getIncludes().isEmpty())
+			options.include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,106 @@
+package org.diverproject.jni.input;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.diverproject.util.service.Service;
+
+/**
+ * <h1>Contador de Despache</h1>
+ *
+ * <p>Cria os despachantes usados pelas medies do despache de eventos, que apenas contam os eventos recebidos.
+ * So criados como proxies dinmicos para no depender dos procedimentos do servio,
+ * sendo que todos os procedimentos do servio no fazem nada e o estado  sempre indefinido.</p>
+ *
+ * <p>Lotes de eventos so contados pela quantidade de eventos do lote, em uma nica chamada.
+ * Cada chamada ao proxy cria um vetor de argumentos e o evento compactado  convertido em objeto,
+ * esse custo  medido separadamente por <code>KeyboardPipelineBenchmark.dispatchBaseline</code>
+ * e deve ser descontado dos resultados do despache.</p>
+ *
+ * @see KeyboardDispatcher
+ * @see PackedKeyboardDispatcher
+ *
+ * @author Andrew
+ */
+
+final class DispatchCounter implements InvocationHandler
+{
+	/**
+	 * Quantidade de eventos despachados, escrita apenas pela thread do processador.
+	 */
+	private volatile long dispatched;
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args)
+	{
+		switch (method.getName())
+		{
+			case "dispatch":
+				dispatched++;
+				return null;
+
+			case "dispatchBatch":
+				dispatched += (Integer) args[args.length - 1];
+				return null;
+
+			case "getState":
+				return Service.SERVICE_UNDEFINID;
+
+			case "equals":
+				return proxy == args[0];
+
+			case "hashCode":
+				return System.identityHashCode(proxy);
+
+			case "toString":
+				return "BenchmarkDispatcher";
+		}
+
+		Class<?> type = method.getReturnType();
+
+		return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
+	}
+
+	/**
+	 * Cria um despachante compactado que ir contar os eventos neste contador.
+	 * @return aquisio de um novo despachante compactado para medies.
+	 */
+
+	PackedKeyboardDispatcher packed()
+	{
+		return (PackedKeyboardDispatcher) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { PackedKeyboardDispatcher.class }, this);
+	}
+
+	/**
+	 * Cria um despachante para teclado que ir contar os eventos neste contador.
+	 * @return aquisio de um novo despachante para teclado para medies.
+	 */
+
+	KeyboardDispatcher keyboard()
+	{
+		return (KeyboardDispatcher) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { KeyboardDispatcher.class }, this);
+	}
+
+	/**
+	 * Aguarda at que a quantidade de eventos despachados alcance um determinado valor.
+	 * @param target quantidade de eventos despachados que deve ser alcanada.
+	 */
+
+	void await(long target)
+	{
+		while (dispatched < target)
+			Thread.yield();
+	}
+
+	/**
+	 * Usado para determinar a quantidade de eventos esperada ao final de uma medio.
+	 * @return aquisio da quantidade de eventos despachados at o momento.
+	 */
+
+	long getDispatched()
+	{
+		return dispatched;
+	}
+}
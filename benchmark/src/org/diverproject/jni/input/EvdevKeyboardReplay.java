@@ -0,0 +1,220 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KEY_TYPES;
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.KeyEvent.KT_TYPED;
+import static org.diverproject.jni.input.KeyTranslator.KF_EXTENDED;
+import static org.diverproject.jni.input.enums.EnumVK.*;
+
+import java.io.File;
+
+/**
+ * <h1>Reproduo de Registros Evdev Gravados</h1>
+ *
+ * <p>Reproduz atravs da fonte evdev para teclado os registros <code>struct input_event</code> gravados nos
+ * arquivos de <code>fixtures</code>, um com registros de 64 bits e outro com registros de 32 bits, e compara
+ * as teclas repassadas ao receptor com as teclas esperadas. Os registros esto em little-endian, a ordem dos
+ * bytes do evdev em x86 e ARM, a mesma ordem nativa usada pela fonte evdev.</p>
+ *
+ * <p>Os arquivos contm a digitao de "Oi" com a tecla I mantida abaixada (duas repeties), um LED,
+ * uma tecla sem tecla virtual e Ctrl direito com Enter do teclado numrico (teclas estendidas), entre os
+ * registros de <code>EV_MSC</code> e <code>EV_SYN</code> que o kernel grava junto das teclas. Cada arquivo
+ *  reproduzido com diferentes quantidades de registros por leitura, incluindo uma que no divide a
+ * quantidade de registros do arquivo, para que a ltima leitura seja parcial.</p>
+ *
+ * <p>No  uma medio do JMH, deve ser executado diretamente com o diretrio dos arquivos opcional:
+ * <code>EvdevKeyboardReplay [diretrio]</code>. Termina com cdigo de sada 1 se alguma reproduo falhar.</p>
+ *
+ * @see EvdevKeyboardSource
+ *
+ * @author Andrew
+ */
+
+public final class EvdevKeyboardReplay
+{
+	/**
+	 * Diretrio padro dos arquivos gravados, relativo ao projeto das medies.
+	 */
+	private static final String DEFAULT_DIRECTORY = "fixtures";
+
+	/**
+	 * Nome dos arquivos gravados reproduzidos.
+	 */
+	private static final String FILES[] = { "evdev-64.bin", "evdev-32.bin" };
+
+	/**
+	 * Tamanho dos registros de cada arquivo gravado.
+	 */
+	private static final int RECORD_SIZES[] = { EvdevKeyboardSource.RECORD_SIZE_64, EvdevKeyboardSource.RECORD_SIZE_32 };
+
+	/**
+	 * Quantidade de registros por leitura usada em cada reproduo.
+	 */
+	private static final int BATCHES[] = { 1, 7, EvdevKeyboardSource.DEFAULT_BATCH };
+
+	/**
+	 * Quantidade de registros de cada arquivo gravado, incluindo os que no so de teclas.
+	 */
+	private static final int RECORDS = 40;
+
+	/**
+	 * Tempo mximo em milissegundos para que uma reproduo chegue ao fim do arquivo.
+	 */
+	private static final int TIMEOUT = 5000;
+
+	/**
+	 * Teclas esperadas de cada reproduo como tipo, tecla virtual e flags.
+	 */
+	private static final int EXPECTED[][] =
+	{
+		{ KT_TYPED, VK_LSHIFT, 0 }, { KT_PRESSED, VK_LSHIFT, 0 },
+		{ KT_TYPED, VK_O, 0 }, { KT_PRESSED, VK_O, 0 },
+		{ KT_RELEASED, VK_O, 0 },
+		{ KT_RELEASED, VK_LSHIFT, 0 },
+		{ KT_TYPED, VK_I, 0 }, { KT_PRESSED, VK_I, 0 },
+		{ KT_TYPED, VK_I, 0 }, { KT_PRESSED, VK_I, 0 },
+		{ KT_TYPED, VK_I, 0 }, { KT_PRESSED, VK_I, 0 },
+		{ KT_RELEASED, VK_I, 0 },
+		{ KT_TYPED, VK_RCONTROL, KF_EXTENDED }, { KT_PRESSED, VK_RCONTROL, KF_EXTENDED },
+		{ KT_TYPED, VK_RETURN, KF_EXTENDED }, { KT_PRESSED, VK_RETURN, KF_EXTENDED },
+		{ KT_RELEASED, VK_RETURN, KF_EXTENDED },
+		{ KT_RELEASED, VK_RCONTROL, KF_EXTENDED },
+	};
+
+	/**
+	 * No deve ser instanciado, possui apenas o procedimento principal.
+	 */
+
+	private EvdevKeyboardReplay()
+	{
+	}
+
+	/**
+	 * Procedimento principal que reproduz cada arquivo gravado com cada quantidade de registros por leitura.
+	 * @param args diretrio dos arquivos gravados, opcional.
+	 * @throws InputException se no for possvel abrir um dos arquivos gravados.
+	 * @throws InterruptedException se a thread for interrompida esperando o fim de uma reproduo.
+	 */
+
+	public static void main(String[] args) throws InputException, InterruptedException
+	{
+		File directory = new File(args.length > 0 ? args[0] : DEFAULT_DIRECTORY);
+		int failures = 0;
+
+		for (int i = 0; i < FILES.length; i++)
+			for (int batch : BATCHES)
+			{
+				String result = replay(new File(directory, FILES[i]), RECORD_SIZES[i], batch);
+
+				System.out.printf("%-14s batch=%-3d %s%n", FILES[i], batch, result == null ? "ok" : result);
+
+				if (result != null)
+					failures++;
+			}
+
+		if (failures > 0)
+			System.exit(1);
+	}
+
+	/**
+	 * Reproduz um arquivo gravado at o seu fim e compara as teclas repassadas com as teclas esperadas.
+	 * @param file arquivo com os registros gravados.
+	 * @param recordSize tamanho dos registros do arquivo.
+	 * @param batch quantidade de registros por leitura.
+	 * @return aquisio da descrio da falha ou null se a reproduo estiver correta.
+	 * @throws InputException se no for possvel abrir o arquivo gravado.
+	 * @throws InterruptedException se a thread for interrompida esperando o fim da reproduo.
+	 */
+
+	private static String replay(File file, int recordSize, int batch) throws InputException, InterruptedException
+	{
+		Recorder recorder = new Recorder();
+		EvdevKeyboardSource source = new EvdevKeyboardSource(file, recordSize, batch);
+		source.start(recorder);
+
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+
+		while (source.isRunning())
+		{
+			if (System.currentTimeMillis() > deadline)
+			{
+				source.stop();
+				return "tempo esgotado";
+			}
+
+			Thread.sleep(1);
+		}
+
+		source.stop();
+
+		if (source.getFailure() != null)
+			return "falha na leitura: " + source.getFailure();
+
+		if (source.getRecords() != RECORDS)
+			return String.format("registros lidos %d de %d", source.getRecords(), RECORDS);
+
+		if (recorder.events > 0)
+			return String.format("%d eventos compactados inesperados", recorder.events);
+
+		for (int i = 0; i < Math.min(recorder.size, EXPECTED.length); i++)
+			if (recorder.keys[i][0] != EXPECTED[i][0] || recorder.keys[i][1] != EXPECTED[i][1] || recorder.keys[i][2] != EXPECTED[i][2])
+				return String.format("tecla %d  %s, esperado %s", i, describe(recorder.keys[i]), describe(EXPECTED[i]));
+
+		if (recorder.size != EXPECTED.length)
+			return String.format("teclas repassadas %d de %d", recorder.size, EXPECTED.length);
+
+		return null;
+	}
+
+	/**
+	 * Descreve uma tecla repassada ao receptor com o nome do tipo e da tecla virtual.
+	 * @param key tipo, tecla virtual e flags da tecla.
+	 * @return aquisio da descrio da tecla.
+	 */
+
+	private static String describe(int key[])
+	{
+		return String.format("%s %s%s", KEY_TYPES[key[0]], VIRTUAL_KEY_NAME[key[1]], key[2] != 0 ? " (estendida)" : "");
+	}
+
+	/**
+	 * <h1>Receptor Gravador</h1>
+	 *
+	 * <p>Guarda as teclas repassadas pela fonte evdev para que sejam comparadas aps a reproduo,
+	 * sendo chamado apenas pela thread da fonte e consultado aps o fim da reproduo.</p>
+	 */
+
+	private static final class Recorder implements KeyboardReceiver
+	{
+		/**
+		 * Tipo, tecla virtual e flags de cada tecla repassada, alm das esperadas so descartadas.
+		 */
+		final int keys[][] = new int[EXPECTED.length][];
+
+		/**
+		 * Quantidade de teclas repassadas, incluindo as descartadas.
+		 */
+		int size;
+
+		/**
+		 * Quantidade de eventos compactados repassados, que a fonte evdev no deve repassar.
+		 */
+		int events;
+
+		@Override
+		public void receiveKey(int type, int vk, int flags)
+		{
+			if (size < keys.length)
+				keys[size] = new int[] { type, vk, flags };
+
+			size++;
+		}
+
+		@Override
+		public void receiveEvent(long event)
+		{
+			events++;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KP_CONTROL;
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_A;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_NAME;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <h1>Medio do Reconhecedor de Atalhos</h1>
+ *
+ * <p>Mede o avano do reconhecedor de atalhos com uma sequncia aleatria de letras, com e sem CTRL,
+ * para conjuntos de atalhos aleatrios de um a quatro toques. O custo por evento no deve depender
+ * da quantidade de atalhos compilados.</p>
+ *
+ * @see HotkeyMatcher
+ * @see HotkeyCompiler
+ *
+ * @author Andrew
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotkeyMatcherBenchmark
+{
+	/**
+	 * Quantidade de eventos na sequncia que ser percorrida em ordem circular.
+	 */
+	private static final int EVENTS = 1 << 12;
+
+	/**
+	 * Quantidade de atalhos compilados no autmato reconhecido.
+	 */
+	@Param({ "10", "1000", "10000" })
+	public int hotkeys;
+
+	/**
+	 * Reconhecedor de atalhos medido.
+	 */
+	private HotkeyMatcher matcher;
+
+	/**
+	 * Sequncia de eventos de tecla compactados, pressionamentos e teclas soltas.
+	 */
+	private long events[];
+
+	/**
+	 * Posio do prximo evento da sequncia.
+	 */
+	private int next;
+
+	/**
+	 * Momento informado ao reconhecedor, avana a cada evento.
+	 */
+	private long time;
+
+	/**
+	 * Compila os atalhos aleatrios e cria a sequncia de eventos.
+	 * @param blackhole buraco negro que ir consumir as aes reconhecidas.
+	 * @throws InputException apenas se algum atalho no puder ser compilado.
+	 */
+
+	@Setup
+	public void setup(Blackhole blackhole) throws InputException
+	{
+		Random random = new Random(1);
+		HotkeyCompiler compiler = new HotkeyCompiler();
+		Set<String> bound = new HashSet<>();
+
+		while (compiler.size() < hotkeys)
+		{
+			StringBuilder hotkey = new StringBuilder();
+
+			for (int strokes = 1 + random.nextInt(4); strokes > 0; strokes--)
+			{
+				hotkey.append(random.nextBoolean() ? "CTRL+" : "").append(KEY_NAME[KEY_A + random.nextInt(26)]);
+				hotkey.append(strokes > 1 ? " " : "");
+			}
+
+			if (bound.add(hotkey.toString()))
+				compiler.bind(hotkey.toString(), compiler.size());
+		}
+
+		matcher = new HotkeyMatcher(compiler.compile(), blackhole::consume);
+		events = new long[EVENTS];
+
+		for (int i = 0; i < EVENTS; i += 2)
+		{
+			int key = KEY_A + random.nextInt(26);
+			int properties = random.nextBoolean() ? KP_CONTROL : 0;
+
+			events[i] = PackedKeyEvent.pack(KT_PRESSED, 0, key, (char) 0, properties);
+			events[i + 1] = PackedKeyEvent.pack(KT_RELEASED, 0, key, (char) 0, properties);
+		}
+	}
+
+	@Benchmark
+	public boolean advance()
+	{
+		return matcher.advance(events[next++ & (EVENTS - 1)], time += 1000);
+	}
+}
@@ -0,0 +1,137 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KP_LEFT;
+import static org.diverproject.jni.input.KeyEvent.KP_SHIFT;
+import static org.diverproject.jni.input.KeyEvent.KT_TYPED;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_A;
+import static org.diverproject.jni.input.enums.EnumVK.VK_A;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <h1>Medio de Eventos de Tecla</h1>
+ *
+ * <p>Mede o custo de criar, reciclar e consultar os eventos de tecla, tanto como objeto
+ * quanto compactados, alm da descrio do evento e dos nomes das teclas, que so usados
+ * pelos despachantes que registram os eventos.</p>
+ *
+ * <p>As propriedades (modificadores) eram consultadas pelo BitWise, que foi substitudo por mscaras
+ * de bits sobre um inteiro, sendo essas as consultas medidas aqui.</p>
+ *
+ * @see KeyEvent
+ * @see PackedKeyEvent
+ * @see KeyEventPool
+ *
+ * @author Andrew
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyEventBenchmark
+{
+	/**
+	 * Evento de tecla consultado pelas medies.
+	 */
+	private KeyEvent event;
+
+	/**
+	 * Mesmo evento de tecla na forma compactada.
+	 */
+	private long packed;
+
+	/**
+	 * Conjunto de eventos reciclados usado pela medio da reciclagem.
+	 */
+	private KeyEventPool pool;
+
+	/**
+	 * Cria o evento consultado e o conjunto de eventos reciclados antes das medies.
+	 */
+
+	@Setup
+	public void setup()
+	{
+		event = new KeyEvent(KT_TYPED, VK_A, KEY_A, 'A', KP_SHIFT | KP_LEFT);
+		packed = PackedKeyEvent.pack(event);
+		pool = new KeyEventPool(64);
+	}
+
+	@Benchmark
+	public KeyEvent construct()
+	{
+		return new KeyEvent(KT_TYPED, VK_A, KEY_A, 'A', KP_SHIFT | KP_LEFT);
+	}
+
+	@Benchmark
+	public KeyEvent acquireRelease()
+	{
+		KeyEvent keyEvent = pool.acquire(packed);
+		keyEvent.release();
+
+		return keyEvent;
+	}
+
+	@Benchmark
+	public KeyEvent unpack()
+	{
+		return PackedKeyEvent.toKeyEvent(packed);
+	}
+
+	@Benchmark
+	public long pack()
+	{
+		return PackedKeyEvent.pack(event);
+	}
+
+	@Benchmark
+	public void properties(Blackhole blackhole)
+	{
+		blackhole.consume(event.hasShift());
+		blackhole.consume(event.hasCtrl());
+		blackhole.consume(event.hasAlt());
+		blackhole.consume(event.isLeft());
+		blackhole.consume(event.isRight());
+		blackhole.consume(event.isTransition());
+	}
+
+	@Benchmark
+	public void packedProperties(Blackhole blackhole)
+	{
+		blackhole.consume(PackedKeyEvent.hasShift(packed));
+		blackhole.consume(PackedKeyEvent.hasCtrl(packed));
+		blackhole.consume(PackedKeyEvent.hasAlt(packed));
+		blackhole.consume(PackedKeyEvent.isLeft(packed));
+		blackhole.consume(PackedKeyEvent.isRight(packed));
+		blackhole.consume(PackedKeyEvent.isTransition(packed));
+	}
+
+	@Benchmark
+	public String describe()
+	{
+		return event.toString();
+	}
+
+	@Benchmark
+	public void names(Blackhole blackhole)
+	{
+		blackhole.consume(event.getVirtualKeyName());
+		blackhole.consume(event.getKeyName());
+		blackhole.consume(event.getCharName());
+	}
+}
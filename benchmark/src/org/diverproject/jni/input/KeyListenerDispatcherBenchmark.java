@@ -0,0 +1,100 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_A;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_MAX;
+import static org.diverproject.jni.input.enums.EnumVK.VK_A;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <h1>Medio do Despachante de Leituras</h1>
+ *
+ * <p>Mede o despache de um evento para as leituras de tecla registradas, onde as leituras
+ * so distribudas entre todas as teclas e apenas algumas recebem qualquer tecla, de modo
+ * que o custo deve depender apenas das leituras interessadas na tecla do evento.</p>
+ *
+ * @see KeyListenerDispatcher
+ *
+ * @author Andrew
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyListenerDispatcherBenchmark
+{
+	/**
+	 * Quantidade de leituras registradas, uma a cada oito recebe qualquer tecla.
+	 */
+	@Param({ "1", "16", "256" })
+	public int listeners;
+
+	/**
+	 * Despachante com as leituras registradas.
+	 */
+	private KeyListenerDispatcher dispatcher;
+
+	/**
+	 * Evento de tecla despachado pelas medies.
+	 */
+	private KeyEvent event;
+
+	/**
+	 * Registra as leituras que repassam o evento para o buraco negro da medio.
+	 * @param blackhole buraco negro que ir consumir os eventos recebidos pelas leituras.
+	 */
+
+	@Setup
+	public void setup(Blackhole blackhole)
+	{
+		KeyListener listener = new KeyListener()
+		{
+			@Override
+			public void keyTyped(KeyEvent event)
+			{
+				blackhole.consume(event);
+			}
+
+			@Override
+			public void keyPressed(KeyEvent event)
+			{
+				blackhole.consume(event);
+			}
+
+			@Override
+			public void keyReleased(KeyEvent event)
+			{
+				blackhole.consume(event);
+			}
+		};
+
+		dispatcher = new KeyListenerDispatcher();
+		event = new KeyEvent(KT_PRESSED, VK_A, KEY_A, (char) 0, 0);
+
+		for (int i = 0; i < listeners; i++)
+			dispatcher.addListener(listener, i % 8 == 0 ? KeyListenerDispatcher.ANY_KEY : 1 + i % (KEY_MAX - 1), i % 4);
+	}
+
+	@Benchmark
+	public void dispatch()
+	{
+		dispatcher.dispatch(event);
+	}
+}
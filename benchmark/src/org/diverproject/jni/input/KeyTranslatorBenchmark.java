@@ -0,0 +1,191 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KP_ALTERNATIVE;
+import static org.diverproject.jni.input.KeyEvent.KP_CAPITAL;
+import static org.diverproject.jni.input.KeyEvent.KP_SHIFT;
+import static org.diverproject.jni.input.KeyTranslator.KF_EXTENDED;
+import static org.diverproject.jni.input.TableKeyTranslator.VK_COUNT;
+import static org.diverproject.jni.input.enums.EnumVK.VK_A;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <h1>Medio do Tradutor de Teclas</h1>
+ *
+ * <p>Mede a traduo das teclas virtuais pelo tradutor padro, por um layout compilado e pelo tradutor
+ * por seleo, que traduz o mesmo layout do tradutor padro atravs de um <code>switch</code> como era
+ * feito pela DLL, como tambm o carregamento do layout com e sem o cache do carregador de layouts.</p>
+ *
+ * <p>A traduo  medida apenas nas letras, com o SHIFT abaixado, e em todas as teclas virtuais
+ * alternando os modificadores, onde o <code>switch</code> percorre tambm os casos mais distantes.
+ * Antes das medies o tradutor por seleo  comparado ao tradutor padro em todas as teclas.</p>
+ *
+ * @see TableKeyTranslator
+ * @see SwitchKeyTranslator
+ * @see KeyboardLayout
+ * @see KeyboardLayoutLoader
+ *
+ * @author Andrew
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyTranslatorBenchmark
+{
+	/**
+	 * Quantidade de teclas virtuais traduzidas em cada medio (letras de A a Z).
+	 */
+	private static final int LETTERS = 26;
+
+	/**
+	 * Propriedades alternadas na traduo de todas as teclas virtuais.
+	 */
+	private static final int PROPERTIES[] = { 0, KP_SHIFT, KP_CAPITAL, KP_SHIFT | KP_ALTERNATIVE };
+
+	/**
+	 * Tradutor de teclas que ser medido: <code>table</code> (padro), <code>layout</code> (compilado)
+	 * ou <code>switch</code> (seleo, como a DLL).
+	 */
+	@Param({ "table", "layout", "switch" })
+	public String translator;
+
+	/**
+	 * Tradutor de teclas usado pela medio da traduo.
+	 */
+	private KeyTranslator keyTranslator;
+
+	/**
+	 * Arquivo temporrio contendo a descrio do layout usada pelas medies de carregamento.
+	 */
+	private File file;
+
+	/**
+	 * Carregador de layouts usado pelas medies de carregamento.
+	 */
+	private KeyboardLayoutLoader loader;
+
+	/**
+	 * Cria o tradutor de teclas e o arquivo do layout antes das medies.
+	 * @throws IOException falha ao criar o arquivo temporrio do layout.
+	 * @throws InputException se a descrio do layout for invlida.
+	 * @throws IllegalStateException se o tradutor por seleo for diferente do tradutor padro.
+	 */
+
+	@Setup
+	public void setup() throws IOException, InputException
+	{
+		StringBuilder description = new StringBuilder("name Benchmark\n");
+		description.append("modifier LSHIFT LEFT_SHIFT SHIFT LEFT\n");
+
+		for (char letter = 'A'; letter <= 'Z'; letter++)
+			description.append(String.format("key %c %c '%c' '%c' '%c'\n", letter, letter, Character.toLowerCase(letter), letter, letter));
+
+		file = File.createTempFile("benchmark", ".layout");
+		file.deleteOnExit();
+		Files.write(file.toPath(), description.toString().getBytes(StandardCharsets.UTF_8));
+
+		loader = new KeyboardLayoutLoader();
+
+		if (translator.equals("layout"))
+			keyTranslator = loader.load(file);
+		else if (translator.equals("switch"))
+			keyTranslator = verify(new SwitchKeyTranslator(), new TableKeyTranslator());
+		else
+			keyTranslator = new TableKeyTranslator();
+	}
+
+	/**
+	 * Compara um tradutor com o tradutor esperado em todas as teclas virtuais, flags e propriedades.
+	 * @param actual tradutor que ser comparado.
+	 * @param expected tradutor com o resultado esperado.
+	 * @return aquisio do tradutor comparado.
+	 * @throws IllegalStateException se alguma traduo for diferente.
+	 */
+
+	private static KeyTranslator verify(KeyTranslator actual, KeyTranslator expected)
+	{
+		for (int vk = 0; vk < VK_COUNT; vk++)
+		{
+			boolean equal = actual.isIgnored(vk) == expected.isIgnored(vk)
+					&& actual.getKey(vk, 0) == expected.getKey(vk, 0)
+					&& actual.getKey(vk, KF_EXTENDED) == expected.getKey(vk, KF_EXTENDED)
+					&& actual.getModifiers(vk) == expected.getModifiers(vk);
+
+			for (int properties = 0; equal && properties < 0x100; properties++)
+				equal = actual.getChar(vk, properties) == expected.getChar(vk, properties);
+
+			if (!equal)
+				throw new IllegalStateException("traduo diferente do tradutor padro (vk: " + vk + ")");
+		}
+
+		return actual;
+	}
+
+	/**
+	 * Remove o arquivo temporrio do layout aps as medies.
+	 */
+
+	@TearDown
+	public void tearDown()
+	{
+		file.delete();
+	}
+
+	@Benchmark
+	public void translate(Blackhole blackhole)
+	{
+		for (int vk = VK_A; vk < VK_A + LETTERS; vk++)
+		{
+			blackhole.consume(keyTranslator.getKey(vk, 0));
+			blackhole.consume(keyTranslator.getChar(vk, KP_SHIFT));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(VK_COUNT)
+	public void translateAll(Blackhole blackhole)
+	{
+		for (int vk = 0; vk < VK_COUNT; vk++)
+		{
+			blackhole.consume(keyTranslator.getKey(vk, 0));
+			blackhole.consume(keyTranslator.getChar(vk, PROPERTIES[vk & 3]));
+		}
+	}
+
+	@Benchmark
+	public KeyboardLayout loadCached() throws InputException
+	{
+		return loader.load(file);
+	}
+
+	@Benchmark
+	public KeyboardLayout loadCold() throws InputException
+	{
+		loader.clear();
+
+		return loader.load(file);
+	}
+}
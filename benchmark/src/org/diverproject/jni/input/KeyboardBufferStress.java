@@ -0,0 +1,441 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.PackedKeyEvent.NONE;
+
+import java.util.Arrays;
+
+import org.diverproject.util.Util;
+import org.diverproject.util.collection.Queue;
+import org.diverproject.util.collection.abstraction.DynamicQueue;
+
+/**
+ * <h1>Teste de Estresse da Fila de Espera</h1>
+ *
+ * <p>Insere milhes de eventos na fila de espera do teclado por uma ou mais threads produtoras enquanto
+ * uma thread consumidora os retira, verificando que nenhum evento foi perdido e que tanto os eventos de
+ * cada produtor quanto os nmeros de sequncia foram retirados em ordem. So comparados o buffer circular
+ * com um produtor, o buffer circular concorrente com diversos produtores e a fila sincronizada usada antes
+ * dos buffers circulares, onde o processador dormia 1 ms segurando o bloqueio da fila quando vazia.</p>
+ *
+ * <p>O tempo de cada insero  medido na thread produtora, informando os percentis 50, 99 e 99,9 e o
+ * mximo. Nos buffers circulares um produtor que encontra o buffer cheio cede a thread e tenta novamente,
+ * para que nenhum evento seja perdido. Apenas a tentativa que inseriu o evento  medida e as tentativas com
+ * o buffer cheio so contadas. Cada fila  executada duas vezes e apenas a segunda  informada, a primeira
+ * serve para aquecer o compilador da JVM.</p>
+ *
+ * <p>No  uma medio do JMH, deve ser executado diretamente com a quantidade de eventos e de produtores
+ * do buffer concorrente opcionais: <code>KeyboardBufferStress [eventos] [produtores]</code>. Termina com
+ * cdigo 1 se algum evento for perdido ou retirado fora de ordem, ou se o percentil 99 do buffer circular
+ * no for menor que o da fila sincronizada.</p>
+ *
+ * @see KeyboardRingBuffer
+ * @see KeyboardConcurrentRingBuffer
+ *
+ * @author Andrew
+ */
+
+public final class KeyboardBufferStress
+{
+	/**
+	 * Quantidade padro de eventos inseridos em cada execuo.
+	 */
+	private static final int DEFAULT_EVENTS = 4000000;
+
+	/**
+	 * Quantidade padro de threads produtoras do buffer concorrente.
+	 */
+	private static final int DEFAULT_PRODUCERS = 4;
+
+	/**
+	 * Capacidade dos buffers circulares, a mesma usada pelo sistema de entrada.
+	 */
+	private static final int CAPACITY = KeyboardBuffer.DEFAULT_CAPACITY;
+
+	/**
+	 * No deve ser instanciado, possui apenas o procedimento principal.
+	 */
+
+	private KeyboardBufferStress()
+	{
+	}
+
+	/**
+	 * Procedimento principal que executa o teste de estresse em cada fila de espera.
+	 * @param args quantidade de eventos e quantidade de produtores do buffer concorrente, ambos opcionais.
+	 * @throws InterruptedException se a thread principal for interrompida esperando os produtores.
+	 */
+
+	public static void main(String[] args) throws InterruptedException
+	{
+		int events = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EVENTS;
+		int producers = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PRODUCERS;
+
+		if (producers < 1 || producers > 0xFF)
+			throw new IllegalArgumentException("quantidade de produtores invlida: " + producers);
+
+		Result queue = null;
+		Result ring = null;
+		Result concurrent = null;
+
+		for (int run = 0; run < 2; run++)
+		{
+			queue = run("synchronized", new SynchronizedQueue(), 1, events);
+			ring = run("ring", new KeyboardRingBuffer(CAPACITY), 1, events);
+			concurrent = run("concurrent", new KeyboardConcurrentRingBuffer(CAPACITY), producers, events);
+		}
+
+		System.out.println(queue);
+		System.out.println(ring);
+		System.out.println(concurrent);
+
+		boolean failed = !queue.isValid() || !ring.isValid() || !concurrent.isValid();
+
+		if (ring.percentile(0.99) >= queue.percentile(0.99))
+		{
+			System.out.println("percentil 99 do buffer circular no  menor que o da fila sincronizada");
+			failed = true;
+		}
+
+		System.exit(failed ? 1 : 0);
+	}
+
+	/**
+	 * Executa uma fila de espera, inserindo os eventos pelos produtores e retirando-os nesta thread.
+	 * @param name nome da fila de espera, usado apenas para exibir o resultado.
+	 * @param buffer fila de espera vazia que ser testada.
+	 * @param producers quantidade de threads produtoras.
+	 * @param events quantidade de eventos inseridos, dividida entre os produtores.
+	 * @return aquisio do resultado da execuo.
+	 * @throws InterruptedException se a thread for interrompida esperando os produtores.
+	 */
+
+	private static Result run(String name, KeyboardBuffer buffer, int producers, int events) throws InterruptedException
+	{
+		Result result = new Result(name, producers, events / producers);
+		Thread threads[] = new Thread[producers];
+
+		for (int i = 0; i < producers; i++)
+		{
+			int id = i;
+
+			threads[i] = new Thread(() -> produce(buffer, id, result), "JNI KStress " + i);
+			threads[i].setDaemon(true);
+		}
+
+		long start = System.nanoTime();
+
+		for (Thread thread : threads)
+			thread.start();
+
+		int next[] = new int[producers];
+		long sequence = 0;
+
+		while (true)
+		{
+			long event = buffer.poll();
+
+			if (event == NONE)
+			{
+				if (!isAlive(threads) && buffer.isEmpty())
+					break;
+
+				Thread.yield();
+				continue;
+			}
+
+			int id = PackedKeyEvent.getKey(event);
+			int counter = PackedKeyEvent.getVirtualKey(event) << 16 | PackedKeyEvent.getChar(event);
+
+			if (counter != (next[id]++ & 0xFFFFFF) || buffer.getSequence() != ++sequence)
+				result.reordered++;
+
+			result.consumed++;
+		}
+
+		for (Thread thread : threads)
+			thread.join();
+
+		result.elapsed = System.nanoTime() - start;
+
+		return result;
+	}
+
+	/**
+	 * Procedimento executado por cada thread produtora, insere os seus eventos medindo cada insero.
+	 * O evento identifica o produtor pela tecla e a sua posio na ordem do produtor pela tecla virtual e caracter.
+	 * @param buffer fila de espera onde os eventos sero inseridos.
+	 * @param id identificao do produtor, usado como tecla dos eventos.
+	 * @param result resultado da execuo onde os tempos de insero sero registrados.
+	 */
+
+	private static void produce(KeyboardBuffer buffer, int id, Result result)
+	{
+		long latencies[] = result.latencies[id];
+		long full = 0;
+
+		for (int i = 0; i < latencies.length; i++)
+		{
+			long event = PackedKeyEvent.pack(KT_PRESSED, i >>> 16, id, (char) i, 0);
+			long sequence = buffer.nextSequence();
+			long start = System.nanoTime();
+
+			while (!buffer.offer(event, sequence, start))
+			{
+				full++;
+				Thread.yield();
+				start = System.nanoTime();
+			}
+
+			latencies[i] = System.nanoTime() - start;
+		}
+
+		synchronized (result)
+		{
+			result.full += full;
+		}
+	}
+
+	/**
+	 * Verifica se alguma das threads produtoras ainda est inserindo eventos.
+	 * @param threads vetor contendo as threads produtoras.
+	 * @return true se houver alguma thread ainda viva ou false caso contrrio.
+	 */
+
+	private static boolean isAlive(Thread threads[])
+	{
+		for (Thread thread : threads)
+			if (thread.isAlive())
+				return true;
+
+		return false;
+	}
+
+	/**
+	 * <h1>Resultado</h1>
+	 *
+	 * <p>Contagens e tempos de insero de uma execuo do teste de estresse.</p>
+	 */
+
+	private static final class Result
+	{
+		/**
+		 * Nome da fila de espera testada.
+		 */
+		final String name;
+
+		/**
+		 * Tempo de cada insero em nanossegundos, um vetor para cada produtor.
+		 */
+		final long latencies[][];
+
+		/**
+		 * Quantidade de eventos inseridos por todos os produtores.
+		 */
+		final long produced;
+
+		/**
+		 * Quantidade de eventos retirados pelo consumidor.
+		 */
+		long consumed;
+
+		/**
+		 * Quantidade de eventos retirados fora da ordem do seu produtor ou com lacuna na sequncia.
+		 */
+		long reordered;
+
+		/**
+		 * Quantidade de tentativas de insero que encontraram a fila cheia.
+		 */
+		long full;
+
+		/**
+		 * Tempo em nanossegundos desde o incio dos produtores at o ltimo evento retirado.
+		 */
+		long elapsed;
+
+		/**
+		 * Tempos de insero de todos os produtores ordenados, criado apenas quando consultado.
+		 */
+		private long sorted[];
+
+		/**
+		 * Constri um novo resultado sendo necessrio definir:
+		 * @param name nome da fila de espera testada.
+		 * @param producers quantidade de threads produtoras.
+		 * @param events quantidade de eventos inseridos por cada produtor.
+		 */
+
+		Result(String name, int producers, int events)
+		{
+			this.name = name;
+			this.latencies = new long[producers][events];
+			this.produced = (long) producers * events;
+		}
+
+		/**
+		 * Um resultado  vlido se todos os eventos foram retirados e em ordem.
+		 * @return true se nenhum evento foi perdido ou retirado fora de ordem.
+		 */
+
+		boolean isValid()
+		{
+			return consumed == produced && reordered == 0;
+		}
+
+		/**
+		 * Obtm um percentil dos tempos de insero de todos os produtores.
+		 * @param quantile frao dos tempos que so menores ou iguais ao percentil, entre 0 e 1.
+		 * @return aquisio do tempo de insero em nanossegundos no percentil.
+		 */
+
+		long percentile(double quantile)
+		{
+			if (sorted == null)
+			{
+				sorted = new long[(int) produced];
+
+				for (int i = 0; i < latencies.length; i++)
+					System.arraycopy(latencies[i], 0, sorted, i * latencies[i].length, latencies[i].length);
+
+				Arrays.sort(sorted);
+			}
+
+			return sorted[(int) Math.min(sorted.length - 1, (long) (quantile * sorted.length))];
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%-12s producers=%d produced=%d consumed=%d reordered=%d full=%d elapsed=%dms p50=%dns p99=%dns p99.9=%dns max=%dns",
+					name, latencies.length, produced, consumed, reordered, full, elapsed / 1000000,
+					percentile(0.5), percentile(0.99), percentile(0.999), percentile(1.0));
+		}
+	}
+
+	/**
+	 * <h1>Fila Sincronizada</h1>
+	 *
+	 * <p>Reproduo da fila de espera usada antes dos buffers circulares, uma fila dinmica de objetos de
+	 * evento onde produtor e consumidor usam o bloqueio da prpria fila. Quando vazia o consumidor dorme
+	 * 1 ms ainda segurando o bloqueio, como fazia o processador, bloqueando o produtor nesse perodo.</p>
+	 */
+
+	private static final class SynchronizedQueue implements KeyboardBuffer
+	{
+		/**
+		 * Fila dinmica com os objetos de evento, protegida pelo seu prprio bloqueio.
+		 */
+		private final Queue<KeyEvent> queue = new DynamicQueue<KeyEvent>();
+
+		/**
+		 * Quantidade de eventos na fila, alterada apenas com o bloqueio da fila.
+		 */
+		private int size;
+
+		/**
+		 * ltimo nmero de sequncia reservado pelo produtor.
+		 */
+		private long lastSequence;
+
+		/**
+		 * Nmero de sequncia do ltimo evento removido pelo consumidor.
+		 */
+		private long sequence;
+
+		@Override
+		public long nextSequence()
+		{
+			return ++lastSequence;
+		}
+
+		@Override
+		public boolean offer(long event, long sequence, long timestamp)
+		{
+			KeyEvent keyEvent = PackedKeyEvent.toKeyEvent(event);
+			keyEvent.setSequence(sequence);
+
+			synchronized (queue)
+			{
+				queue.offer(keyEvent);
+				size++;
+			}
+
+			return true;
+		}
+
+		@Override
+		public boolean discard()
+		{
+			return false;
+		}
+
+		@Override
+		public boolean fold(long event, long timestamp)
+		{
+			return false;
+		}
+
+		@Override
+		public long poll()
+		{
+			synchronized (queue)
+			{
+				if (!queue.isEmpty())
+				{
+					KeyEvent keyEvent = queue.poll();
+					size--;
+					sequence = keyEvent.getSequence();
+
+					return PackedKeyEvent.pack(keyEvent);
+				}
+
+				Util.sleep(1);
+			}
+
+			return NONE;
+		}
+
+		@Override
+		public long getTimestamp()
+		{
+			return 0;
+		}
+
+		@Override
+		public long getLastTimestamp()
+		{
+			return 0;
+		}
+
+		@Override
+		public long getSequence()
+		{
+			return sequence;
+		}
+
+		@Override
+		public boolean isEmpty()
+		{
+			synchronized (queue)
+			{
+				return queue.isEmpty();
+			}
+		}
+
+		@Override
+		public int size()
+		{
+			synchronized (queue)
+			{
+				return size;
+			}
+		}
+
+		@Override
+		public int capacity()
+		{
+			return Integer.MAX_VALUE;
+		}
+	}
+}
@@ -0,0 +1,357 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_A;
+import static org.diverproject.jni.input.enums.EnumVK.VK_A;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h1>Barramento de Teclado entre Processos</h1>
+ *
+ * <p>Executa um processo publicador e um processo leitor, duas JVMs separadas, sobre o mesmo arquivo
+ * circular de um barramento de teclado, como um jogo publicando para uma sobreposio no Linux. O leitor 
+ * iniciado primeiro atravs da fonte de barramento para teclado e o publicador publica em seguida, em rajadas,
+ * uma sequncia conhecida de eventos, menor que a capacidade do arquivo para que nenhum evento seja perdido.</p>
+ *
+ * <p>O leitor compara cada evento recebido com o evento esperado na mesma posio da sequncia e confere a
+ * posio final da fonte, que deve ter avanado exatamente a quantidade de eventos publicados. Enquanto o
+ * publicador mantm o barramento aberto, o processo coordenador confirma que o bloqueio do arquivo impede um
+ * segundo publicador em outro processo.</p>
+ *
+ * <p>No  uma medio do JMH, deve ser executado diretamente com o arquivo e a quantidade de eventos opcionais:
+ * <code>KeyboardBusProcesses [arquivo] [eventos]</code>. Sem arquivo  usado um arquivo temporrio, removido
+ * ao final. Os dois processos usam a mesma JVM e o mesmo classpath do coordenador, que termina com cdigo de
+ * sada 1 se algum deles falhar.</p>
+ *
+ * @see KeyboardBus
+ * @see BusKeyboardSource
+ *
+ * @author Andrew
+ */
+
+public final class KeyboardBusProcesses
+{
+	/**
+	 * Quantidade de registros do arquivo circular usado pelos processos.
+	 */
+	private static final int CAPACITY = 1 << 17;
+
+	/**
+	 * Quantidade padro de eventos publicados.
+	 */
+	private static final int DEFAULT_EVENTS = 100000;
+
+	/**
+	 * Quantidade de eventos publicados em cada rajada do publicador.
+	 */
+	private static final int BURST = 64;
+
+	/**
+	 * Pausa em nanossegundos entre duas rajadas do publicador.
+	 */
+	private static final long PAUSE = 100000L;
+
+	/**
+	 * Tempo mximo em milissegundos para que o leitor receba todos os eventos publicados.
+	 */
+	private static final int TIMEOUT = 30000;
+
+	/**
+	 * Linha escrita pelo leitor quando a fonte de barramento j estiver iniciada.
+	 */
+	private static final String READY = "ready";
+
+	/**
+	 * Incio da linha escrita pelo publicador quando todos os eventos forem publicados.
+	 */
+	private static final String PUBLISHED = "published";
+
+	/**
+	 * No deve ser instanciado, possui apenas o procedimento principal.
+	 */
+
+	private KeyboardBusProcesses()
+	{
+	}
+
+	/**
+	 * Procedimento principal do coordenador, ou de um dos processos quando iniciado pelo coordenador.
+	 * @param args arquivo e quantidade de eventos, opcionais, ou o papel do processo seguido do arquivo
+	 * e da quantidade de eventos (<code>--publisher</code> ou <code>--consumer</code>).
+	 * @throws Exception se houver falha ao abrir o barramento ou na comunicao entre os processos.
+	 */
+
+	public static void main(String[] args) throws Exception
+	{
+		if (args.length == 3 && args[0].equals("--publisher"))
+			publisher(new File(args[1]), Integer.parseInt(args[2]));
+
+		else if (args.length == 3 && args[0].equals("--consumer"))
+			consumer(new File(args[1]), Integer.parseInt(args[2]));
+
+		else
+		{
+			File file = args.length > 0 ? new File(args[0]) : Files.createTempFile("jni-kbus", ".ring").toFile();
+			int events = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_EVENTS;
+
+			if (events < 1 || events >= CAPACITY)
+				throw new IllegalArgumentException("quantidade de eventos invlida: " + events);
+
+			try {
+				if (!coordinate(file, events))
+					System.exit(1);
+			} finally {
+				if (args.length == 0)
+					file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Cria o arquivo do barramento, inicia o leitor e o publicador e confere o resultado de cada um.
+	 * @param file arquivo circular do barramento.
+	 * @param events quantidade de eventos publicados.
+	 * @return true se os dois processos terminarem corretamente ou false caso contrrio.
+	 * @throws Exception se houver falha ao abrir o barramento ou na comunicao entre os processos.
+	 */
+
+	private static boolean coordinate(File file, int events) throws Exception
+	{
+		KeyboardBus bus = new KeyboardBus(file, CAPACITY);
+		bus.open();
+		bus.close();
+
+		boolean success = true;
+
+		Process consumer = launch("--consumer", file, events);
+		BufferedReader consumerOutput = output(consumer);
+
+		if (!forward("consumer", consumerOutput, READY))
+		{
+			finish("consumer", consumer, consumerOutput);
+			return false;
+		}
+
+		Process publisher = launch("--publisher", file, events);
+		BufferedReader publisherOutput = output(publisher);
+
+		if (forward("publisher", publisherOutput, PUBLISHED))
+		{
+			try {
+
+				new KeyboardBus(file, CAPACITY).open();
+				System.out.println("coordinator: segundo publicador aberto com o barramento em uso");
+				success = false;
+
+			} catch (InputException e) {
+				System.out.println("coordinator: segundo publicador recusado: " + e.getMessage());
+			}
+		}
+
+		OutputStream input = publisher.getOutputStream();
+		input.write('\n');
+		input.close();
+
+		success &= finish("publisher", publisher, publisherOutput);
+		success &= finish("consumer", consumer, consumerOutput);
+
+		System.out.println(success ? "ok" : "falhou");
+
+		return success;
+	}
+
+	/**
+	 * Inicia um dos processos com a mesma JVM e o mesmo classpath do coordenador.
+	 * @param role papel do processo (<code>--publisher</code> ou <code>--consumer</code>).
+	 * @param file arquivo circular do barramento.
+	 * @param events quantidade de eventos publicados.
+	 * @return aquisio do processo iniciado.
+	 * @throws IOException se o processo no puder ser iniciado.
+	 */
+
+	private static Process launch(String role, File file, int events) throws IOException
+	{
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+		return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), KeyboardBusProcesses.class.getName(), role, file.getPath(), Integer.toString(events))
+				.redirectErrorStream(true)
+				.start();
+	}
+
+	/**
+	 * Obtm a sada de um processo, que tambm inclui a sua sada de erros.
+	 * @param process processo do qual a sada ser lida.
+	 * @return aquisio do leitor da sada do processo.
+	 */
+
+	private static BufferedReader output(Process process)
+	{
+		return new BufferedReader(new InputStreamReader(process.getInputStream()));
+	}
+
+	/**
+	 * Repete as linhas da sada de um processo at encontrar a linha que comea com o prefixo esperado.
+	 * @param role nome do processo usado em cada linha repetida.
+	 * @param output sada do processo.
+	 * @param prefix incio da linha esperada ou null para repetir at o fim da sada.
+	 * @return true se a linha foi encontrada ou false se o processo terminou antes.
+	 * @throws IOException se houver falha ao ler a sada do processo.
+	 */
+
+	private static boolean forward(String role, BufferedReader output, String prefix) throws IOException
+	{
+		String line;
+
+		while ((line = output.readLine()) != null)
+		{
+			System.out.println(role + ": " + line);
+
+			if (prefix != null && line.startsWith(prefix))
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Repete o restante da sada de um processo e aguarda o seu trmino.
+	 * @param role nome do processo usado em cada linha repetida.
+	 * @param process processo aguardado.
+	 * @param output sada do processo.
+	 * @return true se o processo terminou com cdigo de sada zero ou false caso contrrio.
+	 * @throws Exception se houver falha ao ler a sada ou a thread for interrompida aguardando o processo.
+	 */
+
+	private static boolean finish(String role, Process process, BufferedReader output) throws Exception
+	{
+		forward(role, output, null);
+
+		int status = process.waitFor();
+
+		if (status != 0)
+			System.out.println(role + ": cdigo de sada " + status);
+
+		return status == 0;
+	}
+
+	/**
+	 * Procedimento do processo publicador, publica os eventos e mantm o barramento aberto at o coordenador responder.
+	 * @param file arquivo circular do barramento.
+	 * @param events quantidade de eventos publicados.
+	 * @throws Exception se o barramento no puder ser aberto ou houver falha ao ler a resposta do coordenador.
+	 */
+
+	private static void publisher(File file, int events) throws Exception
+	{
+		KeyboardBus bus = new KeyboardBus(file, CAPACITY);
+		bus.open();
+
+		long first = bus.getSequence() + 1;
+
+		for (int i = 0; i < events; i++)
+		{
+			bus.publish(event(i), System.nanoTime());
+
+			if ((i + 1) % BURST == 0)
+				LockSupport.parkNanos(PAUSE);
+		}
+
+		System.out.printf("%s %d eventos (sequence: %d-%d)%n", PUBLISHED, bus.getPublished(), first, bus.getSequence());
+		System.out.flush();
+
+		System.in.read();
+		bus.close();
+
+		if (bus.getPublished() != events || bus.getSequence() != first + events - 1)
+			System.exit(1);
+	}
+
+	/**
+	 * Procedimento do processo leitor, recebe os eventos publicados e confere cada um e a posio final da fonte.
+	 * @param file arquivo circular do barramento.
+	 * @param events quantidade de eventos publicados.
+	 * @throws Exception se a fonte no puder ser iniciada ou a thread for interrompida esperando os eventos.
+	 */
+
+	private static void consumer(File file, int events) throws Exception
+	{
+		Recorder recorder = new Recorder();
+		BusKeyboardSource source = new BusKeyboardSource(file);
+		source.start(recorder);
+
+		long first = source.getCursor();
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+
+		System.out.println(READY);
+		System.out.flush();
+
+		while (source.getReceived() + source.getLost() < events && source.getFailure() == null && System.currentTimeMillis() < deadline)
+			Thread.sleep(1);
+
+		source.stop();
+
+		long cursor = source.getCursor();
+		boolean success = source.getFailure() == null && source.getReceived() == events && source.getLost() == 0 &&
+				recorder.mismatches == 0 && cursor == first + events;
+
+		System.out.printf("received=%d lost=%d mismatches=%d cursor=%d-%d failure=%s%n",
+				source.getReceived(), source.getLost(), recorder.mismatches, first, cursor, source.getFailure());
+
+		if (!success)
+			System.exit(1);
+	}
+
+	/**
+	 * Obtm o evento publicado em uma posio da sequncia, alternando entre pressionar e liberar as letras.
+	 * @param index posio do evento na sequncia publicada.
+	 * @return aquisio do valor contendo o evento de tecla compactado.
+	 */
+
+	private static long event(int index)
+	{
+		int letter = (index / 2) % 26;
+
+		return PackedKeyEvent.pack(index % 2 == 0 ? KT_PRESSED : KT_RELEASED, VK_A + letter, KEY_A + letter, (char) ('a' + letter), 0);
+	}
+
+	/**
+	 * <h1>Receptor Verificador</h1>
+	 *
+	 * <p>Compara cada evento repassado pela fonte de barramento com o evento esperado na mesma posio
+	 * da sequncia publicada, sendo chamado apenas pela thread da fonte.</p>
+	 */
+
+	private static final class Recorder implements KeyboardReceiver
+	{
+		/**
+		 * Posio na sequncia publicada do prximo evento esperado.
+		 */
+		int index;
+
+		/**
+		 * Quantidade de eventos diferentes do esperado, incluindo as teclas virtuais inesperadas.
+		 */
+		int mismatches;
+
+		@Override
+		public void receiveKey(int type, int vk, int flags)
+		{
+			mismatches++;
+		}
+
+		@Override
+		public void receiveEvent(long event)
+		{
+			if (event != event(index++))
+				mismatches++;
+		}
+	}
+}
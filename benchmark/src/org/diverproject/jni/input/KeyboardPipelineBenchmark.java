@@ -0,0 +1,208 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KT_TYPED;
+import static org.diverproject.jni.input.enums.EnumVK.VK_A;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <h1>Medio do Despache de Teclado</h1>
+ *
+ * <p>Mede o caminho de um evento desde o apanhador para teclado at o despachante, com o processador
+ * de teclado executando na sua prpria thread, para cada fila de espera, estratgia de espera e despachante.
+ * A medio <code>receiveKey</code> mede apenas o custo na thread da fonte de eventos, inserindo eventos
+ * sem esperar o processador, enquanto <code>drainAndDispatch</code> insere um lote de eventos e
+ * aguarda at que todos tenham sido despachados. J <code>frameDrain</code> insere o mesmo lote em um
+ * apanhador sem thread do processador e o despacha na prpria thread, como no modo sncrono.</p>
+ *
+ * <p>Os despachantes so proxies dinmicos cujo custo de chamada  medido por <code>dispatchBaseline</code>.
+ * A quantidade de combinaes  grande, use <code>-p</code> para restringir os parmetros desejados.</p>
+ *
+ * @see KeyboardPicker
+ * @see KeyboardProcessor
+ * @see DispatchCounter
+ *
+ * @author Andrew
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class KeyboardPipelineBenchmark
+{
+	/**
+	 * Quantidade de eventos inseridos em cada lote da medio do despache.
+	 */
+	private static final int BATCH = 256;
+
+	/**
+	 * Quantidade de teclas virtuais usadas em ordem circular (letras de A a P).
+	 */
+	private static final int KEYS = 16;
+
+	/**
+	 * Estratgia de espera usada pelo processador de teclado.
+	 */
+	@Param({ "backoff", "spin", "yield", "park", "blocking" })
+	public String waitStrategy;
+
+	/**
+	 * Determina se a fila de espera usada ser a concorrente (diversos produtores).
+	 */
+	@Param({ "false", "true" })
+	public boolean concurrent;
+
+	/**
+	 * Despachante que ir receber os eventos: <code>packed</code> (compactados),
+	 * <code>event</code> (objetos criados) ou <code>pooled</code> (objetos reciclados).
+	 */
+	@Param({ "packed", "event", "pooled" })
+	public String dispatcher;
+
+	/**
+	 * Determina se as mtricas do despache sero registradas pelo processador.
+	 */
+	@Param({ "false", "true" })
+	public boolean metrics;
+
+	/**
+	 * Contador dos eventos despachados pelos despachantes definidos.
+	 */
+	private DispatchCounter counter;
+
+	/**
+	 * Despachante compactado usado pela medio do custo de chamada do proxy.
+	 */
+	private PackedKeyboardDispatcher baseline;
+
+	/**
+	 * Apanhador para teclado que ir receber os eventos medidos.
+	 */
+	private KeyboardPicker picker;
+
+	/**
+	 * Apanhador para teclado sem thread do processador, despachado pela prpria medio.
+	 */
+	private KeyboardPicker synchronous;
+
+	/**
+	 * Prxima tecla virtual que ser inserida.
+	 */
+	private int next;
+
+	/**
+	 * Define os despachantes no sistema de entrada e inicia o apanhador e o processador de teclado.
+	 * @throws InputException apenas se os despachantes anteriores no puderem ser interrompidos.
+	 */
+
+	@Setup
+	public void setup() throws InputException
+	{
+		InputSystem system = InputSystem.getInstance();
+
+		counter = new DispatchCounter();
+		baseline = new DispatchCounter().packed();
+
+		system.setPackedKeyboardDispatcher(dispatcher.equals("packed") ? counter.packed() : null);
+		system.setKeyboardDispatcher(dispatcher.equals("packed") ? null : counter.keyboard());
+
+		KeyboardBuffer buffer = concurrent ? new KeyboardConcurrentRingBuffer(KeyboardBuffer.DEFAULT_CAPACITY) : new KeyboardRingBuffer(KeyboardBuffer.DEFAULT_CAPACITY);
+		KeyEventPool pool = dispatcher.equals("pooled") ? new KeyEventPool(KeyboardBuffer.DEFAULT_CAPACITY) : null;
+
+		picker = new KeyboardPicker(new KeyboardPickerConfig(buffer, newWaitStrategy(waitStrategy)).setPool(pool).setMetrics(metrics ? new KeyboardMetrics() : null));
+
+		buffer = concurrent ? new KeyboardConcurrentRingBuffer(KeyboardBuffer.DEFAULT_CAPACITY) : new KeyboardRingBuffer(KeyboardBuffer.DEFAULT_CAPACITY);
+		pool = dispatcher.equals("pooled") ? new KeyEventPool(KeyboardBuffer.DEFAULT_CAPACITY) : null;
+
+		synchronous = new KeyboardPicker(new KeyboardPickerConfig(buffer, newWaitStrategy(waitStrategy)).setPool(pool).setMetrics(metrics ? new KeyboardMetrics() : null).setThreadFactory(null));
+	}
+
+	/**
+	 * Interrompe o processador de teclado e remove os despachantes do sistema de entrada.
+	 * @throws InputException apenas se os despachantes no puderem ser interrompidos.
+	 */
+
+	@TearDown
+	public void tearDown() throws InputException
+	{
+		picker.shutdown();
+		synchronous.shutdown();
+
+		InputSystem system = InputSystem.getInstance();
+		system.setPackedKeyboardDispatcher(null);
+		system.setKeyboardDispatcher(null);
+	}
+
+	@Benchmark
+	public void receiveKey()
+	{
+		picker.receiveKey(KT_TYPED, VK_A + (next++ & (KEYS - 1)), 0);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void drainAndDispatch()
+	{
+		long target = counter.getDispatched() + BATCH;
+
+		for (int i = 0; i < BATCH; i++)
+			picker.receiveKey(KT_TYPED, VK_A + (next++ & (KEYS - 1)), 0);
+
+		counter.await(target);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int frameDrain()
+	{
+		for (int i = 0; i < BATCH; i++)
+			synchronous.receiveKey(KT_TYPED, VK_A + (next++ & (KEYS - 1)), 0);
+
+		return synchronous.drain();
+	}
+
+	@Benchmark
+	public void dispatchBaseline()
+	{
+		baseline.dispatch(PackedKeyEvent.pack(KT_TYPED, VK_A, 0, 'a', 0));
+	}
+
+	/**
+	 * Cria uma nova estratgia de espera a partir do seu nome no parmetro da medio.
+	 * @param name nome da estratgia de espera: backoff, spin, yield, park ou blocking.
+	 * @return aquisio de uma nova estratgia de espera do tipo desejado.
+	 */
+
+	static KeyboardWaitStrategy newWaitStrategy(String name)
+	{
+		switch (name)
+		{
+			case "spin": return new SpinWaitStrategy();
+			case "yield": return new YieldWaitStrategy();
+			case "park": return new ParkWaitStrategy();
+			case "blocking": return new BlockingWaitStrategy();
+			case "backoff": return new BackoffWaitStrategy();
+		}
+
+		throw new InputRuntimeException("estratgia de espera desconhecida (name: %s)", name);
+	}
+}
@@ -0,0 +1,223 @@
+package org.diverproject.jni.input;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h1>Latncia e Consumo das Estratgias de Espera</h1>
+ *
+ * <p>Mede para cada estratgia de espera o que a medio de vazo do processador no mede: o tempo entre
+ * a sinalizao de um evento e o retorno da espera na thread que aguardava, e o tempo de CPU consumido por
+ * essa thread enquanto no houver eventos. A thread de espera repete <code>idle()</code> como o processador
+ * para teclado, com a quantidade de tentativas crescendo enquanto no houver sinais.</p>
+ *
+ * <p>O consumo  medido primeiro, pelo tempo de CPU da thread de espera (<code>ThreadMXBean</code>) durante
+ * um intervalo sem sinais, informado como porcentagem de um processador. A latncia  medida em seguida, por
+ * sinais separados por uma pausa, para que a thread de espera volte a esperar como entre duas teclas.</p>
+ *
+ * <p>No  uma medio do JMH, deve ser executado diretamente com a quantidade de sinais, a pausa entre os
+ * sinais e o intervalo sem sinais opcionais: <code>KeyboardWaitLatency [sinais] [pausa ms] [intervalo ms]</code>.</p>
+ *
+ * @see KeyboardWaitStrategy
+ * @see KeyboardPipelineBenchmark
+ *
+ * @author Andrew
+ */
+
+public final class KeyboardWaitLatency
+{
+	/**
+	 * Nome das estratgias de espera medidas, os mesmos da medio do processador.
+	 */
+	private static final String STRATEGIES[] = { "spin", "yield", "park", "blocking", "backoff" };
+
+	/**
+	 * Quantidade padro de sinais medidos para cada estratgia.
+	 */
+	private static final int DEFAULT_SIGNALS = 1000;
+
+	/**
+	 * Pausa padro em milissegundos entre dois sinais.
+	 */
+	private static final int DEFAULT_PAUSE = 5;
+
+	/**
+	 * Intervalo padro em milissegundos sem sinais em que o consumo da CPU  medido.
+	 */
+	private static final int DEFAULT_IDLE = 1000;
+
+	/**
+	 * Tempo em milissegundos para que a thread de espera alcance a sua espera mais longa antes das medies.
+	 */
+	private static final int SETTLE = 100;
+
+	/**
+	 * No deve ser instanciado, possui apenas o procedimento principal.
+	 */
+
+	private KeyboardWaitLatency()
+	{
+	}
+
+	/**
+	 * Procedimento principal que mede cada estratgia de espera.
+	 * @param args quantidade de sinais, pausa e intervalo sem sinais em milissegundos, todos opcionais.
+	 * @throws InterruptedException se a thread principal for interrompida esperando a thread de espera.
+	 */
+
+	public static void main(String[] args) throws InterruptedException
+	{
+		int signals = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIGNALS;
+		int pause = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PAUSE;
+		int idle = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_IDLE;
+
+		if (signals < 1)
+			throw new IllegalArgumentException("quantidade de sinais invlida: " + signals);
+
+		ThreadMXBean management = ManagementFactory.getThreadMXBean();
+
+		if (!management.isThreadCpuTimeSupported())
+			throw new UnsupportedOperationException("tempo de CPU por thread no suportado pela JVM");
+
+		management.setThreadCpuTimeEnabled(true);
+
+		for (String name : STRATEGIES)
+			System.out.println(run(name, management, signals, pause, idle));
+	}
+
+	/**
+	 * Mede uma estratgia de espera, primeiro o consumo sem sinais e em seguida a latncia dos sinais.
+	 * @param name nome da estratgia de espera.
+	 * @param management gerenciador das threads usado para obter o tempo de CPU da thread de espera.
+	 * @param signals quantidade de sinais medidos.
+	 * @param pause pausa em milissegundos entre dois sinais.
+	 * @param idle intervalo em milissegundos sem sinais.
+	 * @return aquisio da descrio do resultado da medio.
+	 * @throws InterruptedException se a thread for interrompida esperando a thread de espera.
+	 */
+
+	private static String run(String name, ThreadMXBean management, int signals, int pause, int idle) throws InterruptedException
+	{
+		Waiter waiter = new Waiter(KeyboardPipelineBenchmark.newWaitStrategy(name), signals);
+		Thread thread = new Thread(waiter, "JNI KWait " + name);
+		thread.setDaemon(true);
+		thread.start();
+
+		Thread.sleep(SETTLE);
+
+		long cpu = management.getThreadCpuTime(thread.getId());
+		long start = System.nanoTime();
+
+		Thread.sleep(idle);
+
+		double usage = 100.0 * (management.getThreadCpuTime(thread.getId()) - cpu) / (System.nanoTime() - start);
+
+		for (int i = 0; i < signals; i++)
+		{
+			LockSupport.parkNanos(pause * 1000000L);
+
+			while (waiter.woken < i)
+				Thread.yield();
+
+			waiter.signalled = System.nanoTime();
+			waiter.waitStrategy.signal();
+		}
+
+		while (waiter.woken < signals)
+			Thread.yield();
+
+		waiter.running = false;
+		waiter.waitStrategy.signal();
+		thread.join();
+
+		long latencies[] = waiter.latencies;
+		Arrays.sort(latencies);
+
+		return String.format("%-8s idle cpu=%6.2f%% wake p50=%dns p99=%dns p99.9=%dns max=%dns", name, usage,
+				percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999), latencies[latencies.length - 1]);
+	}
+
+	/**
+	 * Obtm um percentil de tempos j ordenados.
+	 * @param sorted tempos em nanossegundos em ordem crescente.
+	 * @param quantile percentil desejado entre zero e um.
+	 * @return aquisio do tempo no percentil desejado.
+	 */
+
+	private static long percentile(long sorted[], double quantile)
+	{
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+	}
+
+	/**
+	 * <h1>Thread de Espera</h1>
+	 *
+	 * <p>Repete a espera da estratgia como o processador para teclado, registrando o tempo desde o ltimo
+	 * sinal sempre que a espera retornar com um sinal ainda no percebido.</p>
+	 */
+
+	private static final class Waiter implements Runnable
+	{
+		/**
+		 * Estratgia de espera medida.
+		 */
+		final KeyboardWaitStrategy waitStrategy;
+
+		/**
+		 * Tempo em nanossegundos entre cada sinal e o retorno da espera.
+		 */
+		final long latencies[];
+
+		/**
+		 * Momento do ltimo sinal ainda no percebido ou zero se no houver.
+		 */
+		volatile long signalled;
+
+		/**
+		 * Quantidade de sinais percebidos, alterada apenas pela thread de espera.
+		 */
+		volatile int woken;
+
+		/**
+		 * Determina se a thread de espera deve continuar esperando.
+		 */
+		volatile boolean running;
+
+		/**
+		 * Cria uma nova thread de espera sendo necessrio definir:
+		 * @param waitStrategy estratgia de espera medida.
+		 * @param signals quantidade de sinais que sero medidos.
+		 */
+
+		Waiter(KeyboardWaitStrategy waitStrategy, int signals)
+		{
+			this.waitStrategy = waitStrategy;
+			this.latencies = new long[signals];
+			this.running = true;
+		}
+
+		@Override
+		public void run()
+		{
+			int attempts = 0;
+
+			while (running)
+			{
+				long signalled = this.signalled;
+
+				if (signalled != 0)
+				{
+					latencies[woken] = System.nanoTime() - signalled;
+					this.signalled = 0;
+					woken++;
+					attempts = 0;
+				}
+
+				else
+					waitStrategy.idle(attempts < Integer.MAX_VALUE ? ++attempts : attempts);
+			}
+		}
+	}
+}
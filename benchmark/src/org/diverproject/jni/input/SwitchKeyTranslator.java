@@ -0,0 +1,342 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.*;
+import static org.diverproject.jni.input.enums.EnumCH.*;
+import static org.diverproject.jni.input.enums.EnumKEY.*;
+import static org.diverproject.jni.input.enums.EnumVK.*;
+
+/**
+ * <h1>Tradutor de Teclas por Seleo</h1>
+ *
+ * <p>Tradutor de teclas com o mesmo layout do tradutor padro, porm traduzido por um <code>switch</code>
+ * em cada consulta, como era feito pela DLL antes do tradutor por tabelas. Os caracteres so escolhidos
+ * conforme os modificadores no momento da consulta, pelos mesmos critrios das macros <code>CASE</code>
+ * e <code>ALTERNATIVE</code> da DLL, ao invs de serem obtidos de um plano pr-calculado.</p>
+ *
+ * <p>Usado apenas pelas medies, para comparar a traduo por tabelas com a traduo anterior.</p>
+ *
+ * @see TableKeyTranslator
+ * @see KeyTranslatorBenchmark
+ *
+ * @author Andrew
+ */
+
+public class SwitchKeyTranslator implements KeyTranslator
+{
+	@Override
+	public boolean isIgnored(int vk)
+	{
+		switch (vk)
+		{
+			case VK_CLEAR:
+			case VK_KANA:
+			case VK_JUNJA:
+			case VK_FINAL:
+			case VK_HANJA:
+			case VK_CONVERT:
+			case VK_NONCONVERT:
+			case VK_ACCEPT:
+			case VK_MODECHANGE:
+			case VK_SELECT:
+			case VK_PRINT:
+			case VK_EXECUTE:
+			case VK_HELP:
+			case VK_SLEEP:
+			case VK_BROWSER_BACK:
+			case VK_BROWSER_FORWARD:
+			case VK_BROWSER_REFRESH:
+			case VK_BROWSER_STOP:
+			case VK_BROWSER_SEARCH:
+			case VK_BROWSER_FAVORITES:
+			case VK_BROWSER_HOME:
+			case VK_VOLUME_MUTE:
+			case VK_VOLUME_DOWN:
+			case VK_VOLUME_UP:
+			case VK_MEDIA_NEXT_TRACK:
+			case VK_MEDIA_PREV_TRACK:
+			case VK_MEDIA_STOP:
+			case VK_MEDIA_PLAY_PAUSE:
+			case VK_LAUNCH_MAIL:
+			case VK_LAUNCH_MEDIA_SELECT:
+			case VK_LAUNCH_APP1:
+			case VK_LAUNCH_APP2:
+			case VK_PROCESSKEY:
+			case VK_PACKET:
+			case VK_ATTN:
+			case VK_CRSEL:
+			case VK_EXSEL:
+			case VK_EREOF:
+			case VK_PLAY:
+			case VK_ZOOM:
+			case VK_NONAME:
+			case VK_PA1:
+			case VK_OEM_8:
+			case VK_OEM_CLEAR:
+				return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int getKey(int vk, int flags)
+	{
+		if (vk == VK_RETURN && (flags & KF_EXTENDED) != 0)
+			return KEY_NUMPAD_ENTER;
+
+		switch (vk)
+		{
+			case VK_TAB:	return KEY_TAB;
+			case VK_RETURN:	return KEY_ENTER;
+			case VK_SPACE:	return KEY_SPACE;
+			case VK_SHIFT:	return KEY_LEFT_SHIFT;
+			case VK_CONTROL:	return KEY_LEFT_CONTROL;
+			case VK_MENU:	return KEY_LEFT_ALT;
+			case VK_BACK:	return KEY_BACKSPACE;
+			case VK_PAUSE:	return KEY_PAUSE_BREAK;
+			case VK_ESCAPE:	return KEY_ESCAPE;
+			case VK_PRIOR:	return KEY_PAGE_UP;
+			case VK_NEXT:	return KEY_PAGE_DOWN;
+			case VK_END:	return KEY_END;
+			case VK_HOME:	return KEY_HOME;
+			case VK_LEFT:	return KEY_LEFT;
+			case VK_UP:	return KEY_UP;
+			case VK_RIGHT:	return KEY_RIGHT;
+			case VK_DOWN:	return KEY_DOWN;
+			case VK_SNAPSHOT:	return KEY_PRINT_SCREEN;
+			case VK_INSERT:	return KEY_INSERT;
+			case VK_DELETE:	return KEY_DELETE;
+			case VK_NUMLOCK:	return KEY_NUMLOCK;
+			case VK_SCROLL:	return KEY_SCROLL_LOCK;
+			case VK_LWIN:	return KEY_LEFT_WINDOW;
+			case VK_RWIN:	return KEY_RIGHT_WINDOW;
+			case VK_APPS:	return KEY_APPLICATIONS;
+			case VK_CAPITAL:	return KEY_CAPSLOCK;
+			case VK_LSHIFT:	return KEY_LEFT_SHIFT;
+			case VK_RSHIFT:	return KEY_RIGHT_SHIFT;
+			case VK_LCONTROL:	return KEY_LEFT_CONTROL;
+			case VK_RCONTROL:	return KEY_RIGHT_CONTROL;
+			case VK_LMENU:	return KEY_LEFT_ALT;
+			case VK_RMENU:	return KEY_RIGHT_ALT;
+			case VK_0:	return KEY_0;
+			case VK_1:	return KEY_1;
+			case VK_2:	return KEY_2;
+			case VK_3:	return KEY_3;
+			case VK_4:	return KEY_4;
+			case VK_5:	return KEY_5;
+			case VK_6:	return KEY_6;
+			case VK_7:	return KEY_7;
+			case VK_8:	return KEY_8;
+			case VK_9:	return KEY_9;
+			case VK_A:	return KEY_A;
+			case VK_B:	return KEY_B;
+			case VK_C:	return KEY_C;
+			case VK_D:	return KEY_D;
+			case VK_E:	return KEY_E;
+			case VK_F:	return KEY_F;
+			case VK_G:	return KEY_G;
+			case VK_H:	return KEY_H;
+			case VK_I:	return KEY_I;
+			case VK_J:	return KEY_J;
+			case VK_K:	return KEY_K;
+			case VK_L:	return KEY_L;
+			case VK_M:	return KEY_M;
+			case VK_N:	return KEY_N;
+			case VK_O:	return KEY_O;
+			case VK_P:	return KEY_P;
+			case VK_Q:	return KEY_Q;
+			case VK_R:	return KEY_R;
+			case VK_S:	return KEY_S;
+			case VK_T:	return KEY_T;
+			case VK_U:	return KEY_U;
+			case VK_V:	return KEY_V;
+			case VK_W:	return KEY_W;
+			case VK_X:	return KEY_X;
+			case VK_Y:	return KEY_Y;
+			case VK_Z:	return KEY_Z;
+			case VK_NUMPAD0:	return KEY_NUMPAD_0;
+			case VK_NUMPAD1:	return KEY_NUMPAD_1;
+			case VK_NUMPAD2:	return KEY_NUMPAD_2;
+			case VK_NUMPAD3:	return KEY_NUMPAD_3;
+			case VK_NUMPAD4:	return KEY_NUMPAD_4;
+			case VK_NUMPAD5:	return KEY_NUMPAD_5;
+			case VK_NUMPAD6:	return KEY_NUMPAD_6;
+			case VK_NUMPAD7:	return KEY_NUMPAD_7;
+			case VK_NUMPAD8:	return KEY_NUMPAD_8;
+			case VK_NUMPAD9:	return KEY_NUMPAD_9;
+			case VK_MULTIPLY:	return KEY_MULTIPLY;
+			case VK_ADD:	return KEY_ADD;
+			case VK_SEPARATOR:	return KEY_SEPARATOR;
+			case VK_SUBTRACT:	return KEY_SUB;
+			case VK_DECIMAL:	return KEY_DECIMAL;
+			case VK_DIVIDE:	return KEY_DIVIDE;
+			case VK_F1:	return KEY_F1;
+			case VK_F2:	return KEY_F2;
+			case VK_F3:	return KEY_F3;
+			case VK_F4:	return KEY_F4;
+			case VK_F5:	return KEY_F5;
+			case VK_F6:	return KEY_F6;
+			case VK_F7:	return KEY_F7;
+			case VK_F8:	return KEY_F8;
+			case VK_F9:	return KEY_F9;
+			case VK_F10:	return KEY_F10;
+			case VK_F11:	return KEY_F11;
+			case VK_F12:	return KEY_F12;
+			case VK_F13:	return KEY_F13;
+			case VK_F14:	return KEY_F14;
+			case VK_F15:	return KEY_F15;
+			case VK_F16:	return KEY_F16;
+			case VK_F17:	return KEY_F17;
+			case VK_F18:	return KEY_F18;
+			case VK_F19:	return KEY_F19;
+			case VK_F20:	return KEY_F20;
+			case VK_F21:	return KEY_F21;
+			case VK_F22:	return KEY_F22;
+			case VK_F23:	return KEY_F23;
+			case VK_F24:	return KEY_F24;
+			case VK_OEM_1:	return KEY_CEDILLA;
+			case VK_OEM_PLUS:	return KEY_PLUS;
+			case VK_OEM_COMMA:	return KEY_COMMA;
+			case VK_OEM_MINUS:	return KEY_MINUS;
+			case VK_OEM_PERIOD:	return KEY_PERIOD;
+			case VK_OEM_2:	return KEY_COLON;
+			case VK_OEM_3:	return KEY_QUOTE;
+			case VK_OEM_4:	return KEY_ACUTE;
+			case VK_OEM_5:	return KEY_RIGHT_BRACKET;
+			case VK_OEM_6:	return KEY_LEFT_BRACKET;
+			case VK_OEM_7:	return KEY_TILDE;
+			case VK_OEM_9:	return KEY_SLASH;
+			case VK_OEM_102:	return KEY_BACK_SLASH;
+		}
+
+		return KEY_UNDEFINED;
+	}
+
+	@Override
+	public char getChar(int vk, int properties)
+	{
+		switch (vk)
+		{
+			case VK_TAB:	return (char) CH_HORIZONTAL_TABULATION;
+			case VK_RETURN:	return (char) CH_NEW_LINE;
+			case VK_SPACE:	return (char) CH_SPACE;
+			case VK_0:	return alternative(properties, CH_DIGIT_0, CH_RIGHT_PARENTHESIS, CH_NULL);
+			case VK_1:	return alternative(properties, CH_DIGIT_1, CH_EXCLAMATION_MARK, CH_SUPERSCRIPT_ONE);
+			case VK_2:	return alternative(properties, CH_DIGIT_2, CH_COMMERCIAL_AT, CH_SUPERSCRIPT_TWO);
+			case VK_3:	return alternative(properties, CH_DIGIT_3, CH_NUMBER_SIGN, CH_SUPERSCRIPT_THREE);
+			case VK_4:	return alternative(properties, CH_DIGIT_4, CH_DOLLAR_SIGN, CH_POUND_SIGN);
+			case VK_5:	return alternative(properties, CH_DIGIT_5, CH_PERCENT_SIGN, CH_CENT_SIGN);
+			case VK_6:	return alternative(properties, CH_DIGIT_6, CH_DIARESIS, CH_NOT_SIGN);
+			case VK_7:	return alternative(properties, CH_DIGIT_7, CH_AMPERSAND, CH_NULL);
+			case VK_8:	return alternative(properties, CH_DIGIT_8, CH_ASTERISK, CH_NULL);
+			case VK_9:	return alternative(properties, CH_DIGIT_9, CH_LEFT_PARENTHESIS, CH_NULL);
+			case VK_A:	return letter(properties, CH_SMALL_LETTER_A, CH_CAPITAL_LETTER_A);
+			case VK_B:	return letter(properties, CH_SMALL_LETTER_B, CH_CAPITAL_LETTER_B);
+			case VK_C:	return letter(properties, CH_SMALL_LETTER_C, CH_CAPITAL_LETTER_C);
+			case VK_D:	return letter(properties, CH_SMALL_LETTER_D, CH_CAPITAL_LETTER_D);
+			case VK_E:	return letter(properties, CH_SMALL_LETTER_E, CH_CAPITAL_LETTER_E);
+			case VK_F:	return letter(properties, CH_SMALL_LETTER_F, CH_CAPITAL_LETTER_F);
+			case VK_G:	return letter(properties, CH_SMALL_LETTER_G, CH_CAPITAL_LETTER_G);
+			case VK_H:	return letter(properties, CH_SMALL_LETTER_H, CH_CAPITAL_LETTER_H);
+			case VK_I:	return letter(properties, CH_SMALL_LETTER_I, CH_CAPITAL_LETTER_I);
+			case VK_J:	return letter(properties, CH_SMALL_LETTER_J, CH_CAPITAL_LETTER_J);
+			case VK_K:	return letter(properties, CH_SMALL_LETTER_K, CH_CAPITAL_LETTER_K);
+			case VK_L:	return letter(properties, CH_SMALL_LETTER_L, CH_CAPITAL_LETTER_L);
+			case VK_M:	return letter(properties, CH_SMALL_LETTER_M, CH_CAPITAL_LETTER_M);
+			case VK_N:	return letter(properties, CH_SMALL_LETTER_N, CH_CAPITAL_LETTER_N);
+			case VK_O:	return letter(properties, CH_SMALL_LETTER_O, CH_CAPITAL_LETTER_O);
+			case VK_P:	return letter(properties, CH_SMALL_LETTER_P, CH_CAPITAL_LETTER_P);
+			case VK_Q:	return letter(properties, CH_SMALL_LETTER_Q, CH_CAPITAL_LETTER_Q);
+			case VK_R:	return letter(properties, CH_SMALL_LETTER_R, CH_CAPITAL_LETTER_R);
+			case VK_S:	return letter(properties, CH_SMALL_LETTER_S, CH_CAPITAL_LETTER_S);
+			case VK_T:	return letter(properties, CH_SMALL_LETTER_T, CH_CAPITAL_LETTER_T);
+			case VK_U:	return letter(properties, CH_SMALL_LETTER_U, CH_CAPITAL_LETTER_U);
+			case VK_V:	return letter(properties, CH_SMALL_LETTER_V, CH_CAPITAL_LETTER_V);
+			case VK_W:	return letter(properties, CH_SMALL_LETTER_W, CH_CAPITAL_LETTER_W);
+			case VK_X:	return letter(properties, CH_SMALL_LETTER_X, CH_CAPITAL_LETTER_X);
+			case VK_Y:	return letter(properties, CH_SMALL_LETTER_Y, CH_CAPITAL_LETTER_Y);
+			case VK_Z:	return letter(properties, CH_SMALL_LETTER_Z, CH_CAPITAL_LETTER_Z);
+			case VK_NUMPAD0:	return (char) CH_DIGIT_0;
+			case VK_NUMPAD1:	return (char) CH_DIGIT_1;
+			case VK_NUMPAD2:	return (char) CH_DIGIT_2;
+			case VK_NUMPAD3:	return (char) CH_DIGIT_3;
+			case VK_NUMPAD4:	return (char) CH_DIGIT_4;
+			case VK_NUMPAD5:	return (char) CH_DIGIT_5;
+			case VK_NUMPAD6:	return (char) CH_DIGIT_6;
+			case VK_NUMPAD7:	return (char) CH_DIGIT_7;
+			case VK_NUMPAD8:	return (char) CH_DIGIT_8;
+			case VK_NUMPAD9:	return (char) CH_DIGIT_9;
+			case VK_MULTIPLY:	return (char) CH_MULTIPLICATION_SIGN;
+			case VK_ADD:	return (char) CH_PLUS_SIGN;
+			case VK_SEPARATOR:	return (char) CH_FULL_STOP;
+			case VK_SUBTRACT:	return (char) CH_HYPHEN;
+			case VK_DECIMAL:	return (char) CH_COMMA;
+			case VK_DIVIDE:	return (char) CH_SOLIDUS;
+			case VK_OEM_1:	return letter(properties, CH_SMALL_LETTER_CEDILLA, CH_CAPITAL_LETTER_CEDILLA);
+			case VK_OEM_PLUS:	return (char) CH_PLUS_SIGN;
+			case VK_OEM_COMMA:	return (char) CH_COMMA;
+			case VK_OEM_MINUS:	return (char) CH_HYPHEN;
+			case VK_OEM_PERIOD:	return (char) CH_FULL_STOP;
+			case VK_OEM_2:	return alternative(properties, CH_SEMICOLON, CH_COLON, CH_NULL);
+			case VK_OEM_3:	return alternative(properties, CH_APORTROPHE, CH_QUOTATION_MARK, CH_NULL);
+			case VK_OEM_4:	return alternative(properties, CH_ACUTE_ACCENT, CH_GRAVE_ACCENT, CH_NULL);
+			case VK_OEM_5:	return alternative(properties, CH_RIGHT_SQUARE_BRACKET, CH_RIGHT_CURLY_BRACKET, CH_NULL);
+			case VK_OEM_6:	return alternative(properties, CH_LEFT_SQUARE_BRACKET, CH_LEFT_CURLY_BRACKET, CH_NULL);
+			case VK_OEM_7:	return alternative(properties, CH_TILDE, CH_CIRCUMFLEX_ACCENT, CH_NULL);
+			case VK_OEM_9:	return alternative(properties, CH_SOLIDUS, CH_QUESTION_MARK, CH_NUMBER_SIGN);
+			case VK_OEM_102:	return alternative(properties, CH_REVERSE_SOLIDUS, CH_VERTICAL_LINE, CH_NUMBER_SIGN);
+		}
+
+		return (char) CH_NULL;
+	}
+
+	@Override
+	public int getModifiers(int vk)
+	{
+		switch (vk)
+		{
+			case VK_CAPITAL:	return KP_CAPITAL;
+			case VK_LSHIFT:	return KP_SHIFT | KP_LEFT;
+			case VK_RSHIFT:	return KP_SHIFT | KP_RIGHT;
+			case VK_LCONTROL:	return KP_CONTROL | KP_LEFT;
+			case VK_RCONTROL:	return KP_CONTROL | KP_RIGHT;
+			case VK_LMENU:	return KP_ALTERNATIVE | KP_LEFT;
+			case VK_RMENU:	return KP_ALTERNATIVE | KP_RIGHT;
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Escolhe o caractere de uma tecla com caracteres alternativos, como a macro <code>ALTERNATIVE</code>.
+	 * @param properties propriedades atuais do teclado (<code>KP</code>).
+	 * @param first caractere sem SHIFT.
+	 * @param second caractere com SHIFT.
+	 * @param third caractere com SHIFT e ALT.
+	 * @return aquisio do caractere conforme os modificadores.
+	 */
+
+	private static char alternative(int properties, int first, int second, int third)
+	{
+		if ((properties & KP_SHIFT) == 0)
+			return (char) first;
+
+		return (char) ((properties & KP_ALTERNATIVE) == 0 ? second : third);
+	}
+
+	/**
+	 * Escolhe o caractere de uma letra, como a macro <code>CASE</code>, onde o Caps Lock inverte o SHIFT.
+	 * @param properties propriedades atuais do teclado (<code>KP</code>).
+	 * @param lower caractere minsculo.
+	 * @param upper caractere maisculo.
+	 * @return aquisio do caractere conforme os modificadores.
+	 */
+
+	private static char letter(int properties, int lower, int upper)
+	{
+		boolean shift = (properties & KP_SHIFT) != 0;
+		boolean capital = (properties & KP_CAPITAL) != 0;
+
+		return (char) (shift != capital ? upper : lower);
+	}
+}
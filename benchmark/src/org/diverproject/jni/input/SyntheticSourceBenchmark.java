@@ -0,0 +1,120 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.enums.EnumVK.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <h1>Medio da Fonte Sinttica</h1>
+ *
+ * <p>Mede todo o sistema de entrada, da fonte de eventos ao despachante, usando a fonte sinttica
+ * para teclado, que no depende da biblioteca nativa e pode ser executada em qualquer sistema.
+ * Cada execuo inicializa o sistema de entrada, gera todas as teclas o mais rpido possvel,
+ * aguarda que todos os eventos sejam despachados e finaliza o sistema de entrada.</p>
+ *
+ * <p>A fila de espera possui capacidade para todos os eventos de uma execuo, de modo que nenhum
+ * evento seja descartado e o tempo medido dividido pela quantidade de eventos seja o custo de cada um.</p>
+ *
+ * @see SyntheticKeyboardSource
+ * @see InputSystem
+ *
+ * @author Andrew
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class SyntheticSourceBenchmark
+{
+	/**
+	 * Quantidade de teclas geradas em cada execuo.
+	 */
+	private static final int STROKES = 100000;
+
+	/**
+	 * Quantidade de eventos gerados em cada execuo, cada tecla gera trs eventos.
+	 */
+	private static final int EVENTS = STROKES * 3;
+
+	/**
+	 * Capacidade da fila de espera, suficiente para todos os eventos de uma execuo.
+	 */
+	private static final int CAPACITY = 1 << 19;
+
+	/**
+	 * Estratgia de espera usada pelo processador de teclado.
+	 */
+	@Param({ "backoff", "spin", "park", "blocking" })
+	public String waitStrategy;
+
+	/**
+	 * Despachante que ir receber os eventos: <code>packed</code> (compactados),
+	 * <code>event</code> (objetos criados) ou <code>pooled</code> (objetos reciclados).
+	 */
+	@Param({ "packed", "event", "pooled" })
+	public String dispatcher;
+
+	/**
+	 * Determina se as mtricas do despache sero registradas pelo processador.
+	 */
+	@Param({ "false", "true" })
+	public boolean metrics;
+
+	/**
+	 * Contador dos eventos despachados na execuo atual.
+	 */
+	private DispatchCounter counter;
+
+	/**
+	 * Configura o sistema de entrada para uma nova execuo, os despachantes so
+	 * removidos do sistema de entrada sempre que este for finalizado.
+	 * @throws InputException apenas se alguma configurao no puder ser aplicada.
+	 */
+
+	@Setup(Level.Invocation)
+	public void setup() throws InputException
+	{
+		InputSystem system = InputSystem.getInstance();
+
+		counter = new DispatchCounter();
+
+		system.setKeyboardEventSource(new SyntheticKeyboardSource(STROKES, 0, VK_A, VK_S, VK_D, VK_F, VK_SPACE, VK_LSHIFT, VK_J, VK_K, VK_L));
+		system.setKeyboardBufferCapacity(CAPACITY);
+		system.setKeyboardWaitStrategy(KeyboardPipelineBenchmark.newWaitStrategy(waitStrategy));
+		system.setKeyboardEventRecycling(dispatcher.equals("pooled"));
+		system.setKeyboardMetricsEnabled(metrics);
+		system.setPackedKeyboardDispatcher(dispatcher.equals("packed") ? counter.packed() : null);
+		system.setKeyboardDispatcher(dispatcher.equals("packed") ? null : counter.keyboard());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(EVENTS)
+	public long replay() throws InputException
+	{
+		InputSystem system = InputSystem.getInstance();
+		system.initialize();
+
+		counter.await(EVENTS);
+
+		system.shutdown();
+
+		return counter.getDispatched();
+	}
+}
@@ -0,0 +1,391 @@
+package org.diverproject.jni.input;
+
+import org.diverproject.util.ObjectDescription;
+
+/**
+ * <h1>Armazenamento de Aes</h1>
+ *
+ * <p>Mantm as aes de evento enquanto ainda forem vlidas, indexadas pelo seu cdigo, de modo que
+ * consumir uma ao armazenada com determinado cdigo no depende da quantidade de aes armazenadas.
+ * Quando houver mais de uma ao com o mesmo cdigo, a mais antiga ser consumida primeiro.</p>
+ *
+ * <p>A expirao das aes  feita por uma roda de temporizao, onde cada posio corresponde a um
+ * passo de tempo e contm as aes que expiram nesse passo (ou em uma volta seguinte da roda). O tempo
+ * do armazenamento s avana atravs de <code>update(long)</code>, que expira em conjunto todas as aes
+ * das posies percorridas, sem consultar o relgio do sistema para cada ao.</p>
+ *
+ * <p>As aes so encadeadas atravs das suas prprias referncias, portanto nenhum objeto  criado
+ * ao armazenar, consumir ou expirar uma ao. Uma ao s pode estar em um armazenamento por vez.</p>
+ *
+ * <p>O armazenamento do sistema de entrada  atualizado a cada <code>InputSystem.update(long)</code>.
+ * Todos os mtodos so sincronizados, permitindo armazenar aes na thread do processador de teclado
+ * e consumi-las na thread que atualiza o sistema de entrada.</p>
+ *
+ * @see ActionEvent
+ * @see InputSystem#getActionBuffer()
+ *
+ * @author Andrew
+ */
+
+public class ActionBuffer
+{
+	/**
+	 * Durao padro em milissegundos de cada passo da roda de temporizao.
+	 */
+	public static final int DEFAULT_RESOLUTION = 4;
+
+	/**
+	 * Quantidade padro de posies da roda de temporizao.
+	 */
+	public static final int DEFAULT_WHEEL_SIZE = 256;
+
+	/**
+	 * Quantidade inicial de posies do ndice por cdigo.
+	 */
+	private static final int INITIAL_CODES = 64;
+
+
+	/**
+	 * Durao em milissegundos de cada passo da roda de temporizao.
+	 */
+	private final int resolution;
+
+	/**
+	 * Primeira ao de cada posio da roda de temporizao.
+	 */
+	private final ActionEvent wheel[];
+
+	/**
+	 * Primeira ao (mais antiga) de cada posio do ndice por cdigo.
+	 */
+	private ActionEvent codeHeads[];
+
+	/**
+	 * ltima ao (mais recente) de cada posio do ndice por cdigo.
+	 */
+	private ActionEvent codeTails[];
+
+	/**
+	 * Tempo em milissegundos acumulado pelas atualizaes do armazenamento.
+	 */
+	private long time;
+
+	/**
+	 * Nmero do ltimo passo da roda de temporizao que j foi expirado.
+	 */
+	private long tick;
+
+	/**
+	 * Quantidade de aes armazenadas.
+	 */
+	private int size;
+
+	/**
+	 * Constri um novo armazenamento de aes vazio com a roda de temporizao padro.
+	 */
+
+	public ActionBuffer()
+	{
+		this(DEFAULT_RESOLUTION, DEFAULT_WHEEL_SIZE);
+	}
+
+	/**
+	 * Constri um novo armazenamento de aes vazio sendo necessrio definir:
+	 * @param resolution durao em milissegundos de cada passo da roda de temporizao.
+	 * @param wheelSize quantidade de posies da roda de temporizao, deve ser potncia de 2.
+	 */
+
+	public ActionBuffer(int resolution, int wheelSize)
+	{
+		if (resolution < 1)
+			throw new InputRuntimeException("resoluo invlida (resolution: %d)", resolution);
+
+		if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1)
+			throw new InputRuntimeException("tamanho da roda invlido (wheelSize: %d)", wheelSize);
+
+		this.resolution = resolution;
+		this.wheel = new ActionEvent[wheelSize];
+		this.codeHeads = new ActionEvent[INITIAL_CODES];
+		this.codeTails = new ActionEvent[INITIAL_CODES];
+	}
+
+	/**
+	 * Armazena uma ao que ser mantida at ser consumida ou at que a sua durao seja excedida,
+	 * contada a partir do tempo atual do armazenamento. Aes j consumidas so ignoradas.
+	 * @param action referncia da ao de evento que ser armazenada.
+	 */
+
+	public synchronized void add(ActionEvent action)
+	{
+		if (action.buffer != null)
+			throw new InputRuntimeException("ao j armazenada (code: %d)", action.getCode());
+
+		if (action.isConsumed())
+			return;
+
+		if (size == codeHeads.length)
+			rehash(codeHeads.length * 2);
+
+		long deadline = (time + Math.max(action.getDuration(), 0) + resolution - 1) / resolution;
+
+		action.buffer = this;
+		action.deadline = Math.max(deadline, tick + 1);
+
+		link(action);
+		size++;
+	}
+
+	/**
+	 * Consome a ao armazenada mais antiga com determinado cdigo, removendo-a do armazenamento.
+	 * Aes consumidas fora do armazenamento so removidas ao serem encontradas.
+	 * @param code cdigo da ao que dever ser consumida.
+	 * @return true se havia uma ao com o cdigo que foi consumida ou false caso contrrio.
+	 */
+
+	public synchronized boolean consume(int code)
+	{
+		ActionEvent action = find(code);
+
+		if (action == null)
+			return false;
+
+		action.consume();
+		remove(action);
+
+		return true;
+	}
+
+	/**
+	 * Verifica se h uma ao armazenada com determinado cdigo, sem consumi-la.
+	 * @param code cdigo da ao que dever ser verificada.
+	 * @return true se houver uma ao com o cdigo ou false caso contrrio.
+	 */
+
+	public synchronized boolean contains(int code)
+	{
+		return find(code) != null;
+	}
+
+	/**
+	 * Procura a ao armazenada mais antiga com determinado cdigo que ainda no tenha sido consumida.
+	 * @param code cdigo da ao que dever ser procurada.
+	 * @return aquisio da ao encontrada ou null se no houver.
+	 */
+
+	private ActionEvent find(int code)
+	{
+		ActionEvent action = codeHeads[index(code)];
+
+		while (action != null)
+		{
+			ActionEvent next = action.codeNext;
+
+			if (action.isConsumed())
+				remove(action);
+
+			else if (action.getCode() == code)
+				return action;
+
+			action = next;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Avana o tempo do armazenamento e expira todas as aes cuja durao foi excedida.
+	 * Cada passo da roda de temporizao  percorrido uma nica vez por atualizao,
+	 * e um avano maior que uma volta da roda percorre cada posio apenas uma vez.
+	 * @param delay tempo em milissegundos desde a ltima atualizao.
+	 * @return aquisio da quantidade de aes que foram expiradas.
+	 */
+
+	public synchronized int update(long delay)
+	{
+		if (delay > 0)
+			time += delay;
+
+		long target = time / resolution;
+		long steps = Math.min(target - tick, wheel.length);
+		int expired = 0;
+
+		for (long step = 1; step <= steps; step++)
+		{
+			ActionEvent action = wheel[(int) (tick + step & wheel.length - 1)];
+
+			while (action != null)
+			{
+				ActionEvent next = action.wheelNext;
+
+				if (action.deadline <= target)
+				{
+					remove(action);
+					expired++;
+				}
+
+				action = next;
+			}
+		}
+
+		tick = target;
+
+		return expired;
+	}
+
+	/**
+	 * Remove todas as aes armazenadas sem consumi-las, mantendo o tempo do armazenamento.
+	 */
+
+	public synchronized void clear()
+	{
+		for (int i = 0; i < wheel.length; i++)
+			while (wheel[i] != null)
+				remove(wheel[i]);
+	}
+
+	/**
+	 * Aes consumidas fora do armazenamento continuam sendo contadas at serem encontradas.
+	 * @return aquisio da quantidade de aes armazenadas.
+	 */
+
+	public synchronized int size()
+	{
+		return size;
+	}
+
+	/**
+	 * O tempo do armazenamento  a soma dos atrasos das atualizaes, no corresponde a um relgio.
+	 * @return aquisio do tempo em milissegundos acumulado pelas atualizaes.
+	 */
+
+	public synchronized long getTime()
+	{
+		return time;
+	}
+
+	/**
+	 * Obtm a posio do ndice por cdigo em que as aes com determinado cdigo so encadeadas.
+	 * @param code cdigo da ao que ser indexada.
+	 * @return aquisio da posio do cdigo no ndice.
+	 */
+
+	private int index(int code)
+	{
+		int hash = code * 0x9E3779B9;
+
+		return (hash ^ hash >>> 16) & codeHeads.length - 1;
+	}
+
+	/**
+	 * Encadeia uma ao ao final da sua posio no ndice por cdigo e na sua posio da roda.
+	 * @param action referncia da ao de evento que ser encadeada.
+	 */
+
+	private void link(ActionEvent action)
+	{
+		linkCode(action);
+
+		int slot = (int) (action.deadline & wheel.length - 1);
+		ActionEvent head = wheel[slot];
+
+		action.wheelPrev = null;
+		action.wheelNext = head;
+
+		if (head != null)
+			head.wheelPrev = action;
+
+		wheel[slot] = action;
+	}
+
+	/**
+	 * Encadeia uma ao ao final da sua posio no ndice por cdigo, aps a mais recente.
+	 * @param action referncia da ao de evento que ser encadeada.
+	 */
+
+	private void linkCode(ActionEvent action)
+	{
+		int index = index(action.getCode());
+		ActionEvent tail = codeTails[index];
+
+		action.codePrev = tail;
+		action.codeNext = null;
+
+		if (tail == null)
+			codeHeads[index] = action;
+		else
+			tail.codeNext = action;
+
+		codeTails[index] = action;
+	}
+
+	/**
+	 * Remove uma ao da sua posio no ndice por cdigo e da sua posio da roda.
+	 * @param action referncia da ao de evento armazenada que ser removida.
+	 */
+
+	private void remove(ActionEvent action)
+	{
+		int index = index(action.getCode());
+
+		if (action.codePrev == null)
+			codeHeads[index] = action.codeNext;
+		else
+			action.codePrev.codeNext = action.codeNext;
+
+		if (action.codeNext == null)
+			codeTails[index] = action.codePrev;
+		else
+			action.codeNext.codePrev = action.codePrev;
+
+		if (action.wheelPrev == null)
+			wheel[(int) (action.deadline & wheel.length - 1)] = action.wheelNext;
+		else
+			action.wheelPrev.wheelNext = action.wheelNext;
+
+		if (action.wheelNext != null)
+			action.wheelNext.wheelPrev = action.wheelPrev;
+
+		action.codePrev = null;
+		action.codeNext = null;
+		action.wheelPrev = null;
+		action.wheelNext = null;
+		action.buffer = null;
+		size--;
+	}
+
+	/**
+	 * Aumenta a quantidade de posies do ndice por cdigo, reencadeando todas as aes
+	 * de modo que as aes com o mesmo cdigo continuem ordenadas da mais antiga para a mais recente.
+	 * @param length nova quantidade de posies do ndice por cdigo, deve ser potncia de 2.
+	 */
+
+	private void rehash(int length)
+	{
+		ActionEvent heads[] = codeHeads;
+
+		codeHeads = new ActionEvent[length];
+		codeTails = new ActionEvent[length];
+
+		for (ActionEvent action : heads)
+			while (action != null)
+			{
+				ActionEvent next = action.codeNext;
+
+				linkCode(action);
+				action = next;
+			}
+	}
+
+	@Override
+	public synchronized String toString()
+	{
+		ObjectDescription description = new ObjectDescription(getClass());
+
+		description.append("size", size);
+		description.append("time", time);
+		description.append("resolution", resolution);
+		description.append("wheelSize", wheel.length);
+
+		return description.toString();
+	}
+}
@@ -13,7 +13,11 @@ import org.diverproject.util.ObjectDescription;
  * Quanto a durao no h um padro para tal, deve ser definido de acordo com a seu uso.
  * Possui tambm todas as informaes de um Evento de Entrada como outro qualquer./<p>
  *
+ * <p>Aes podem ser mantidas em um armazenamento de aes, que as expira em conjunto e permite
+ * consumir uma ao pelo seu cdigo sem que seja necessrio percorrer e verificar cada ao.</p>
+ *
  * @see InputEvent
+ * @see ActionBuffer
  *
  * @author Andrew
  */
@@ -50,20 +54,45 @@ public class ActionEvent extends InputEvent
 	private final int code;
 
 	/**
-	 * Qual a durao da ao para que seja vlida.
+	 * Qual a durao da ao em milissegundos para que seja vlida.
 	 */
 	private final int duration;
 
 	/**
-	 * Momento em que o evento da ao foi criado.
+	 * Armazenamento de aes onde a ao se encontra ou null se no estiver armazenada.
+	 */
+	ActionBuffer buffer;
+
+	/**
+	 * Nmero do passo da roda de temporizao em que a ao armazenada ir expirar.
 	 */
-	private final long initialize;
+	long deadline;
+
+	/**
+	 * Ao anterior na mesma posio da roda de temporizao.
+	 */
+	ActionEvent wheelPrev;
+
+	/**
+	 * Prxima ao na mesma posio da roda de temporizao.
+	 */
+	ActionEvent wheelNext;
+
+	/**
+	 * Ao anterior na mesma posio do ndice por cdigo.
+	 */
+	ActionEvent codePrev;
+
+	/**
+	 * Prxima ao na mesma posio do ndice por cdigo.
+	 */
+	ActionEvent codeNext;
 
 	/**
 	 * Constri um novo evento acionado por aes detectadas no JNI Input.
 	 * @param type qual o gnero da ao que foi encontrada no sistema.
 	 * @param code cdigo que indica o valor da ao executada.
-	 * @param duration quanto tempo a ao dever durar.
+	 * @param duration quanto tempo em milissegundos a ao dever durar.
 	 */
 
 	public ActionEvent(int type, int code, int duration)
@@ -72,7 +101,6 @@ public class ActionEvent extends InputEvent
 
 		this.code = code;
 		this.duration = duration;
-		this.initialize = System.currentTimeMillis();
 	}
 
 	/**
@@ -92,6 +120,26 @@ public class ActionEvent extends InputEvent
 		return true;
 	}
 
+	/**
+	 * O cdigo  usado pelo armazenamento de aes como ndice para consumir a ao.
+	 * @return aquisio do cdigo que indica o valor da ao executada.
+	 */
+
+	public int getCode()
+	{
+		return code;
+	}
+
+	/**
+	 * A durao  contada a partir da construo ou do momento em que for armazenada.
+	 * @return aquisio de quanto tempo em milissegundos a ao dever durar.
+	 */
+
+	public int getDuration()
+	{
+		return duration;
+	}
+
 	/**
 	 * Dever verificar se essa ao de evento ainda  vlida ou no.
 	 * Para ser vlida no pode ter sido consumida e estar no intervalo da durao.
@@ -106,14 +154,13 @@ public class ActionEvent extends InputEvent
 	/**
 	 * Dever verificar se essa ao de evento ainda est dentro do seu intervalo de durao.
 	 * Utilizado por <code>isValid()</code> como condio para essa ao ser vlida.
-	 * @return true se estiver dentro do tempo ou false caso contrrio.
+	 * A durao  medida a partir do momento do evento, que no  afetado por ajustes no relgio.
+	 * @return true se a durao j tiver sido excedida ou false caso contrrio.
 	 */
 
 	public boolean isHover()
 	{
-		long current = System.currentTimeMillis();
-
-		return current > initialize + duration;
+		return System.nanoTime() - getTime() > duration * 1000000L;
 	}
 
 	@Override
@@ -132,5 +179,6 @@ public class ActionEvent extends InputEvent
 	protected void toString(ObjectDescription description)
 	{
 		description.append("code", code);
+		description.append("duration", duration);
 	}
 }
@@ -0,0 +1,162 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_MAX;
+
+import org.diverproject.util.ObjectDescription;
+
+/**
+ * <h1>Mapa de Aes</h1>
+ *
+ * <p>Resultado da compilao das ligaes de um contexto (menu, jogo, digitao de texto), onde cada
+ * toque de tecla, a tecla no JNI (<code>EnumKEY</code>) junto dos modificadores abaixados, est ligado
+ * ao cdigo de uma ao. As aes ficam em tabelas indexadas diretamente pelo toque, uma para teclas
+ * pressionadas e outra para teclas soltas, portanto obter a ao de um evento tem custo constante
+ * independente da quantidade de ligaes.</p>
+ *
+ * <p>Um mapa transparente permite que os toques sem ligao sejam procurados nos contextos abaixo dele
+ * no mapeador de aes, enquanto um mapa opaco os bloqueia. Repeties automticas de uma tecla mantida
+ * abaixada s geram aes se o mapa permitir repeties.</p>
+ *
+ * <p>O mapa  imutvel e pode ser compartilhado por diversos mapeadores e threads. Para alterar as ligaes
+ * um novo mapa deve ser compilado e trocado no mapeador de aes.</p>
+ *
+ * @see ActionMapCompiler
+ * @see ActionMapper
+ *
+ * @author Andrew
+ */
+
+public final class ActionMap
+{
+	/**
+	 * Cdigo usado nas tabelas para toques sem nenhuma ao ligada.
+	 */
+	public static final int NONE = -1;
+
+	/**
+	 * Quantidade de toques possveis, tamanho de cada tabela de aes.
+	 */
+	static final int STROKES = HotkeyCompiler.stroke(KEY_MAX, 0);
+
+
+	/**
+	 * Nome do contexto, usado apenas para identificao visual do mapa.
+	 */
+	private final String name;
+
+	/**
+	 * Cdigo da ao ligada a cada toque de tecla pressionada.
+	 */
+	private final int pressed[];
+
+	/**
+	 * Cdigo da ao ligada a cada toque de tecla solta.
+	 */
+	private final int released[];
+
+	/**
+	 * Determina se os toques sem ligao sero procurados nos contextos abaixo.
+	 */
+	private final boolean transparent;
+
+	/**
+	 * Determina se as repeties de uma tecla mantida abaixada geram aes.
+	 */
+	private final boolean repeat;
+
+	/**
+	 * Constri um novo mapa de aes, usado apenas pelo compilador de mapas de aes.
+	 * @param name nome do contexto, usado apenas para identificao visual.
+	 * @param pressed cdigo da ao ligada a cada toque de tecla pressionada.
+	 * @param released cdigo da ao ligada a cada toque de tecla solta.
+	 * @param transparent true para procurar os toques sem ligao nos contextos abaixo.
+	 * @param repeat true para que as repeties de uma tecla gerem aes.
+	 */
+
+	ActionMap(String name, int pressed[], int released[], boolean transparent, boolean repeat)
+	{
+		this.name = name;
+		this.pressed = pressed;
+		this.released = released;
+		this.transparent = transparent;
+		this.repeat = repeat;
+	}
+
+	/**
+	 * Obtm a ao ligada a um toque, sem considerar os contextos abaixo desse mapa.
+	 * @param released true para a tabela de teclas soltas ou false para a de teclas pressionadas.
+	 * @param stroke toque de tecla compactado por <code>HotkeyCompiler.stroke(int, int)</code>.
+	 * @return aquisio do cdigo da ao ligada ou <code>NONE</code> se no houver.
+	 */
+
+	int get(boolean released, int stroke)
+	{
+		return released ? this.released[stroke] : pressed[stroke];
+	}
+
+	/**
+	 * Procedimento que deve obter a ao ligada a uma tecla pressionada com determinados modificadores.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @param properties propriedades do teclado no momento do toque (<code>KP</code>).
+	 * @return aquisio do cdigo da ao ligada ou <code>NONE</code> se no houver.
+	 */
+
+	public int getPressed(int key, int properties)
+	{
+		return key > 0 && key < KEY_MAX ? pressed[HotkeyCompiler.stroke(key, properties)] : NONE;
+	}
+
+	/**
+	 * Procedimento que deve obter a ao ligada a uma tecla solta com determinados modificadores.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @param properties propriedades do teclado no momento do toque (<code>KP</code>).
+	 * @return aquisio do cdigo da ao ligada ou <code>NONE</code> se no houver.
+	 */
+
+	public int getReleased(int key, int properties)
+	{
+		return key > 0 && key < KEY_MAX ? released[HotkeyCompiler.stroke(key, properties)] : NONE;
+	}
+
+	/**
+	 * O nome  definido no compilador e no precisa ser nico.
+	 * @return aquisio do nome do contexto desse mapa.
+	 */
+
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Um mapa opaco, como o de digitao de texto, impede que os contextos abaixo recebam os toques.
+	 * @return true se os toques sem ligao forem procurados nos contextos abaixo ou false caso contrrio.
+	 */
+
+	public boolean isTransparent()
+	{
+		return transparent;
+	}
+
+	/**
+	 * Repeties em um mapa que no as permite no geram aes, nem so procuradas nos contextos abaixo.
+	 * @return true se as repeties de uma tecla mantida abaixada gerarem aes ou false caso contrrio.
+	 */
+
+	public boolean isRepeat()
+	{
+		return repeat;
+	}
+
+	@Override
+	public String toString()
+	{
+		ObjectDescription description = new ObjectDescription(getClass());
+
+		description.append("name", name);
+		description.append("transparent", transparent);
+		description.append("repeat", repeat);
+
+		return description.toString();
+	}
+}
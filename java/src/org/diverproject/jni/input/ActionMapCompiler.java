@@ -0,0 +1,247 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_MAX;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_UNDEFINED;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <h1>Compilador de Mapas de Aes</h1>
+ *
+ * <p>Rene as ligaes entre toques de teclas e cdigos de aes de um contexto e as compila em um mapa
+ * de aes, que ser usado pelo mapeador de aes no lugar de comparaes encadeadas em cada despachante.
+ * Os toques em texto seguem o mesmo formato de um toque do compilador de atalhos, como <code>Ctrl+S</code>
+ * ou <code>SPACE</code>, porm teclas modificadoras tambm podem ser ligadas a aes.</p>
+ *
+ * <p>Ligar um toque que j possui uma ao substitui a ao anterior, de modo que o compilador pode ser
+ * mantido para alterar as ligaes durante a execuo, compilando e trocando o mapa no mapeador.
+ * Um toque sem modificadores vale tambm para todas as combinaes de modificadores da mesma tecla
+ * que no possurem uma ligao prpria, assim <code>W</code> continua valendo com SHIFT abaixado.</p>
+ *
+ * @see ActionMap
+ * @see ActionMapper
+ * @see HotkeyCompiler#parseStroke(String)
+ *
+ * @author Andrew
+ */
+
+public final class ActionMapCompiler
+{
+	/**
+	 * Nome do contexto dos mapas compilados.
+	 */
+	private final String name;
+
+	/**
+	 * Cdigo da ao ligada a cada toque de tecla pressionada registrado.
+	 */
+	private final Map<Integer, Integer> pressed;
+
+	/**
+	 * Cdigo da ao ligada a cada toque de tecla solta registrado.
+	 */
+	private final Map<Integer, Integer> released;
+
+	/**
+	 * Determina se os mapas compilados sero transparentes.
+	 */
+	private boolean transparent;
+
+	/**
+	 * Determina se os mapas compilados permitiro repeties.
+	 */
+	private boolean repeat;
+
+	/**
+	 * Constri um novo compilador de mapas de aes sem nenhuma ligao, para mapas opacos e sem repeties.
+	 * @param name nome do contexto dos mapas compilados, como <code>menu</code> ou <code>gameplay</code>.
+	 */
+
+	public ActionMapCompiler(String name)
+	{
+		this.name = name;
+		this.pressed = new HashMap<>();
+		this.released = new HashMap<>();
+	}
+
+	/**
+	 * Liga um toque em texto de tecla pressionada a uma ao, substituindo a ligao anterior.
+	 * @param stroke toque em texto, modificadores e tecla separados por <code>+</code>, como <code>Ctrl+S</code>.
+	 * @param action cdigo da ao, no pode ser negativo.
+	 * @throws InputException se o toque em texto ou o cdigo da ao no forem vlidos.
+	 */
+
+	public void bind(String stroke, int action) throws InputException
+	{
+		bind(pressed, HotkeyCompiler.parseStroke(stroke.trim()), action);
+	}
+
+	/**
+	 * Liga um toque em texto de tecla solta a uma ao, substituindo a ligao anterior.
+	 * @param stroke toque em texto, modificadores e tecla separados por <code>+</code>, como <code>Ctrl+S</code>.
+	 * @param action cdigo da ao, no pode ser negativo.
+	 * @throws InputException se o toque em texto ou o cdigo da ao no forem vlidos.
+	 */
+
+	public void bindReleased(String stroke, int action) throws InputException
+	{
+		bind(released, HotkeyCompiler.parseStroke(stroke.trim()), action);
+	}
+
+	/**
+	 * Liga uma tecla pressionada com determinados modificadores a uma ao, substituindo a ligao anterior.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @param properties propriedades do teclado com os modificadores do toque (<code>KP</code>).
+	 * @param action cdigo da ao, no pode ser negativo.
+	 * @throws InputException se a tecla ou o cdigo da ao no forem vlidos.
+	 */
+
+	public void bind(int key, int properties, int action) throws InputException
+	{
+		bind(pressed, stroke(key, properties), action);
+	}
+
+	/**
+	 * Liga uma tecla solta com determinados modificadores a uma ao, substituindo a ligao anterior.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @param properties propriedades do teclado com os modificadores do toque (<code>KP</code>).
+	 * @param action cdigo da ao, no pode ser negativo.
+	 * @throws InputException se a tecla ou o cdigo da ao no forem vlidos.
+	 */
+
+	public void bindReleased(int key, int properties, int action) throws InputException
+	{
+		bind(released, stroke(key, properties), action);
+	}
+
+	/**
+	 * Registra a ligao de um toque em uma das tabelas, substituindo a ligao anterior.
+	 * @param bindings ligaes de teclas pressionadas ou de teclas soltas.
+	 * @param stroke toque de tecla compactado por <code>HotkeyCompiler.stroke(int, int)</code>.
+	 * @param action cdigo da ao, no pode ser negativo.
+	 * @throws InputException se o cdigo da ao for negativo.
+	 */
+
+	private void bind(Map<Integer, Integer> bindings, int stroke, int action) throws InputException
+	{
+		if (action < 0)
+			throw new InputException("cdigo de ao invlido (action: %d)", action);
+
+		bindings.put(stroke, action);
+	}
+
+	/**
+	 * Remove as ligaes de um toque em texto, tanto da tecla pressionada quanto da tecla solta.
+	 * @param stroke toque em texto, modificadores e tecla separados por <code>+</code>, como <code>Ctrl+S</code>.
+	 * @return true se havia alguma ligao para o toque ou false caso contrrio.
+	 * @throws InputException se o toque em texto no for vlido.
+	 */
+
+	public boolean unbind(String stroke) throws InputException
+	{
+		Integer key = HotkeyCompiler.parseStroke(stroke.trim());
+
+		return pressed.remove(key) != null | released.remove(key) != null;
+	}
+
+	/**
+	 * Remove todas as ligaes registradas, os mapas j compilados no so alterados.
+	 */
+
+	public void clear()
+	{
+		pressed.clear();
+		released.clear();
+	}
+
+	/**
+	 * Ligaes de tecla pressionada e de tecla solta do mesmo toque so contadas separadamente.
+	 * @return aquisio da quantidade de ligaes registradas.
+	 */
+
+	public int size()
+	{
+		return pressed.size() + released.size();
+	}
+
+	/**
+	 * Um contexto transparente, como o de um menu sobre o jogo, deixa passar os toques sem ligao.
+	 * @param transparent true para que os mapas compilados sejam transparentes ou false para opacos.
+	 */
+
+	public void setTransparent(boolean transparent)
+	{
+		this.transparent = transparent;
+	}
+
+	/**
+	 * Repeties so teis para navegar em menus, enquanto o jogo normalmente considera apenas o primeiro toque.
+	 * @param repeat true para que as repeties de uma tecla mantida abaixada gerem aes.
+	 */
+
+	public void setRepeat(boolean repeat)
+	{
+		this.repeat = repeat;
+	}
+
+	/**
+	 * Compila todas as ligaes registradas em um novo mapa de aes.
+	 * @return aquisio do mapa de aes compilado.
+	 */
+
+	public ActionMap compile()
+	{
+		return new ActionMap(name, table(pressed), table(released), transparent, repeat);
+	}
+
+	/**
+	 * Cria a tabela de aes indexada pelo toque a partir das ligaes de uma das tabelas.
+	 * Primeiro as ligaes sem modificadores so copiadas para todas as combinaes de modificadores,
+	 * em seguida as ligaes com modificadores substituem as combinaes correspondentes.
+	 * @param bindings ligaes de teclas pressionadas ou de teclas soltas.
+	 * @return aquisio da tabela com o cdigo da ao de cada toque.
+	 */
+
+	private static int[] table(Map<Integer, Integer> bindings)
+	{
+		int table[] = new int[ActionMap.STROKES];
+		Arrays.fill(table, ActionMap.NONE);
+
+		for (Map.Entry<Integer, Integer> binding : bindings.entrySet())
+		{
+			int stroke = binding.getKey();
+			int key = HotkeyCompiler.getKey(stroke);
+
+			if (stroke == HotkeyCompiler.stroke(key, 0))
+				Arrays.fill(table, stroke, HotkeyCompiler.stroke(key + 1, 0), binding.getValue());
+		}
+
+		for (Map.Entry<Integer, Integer> binding : bindings.entrySet())
+		{
+			int stroke = binding.getKey();
+
+			if (stroke != HotkeyCompiler.stroke(HotkeyCompiler.getKey(stroke), 0))
+				table[stroke] = binding.getValue();
+		}
+
+		return table;
+	}
+
+	/**
+	 * Compacta uma tecla e as propriedades do teclado em um toque, verificando se a tecla  vlida.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @param properties propriedades do teclado com os modificadores do toque (<code>KP</code>).
+	 * @return aquisio do toque de tecla compactado.
+	 * @throws InputException se a tecla no for vlida.
+	 */
+
+	private static int stroke(int key, int properties) throws InputException
+	{
+		if (key <= KEY_UNDEFINED || key >= KEY_MAX)
+			throw new InputException("tecla invlida para ao (key: %d)", key);
+
+		return HotkeyCompiler.stroke(key, properties);
+	}
+}
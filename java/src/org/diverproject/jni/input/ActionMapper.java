@@ -0,0 +1,358 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.ActionMap.NONE;
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_MAX;
+
+/**
+ * <h1>Mapeador de Aes</h1>
+ *
+ * <p>Converte os eventos de tecla em aes de evento atravs de uma pilha de contextos, cada um com o seu
+ * mapa de aes compilado, como menu, jogo e digitao de texto. Cada evento  procurado a partir do
+ * contexto do topo, descendo enquanto o toque no tiver ligao e o contexto for transparente.
+ * As aes encontradas so armazenadas como <code>ActionEvent</code> do tipo <code>IV_KEY</code> no
+ * armazenamento de aes, onde podem ser consumidas pelo seu cdigo.</p>
+ *
+ * <p>Os contextos formam uma lista encadeada imutvel, empilhar ou desempilhar um contexto apenas troca
+ * a referncia do topo, sem reconstruir nenhuma tabela, e pode ser feito por qualquer thread sem
+ * interromper um evento em andamento. Trocar o mapa de um contexto recria apenas os contextos acima dele.</p>
+ *
+ * <p>Pode ser usado como despachante compactado no sistema de entrada, como leitura de tecla em um
+ * despachante de leituras, onde consome os eventos que gerarem aes, ou ainda chamado diretamente por
+ * outro despachante atravs de <code>map(long)</code>. Deve receber os eventos de uma nica thread,
+ * normalmente a do processador de teclado.</p>
+ *
+ * @see ActionMap
+ * @see ActionMapCompiler
+ * @see ActionBuffer
+ *
+ * @author Andrew
+ */
+
+public class ActionMapper implements PackedKeyboardDispatcher, KeyListener
+{
+	/**
+	 * Contexto do topo da pilha ou null se no houver nenhum contexto.
+	 */
+	private volatile Layer top;
+
+	/**
+	 * Armazenamento onde as aes geradas sero armazenadas.
+	 */
+	private final ActionBuffer buffer;
+
+	/**
+	 * Durao em milissegundos das aes geradas.
+	 */
+	private final int duration;
+
+	/**
+	 * Teclas abaixadas no momento, um bit para cada tecla, usado para identificar repeties.
+	 */
+	private final long held[];
+
+	/**
+	 * Constri um novo mapeador de aes sem contextos, que armazena as aes no sistema de entrada.
+	 * @param duration durao em milissegundos das aes geradas.
+	 */
+
+	public ActionMapper(int duration)
+	{
+		this(InputSystem.getInstance().getActionBuffer(), duration);
+	}
+
+	/**
+	 * Constri um novo mapeador de aes sem contextos sendo necessrio definir:
+	 * @param buffer armazenamento onde as aes geradas sero armazenadas.
+	 * @param duration durao em milissegundos das aes geradas.
+	 */
+
+	public ActionMapper(ActionBuffer buffer, int duration)
+	{
+		if (buffer == null)
+			throw new InputRuntimeException("armazenamento de aes no definido");
+
+		if (duration < 0)
+			throw new InputRuntimeException("durao invlida (duration: %d)", duration);
+
+		this.buffer = buffer;
+		this.duration = duration;
+		this.held = new long[(KEY_MAX + 63) >>> 6];
+	}
+
+	/**
+	 * Empilha um contexto, que passa a ser o primeiro a ser procurado a partir do prximo evento.
+	 * @param map mapa de aes compilado do contexto.
+	 */
+
+	public synchronized void push(ActionMap map)
+	{
+		if (map == null)
+			throw new InputRuntimeException("mapa de aes no definido");
+
+		top = new Layer(map, top);
+	}
+
+	/**
+	 * Desempilha o contexto do topo, o contexto abaixo dele passa a ser o primeiro a ser procurado.
+	 * @return aquisio do mapa de aes do contexto desempilhado ou null se no houver contextos.
+	 */
+
+	public synchronized ActionMap pop()
+	{
+		Layer layer = top;
+
+		if (layer == null)
+			return null;
+
+		top = layer.below;
+
+		return layer.map;
+	}
+
+	/**
+	 * Troca o mapa de aes de um contexto da pilha, usado ao alterar as ligaes durante a execuo.
+	 * Apenas o contexto mais acima com o mapa anterior  trocado, mantendo a sua posio na pilha.
+	 * @param previous mapa de aes do contexto que ser trocado.
+	 * @param map novo mapa de aes compilado do contexto.
+	 * @return true se havia um contexto com o mapa anterior ou false caso contrrio.
+	 */
+
+	public synchronized boolean replace(ActionMap previous, ActionMap map)
+	{
+		if (map == null)
+			throw new InputRuntimeException("mapa de aes no definido");
+
+		Layer layer = replace(top, previous, map);
+
+		if (layer == top)
+			return false;
+
+		top = layer;
+
+		return true;
+	}
+
+	/**
+	 * Recria os contextos a partir de um contexto at o contexto com o mapa anterior, trocando o seu mapa.
+	 * @param layer contexto a partir do qual o mapa anterior ser procurado.
+	 * @param previous mapa de aes do contexto que ser trocado.
+	 * @param map novo mapa de aes compilado do contexto.
+	 * @return aquisio do contexto recriado ou o prprio contexto se o mapa anterior no for encontrado.
+	 */
+
+	private static Layer replace(Layer layer, ActionMap previous, ActionMap map)
+	{
+		if (layer == null)
+			return null;
+
+		if (layer.map == previous)
+			return new Layer(map, layer.below);
+
+		Layer below = replace(layer.below, previous, map);
+
+		return below == layer.below ? layer : new Layer(layer.map, below);
+	}
+
+	/**
+	 * Remove todos os contextos da pilha, nenhum evento ir gerar aes at que um contexto seja empilhado.
+	 */
+
+	public synchronized void clear()
+	{
+		top = null;
+	}
+
+	/**
+	 * O contexto do topo  o primeiro a ser procurado em cada evento.
+	 * @return aquisio do mapa de aes do contexto do topo ou null se no houver contextos.
+	 */
+
+	public ActionMap peek()
+	{
+		Layer layer = top;
+
+		return layer == null ? null : layer.map;
+	}
+
+	/**
+	 * A quantidade de contextos no altera o custo de um evento que tenha ligao no contexto do topo.
+	 * @return aquisio da quantidade de contextos na pilha.
+	 */
+
+	public int getDepth()
+	{
+		int depth = 0;
+
+		for (Layer layer = top; layer != null; layer = layer.below)
+			depth++;
+
+		return depth;
+	}
+
+	/**
+	 * Procura a ao ligada a um evento de tecla nos contextos da pilha, sem armazenar nenhuma ao.
+	 * Apenas teclas pressionadas e soltas so consideradas, nenhum objeto  criado.
+	 * Deve ser chamado sempre pela mesma thread, para que as repeties sejam identificadas.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return aquisio do cdigo da ao ligada ou <code>ActionMap.NONE</code> se no houver.
+	 */
+
+	public int map(long event)
+	{
+		int key = PackedKeyEvent.getKey(event);
+
+		if (key <= 0 || key >= KEY_MAX)
+			return NONE;
+
+		int word = key >>> 6;
+		long bit = 1L << key;
+		boolean released;
+		boolean repeated;
+
+		switch (PackedKeyEvent.getType(event))
+		{
+			case KT_RELEASED:
+				held[word] &= ~bit;
+				released = true;
+				repeated = false;
+				break;
+
+			case KT_PRESSED:
+				repeated = (held[word] & bit) != 0;
+				held[word] |= bit;
+				released = false;
+				break;
+
+			default:
+				return NONE;
+		}
+
+		int stroke = HotkeyCompiler.stroke(key, PackedKeyEvent.getProperties(event));
+
+		for (Layer layer = top; layer != null; layer = layer.below)
+		{
+			ActionMap map = layer.map;
+			int action = map.get(released, stroke);
+
+			if (action != NONE)
+				return repeated && !map.isRepeat() ? NONE : action;
+
+			if (!map.isTransparent())
+				break;
+		}
+
+		return NONE;
+	}
+
+	/**
+	 * Procura a ao ligada a um evento de tecla e a armazena no armazenamento de aes, se houver.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return true se alguma ao tiver sido armazenada ou false caso contrrio.
+	 */
+
+	public boolean perform(long event)
+	{
+		int action = map(event);
+
+		if (action == NONE)
+			return false;
+
+		buffer.add(new ActionEvent(ActionEvent.IV_KEY, action, duration));
+
+		return true;
+	}
+
+	/**
+	 * As aes armazenadas so expiradas pelas atualizaes do prprio armazenamento.
+	 * @return aquisio do armazenamento onde as aes geradas so armazenadas.
+	 */
+
+	public ActionBuffer getBuffer()
+	{
+		return buffer;
+	}
+
+	@Override
+	public void dispatch(long event)
+	{
+		perform(event);
+	}
+
+	@Override
+	public void keyTyped(KeyEvent event)
+	{
+	}
+
+	@Override
+	public void keyPressed(KeyEvent event)
+	{
+		if (perform(PackedKeyEvent.pack(event)))
+			event.consume();
+	}
+
+	@Override
+	public void keyReleased(KeyEvent event)
+	{
+		if (perform(PackedKeyEvent.pack(event)))
+			event.consume();
+	}
+
+	@Override
+	public int getState()
+	{
+		return SERVICE_UNDEFINID;
+	}
+
+	@Override
+	public void start()
+	{
+	}
+
+	@Override
+	public void update(long delay)
+	{
+	}
+
+	@Override
+	public void interrupted()
+	{
+	}
+
+	@Override
+	public void terminate()
+	{
+	}
+
+	/**
+	 * <h1>Contexto</h1>
+	 *
+	 * <p>Posio imutvel da pilha de contextos, com o mapa de aes e o contexto abaixo dela.</p>
+	 */
+
+	private static final class Layer
+	{
+		/**
+		 * Mapa de aes compilado do contexto.
+		 */
+		final ActionMap map;
+
+		/**
+		 * Contexto abaixo deste na pilha ou null se for o ltimo.
+		 */
+		final Layer below;
+
+		/**
+		 * Constri um novo contexto sendo necessrio definir:
+		 * @param map mapa de aes compilado do contexto.
+		 * @param below contexto abaixo deste na pilha ou null se for o ltimo.
+		 */
+
+		Layer(ActionMap map, Layer below)
+		{
+			this.map = map;
+			this.below = below;
+		}
+	}
+}
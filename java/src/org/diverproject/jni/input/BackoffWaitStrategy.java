@@ -0,0 +1,117 @@
+package org.diverproject.jni.input;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h1>Espera Progressiva</h1>
+ *
+ * <p>Estratgia que comea ocupando a CPU e aos poucos passa a ceder e suspender a thread.
+ * Logo aps um evento a latncia  a mesma da espera ocupada, j que eventos de teclado
+ * costumam aparecer em sequncia, como o digitar e pressionar de uma mesma tecla.</p>
+ *
+ * <p>Quando a fila continuar vazia a thread ser suspensa por um tempo que dobra
+ * a cada tentativa, at alcanar o tempo mximo de suspenso definido.
+ * No depende de sinais do apanhador e por isso  a estratgia padro do sistema.
+ * Uma interrupo apenas encerra a suspenso atual e  descartada, como na espera por suspenso.</p>
+ *
+ * @see KeyboardWaitStrategy
+ *
+ * @author Andrew
+ */
+
+public class BackoffWaitStrategy implements KeyboardWaitStrategy
+{
+	/**
+	 * Quantidade padro de tentativas em que a thread se mantm ocupada.
+	 */
+	public static final int DEFAULT_SPINS = 100;
+
+	/**
+	 * Quantidade padro de tentativas em que a thread cede a sua vez.
+	 */
+	public static final int DEFAULT_YIELDS = 100;
+
+	/**
+	 * Tempo padro mnimo de suspenso em nanossegundos.
+	 */
+	public static final long DEFAULT_MIN_PARK = 1000L;
+
+	/**
+	 * Tempo padro mximo de suspenso em nanossegundos.
+	 */
+	public static final long DEFAULT_MAX_PARK = 1000000L;
+
+
+	/**
+	 * Quantidade de tentativas em que a thread se mantm ocupada.
+	 */
+	private final int spins;
+
+	/**
+	 * Quantidade de tentativas em que a thread cede a sua vez (aps as ocupadas).
+	 */
+	private final int yields;
+
+	/**
+	 * Tempo mnimo de suspenso em nanossegundos.
+	 */
+	private final long minPark;
+
+	/**
+	 * Tempo mximo de suspenso em nanossegundos.
+	 */
+	private final long maxPark;
+
+	/**
+	 * Constri uma nova estratgia de espera progressiva usando os valores padres.
+	 */
+
+	public BackoffWaitStrategy()
+	{
+		this(DEFAULT_SPINS, DEFAULT_YIELDS, DEFAULT_MIN_PARK, DEFAULT_MAX_PARK);
+	}
+
+	/**
+	 * Constri uma nova estratgia de espera progressiva sendo necessrio definir:
+	 * @param spins quantidade de tentativas em que a thread se mantm ocupada.
+	 * @param yields quantidade de tentativas em que a thread cede a sua vez.
+	 * @param minPark tempo mnimo de suspenso em nanossegundos.
+	 * @param maxPark tempo mximo de suspenso em nanossegundos.
+	 */
+
+	public BackoffWaitStrategy(int spins, int yields, long minPark, long maxPark)
+	{
+		if (spins < 0 || yields < 0 || minPark < 1 || maxPark < minPark)
+			throw new InputRuntimeException("valores invlidos para espera progressiva (spins: %d, yields: %d, min: %d, max: %d)", spins, yields, minPark, maxPark);
+
+		this.spins = spins;
+		this.yields = yields;
+		this.minPark = minPark;
+		this.maxPark = maxPark;
+	}
+
+	@Override
+	public void idle(int attempts)
+	{
+		if (attempts <= spins)
+			return;
+
+		if (attempts <= spins + yields)
+		{
+			Thread.yield();
+			return;
+		}
+
+		int shift = attempts - spins - yields - 1;
+		long park = shift < 32 ? minPark << shift : maxPark;
+
+		LockSupport.parkNanos(this, park < maxPark && park > 0 ? park : maxPark);
+		Thread.interrupted();
+	}
+
+	@Override
+	public void signal()
+	{
+		
+	}
+}
@@ -0,0 +1,72 @@
+package org.diverproject.jni.input;
+
+/**
+ * <h1>Espera por Bloqueio</h1>
+ *
+ * <p>Estratgia onde a thread do processador aguarda no monitor de um objeto de bloqueio.
+ * Possui o mesmo consumo da espera por suspenso, porm utilizando <code>wait()</code>,
+ * permitindo que a thread seja interrompida e o estado seja visvel como bloqueado.</p>
+ *
+ * <p>Uma interrupo apenas encerra a espera atual e no  mantida na thread, caso contrrio todas as
+ * esperas seguintes retornariam imediatamente e o processador ocuparia a CPU sem eventos. O processador
+ *  encerrado pelo seu prprio estado, verificado a cada retorno da espera.</p>
+ *
+ * <p>O apanhador s ir obter o bloqueio quando o processador estiver aguardando,
+ * assim em quanto houver eventos a thread do gancho nunca ficar bloqueada.</p>
+ *
+ * @see KeyboardWaitStrategy
+ *
+ * @author Andrew
+ */
+
+public class BlockingWaitStrategy implements KeyboardWaitStrategy
+{
+	/**
+	 * Objeto usado como monitor para aguardar e notificar o processador.
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * Determina se o processador est aguardando no monitor do bloqueio.
+	 */
+	private volatile boolean waiting;
+
+	/**
+	 * Determina se h um evento inserido que ainda no foi percebido pelo processador.
+	 */
+	private volatile boolean pending;
+
+	@Override
+	public void idle(int attempts)
+	{
+		synchronized (lock)
+		{
+			waiting = true;
+
+			try {
+
+				while (!pending)
+					lock.wait();
+
+			} catch (InterruptedException e) {
+			}
+
+			waiting = false;
+			pending = false;
+		}
+	}
+
+	@Override
+	public void signal()
+	{
+		pending = true;
+
+		if (waiting)
+		{
+			synchronized (lock)
+			{
+				lock.notify();
+			}
+		}
+	}
+}
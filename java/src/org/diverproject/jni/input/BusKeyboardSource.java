@@ -0,0 +1,275 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyboardBus.CAPACITY_OFFSET;
+import static org.diverproject.jni.input.KeyboardBus.EVENT_OFFSET;
+import static org.diverproject.jni.input.KeyboardBus.HEADER_SIZE;
+import static org.diverproject.jni.input.KeyboardBus.RECORD_SIZE;
+import static org.diverproject.jni.input.KeyboardBus.SEQUENCE_OFFSET;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <h1>Fonte de Barramento para Teclado</h1>
+ *
+ * <p>Fonte de eventos que acompanha o arquivo de um barramento de teclado publicado por outro processo,
+ * repassando os eventos publicados pelo processador e pelos despachantes definidos. Permite que diversos
+ * processos do mesmo computador (jogo, sobreposio, gravador) recebam os eventos de um nico gancho.</p>
+ *
+ * <p>O arquivo  mapeado em memria somente para leitura e percorrido com uma posio prpria da fonte,
+ * sem nenhuma comunicao com o publicador ou com os demais leitores. Os eventos publicados j esto
+ * traduzidos, portanto so repassados ao receptor como esto, sem passar pelo tradutor de teclas.</p>
+ *
+ * <p>Cada registro  lido entre duas leituras do seu nmero de sequncia, e descartado se alguma delas for
+ * diferente da posio esperada, indicando que o registro foi sobrescrito durante a leitura. Quando a fonte
+ * ficar mais que a capacidade do arquivo atrs do publicador, os eventos sobrescritos so contados como perdidos
+ * e a leitura continua a partir do evento mais antigo ainda disponvel.</p>
+ *
+ * <p>Sem eventos a thread da fonte usa uma estratgia de espera, que no pode depender de sinais, j que o
+ * publicador est em outro processo. Por padro  a espera progressiva.</p>
+ *
+ * @see KeyboardEventSource
+ * @see KeyboardBus
+ *
+ * @author Andrew
+ */
+
+public class BusKeyboardSource implements KeyboardEventSource
+{
+	/**
+	 * Arquivo circular do barramento que ser acompanhado.
+	 */
+	private final File file;
+
+	/**
+	 * Determina se a leitura comea pelo evento mais antigo disponvel ou apenas pelos prximos eventos.
+	 */
+	private final boolean fromOldest;
+
+	/**
+	 * Estratgia usada pela thread da fonte enquanto no houver eventos publicados.
+	 */
+	private final KeyboardWaitStrategy waitStrategy;
+
+	/**
+	 * Receptor para o qual os eventos lidos sero repassados.
+	 */
+	private volatile KeyboardReceiver receiver;
+
+	/**
+	 * Thread que acompanha o barramento enquanto a fonte estiver iniciada.
+	 */
+	private Thread thread;
+
+	/**
+	 * Nmero de sequncia do prximo evento que ser lido.
+	 */
+	private volatile long cursor;
+
+	/**
+	 * Quantidade de eventos lidos desde que a fonte foi iniciada.
+	 */
+	private volatile long received;
+
+	/**
+	 * Quantidade de eventos sobrescritos pelo publicador antes de serem lidos.
+	 */
+	private volatile long lost;
+
+	/**
+	 * Falha que interrompeu a leitura ou null se no houver.
+	 */
+	private volatile IOException failure;
+
+	/**
+	 * Constri uma nova fonte de barramento para teclado que recebe apenas os prximos eventos publicados.
+	 * @param file arquivo circular do barramento que ser acompanhado.
+	 */
+
+	public BusKeyboardSource(File file)
+	{
+		this(file, false, new BackoffWaitStrategy());
+	}
+
+	/**
+	 * Constri uma nova fonte de barramento para teclado sendo necessrio definir:
+	 * @param file arquivo circular do barramento que ser acompanhado.
+	 * @param fromOldest true para comear pelo evento mais antigo ainda disponvel no arquivo
+	 * ou false para receber apenas os eventos publicados aps o incio da fonte.
+	 * @param waitStrategy estratgia usada enquanto no houver eventos, no pode depender de sinais.
+	 */
+
+	public BusKeyboardSource(File file, boolean fromOldest, KeyboardWaitStrategy waitStrategy)
+	{
+		if (waitStrategy == null)
+			throw new InputRuntimeException("estratgia de espera no definida");
+
+		this.file = file;
+		this.fromOldest = fromOldest;
+		this.waitStrategy = waitStrategy;
+	}
+
+	@Override
+	public synchronized void start(KeyboardReceiver receiver) throws InputException
+	{
+		if (thread != null)
+			throw new InputException("fonte de barramento para teclado j iniciada");
+
+		MappedByteBuffer mapped;
+
+		try {
+			mapped = map(file);
+		} catch (IOException e) {
+			throw new InputException(e, "falha ao abrir barramento de teclado (file: %s)", file);
+		}
+
+		int capacity = mapped.getInt(CAPACITY_OFFSET);
+		long published = mapped.getLong(SEQUENCE_OFFSET);
+
+		this.receiver = receiver;
+		this.cursor = fromOldest ? Math.max(published - capacity, 0) + 1 : published + 1;
+		this.received = 0;
+		this.lost = 0;
+		this.failure = null;
+
+		thread = new Thread(() -> follow(mapped, capacity), "JNI KBus");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public synchronized void stop()
+	{
+		if (thread != null)
+		{
+			thread.interrupt();
+
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			thread = null;
+		}
+	}
+
+	/**
+	 * Procedimento executado pela thread da fonte, l os eventos publicados at ser parada.
+	 * @param mapped arquivo do barramento mapeado em memria.
+	 * @param capacity quantidade de registros do arquivo.
+	 */
+
+	private void follow(MappedByteBuffer mapped, int capacity)
+	{
+		KeyboardReceiver receiver = this.receiver;
+		Thread current = Thread.currentThread();
+		long cursor = this.cursor;
+		int attempts = 0;
+
+		while (!current.isInterrupted())
+		{
+			long published = mapped.getLong(SEQUENCE_OFFSET);
+
+			if (published < cursor - 1)
+				cursor = published + 1;
+
+			if (published < cursor)
+			{
+				if (mapped.getInt(CAPACITY_OFFSET) != capacity)
+				{
+					failure = new IOException("barramento reiniciado com outra capacidade: " + file);
+					break;
+				}
+
+				waitStrategy.idle(attempts < Integer.MAX_VALUE ? ++attempts : attempts);
+				continue;
+			}
+
+			if (published - cursor >= capacity)
+			{
+				lost += published - capacity + 1 - cursor;
+				cursor = published - capacity + 1;
+			}
+
+			int offset = HEADER_SIZE + (int) (cursor & (capacity - 1)) * RECORD_SIZE;
+			long sequence = mapped.getLong(offset);
+			MemoryFence.load();
+			long event = mapped.getLong(offset + EVENT_OFFSET);
+			MemoryFence.load();
+
+			if (sequence != cursor || mapped.getLong(offset) != cursor)
+				continue;
+
+			this.cursor = ++cursor;
+			attempts = 0;
+
+			receiver.receiveEvent(event);
+			received++;
+		}
+	}
+
+	/**
+	 * Mapeia o arquivo de um barramento em memria somente para leitura e valida o seu cabealho.
+	 * @param file arquivo circular do barramento.
+	 * @return aquisio do arquivo mapeado em memria.
+	 * @throws IOException se o arquivo no puder ser lido ou no for um barramento vlido.
+	 */
+
+	private static MappedByteBuffer map(File file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, 0, channel.size());
+
+			if (!KeyboardBus.isValid(mapped) || mapped.capacity() < HEADER_SIZE + (long) mapped.getInt(CAPACITY_OFFSET) * RECORD_SIZE)
+				throw new IOException("barramento de teclado invlido: " + file);
+
+			return mapped;
+		}
+	}
+
+	/**
+	 * A posio avana a cada evento lido e salta os eventos perdidos.
+	 * @return aquisio do nmero de sequncia do prximo evento que ser lido.
+	 */
+
+	public long getCursor()
+	{
+		return cursor;
+	}
+
+	/**
+	 * Cada evento lido  repassado ao receptor, mesmo que seja descartado pela fila.
+	 * @return aquisio da quantidade de eventos lidos desde que a fonte foi iniciada.
+	 */
+
+	public long getReceived()
+	{
+		return received;
+	}
+
+	/**
+	 * Eventos so perdidos quando a fonte fica mais que a capacidade do arquivo atrs do publicador.
+	 * @return aquisio da quantidade de eventos sobrescritos antes de serem lidos.
+	 */
+
+	public long getLost()
+	{
+		return lost;
+	}
+
+	/**
+	 * A leitura  interrompida em caso de falha, que fica disponvel para consulta.
+	 * @return aquisio da falha que interrompeu a leitura ou null se no houver.
+	 */
+
+	public IOException getFailure()
+	{
+		return failure;
+	}
+}
@@ -0,0 +1,358 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.KeyEvent.KT_TYPED;
+import static org.diverproject.jni.input.KeyTranslator.KF_EXTENDED;
+import static org.diverproject.jni.input.enums.EnumVK.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <h1>Fonte Evdev para Teclado</h1>
+ *
+ * <p>Fonte de eventos para Linux que l os registros <code>struct input_event</code> do evdev,
+ * seja de um dispositivo (<code>/dev/input/event*</code>), de um FIFO ou de um arquivo gravado.
+ * Permite usar o sistema de entrada em sistemas onde o gancho nativo do Windows no existe.</p>
+ *
+ * <p>A leitura  feita por um nico buffer direto reutilizado, onde cada leitura pode trazer
+ * diversos registros de uma s vez, evitando uma chamada ao sistema operacional por evento.
+ * Apenas os registros de tecla (<code>EV_KEY</code>) so considerados, os demais so ignorados.</p>
+ *
+ * <p>Os cdigos de tecla do Linux so convertidos nas teclas virtuais do Windows pela posio
+ * da tecla no teclado ABNT2, assim o tradutor de teclas (e o layout) do sistema de entrada
+ * continua determinando a tecla, o caracter e os modificadores, como no gancho nativo.</p>
+ *
+ * @see KeyboardEventSource
+ *
+ * @author Andrew
+ */
+
+public class EvdevKeyboardSource implements KeyboardEventSource
+{
+	/**
+	 * Tamanho de um registro <code>struct input_event</code> em sistemas de 64 bits.
+	 */
+	public static final int RECORD_SIZE_64 = 24;
+
+	/**
+	 * Tamanho de um registro <code>struct input_event</code> em sistemas de 32 bits.
+	 */
+	public static final int RECORD_SIZE_32 = 16;
+
+	/**
+	 * Quantidade de registros que podem ser obtidos em uma nica leitura.
+	 */
+	public static final int DEFAULT_BATCH = 64;
+
+	/**
+	 * Tipo de registro do evdev referente a teclas.
+	 */
+	public static final int EV_KEY = 0x01;
+
+	/**
+	 * Valor de um registro de tecla quando a tecla for solta.
+	 */
+	public static final int KEY_VALUE_RELEASED = 0;
+
+	/**
+	 * Valor de um registro de tecla quando a tecla for pressionada.
+	 */
+	public static final int KEY_VALUE_PRESSED = 1;
+
+	/**
+	 * Valor de um registro de tecla quando a tecla for repetida por estar pressionada.
+	 */
+	public static final int KEY_VALUE_REPEATED = 2;
+
+	/**
+	 * Quantidade de cdigos de tecla do Linux que podem ser convertidos.
+	 */
+	public static final int CODE_COUNT = 256;
+
+
+	/**
+	 * Vetor com a tecla virtual e as flags (<code>KF</code> << 8) de cada cdigo de tecla do Linux.
+	 */
+	private static final int CODES[] = new int[CODE_COUNT];
+
+	static
+	{
+		codes(1, VK_ESCAPE, VK_1, VK_2, VK_3, VK_4, VK_5, VK_6, VK_7, VK_8, VK_9, VK_0, VK_OEM_MINUS, VK_OEM_PLUS, VK_BACK,
+				VK_TAB, VK_Q, VK_W, VK_E, VK_R, VK_T, VK_Y, VK_U, VK_I, VK_O, VK_P, VK_OEM_4, VK_OEM_6, VK_RETURN,
+				VK_LCONTROL, VK_A, VK_S, VK_D, VK_F, VK_G, VK_H, VK_J, VK_K, VK_L, VK_OEM_1, VK_OEM_7, VK_OEM_3,
+				VK_LSHIFT, VK_OEM_5, VK_Z, VK_X, VK_C, VK_V, VK_B, VK_N, VK_M, VK_OEM_COMMA, VK_OEM_PERIOD, VK_OEM_2,
+				VK_RSHIFT, VK_MULTIPLY, VK_LMENU, VK_SPACE, VK_CAPITAL, VK_F1, VK_F2, VK_F3, VK_F4, VK_F5, VK_F6, VK_F7,
+				VK_F8, VK_F9, VK_F10, VK_NUMLOCK, VK_SCROLL, VK_NUMPAD7, VK_NUMPAD8, VK_NUMPAD9, VK_SUBTRACT,
+				VK_NUMPAD4, VK_NUMPAD5, VK_NUMPAD6, VK_ADD, VK_NUMPAD1, VK_NUMPAD2, VK_NUMPAD3, VK_NUMPAD0, VK_DECIMAL);
+		codes(86, VK_OEM_102, VK_F11, VK_F12, VK_OEM_9);
+		codes(113, VK_VOLUME_MUTE, VK_VOLUME_DOWN, VK_VOLUME_UP);
+		codes(119, VK_PAUSE);
+		codes(121, VK_SEPARATOR);
+		codes(183, VK_F13, VK_F14, VK_F15, VK_F16, VK_F17, VK_F18, VK_F19, VK_F20, VK_F21, VK_F22, VK_F23, VK_F24);
+
+		extended(96, VK_RETURN, VK_RCONTROL, VK_DIVIDE, VK_SNAPSHOT, VK_RMENU);
+		extended(102, VK_HOME, VK_UP, VK_PRIOR, VK_LEFT, VK_RIGHT, VK_END, VK_DOWN, VK_NEXT, VK_INSERT, VK_DELETE);
+		extended(125, VK_LWIN, VK_RWIN, VK_APPS);
+	}
+
+	/**
+	 * Caminho do dispositivo, FIFO ou arquivo de onde os registros sero lidos.
+	 */
+	private final File file;
+
+	/**
+	 * Tamanho de cada registro <code>struct input_event</code> lido.
+	 */
+	private final int recordSize;
+
+	/**
+	 * Quantidade de registros que podem ser obtidos em uma nica leitura.
+	 */
+	private final int batch;
+
+	/**
+	 * Receptor para o qual as teclas lidas sero repassadas.
+	 */
+	private volatile KeyboardReceiver receiver;
+
+	/**
+	 * Thread que faz a leitura dos registros enquanto a fonte estiver iniciada.
+	 */
+	private Thread thread;
+
+	/**
+	 * Quantidade de registros lidos desde que a fonte foi iniciada.
+	 */
+	private volatile long records;
+
+	/**
+	 * Falha que interrompeu a leitura dos registros ou null se no houver.
+	 */
+	private volatile IOException failure;
+
+	/**
+	 * Constri uma nova fonte evdev para teclado usando o tamanho de registro da JVM.
+	 * @param file caminho do dispositivo, FIFO ou arquivo de onde os registros sero lidos.
+	 */
+
+	public EvdevKeyboardSource(File file)
+	{
+		this(file, "32".equals(System.getProperty("sun.arch.data.model")) ? RECORD_SIZE_32 : RECORD_SIZE_64, DEFAULT_BATCH);
+	}
+
+	/**
+	 * Constri uma nova fonte evdev para teclado sendo necessrio definir:
+	 * @param file caminho do dispositivo, FIFO ou arquivo de onde os registros sero lidos.
+	 * @param recordSize tamanho de cada registro (<code>RECORD_SIZE_64</code> ou <code>RECORD_SIZE_32</code>).
+	 * @param batch quantidade de registros que podem ser obtidos em uma nica leitura.
+	 */
+
+	public EvdevKeyboardSource(File file, int recordSize, int batch)
+	{
+		if (recordSize != RECORD_SIZE_64 && recordSize != RECORD_SIZE_32 || batch < 1)
+			throw new InputRuntimeException("valores invlidos para fonte evdev (recordSize: %d, batch: %d)", recordSize, batch);
+
+		this.file = file;
+		this.recordSize = recordSize;
+		this.batch = batch;
+	}
+
+	@Override
+	public synchronized void start(KeyboardReceiver receiver) throws InputException
+	{
+		if (thread != null)
+			throw new InputException("fonte evdev para teclado j iniciada");
+
+		FileChannel channel;
+
+		try {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		} catch (IOException e) {
+			throw new InputException(e, "falha ao abrir dispositivo evdev (file: %s)", file);
+		}
+
+		this.receiver = receiver;
+		this.records = 0;
+		this.failure = null;
+
+		thread = new Thread(() -> read(channel), "JNI KEvdev");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public synchronized void stop()
+	{
+		if (thread != null)
+		{
+			thread.interrupt();
+
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			thread = null;
+		}
+	}
+
+	/**
+	 * Procedimento executado pela thread da fonte, l os registros at o fim do arquivo ou ser parada.
+	 * Uma leitura pode terminar no meio de um registro, que ser completado na leitura seguinte.
+	 * @param channel canal j aberto do dispositivo, FIFO ou arquivo.
+	 */
+
+	private void read(FileChannel channel)
+	{
+		KeyboardReceiver receiver = this.receiver;
+		ByteBuffer buffer = ByteBuffer.allocateDirect(recordSize * batch).order(ByteOrder.nativeOrder());
+		int header = recordSize - 8;
+
+		try (FileChannel input = channel)
+		{
+			while (input.read(buffer) != -1)
+			{
+				buffer.flip();
+
+				int count = 0;
+
+				for (; buffer.remaining() >= recordSize; count++)
+				{
+					int offset = buffer.position();
+
+					int type = buffer.getShort(offset + header) & 0xFFFF;
+					int code = buffer.getShort(offset + header + 2) & 0xFFFF;
+					int value = buffer.getInt(offset + header + 4);
+
+					if (type == EV_KEY)
+						receive(receiver, code, value);
+
+					buffer.position(offset + recordSize);
+				}
+
+				buffer.compact();
+				records += count;
+			}
+
+		} catch (ClosedByInterruptException e) {
+			Thread.interrupted();
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+	/**
+	 * Repassa ao receptor um registro de tecla convertido em tecla virtual.
+	 * Tecla pressionada e repetida geram os mesmos eventos do gancho nativo (digitada e pressionada).
+	 * @param receiver receptor para o qual a tecla ser repassada.
+	 * @param code cdigo da tecla no Linux.
+	 * @param value valor do registro de tecla (<code>KEY_VALUE</code>).
+	 */
+
+	private static void receive(KeyboardReceiver receiver, int code, int value)
+	{
+		int vk = getVirtualKey(code);
+
+		if (vk == VK_UNDEFINED)
+			return;
+
+		int flags = getFlags(code);
+
+		switch (value)
+		{
+			case KEY_VALUE_PRESSED:
+			case KEY_VALUE_REPEATED:
+				receiver.receiveKey(KT_TYPED, vk, flags);
+				receiver.receiveKey(KT_PRESSED, vk, flags);
+				break;
+
+			case KEY_VALUE_RELEASED:
+				receiver.receiveKey(KT_RELEASED, vk, flags);
+				break;
+		}
+	}
+
+	/**
+	 * Converte um cdigo de tecla do Linux na tecla virtual na mesma posio do teclado.
+	 * @param code cdigo da tecla no Linux.
+	 * @return aquisio do cdigo da tecla virtual (<code>VK</code>) ou <code>VK_UNDEFINED</code>.
+	 */
+
+	public static int getVirtualKey(int code)
+	{
+		return code >= 0 && code < CODE_COUNT ? CODES[code] & 0xFF : VK_UNDEFINED;
+	}
+
+	/**
+	 * Determina as flags que a tecla virtual teria se recebida pelo gancho nativo.
+	 * @param code cdigo da tecla no Linux.
+	 * @return aquisio das flags da tecla virtual (<code>KF</code>).
+	 */
+
+	public static int getFlags(int code)
+	{
+		return code >= 0 && code < CODE_COUNT ? CODES[code] >> 8 : 0;
+	}
+
+	/**
+	 * Cada registro lido  contado, mesmo os que no forem referentes a teclas.
+	 * @return aquisio da quantidade de registros lidos desde que a fonte foi iniciada.
+	 */
+
+	public long getRecords()
+	{
+		return records;
+	}
+
+	/**
+	 * A leitura  interrompida em caso de falha, que fica disponvel para consulta.
+	 * @return aquisio da falha que interrompeu a leitura ou null se no houver.
+	 */
+
+	public IOException getFailure()
+	{
+		return failure;
+	}
+
+	/**
+	 * A fonte termina sozinha ao chegar no fim de um arquivo ou ao fechar um FIFO.
+	 * @return true se ainda estiver lendo registros ou false caso contrrio.
+	 */
+
+	public synchronized boolean isRunning()
+	{
+		return thread != null && thread.isAlive();
+	}
+
+	/**
+	 * Define as teclas virtuais de cdigos de tecla do Linux consecutivos.
+	 * @param first primeiro cdigo de tecla do Linux.
+	 * @param vks teclas virtuais de cada cdigo a partir do primeiro (<code>VK</code>).
+	 */
+
+	private static void codes(int first, int... vks)
+	{
+		for (int i = 0; i < vks.length; i++)
+			CODES[first + i] = vks[i];
+	}
+
+	/**
+	 * Define as teclas virtuais estendidas de cdigos de tecla do Linux consecutivos.
+	 * @param first primeiro cdigo de tecla do Linux.
+	 * @param vks teclas virtuais de cada cdigo a partir do primeiro (<code>VK</code>).
+	 */
+
+	private static void extended(int first, int... vks)
+	{
+		for (int i = 0; i < vks.length; i++)
+			CODES[first + i] = KF_EXTENDED << 8 | vks[i];
+	}
+}
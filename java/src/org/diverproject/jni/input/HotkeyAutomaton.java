@@ -0,0 +1,239 @@
+package org.diverproject.jni.input;
+
+import java.util.Arrays;
+
+/**
+ * <h1>Autmato de Atalhos</h1>
+ *
+ * <p>Resultado da compilao de um conjunto de atalhos, um autmato determinstico sobre os toques
+ * de teclas, onde cada toque  a tecla no JNI (<code>EnumKEY</code>) junto dos modificadores abaixados.
+ * Os estados formam uma rvore de prefixos dos atalhos, com ligaes de falha que permitem continuar
+ * o reconhecimento a partir do maior sufixo que ainda seja prefixo de algum atalho, assim como
+ * no algoritmo de Aho-Corasick, sem nunca voltar aos toques j recebidos.</p>
+ *
+ * <p>As transies ficam em uma nica tabela de disperso de endereamento aberto, indexada pelo estado
+ * e pelo toque, e todas as demais informaes em vetores indexados pelo estado. Avanar um toque tem
+ * custo constante amortizado e no cria nenhum objeto. O autmato  imutvel e pode ser compartilhado
+ * por diversos reconhecedores e threads.</p>
+ *
+ * @see HotkeyCompiler
+ * @see HotkeyMatcher
+ *
+ * @author Andrew
+ */
+
+public final class HotkeyAutomaton
+{
+	/**
+	 * Estado inicial do autmato, onde nenhum toque de atalho foi reconhecido.
+	 */
+	static final int ROOT = 0;
+
+	/**
+	 * Valor das posies vazias na tabela de transies.
+	 */
+	private static final long EMPTY = -1L;
+
+	/**
+	 * Constante multiplicativa usada para a disperso das transies.
+	 */
+	private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+
+	/**
+	 * Chaves da tabela de transies, o estado de origem e o toque compactados.
+	 */
+	private final long transitionKeys[];
+
+	/**
+	 * Estado de destino de cada transio da tabela de transies.
+	 */
+	private final int transitionTargets[];
+
+	/**
+	 * Deslocamento usado para obter a posio de uma chave na tabela de transies.
+	 */
+	private final int shift;
+
+	/**
+	 * Estado de falha de cada estado, o maior sufixo que tambm  prefixo de algum atalho.
+	 */
+	final int fail[];
+
+	/**
+	 * Atalho reconhecido ao alcanar cada estado ou -1 se no houver nenhum.
+	 */
+	final int match[];
+
+	/**
+	 * Prximo estado na cadeia de falhas que reconhece algum atalho ou -1 se no houver.
+	 */
+	final int outputs[];
+
+	/**
+	 * Determina se cada estado no possui nenhuma transio para outro estado.
+	 */
+	final boolean leaf[];
+
+	/**
+	 * Tempo mximo em nanossegundos entre dois toques a partir de cada estado.
+	 */
+	final long timeouts[];
+
+	/**
+	 * Cdigo da ao de cada atalho compilado.
+	 */
+	final int actions[];
+
+	/**
+	 * Constri um novo autmato de atalhos, usado apenas pelo compilador de atalhos.
+	 * @param keys chaves da tabela de transies, com <code>EMPTY</code> nas posies vazias.
+	 * @param targets estado de destino de cada transio da tabela de transies.
+	 * @param fail estado de falha de cada estado.
+	 * @param match atalho reconhecido ao alcanar cada estado ou -1.
+	 * @param outputs prximo estado na cadeia de falhas que reconhece algum atalho ou -1.
+	 * @param leaf determina se cada estado no possui nenhuma transio.
+	 * @param timeouts tempo mximo em nanossegundos entre dois toques a partir de cada estado.
+	 * @param actions cdigo da ao de cada atalho compilado.
+	 */
+
+	HotkeyAutomaton(long keys[], int targets[], int fail[], int match[], int outputs[], boolean leaf[], long timeouts[], int actions[])
+	{
+		this.transitionKeys = keys;
+		this.transitionTargets = targets;
+		this.shift = 64 - Integer.numberOfTrailingZeros(keys.length);
+		this.fail = fail;
+		this.match = match;
+		this.outputs = outputs;
+		this.leaf = leaf;
+		this.timeouts = timeouts;
+		this.actions = actions;
+	}
+
+	/**
+	 * Compacta um estado de origem e um toque na chave da tabela de transies.
+	 * @param state estado de origem da transio.
+	 * @param stroke toque de tecla da transio.
+	 * @return aquisio da chave da transio, nunca igual a <code>EMPTY</code>.
+	 */
+
+	static long key(int state, int stroke)
+	{
+		return (long) state << 32 | stroke & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Obtm a posio inicial de uma chave na tabela de transies.
+	 * @param key chave da transio compactada.
+	 * @param shift deslocamento de acordo com o tamanho da tabela.
+	 * @return aquisio da posio onde a procura pela chave deve comear.
+	 */
+
+	static int slot(long key, int shift)
+	{
+		return (int) (key * GOLDEN >>> shift);
+	}
+
+	/**
+	 * Cria uma tabela de transies vazia com espao para uma quantidade de transies.
+	 * @param transitions quantidade de transies que sero inseridas.
+	 * @return aquisio das chaves da tabela, todas vazias, com tamanho potncia de dois.
+	 */
+
+	static long[] newKeys(int transitions)
+	{
+		int size = 2;
+
+		while (size < transitions * 2)
+			size <<= 1;
+
+		long keys[] = new long[size];
+		Arrays.fill(keys, EMPTY);
+
+		return keys;
+	}
+
+	/**
+	 * Insere uma transio na tabela de transies, usado apenas pelo compilador de atalhos.
+	 * @param keys chaves da tabela de transies.
+	 * @param targets estado de destino de cada transio.
+	 * @param state estado de origem da transio.
+	 * @param stroke toque de tecla da transio.
+	 * @param target estado de destino da transio.
+	 */
+
+	static void put(long keys[], int targets[], int state, int stroke, int target)
+	{
+		long key = key(state, stroke);
+		int mask = keys.length - 1;
+		int index = slot(key, 64 - Integer.numberOfTrailingZeros(keys.length));
+
+		while (keys[index] != EMPTY)
+			index = (index + 1) & mask;
+
+		keys[index] = key;
+		targets[index] = target;
+	}
+
+	/**
+	 * Procura a transio direta de um estado, sem considerar as ligaes de falha.
+	 * @param state estado de origem da transio.
+	 * @param stroke toque de tecla da transio.
+	 * @return aquisio do estado de destino ou -1 se no houver transio.
+	 */
+
+	int transition(int state, int stroke)
+	{
+		long key = key(state, stroke);
+		int mask = transitionKeys.length - 1;
+
+		for (int index = slot(key, shift); transitionKeys[index] != EMPTY; index = (index + 1) & mask)
+			if (transitionKeys[index] == key)
+				return transitionTargets[index];
+
+		return -1;
+	}
+
+	/**
+	 * Avana o autmato com um toque, seguindo as ligaes de falha quando no houver transio.
+	 * @param state estado atual do reconhecimento.
+	 * @param stroke toque de tecla recebido.
+	 * @return aquisio do prximo estado, <code>ROOT</code> se nenhum prefixo de atalho terminar no toque.
+	 */
+
+	int next(int state, int stroke)
+	{
+		while (true)
+		{
+			int target = transition(state, stroke);
+
+			if (target != -1)
+				return target;
+
+			if (state == ROOT)
+				return ROOT;
+
+			state = fail[state];
+		}
+	}
+
+	/**
+	 * Inclui o estado inicial, que no reconhece nenhum atalho.
+	 * @return aquisio da quantidade de estados do autmato.
+	 */
+
+	public int getStates()
+	{
+		return fail.length;
+	}
+
+	/**
+	 * Atalhos com a mesma sequncia de toques no podem ser compilados juntos.
+	 * @return aquisio da quantidade de atalhos compilados no autmato.
+	 */
+
+	public int getHotkeys()
+	{
+		return actions.length;
+	}
+}
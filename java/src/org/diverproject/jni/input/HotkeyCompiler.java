@@ -0,0 +1,427 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.HotkeyAutomaton.ROOT;
+import static org.diverproject.jni.input.KeyEvent.KP_ALTERNATIVE;
+import static org.diverproject.jni.input.KeyEvent.KP_CONTROL;
+import static org.diverproject.jni.input.KeyEvent.KP_SHIFT;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_MAX;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_NAME;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_RIGHT_ALT;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_RIGHT_SHIFT;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_UNDEFINED;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>Compilador de Atalhos</h1>
+ *
+ * <p>Rene um conjunto de atalhos de teclado e os compila em um autmato de atalhos, que ser usado
+ * pelo reconhecedor de atalhos para identificar os atalhos sem comparar cada evento com cada atalho.
+ * Um atalho  uma sequncia de um ou mais toques, onde cada toque  uma tecla junto dos modificadores
+ * que devero estar abaixados, como em <code>Ctrl+Shift+K</code>, <code>G G</code> ou um cdigo de trapaa.</p>
+ *
+ * <p>Os toques de um atalho em texto so separados por espaos, e cada toque possui os modificadores
+ * <code>CTRL</code>, <code>SHIFT</code> e <code>ALT</code> seguidos do nome da tecla (<code>EnumKEY</code>,
+ * com ou sem o prefixo <code>KEY_</code>), todos separados por <code>+</code> e sem diferenciar maisculas.
+ * Teclas modificadoras no podem ser toques de um atalho, j que so ignoradas pelo reconhecedor.</p>
+ *
+ * <p>Cada atalho possui um tempo mximo entre dois toques, quando excedido o reconhecimento recomea.
+ * Atalhos que compartilham o incio da sequncia compartilham tambm o maior desses tempos.</p>
+ *
+ * @see HotkeyAutomaton
+ * @see HotkeyMatcher
+ *
+ * @author Andrew
+ */
+
+public final class HotkeyCompiler
+{
+	/**
+	 * Tempo mximo padro em milissegundos entre dois toques de um atalho.
+	 */
+	public static final long DEFAULT_TIMEOUT = 1000;
+
+	/**
+	 * Mscara das propriedades consideradas como modificadores de um toque.
+	 */
+	private static final int MODIFIERS = KP_SHIFT | KP_CONTROL | KP_ALTERNATIVE;
+
+	/**
+	 * Deslocamento das propriedades dos modificadores para o incio do toque.
+	 */
+	private static final int MODIFIERS_SHIFT = 3;
+
+
+	/**
+	 * Atalhos registrados que sero compilados, na ordem em que foram registrados.
+	 */
+	private final List<Hotkey> hotkeys;
+
+	/**
+	 * Constri um novo compilador de atalhos sem nenhum atalho registrado.
+	 */
+
+	public HotkeyCompiler()
+	{
+		hotkeys = new ArrayList<>();
+	}
+
+	/**
+	 * Registra um atalho em texto com o tempo mximo padro entre os toques.
+	 * @param hotkey atalho em texto, como <code>Ctrl+Shift+K</code> ou <code>G G</code>.
+	 * @param action cdigo da ao que ser repassado quando o atalho for reconhecido.
+	 * @throws InputException se o atalho em texto no for vlido.
+	 */
+
+	public void bind(String hotkey, int action) throws InputException
+	{
+		bind(hotkey, action, DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Registra um atalho em texto, os toques separados por espaos e os modificadores por <code>+</code>.
+	 * @param hotkey atalho em texto, como <code>Ctrl+Shift+K</code> ou <code>G G</code>.
+	 * @param action cdigo da ao que ser repassado quando o atalho for reconhecido.
+	 * @param timeout tempo mximo em milissegundos entre dois toques do atalho.
+	 * @throws InputException se o atalho em texto no for vlido.
+	 */
+
+	public void bind(String hotkey, int action, long timeout) throws InputException
+	{
+		String tokens[] = hotkey.trim().split("\\s+");
+		int strokes[] = new int[tokens.length];
+
+		for (int i = 0; i < tokens.length; i++)
+			strokes[i] = parseStroke(tokens[i]);
+
+		bind(strokes, action, timeout);
+	}
+
+	/**
+	 * Registra um cdigo de trapaa, onde cada letra ou nmero do texto  um toque sem modificadores.
+	 * @param text texto que dever ser digitado, como <code>IDDQD</code>.
+	 * @param action cdigo da ao que ser repassado quando o texto for reconhecido.
+	 * @param timeout tempo mximo em milissegundos entre dois toques do texto.
+	 * @throws InputException se o texto possuir algum caracter que no seja letra ou nmero.
+	 */
+
+	public void bindText(String text, int action, long timeout) throws InputException
+	{
+		int strokes[] = new int[text.length()];
+
+		for (int i = 0; i < strokes.length; i++)
+		{
+			char ch = Character.toUpperCase(text.charAt(i));
+
+			if (!Character.isLetterOrDigit(ch) || ch > 'Z')
+				throw new InputException("caracter invlido para atalho (text: %s, index: %d)", text, i);
+
+			strokes[i] = stroke(parseKey(String.valueOf(ch)), 0);
+		}
+
+		bind(strokes, action, timeout);
+	}
+
+	/**
+	 * Registra um atalho a partir dos seus toques j convertidos por <code>stroke(int, int)</code>.
+	 * @param strokes toques de tecla do atalho, na ordem em que devero ser pressionados.
+	 * @param action cdigo da ao que ser repassado quando o atalho for reconhecido.
+	 * @param timeout tempo mximo em milissegundos entre dois toques do atalho.
+	 * @throws InputException se no houver toques, algum toque for invlido ou o tempo no for positivo.
+	 */
+
+	public void bind(int strokes[], int action, long timeout) throws InputException
+	{
+		if (strokes.length == 0)
+			throw new InputException("atalho sem nenhum toque (action: %d)", action);
+
+		if (timeout <= 0)
+			throw new InputException("tempo mximo invlido para atalho (timeout: %d)", timeout);
+
+		for (int stroke : strokes)
+		{
+			int key = stroke >>> MODIFIERS_SHIFT;
+
+			if (key <= KEY_UNDEFINED || key >= KEY_MAX || isModifier(key))
+				throw new InputException("tecla invlida para atalho (key: %d)", key);
+		}
+
+		hotkeys.add(new Hotkey(strokes.clone(), action, TimeUnit.MILLISECONDS.toNanos(timeout)));
+	}
+
+	/**
+	 * Remove todos os atalhos registrados, os autmatos j compilados no so alterados.
+	 */
+
+	public void clear()
+	{
+		hotkeys.clear();
+	}
+
+	/**
+	 * Atalhos com a mesma sequncia de toques so contados separadamente, mas no podem ser compilados.
+	 * @return aquisio da quantidade de atalhos registrados.
+	 */
+
+	public int size()
+	{
+		return hotkeys.size();
+	}
+
+	/**
+	 * Compila todos os atalhos registrados em um novo autmato de atalhos.
+	 * Os estados formam uma rvore de prefixos, cujas ligaes de falha so obtidas em largura.
+	 * @return aquisio do autmato de atalhos compilado.
+	 * @throws InputException se dois atalhos possurem a mesma sequncia de toques.
+	 */
+
+	public HotkeyAutomaton compile() throws InputException
+	{
+		int capacity = 1;
+
+		for (Hotkey hotkey : hotkeys)
+			capacity += hotkey.strokes.length;
+
+		Map<Long, Integer> transitions = new HashMap<>();
+		int parents[] = new int[capacity];
+		int strokes[] = new int[capacity];
+		int match[] = new int[capacity];
+		long timeouts[] = new long[capacity];
+		int actions[] = new int[hotkeys.size()];
+		int states = 1;
+
+		Arrays.fill(match, -1);
+
+		for (int index = 0; index < hotkeys.size(); index++)
+		{
+			Hotkey hotkey = hotkeys.get(index);
+			int state = ROOT;
+
+			for (int stroke : hotkey.strokes)
+			{
+				timeouts[state] = Math.max(timeouts[state], hotkey.timeout);
+
+				Long key = HotkeyAutomaton.key(state, stroke);
+				Integer target = transitions.get(key);
+
+				if (target == null)
+				{
+					parents[states] = state;
+					strokes[states] = stroke;
+					transitions.put(key, target = states++);
+				}
+
+				state = target;
+			}
+
+			if (match[state] != -1)
+				throw new InputException("atalho repetido (action: %d, previous: %d)", hotkey.action, actions[match[state]]);
+
+			match[state] = index;
+			actions[index] = hotkey.action;
+		}
+
+		int fail[] = new int[states];
+		int outputs[] = new int[states];
+		boolean leaf[] = new boolean[states];
+		long keys[] = HotkeyAutomaton.newKeys(transitions.size());
+		int targets[] = new int[keys.length];
+
+		Arrays.fill(leaf, true);
+		outputs[ROOT] = -1;
+
+		for (Map.Entry<Long, Integer> entry : transitions.entrySet())
+		{
+			int target = entry.getValue();
+
+			HotkeyAutomaton.put(keys, targets, parents[target], strokes[target], target);
+			leaf[parents[target]] = false;
+		}
+
+		int order[] = breadthFirst(states, parents);
+
+		for (int i = 1; i < states; i++)
+		{
+			int state = order[i];
+			int parent = parents[state];
+			int stroke = strokes[state];
+			int target = ROOT;
+
+			if (parent != ROOT)
+			{
+				int candidate = fail[parent];
+
+				while (true)
+				{
+					Integer next = transitions.get(HotkeyAutomaton.key(candidate, stroke));
+
+					if (next != null)
+					{
+						target = next;
+						break;
+					}
+
+					if (candidate == ROOT)
+						break;
+
+					candidate = fail[candidate];
+				}
+			}
+
+			fail[state] = target;
+			outputs[state] = match[target] != -1 ? target : outputs[target];
+		}
+
+		return new HotkeyAutomaton(keys, targets, fail, Arrays.copyOf(match, states), outputs, leaf, Arrays.copyOf(timeouts, states), actions);
+	}
+
+	/**
+	 * Ordena os estados da rvore de prefixos em largura, a raiz sempre na primeira posio.
+	 * @param states quantidade de estados da rvore de prefixos.
+	 * @param parents estado pai de cada estado, exceto a raiz.
+	 * @return aquisio dos estados ordenados pela sua profundidade.
+	 */
+
+	private static int[] breadthFirst(int states, int parents[])
+	{
+		int depths[] = new int[states];
+		int counts[] = new int[states + 1];
+		counts[ROOT] = 1;
+
+		for (int state = 1; state < states; state++)
+			counts[depths[state] = depths[parents[state]] + 1]++;
+
+		for (int depth = 1; depth <= states; depth++)
+			counts[depth] += counts[depth - 1];
+
+		int order[] = new int[states];
+
+		for (int state = states - 1; state >= 0; state--)
+			order[--counts[depths[state]]] = state;
+
+		return order;
+	}
+
+	/**
+	 * Compacta uma tecla e as propriedades do teclado em um toque de atalho.
+	 * Apenas os modificadores SHIFT, CTRL e ALT so considerados, independente do lado.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @param properties propriedades do teclado no momento do toque (<code>KP</code>).
+	 * @return aquisio do toque de atalho compactado.
+	 */
+
+	public static int stroke(int key, int properties)
+	{
+		return key << MODIFIERS_SHIFT | (properties & MODIFIERS) >>> MODIFIERS_SHIFT;
+	}
+
+	/**
+	 * Obtm a tecla de um toque de atalho compactado, sem os modificadores.
+	 * @param stroke toque de atalho compactado por <code>stroke(int, int)</code>.
+	 * @return aquisio do cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 */
+
+	static int getKey(int stroke)
+	{
+		return stroke >>> MODIFIERS_SHIFT;
+	}
+
+	/**
+	 * Converte um toque em texto, modificadores e tecla separados por <code>+</code>, em um toque compactado.
+	 * @param token toque em texto, como <code>Ctrl+Shift+K</code>.
+	 * @return aquisio do toque de atalho compactado.
+	 * @throws InputException se algum modificador ou a tecla no forem vlidos.
+	 */
+
+	public static int parseStroke(String token) throws InputException
+	{
+		String parts[] = token.toUpperCase().split("\\+");
+		int properties = 0;
+
+		for (int i = 0; i < parts.length - 1; i++)
+			switch (parts[i])
+			{
+				case "CTRL": case "CONTROL": properties |= KP_CONTROL; break;
+				case "SHIFT": properties |= KP_SHIFT; break;
+				case "ALT": case "ALTERNATIVE": properties |= KP_ALTERNATIVE; break;
+
+				default:
+					throw new InputException("modificador invlido para atalho (stroke: %s, modifier: %s)", token, parts[i]);
+			}
+
+		return stroke(parseKey(parts[parts.length - 1]), properties);
+	}
+
+	/**
+	 * Converte o nome de uma tecla, com ou sem o prefixo <code>KEY_</code>, no seu cdigo.
+	 * @param name nome da tecla em letras maisculas.
+	 * @return aquisio do cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @throws InputException se no houver uma tecla com esse nome.
+	 */
+
+	private static int parseKey(String name) throws InputException
+	{
+		if (name.startsWith("KEY_"))
+			name = name.substring(4);
+
+		for (int key = KEY_UNDEFINED + 1; key < KEY_MAX; key++)
+			if (KEY_NAME[key].equals(name))
+				return key;
+
+		throw new InputException("tecla invlida para atalho (key: %s)", name);
+	}
+
+	/**
+	 * Teclas modificadoras apenas alteram as propriedades do teclado e so ignoradas nos atalhos.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @return true se for uma das teclas SHIFT, CTRL ou ALT de qualquer lado.
+	 */
+
+	static boolean isModifier(int key)
+	{
+		return key >= KEY_RIGHT_SHIFT && key <= KEY_RIGHT_ALT;
+	}
+
+	/**
+	 * <h1>Atalho</h1>
+	 *
+	 * <p>Atalho registrado no compilador, ainda no compilado.</p>
+	 */
+
+	private static final class Hotkey
+	{
+		/**
+		 * Toques de tecla do atalho, na ordem em que devero ser pressionados.
+		 */
+		final int strokes[];
+
+		/**
+		 * Cdigo da ao que ser repassado quando o atalho for reconhecido.
+		 */
+		final int action;
+
+		/**
+		 * Tempo mximo em nanossegundos entre dois toques do atalho.
+		 */
+		final long timeout;
+
+		/**
+		 * Constri um novo atalho sendo necessrio definir:
+		 * @param strokes toques de tecla do atalho.
+		 * @param action cdigo da ao do atalho.
+		 * @param timeout tempo mximo em nanossegundos entre dois toques do atalho.
+		 */
+
+		Hotkey(int strokes[], int action, long timeout)
+		{
+			this.strokes = strokes;
+			this.action = action;
+			this.timeout = timeout;
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package org.diverproject.jni.input;
+
+/**
+ * <h1>Leitura de Atalho</h1>
+ *
+ * <p>Objetos com essa interface recebem as aes dos atalhos reconhecidos pelo reconhecedor de atalhos.
+ * Cada atalho registrado no compilador de atalhos possui o cdigo de uma ao, que ser repassado
+ * para essa leitura sempre que a ltima tecla do atalho for pressionada.</p>
+ *
+ * <p> chamado pela mesma thread que despacha os eventos de teclado para o reconhecedor,
+ * portanto deve retornar o quanto antes para no atrasar os eventos seguintes.</p>
+ *
+ * @see HotkeyMatcher
+ * @see HotkeyCompiler
+ *
+ * @author Andrew
+ */
+
+public interface HotkeyListener
+{
+	/**
+	 * Chamado sempre que um atalho for reconhecido, uma nica vez para cada reconhecimento.
+	 * @param action cdigo da ao definido no registro do atalho reconhecido.
+	 */
+
+	void hotkeyPerformed(int action);
+}
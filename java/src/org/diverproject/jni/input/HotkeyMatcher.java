@@ -0,0 +1,265 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.HotkeyAutomaton.ROOT;
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_MAX;
+
+/**
+ * <h1>Reconhecedor de Atalhos</h1>
+ *
+ * <p>Avana um autmato de atalhos a cada tecla pressionada e repassa as aes dos atalhos reconhecidos
+ * para a leitura de atalhos definida. Pode ser usado como despachante compactado no sistema de entrada,
+ * como leitura de tecla em um despachante de leituras, onde consome os eventos que completarem um atalho,
+ * ou ainda chamado diretamente por outro despachante atravs de <code>advance(long, long)</code>.</p>
+ *
+ * <p>Apenas o primeiro pressionamento de uma tecla  considerado, repeties automticas enquanto a tecla
+ * estiver abaixada e teclas modificadoras so ignoradas, os modificadores fazem parte de cada toque.
+ * Quando o tempo entre dois toques exceder o tempo mximo do estado atual o reconhecimento recomea.
+ * O tempo  medido pelos momentos em que o apanhador recebeu os eventos e no pelo momento do despache,
+ * que pode atrasar um quadro inteiro ou a fila de uma caixa de mensagens. Apenas os eventos despachados
+ * um a um como compactados, sem o momento do recebimento, usam o momento do despache.
+ * Um atalho que seja o incio de outro  reconhecido imediatamente, sem esperar pelo mais longo.
+ * Os toques de um atalho reconhecido no so consumidos pelo reconhecimento, que continua pelos toques
+ * finais que forem o incio de outro atalho: com os atalhos A B e B C, a sequncia A B C reconhece os dois.</p>
+ *
+ * <p>Deve ser avanado por uma nica thread, normalmente a do processador de teclado. O autmato pode ser
+ * trocado por qualquer thread a qualquer momento, o reconhecimento recomea no prximo evento.
+ * Nenhum objeto  criado ao avanar um evento.</p>
+ *
+ * @see HotkeyCompiler
+ * @see HotkeyAutomaton
+ * @see HotkeyListener
+ *
+ * @author Andrew
+ */
+
+public class HotkeyMatcher implements PackedKeyboardDispatcher, KeyListener
+{
+	/**
+	 * Autmato de atalhos definido, que ser usado a partir do prximo evento.
+	 */
+	private volatile HotkeyAutomaton automaton;
+
+	/**
+	 * Leitura que ir receber as aes dos atalhos reconhecidos.
+	 */
+	private volatile HotkeyListener listener;
+
+	/**
+	 * Autmato usado no reconhecimento atual, ao qual pertence o estado atual.
+	 */
+	private HotkeyAutomaton current;
+
+	/**
+	 * Estado atual do reconhecimento no autmato atual.
+	 */
+	private int state;
+
+	/**
+	 * Momento em nanossegundos do ltimo toque que avanou o reconhecimento.
+	 */
+	private long last;
+
+	/**
+	 * Teclas abaixadas no momento, um bit para cada tecla, usado para ignorar repeties.
+	 */
+	private final long held[];
+
+	/**
+	 * Constri um novo reconhecedor de atalhos sendo necessrio definir:
+	 * @param automaton autmato de atalhos compilado que ser reconhecido.
+	 * @param listener leitura que ir receber as aes dos atalhos reconhecidos.
+	 */
+
+	public HotkeyMatcher(HotkeyAutomaton automaton, HotkeyListener listener)
+	{
+		if (automaton == null || listener == null)
+			throw new InputRuntimeException("autmato ou leitura de atalhos no definidos");
+
+		this.automaton = automaton;
+		this.listener = listener;
+		this.held = new long[(KEY_MAX + 63) >>> 6];
+	}
+
+	/**
+	 * Avana o reconhecimento com um evento de tecla, repassando as aes dos atalhos reconhecidos.
+	 * Deve ser chamado sempre pela mesma thread e com momentos que nunca diminuem.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @param time momento em nanossegundos em que o evento ocorreu.
+	 * @return true se algum atalho tiver sido reconhecido com esse evento ou false caso contrrio.
+	 */
+
+	public boolean advance(long event, long time)
+	{
+		HotkeyAutomaton automaton = this.automaton;
+
+		if (automaton != current)
+		{
+			current = automaton;
+			state = ROOT;
+		}
+
+		int key = PackedKeyEvent.getKey(event);
+
+		if (key <= 0 || key >= KEY_MAX)
+			return false;
+
+		int word = key >>> 6;
+		long bit = 1L << key;
+
+		switch (PackedKeyEvent.getType(event))
+		{
+			case KT_RELEASED:
+				held[word] &= ~bit;
+				return false;
+
+			case KT_PRESSED:
+				if ((held[word] & bit) != 0)
+					return false;
+
+				held[word] |= bit;
+				break;
+
+			default:
+				return false;
+		}
+
+		if (HotkeyCompiler.isModifier(key))
+			return false;
+
+		if (state != ROOT && time - last > automaton.timeouts[state])
+			state = ROOT;
+
+		state = automaton.next(state, HotkeyCompiler.stroke(key, PackedKeyEvent.getProperties(event)));
+		last = time;
+
+		int output = automaton.match[state] != -1 ? state : automaton.outputs[state];
+
+		if (output == -1)
+			return false;
+
+		HotkeyListener listener = this.listener;
+
+		for (; output != -1; output = automaton.outputs[output])
+			listener.hotkeyPerformed(automaton.actions[automaton.match[output]]);
+
+		if (automaton.leaf[state])
+			state = automaton.fail[state];
+
+		return true;
+	}
+
+	/**
+	 * Recomea o reconhecimento, descartando os toques recebidos at o momento.
+	 * Deve ser chamado pela mesma thread que avana o reconhecimento.
+	 */
+
+	public void reset()
+	{
+		state = ROOT;
+	}
+
+	/**
+	 * O autmato  imutvel e pode ser compartilhado por diversos reconhecedores.
+	 * @return aquisio do autmato de atalhos que est sendo reconhecido.
+	 */
+
+	public HotkeyAutomaton getAutomaton()
+	{
+		return automaton;
+	}
+
+	/**
+	 * Permite trocar os atalhos reconhecidos por qualquer thread, vlido a partir do prximo evento.
+	 * @param automaton autmato de atalhos compilado que ser reconhecido.
+	 */
+
+	public void setAutomaton(HotkeyAutomaton automaton)
+	{
+		if (automaton == null)
+			throw new InputRuntimeException("autmato de atalhos no definido");
+
+		this.automaton = automaton;
+	}
+
+	/**
+	 * A leitura  chamada pela thread que avana o reconhecimento.
+	 * @return aquisio da leitura que recebe as aes dos atalhos reconhecidos.
+	 */
+
+	public HotkeyListener getListener()
+	{
+		return listener;
+	}
+
+	/**
+	 * Permite trocar a leitura que recebe as aes dos atalhos reconhecidos por qualquer thread.
+	 * @param listener leitura que ir receber as aes dos atalhos reconhecidos.
+	 */
+
+	public void setListener(HotkeyListener listener)
+	{
+		if (listener == null)
+			throw new InputRuntimeException("leitura de atalhos no definida");
+
+		this.listener = listener;
+	}
+
+	@Override
+	public void dispatch(long event)
+	{
+		advance(event, System.nanoTime());
+	}
+
+	@Override
+	public void dispatchBatch(long events[], long sequences[], long timestamps[], int offset, int count)
+	{
+		for (int i = offset; i < offset + count; i++)
+			advance(events[i], timestamps[i]);
+	}
+
+	@Override
+	public void keyTyped(KeyEvent event)
+	{
+	}
+
+	@Override
+	public void keyPressed(KeyEvent event)
+	{
+		if (advance(PackedKeyEvent.pack(event), event.getTime()))
+			event.consume();
+	}
+
+	@Override
+	public void keyReleased(KeyEvent event)
+	{
+		advance(PackedKeyEvent.pack(event), event.getTime());
+	}
+
+	@Override
+	public int getState()
+	{
+		return SERVICE_UNDEFINID;
+	}
+
+	@Override
+	public void start()
+	{
+	}
+
+	@Override
+	public void update(long delay)
+	{
+	}
+
+	@Override
+	public void interrupted()
+	{
+	}
+
+	@Override
+	public void terminate()
+	{
+	}
+}
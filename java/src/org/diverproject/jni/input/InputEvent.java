@@ -17,6 +17,9 @@ import org.diverproject.util.ObjectDescription;
  * Para que o evento seja de fato perdido ele dever ser feito pelo servio que o est usando.
  * Internamente ir apenas atribuir uma valor a uma das propriedades indicando que foi consumido.</p>
  *
+ * <p>Todo evento possui o momento em que ocorreu, obtido por <code>System.nanoTime()</code>,
+ * que  monotnico e pode ser comparado com outros momentos do mesmo processo.</p>
+ *
  * @author Andrew
  */
 
@@ -41,7 +44,7 @@ public abstract class InputEvent
 	/**
 	 * Tipo de ao que o evento est executando.
 	 */
-	private final int type;
+	private int type;
 
 	/**
 	 * Determina se o evento j foi consumido.
@@ -49,7 +52,13 @@ public abstract class InputEvent
 	private boolean consumed;
 
 	/**
-	 * Constri um novo evento sendo necessrio definir o seguinte:
+	 * Momento em nanossegundos em que o evento ocorreu.
+	 */
+	private long time;
+
+	/**
+	 * Constri um novo evento sendo necessrio definir o seguinte,
+	 * o momento em que o evento ocorreu  o momento da sua construo:
 	 * @param id identificao do gnero a qual o evento pertence.
 	 * @param type cdigo da ao que o evento est executando.
 	 */
@@ -58,6 +67,27 @@ public abstract class InputEvent
 	{
 		this.id = id;
 		this.type = type;
+		this.time = System.nanoTime();
+	}
+
+	/**
+	 * Obtido por <code>System.nanoTime()</code>, no corresponde a uma data e hora.
+	 * @return aquisio do momento em nanossegundos em que o evento ocorreu.
+	 */
+
+	public long getTime()
+	{
+		return time;
+	}
+
+	/**
+	 * Define o momento em que o evento ocorreu, usado quando o evento  criado aps ter ocorrido.
+	 * @param time momento em nanossegundos obtido por <code>System.nanoTime()</code>.
+	 */
+
+	void setTime(long time)
+	{
+		this.time = time;
 	}
 
 	/**
@@ -94,6 +124,18 @@ public abstract class InputEvent
 		consumed = true;
 	}
 
+	/**
+	 * Usado apenas por eventos reciclados, para que possam ser reutilizados como novos.
+	 * Dever definir o novo tipo de ao e desfazer o consumo do evento anterior.
+	 * @param type cdigo da ao que o evento reutilizado estar executando.
+	 */
+
+	void reset(int type)
+	{
+		this.type = type;
+		this.consumed = false;
+	}
+
 	/**
 	 * Ir verificar se o evento em questo j foi consumindo durante a sua utilizao.
 	 * @return true se tiver sido consumido ou false caso contrrio.
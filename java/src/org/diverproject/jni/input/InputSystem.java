@@ -1,7 +1,10 @@
 package org.diverproject.jni.input;
 
+import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
 import org.diverproject.util.UtilException;
-import org.diverproject.util.service.LibrarySystem;
 import org.diverproject.util.service.Service;
 import org.diverproject.util.service.ServiceException;
 import org.diverproject.util.service.SystemBase;
@@ -13,19 +16,34 @@ import org.diverproject.util.service.SystemBase;
  * Aqui dever ser definido qual o servio para despache do mouse e teclado.
  * Como tambm dever garantir que estes sejam iniciados corretamente.</p>
  *
- * <p>Quando chamado pela primeira vez, ir inicializar a biblioteca do arquivo DLL.
- * Utilizando as seguintes informaes:<br>
- * <b>Sistema para Carregar Bibliotecas:</b>: <class>LibrarySystem</class><br>
- * <b>Nome da Biblioteca que ser carregada: <code>jniInput</code><br>
- * <b>Caminho da Propriedade na JVM:</b> org.diverproject.librarypath.</p>
+ * <p>Os eventos de teclado so obtidos de uma fonte de eventos selecionada no sistema,
+ * por padro o gancho nativo do Windows, que s carrega a biblioteca (DLL) ao ser iniciado.
+ * Outras fontes permitem usar o sistema de entrada sem a DLL ou em outros sistemas.</p>
+ *
+ * <p>O estado do teclado pode ser mantido mesmo sem nenhum despachante definido, sendo que
+ * a cada atualizao do sistema de entrada  publicado um novo quadro do estado do teclado.</p>
+ *
+ * <p>A thread do processador de teclado  criada por uma fbrica de threads configurvel, e os
+ * despachantes podem ser chamados pelo prprio processador ou cada um pela sua caixa de mensagens,
+ * executada em um executor, para que um despachante lento no atrase os demais.</p>
+ *
+ * <p>No modo de despache sncrono no h thread do processador, os eventos recebidos desde o quadro
+ * anterior so despachados em lote pela thread que chamar <code>update(long)</code>, de modo que os
+ * despachantes e as leituras no precisam de sincronizao.</p>
  *
  * <p>Possui getters e setters correspondentes aos servios de despache de entrada.
  * Podendo ainda inicializar ou desligar os servios que nele j foram definidos.
  * Usando as funcionalidades de um servio de modo que este funcione durante trocas.</p>
  *
  * @see SystemBase
- * @see KeyboardHook
+ * @see KeyboardEventSource
  * @see KeyboardDispatcher
+ * @see PackedKeyboardDispatcher
+ * @see KeyboardState
+ * @see KeyboardTrace
+ * @see KeyboardBus
+ * @see KeyboardStatePage
+ * @see ActionBuffer
  *
  * @author Andrew
  */
@@ -33,44 +51,207 @@ import org.diverproject.util.service.SystemBase;
 public class InputSystem extends SystemBase
 {
 	/**
-	 * Referncia do objeto InputSystem para adaptar ao padro de projetos Singleton.
+	 * Poltica de transbordo onde a fonte de eventos espera at haver espao na fila.
 	 */
-	private static final InputSystem INSTANCE = new InputSystem();
+	public static final int KO_BLOCK = 1;
+
+	/**
+	 * Poltica de transbordo onde o evento recebido  descartado (padro).
+	 */
+	public static final int KO_DROP_NEWEST = 2;
 
 	/**
-	 * Chamado quando essa classe for chamada pela primeira vez no sistema.
-	 * Dever garantir que a biblioteca (DLL) seja carregada adequadamente.
-	 * O carregamento j possui um padro pr-definido e deve usar o mesmo.
-	 * Caso a inicializao no possa ser atendida os servios no vo funcionar.
+	 * Poltica de transbordo onde o evento mais antigo da fila  descartado.
 	 */
+	public static final int KO_DROP_OLDEST = 3;
 
-	static
+	/**
+	 * Poltica de transbordo onde repeties do ltimo evento so descartadas,
+	 * enquanto os demais eventos descartam o evento mais antigo da fila.
+	 */
+	public static final int KO_COALESCE = 4;
+
+	/**
+	 * Vetor contendo o nome das polticas de transbordo da fila de espera.
+	 */
+	public static final String KEYBOARD_OVERFLOW_POLICIES[] = new String[]
 	{
-		LibrarySystem ls = LibrarySystem.getInstance();
-		ls.load("jniInput", "org.diverproject.librarypath");
-	}
+		"UNKNOWN", "BLOCK", "DROP_NEWEST", "DROP_OLDEST", "COALESCE"
+	};
+
+	/**
+	 * Modo de despache onde o processador chama todos os despachantes na sua thread (padro).
+	 */
+	public static final int KD_INLINE = 1;
+
+	/**
+	 * Modo de despache onde cada despachante recebe os eventos por uma caixa de mensagens prpria,
+	 * despachada por tarefas no executor definido, mantendo a ordem dos eventos de cada despachante.
+	 * Com o despachante de leituras de tecla, cada leitura registrada possui a sua prpria caixa.
+	 */
+	public static final int KD_MAILBOX = 2;
+
+	/**
+	 * Modo de despache sem a thread do processador, onde os eventos recebidos desde a ltima atualizao
+	 * so despachados em lote pela thread que chamar <code>update(long)</code>.
+	 */
+	public static final int KD_SYNCHRONOUS = 3;
+
+	/**
+	 * Vetor contendo o nome dos modos de despache dos eventos de teclado.
+	 */
+	public static final String KEYBOARD_DISPATCH_MODES[] = new String[]
+	{
+		"UNKNOWN", "INLINE", "MAILBOX", "SYNCHRONOUS"
+	};
+
+
+	/**
+	 * Referncia do objeto InputSystem para adaptar ao padro de projetos Singleton.
+	 */
+	private static final InputSystem INSTANCE = new InputSystem();
 
 	/**
-	 * Objeto que ir manter a conexo da aplicao com a biblioteca.
+	 * Apanhador que recebe os eventos da fonte enquanto o sistema estiver inicializado.
 	 */
-	private KeyboardHook keyboardPoolHook;
+	private KeyboardPicker keyboardPicker;
+
+	/**
+	 * Fonte dos eventos de teclado que ser iniciada junto com o sistema de entrada.
+	 */
+	private KeyboardEventSource keyboardEventSource = new NativeKeyboardSource();
 
 	/**
 	 * Referncia do despachante para eventos de teclado.
 	 */
 	private KeyboardDispatcher keyboardDispatcher;
 
+	/**
+	 * Referncia do despachante para eventos de teclado compactados.
+	 */
+	private PackedKeyboardDispatcher packedKeyboardDispatcher;
+
+	/**
+	 * Quantidade de eventos que a fila de espera do teclado poder armazenar.
+	 */
+	private int keyboardBufferCapacity = KeyboardBuffer.DEFAULT_CAPACITY;
+
+	/**
+	 * Determina se a fila de espera do teclado dever aceitar diversos produtores.
+	 */
+	private boolean keyboardBufferConcurrent;
+
+	/**
+	 * Poltica usada quando um evento de teclado for recebido com a fila de espera cheia.
+	 */
+	private int keyboardOverflowPolicy = KO_DROP_NEWEST;
+
+	/**
+	 * Determina se repeties de teclas mantidas abaixadas sero agrupadas na fila de espera.
+	 */
+	private boolean keyboardRepeatCoalescing;
+
+	/**
+	 * Estratgia usada pelo processador de teclado quando no houver eventos.
+	 */
+	private KeyboardWaitStrategy keyboardWaitStrategy = new BackoffWaitStrategy();
+
+	/**
+	 * Modo usado para chamar os despachantes com os eventos de teclado retirados da fila.
+	 */
+	private int keyboardDispatchMode = KD_INLINE;
+
+	/**
+	 * Fbrica usada para criar a thread do processador de teclado.
+	 */
+	private ThreadFactory keyboardThreadFactory = KeyboardProcessor.THREAD_FACTORY;
+
+	/**
+	 * Executor das caixas de mensagens dos despachantes ou null para que cada caixa possua a sua thread.
+	 */
+	private Executor keyboardDispatchExecutor;
+
+	/**
+	 * Determina se os eventos de teclado devero ser reciclados aps o despache.
+	 */
+	private boolean keyboardEventRecycling;
+
+	/**
+	 * Determina se as mtricas do despache de eventos de teclado sero registradas.
+	 */
+	private boolean keyboardMetricsEnabled;
+
+	/**
+	 * Determina se o estado do teclado ser mantido pelo processador de teclado.
+	 */
+	private boolean keyboardStateEnabled;
+
+	/**
+	 * Quantidade de nmeros de sequncia para cada evento de teclado rastreado ou zero para no rastrear.
+	 */
+	private int keyboardTraceSampling;
+
+	/**
+	 * Dirio onde os eventos de teclado sero gravados ou null se no forem gravados.
+	 */
+	private KeyboardJournal keyboardJournal;
+
+	/**
+	 * Barramento onde os eventos de teclado sero publicados para outros processos ou null se no forem publicados.
+	 */
+	private KeyboardBus keyboardBus;
+
+	/**
+	 * Pgina onde o estado do teclado ser espelhado para outros processos ou null se no for espelhado.
+	 */
+	private KeyboardStatePage keyboardStatePage;
+
+	/**
+	 * Tradutor das teclas virtuais recebidas da DLL, pode ser trocado a qualquer momento.
+	 */
+	private volatile KeyTranslator keyTranslator = new TableKeyTranslator();
+
+	/**
+	 * Carregador dos layouts de teclado, mantm em cache os layouts j carregados.
+	 */
+	private final KeyboardLayoutLoader keyboardLayoutLoader = new KeyboardLayoutLoader();
+
+	/**
+	 * Armazenamento das aes de evento, expiradas a cada atualizao do sistema de entrada.
+	 */
+	private final ActionBuffer actionBuffer = new ActionBuffer();
+
 	@Override
 	public String getSystemName()
 	{
 		return "JNI.Input";
 	}
 
+	/**
+	 * No modo de despache sncrono, despacha primeiro os eventos de teclado recebidos desde a ltima
+	 * atualizao, antes de atualizar os despachantes e publicar o quadro do estado do teclado.
+	 * Nesse modo deve ser chamado sempre pela mesma thread.
+	 * Por ltimo avana o armazenamento de aes, expirando as aes cuja durao foi excedida.
+	 */
+
 	@Override
 	public void update(long delay)
 	{
+		KeyboardPicker picker = keyboardPicker;
+
+		if (picker != null)
+			picker.drain();
+
 		if (keyboardDispatcher != null)
 			keyboardDispatcher.update(delay);
+
+		if (packedKeyboardDispatcher != null)
+			packedKeyboardDispatcher.update(delay);
+
+		if (picker != null && picker.state != null)
+			picker.state.update(delay);
+
+		actionBuffer.update(delay);
 	}
 
 	@Override
@@ -84,14 +265,31 @@ public class InputSystem extends SystemBase
 				keyboardDispatcher = null;
 			}
 
+			if (packedKeyboardDispatcher != null)
+			{
+				packedKeyboardDispatcher.terminate();
+				packedKeyboardDispatcher = null;
+			}
+
 		} catch (UtilException e) {
 			throw new InputException(e.getMessage());
 		}
 
-		if (keyboardPoolHook != null)
+		if (keyboardPicker != null)
 		{
-			keyboardPoolHook.shutdown();
-			keyboardPoolHook = null;
+			keyboardEventSource.stop();
+			keyboardPicker.shutdown();
+
+			if (keyboardPicker.journal != null)
+				keyboardPicker.journal.close();
+
+			if (keyboardPicker.bus != null)
+				keyboardPicker.bus.close();
+
+			if (keyboardPicker.statePage != null)
+				keyboardPicker.statePage.close();
+
+			keyboardPicker = null;
 		}
 	}
 
@@ -104,20 +302,630 @@ public class InputSystem extends SystemBase
 
 	public void initialize() throws InputException
 	{
-		if (keyboardDispatcher != null)
+		if (keyboardBufferConcurrent && isDiscarding(keyboardOverflowPolicy))
+			throw new InputException("poltica de transbordo no suportada pela fila concorrente (policy: %s)", KEYBOARD_OVERFLOW_POLICIES[keyboardOverflowPolicy]);
+
+		if (keyboardRepeatCoalescing && (keyboardBufferConcurrent || isDiscarding(keyboardOverflowPolicy)))
+			throw new InputException("agrupamento de repeties no suportado pela fila (policy: %s, concurrent: %s)", KEYBOARD_OVERFLOW_POLICIES[keyboardOverflowPolicy], keyboardBufferConcurrent);
+
+		if (keyboardBus != null && keyboardBufferConcurrent)
+			throw new InputException("barramento de teclado no suportado pela fila concorrente (file: %s)", keyboardBus.getFile());
+
+		if (keyboardJournal != null && keyboardBufferConcurrent)
+			throw new InputException("dirio de teclado no suportado pela fila concorrente (name: %s)", keyboardJournal.getName());
+
+		if (keyboardDispatcher != null || packedKeyboardDispatcher != null || keyboardStateEnabled || keyboardJournal != null || keyboardBus != null || keyboardStatePage != null)
 		{
-			if (keyboardDispatcher.getState() != Service.SERVICE_UNDEFINID)
-				throw new InputException("KeyboardDispatcher fora do estado esperado");
+			KeyEventPool pool = keyboardEventRecycling ? new KeyEventPool(keyboardBufferCapacity) : null;
+
+			if (keyboardJournal != null)
+				keyboardJournal.open();
+
+			if (keyboardBus != null)
+			{
+				try {
+					keyboardBus.open();
+				} catch (InputException e) {
+					if (keyboardJournal != null)
+						keyboardJournal.close();
+
+					throw e;
+				}
+			}
+
+			if (keyboardStatePage != null)
+			{
+				try {
+					keyboardStatePage.open();
+				} catch (InputException e) {
+					if (keyboardJournal != null)
+						keyboardJournal.close();
+
+					if (keyboardBus != null)
+						keyboardBus.close();
+
+					throw e;
+				}
+			}
+
+			try {
+
+				initialize(keyboardDispatcher, "KeyboardDispatcher");
+				initialize(packedKeyboardDispatcher, "PackedKeyboardDispatcher");
+
+			} catch (InputException e) {
+				if (keyboardJournal != null)
+					keyboardJournal.close();
+
+				if (keyboardBus != null)
+					keyboardBus.close();
+
+				if (keyboardStatePage != null)
+					keyboardStatePage.close();
+
+				throw e;
+			}
+
+			KeyboardPickerConfig config = new KeyboardPickerConfig(newKeyboardBuffer(), keyboardWaitStrategy)
+				.setPool(pool)
+				.setJournal(keyboardJournal)
+				.setBus(keyboardBus)
+				.setStatePage(keyboardStatePage)
+				.setMetrics(keyboardMetricsEnabled ? new KeyboardMetrics() : null)
+				.setState(keyboardStateEnabled ? new KeyboardState() : null)
+				.setTracer(keyboardTraceSampling > 0 ? new KeyboardTracer(keyboardTraceSampling) : null)
+				.setOverflowPolicy(keyboardOverflowPolicy)
+				.setCoalescing(keyboardRepeatCoalescing)
+				.setThreadFactory(keyboardDispatchMode != KD_SYNCHRONOUS ? keyboardThreadFactory : null)
+				.setMailbox(keyboardDispatchMode == KD_MAILBOX)
+				.setExecutor(keyboardDispatchExecutor);
+
+			keyboardPicker = new KeyboardPicker(config);
+
+			try {
+				keyboardEventSource.start(keyboardPicker);
+			} catch (InputException e) {
+				keyboardPicker.shutdown();
+				keyboardPicker = null;
+
+				if (keyboardJournal != null)
+					keyboardJournal.close();
+
+				if (keyboardBus != null)
+					keyboardBus.close();
+
+				if (keyboardStatePage != null)
+					keyboardStatePage.close();
+
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Procedimento interno para inicializar um servio de despache caso este esteja definido.
+	 * @param service referncia do servio de despache que ser inicializado.
+	 * @param name nome do servio que ser exibido caso no possa ser inicializado.
+	 * @throws InputException apenas se o servio no estiver no estado esperado ou falhar.
+	 */
+
+	private void initialize(Service service, String name) throws InputException
+	{
+		if (service == null)
+			return;
+
+		if (service.getState() != Service.SERVICE_UNDEFINID)
+			throw new InputException("%s fora do estado esperado", name);
 
 		try {
-			keyboardDispatcher.start();
+			service.start();
 		} catch (UtilException e) {
 			throw new InputException(e.getMessage());
 		}
+	}
 
-			keyboardPoolHook = new KeyboardHook();
-			keyboardPoolHook.start();
-		}
+	/**
+	 * Cria uma nova fila de espera para os eventos de teclado conforme as configuraes.
+	 * @return aquisio de uma nova fila de espera vazia para eventos de teclado.
+	 */
+
+	private KeyboardBuffer newKeyboardBuffer()
+	{
+		if (keyboardBufferConcurrent)
+			return new KeyboardConcurrentRingBuffer(keyboardBufferCapacity);
+
+		return new KeyboardRingBuffer(keyboardBufferCapacity, isDiscarding(keyboardOverflowPolicy), keyboardRepeatCoalescing);
+	}
+
+	/**
+	 * Verifica se uma poltica de transbordo descarta o evento mais antigo da fila de espera.
+	 * @param policy cdigo da poltica de transbordo (<code>KO</code>).
+	 * @return true se a fila de espera precisar ser descartvel ou false caso contrrio.
+	 */
+
+	private static boolean isDiscarding(int policy)
+	{
+		return policy == KO_DROP_OLDEST || policy == KO_COALESCE;
+	}
+
+	/**
+	 * A fonte de eventos determina de onde os eventos de teclado sero obtidos.
+	 * @return aquisio da fonte de eventos de teclado do sistema de entrada.
+	 */
+
+	public KeyboardEventSource getKeyboardEventSource()
+	{
+		return keyboardEventSource;
+	}
+
+	/**
+	 * Permite definir a fonte de eventos de teclado, vlido na prxima inicializao.
+	 * No pode ser trocada enquanto o sistema de entrada estiver inicializado.
+	 * @param source referncia da fonte de onde os eventos de teclado sero obtidos.
+	 * @throws InputException se no tiver sido definida ou o sistema estiver inicializado.
+	 */
+
+	public void setKeyboardEventSource(KeyboardEventSource source) throws InputException
+	{
+		if (source == null)
+			throw new InputException("fonte de eventos para teclado no definida");
+
+		if (keyboardPicker != null)
+			throw new InputException("fonte de eventos para teclado em uso");
+
+		keyboardEventSource = source;
+	}
+
+	/**
+	 * A fila de espera do teclado possui capacidade fixa e no cresce durante o uso.
+	 * @return aquisio da quantidade de eventos que a fila de espera poder armazenar.
+	 */
+
+	public int getKeyboardBufferCapacity()
+	{
+		return keyboardBufferCapacity;
+	}
+
+	/**
+	 * Permite definir a capacidade da fila de espera do teclado, vlido na prxima inicializao.
+	 * A capacidade ser arredondada para a prxima potncia de dois se necessrio.
+	 * @param capacity quantidade de eventos que a fila de espera poder armazenar.
+	 * @throws InputException apenas se a capacidade no for um valor vlido.
+	 */
+
+	public void setKeyboardBufferCapacity(int capacity) throws InputException
+	{
+		if (capacity < 1 || capacity > KeyboardRingBuffer.MAX_CAPACITY)
+			throw new InputException("capacidade invlida para o buffer (capacity: %d)", capacity);
+
+		keyboardBufferCapacity = capacity;
+	}
+
+	/**
+	 * A poltica de transbordo determina o que ser feito quando a fila de espera estiver cheia.
+	 * @return aquisio do cdigo da poltica de transbordo da fila de espera (<code>KO</code>).
+	 */
+
+	public int getKeyboardOverflowPolicy()
+	{
+		return keyboardOverflowPolicy;
+	}
+
+	/**
+	 * Permite definir a poltica usada quando a fila de espera estiver cheia, vlido na prxima inicializao.
+	 * <code>KO_BLOCK</code> prende a fonte de eventos, que no caso do gancho nativo pode ser removido pelo sistema.
+	 * <code>KO_DROP_OLDEST</code> e <code>KO_COALESCE</code> no so suportadas pela fila concorrente.
+	 * @param policy cdigo da poltica de transbordo da fila de espera (<code>KO</code>).
+	 * @throws InputException apenas se o cdigo no for de uma poltica de transbordo.
+	 */
+
+	public void setKeyboardOverflowPolicy(int policy) throws InputException
+	{
+		if (policy < KO_BLOCK || policy > KO_COALESCE)
+			throw new InputException("poltica de transbordo invlida (policy: %d)", policy);
+
+		keyboardOverflowPolicy = policy;
+	}
+
+	/**
+	 * Com o agrupamento, repeties automticas ainda no despachadas so somadas em um nico evento.
+	 * @return true se as repeties de teclas mantidas abaixadas forem agrupadas ou false caso contrrio.
+	 */
+
+	public boolean isKeyboardRepeatCoalescing()
+	{
+		return keyboardRepeatCoalescing;
+	}
+
+	/**
+	 * Permite definir se as repeties de teclas mantidas abaixadas sero agrupadas, vlido na prxima inicializao.
+	 * A quantidade de repeties  obtida por <code>KeyEvent.getRepeatCount()</code>, teclas soltas nunca so agrupadas.
+	 * No  suportado pela fila concorrente, nem pelas polticas <code>KO_DROP_OLDEST</code> e <code>KO_COALESCE</code>.
+	 * @param coalescing true para agrupar as repeties ou false para despachar cada uma delas.
+	 */
+
+	public void setKeyboardRepeatCoalescing(boolean coalescing)
+	{
+		keyboardRepeatCoalescing = coalescing;
+	}
+
+	/**
+	 * Uma fila de espera concorrente permite que diversas threads nativas insiram eventos.
+	 * @return true se a fila de espera for concorrente ou false se for de um nico produtor.
+	 */
+
+	public boolean isKeyboardBufferConcurrent()
+	{
+		return keyboardBufferConcurrent;
+	}
+
+	/**
+	 * Permite definir se a fila de espera do teclado dever aceitar diversos produtores.
+	 * Ser considerado apenas na prxima inicializao do sistema de entrada.
+	 * @param concurrent true para diversos produtores ou false para um nico produtor.
+	 */
+
+	public void setKeyboardBufferConcurrent(boolean concurrent)
+	{
+		keyboardBufferConcurrent = concurrent;
+	}
+
+	/**
+	 * A estratgia de espera determina a latncia e o consumo da CPU pelo processador.
+	 * @return aquisio da estratgia usada quando no houver eventos de teclado.
+	 */
+
+	public KeyboardWaitStrategy getKeyboardWaitStrategy()
+	{
+		return keyboardWaitStrategy;
+	}
+
+	/**
+	 * Permite definir a estratgia de espera do processador, vlido na prxima inicializao.
+	 * Por padro  usado uma espera progressiva que no depende de sinais do apanhador.
+	 * @param strategy referncia da estratgia usada quando no houver eventos de teclado.
+	 * @throws InputException apenas se a estratgia no tiver sido definida.
+	 */
+
+	public void setKeyboardWaitStrategy(KeyboardWaitStrategy strategy) throws InputException
+	{
+		if (strategy == null)
+			throw new InputException("estratgia de espera no definida");
+
+		keyboardWaitStrategy = strategy;
+	}
+
+	/**
+	 * O modo de despache determina qual thread chama cada despachante com os eventos de teclado.
+	 * @return aquisio do cdigo do modo de despache dos eventos de teclado (<code>KD</code>).
+	 */
+
+	public int getKeyboardDispatchMode()
+	{
+		return keyboardDispatchMode;
+	}
+
+	/**
+	 * Permite definir o modo de despache dos eventos de teclado, vlido na prxima inicializao.
+	 * <code>KD_MAILBOX</code> usa uma thread para cada caixa ou o executor de despache, uma caixa cheia descarta eventos apenas
+	 * para o seu despachante, deixando lacunas na sequncia de eventos que este recebe.
+	 * <code>KD_SYNCHRONOUS</code> depende das chamadas de <code>update(long)</code>, a fila de espera
+	 * deve comportar os eventos de um quadro, caso contrrio ser aplicada a poltica de transbordo.
+	 * @param mode cdigo do modo de despache dos eventos de teclado (<code>KD</code>).
+	 * @throws InputException apenas se o cdigo no for de um modo de despache.
+	 */
+
+	public void setKeyboardDispatchMode(int mode) throws InputException
+	{
+		if (mode < KD_INLINE || mode > KD_SYNCHRONOUS)
+			throw new InputException("modo de despache invlido (mode: %d)", mode);
+
+		keyboardDispatchMode = mode;
+	}
+
+	/**
+	 * A fbrica de threads determina o tipo da thread do processador, como threads virtuais.
+	 * @return aquisio da fbrica usada para criar a thread do processador de teclado.
+	 */
+
+	public ThreadFactory getKeyboardThreadFactory()
+	{
+		return keyboardThreadFactory;
+	}
+
+	/**
+	 * Permite definir a fbrica de threads do processador de teclado, vlido na prxima inicializao.
+	 * Em verses do Java com threads virtuais pode ser usado <code>Thread.ofVirtual().factory()</code>,
+	 * nesse caso a estratgia de espera deve estacionar a thread em vez de ocupar a CPU.
+	 * @param factory referncia da fbrica usada para criar a thread do processador.
+	 * @throws InputException apenas se a fbrica no tiver sido definida.
+	 */
+
+	public void setKeyboardThreadFactory(ThreadFactory factory) throws InputException
+	{
+		if (factory == null)
+			throw new InputException("fbrica de threads no definida");
+
+		keyboardThreadFactory = factory;
+	}
+
+	/**
+	 * O executor de despache  usado apenas pelo modo de despache <code>KD_MAILBOX</code>.
+	 * @return aquisio do executor das caixas de mensagens ou null se no tiver sido definido.
+	 */
+
+	public Executor getKeyboardDispatchExecutor()
+	{
+		return keyboardDispatchExecutor;
+	}
+
+	/**
+	 * Permite definir o executor das caixas de mensagens dos despachantes, vlido na prxima inicializao.
+	 * Em verses do Java com threads virtuais pode ser usado <code>Executors.newVirtualThreadPerTaskExecutor()</code>.
+	 * Sem um executor cada caixa possui uma nica thread criada pela fbrica de threads, mantida at o encerramento.
+	 * @param executor referncia do executor das caixas de mensagens ou null para uma thread em cada caixa.
+	 */
+
+	public void setKeyboardDispatchExecutor(Executor executor)
+	{
+		keyboardDispatchExecutor = executor;
+	}
+
+	/**
+	 * Eventos reciclados so reutilizados assim que o despache terminar, sem novas alocaes.
+	 * @return true se os eventos de teclado forem reciclados ou false caso contrrio.
+	 */
+
+	public boolean isKeyboardEventRecycling()
+	{
+		return keyboardEventRecycling;
+	}
+
+	/**
+	 * Permite definir se os eventos de teclado sero reciclados, vlido na prxima inicializao.
+	 * Quando ativo, despachantes e ouvintes que mantenham eventos aps o despache devero
+	 * chamar <code>KeyEvent.retain()</code> e depois <code>KeyEvent.release()</code>.
+	 * @param recycling true para reciclar os eventos ou false para sempre criar novos.
+	 */
+
+	public void setKeyboardEventRecycling(boolean recycling)
+	{
+		keyboardEventRecycling = recycling;
+	}
+
+	/**
+	 * Mtricas permitem identificar se um atraso est no gancho, na fila ou em um despachante.
+	 * @return true se as mtricas de teclado forem registradas ou false caso contrrio.
+	 */
+
+	public boolean isKeyboardMetricsEnabled()
+	{
+		return keyboardMetricsEnabled;
+	}
+
+	/**
+	 * Permite definir se as mtricas de teclado sero registradas, vlido na prxima inicializao.
+	 * Quando ativo, o momento da insero de cada evento e o tempo de cada despache so medidos.
+	 * @param enabled true para registrar as mtricas ou false para no registrar.
+	 */
+
+	public void setKeyboardMetricsEnabled(boolean enabled)
+	{
+		keyboardMetricsEnabled = enabled;
+	}
+
+	/**
+	 * Obtm uma fotografia das mtricas de teclado registradas desde a inicializao.
+	 * Pode ser chamado a qualquer momento e por qualquer thread, sem interferir no despache.
+	 * @return aquisio da fotografia das mtricas de teclado ou null se no forem registradas.
+	 */
+
+	public KeyboardMetricsSnapshot getKeyboardMetrics()
+	{
+		KeyboardPicker picker = keyboardPicker;
+
+		return picker == null ? null : picker.getMetrics();
+	}
+
+	/**
+	 * Rastros permitem identificar onde est a latncia entre uma entrada e a ao correspondente.
+	 * @return aquisio da quantidade de nmeros de sequncia para cada evento rastreado ou zero.
+	 */
+
+	public int getKeyboardTraceSampling()
+	{
+		return keyboardTraceSampling;
+	}
+
+	/**
+	 * Permite definir a amostragem dos rastros de eventos de teclado, vlido na prxima inicializao.
+	 * So rastreados os eventos cujo nmero de sequncia seja mltiplo da amostragem, registrando os
+	 * momentos do recebimento, da retirada da fila de espera e do retorno de cada despachante.
+	 * @param sampling quantidade de nmeros de sequncia para cada evento rastreado,
+	 * sendo 1 para rastrear todos os eventos ou zero para no rastrear.
+	 * @throws InputException apenas se a amostragem for negativa.
+	 */
+
+	public void setKeyboardTraceSampling(int sampling) throws InputException
+	{
+		if (sampling < 0)
+			throw new InputException("amostragem de rastros invlida (sampling: %d)", sampling);
+
+		keyboardTraceSampling = sampling;
+	}
+
+	/**
+	 * Obtm os rastros mais recentes dos eventos de teclado amostrados desde a inicializao.
+	 * Pode ser chamado a qualquer momento e por qualquer thread, sem interferir no despache.
+	 * So mantidos apenas os ltimos <code>1024</code> rastros, os mais antigos so sobrescritos.
+	 * @return aquisio dos rastros em ordem de nmero de sequncia ou null se no forem rastreados.
+	 */
+
+	public KeyboardTrace[] getKeyboardTraces()
+	{
+		KeyboardPicker picker = keyboardPicker;
+
+		return picker == null || picker.tracer == null ? null : picker.tracer.getTraces();
+	}
+
+	/**
+	 * O estado do teclado permite consultar as teclas abaixadas sem um despachante para teclado.
+	 * @return true se o estado do teclado for mantido ou false caso contrrio.
+	 */
+
+	public boolean isKeyboardStateEnabled()
+	{
+		return keyboardStateEnabled;
+	}
+
+	/**
+	 * Permite definir se o estado do teclado ser mantido, vlido na prxima inicializao.
+	 * Quando ativo, a fonte de eventos  iniciada mesmo que no haja nenhum despachante definido.
+	 * @param enabled true para manter o estado do teclado ou false para no manter.
+	 */
+
+	public void setKeyboardStateEnabled(boolean enabled)
+	{
+		keyboardStateEnabled = enabled;
+	}
+
+	/**
+	 * Obtm o estado do teclado mantido desde a inicializao, pode ser consultado por qualquer thread.
+	 * Um novo quadro do estado do teclado  publicado a cada chamada de <code>update(long)</code>.
+	 * @return aquisio do estado do teclado ou null se no for mantido ou no tiver sido inicializado.
+	 */
+
+	public KeyboardState getKeyboardState()
+	{
+		KeyboardPicker picker = keyboardPicker;
+
+		return picker == null ? null : picker.state;
+	}
+
+	/**
+	 * O dirio grava todos os eventos de teclado recebidos para uma anlise posterior.
+	 * @return aquisio do dirio de teclado ou null se os eventos no forem gravados.
+	 */
+
+	public KeyboardJournal getKeyboardJournal()
+	{
+		return keyboardJournal;
+	}
+
+	/**
+	 * Permite definir o dirio onde os eventos de teclado sero gravados.
+	 * No  suportado pela fila concorrente, o dirio  gravado por um nico produtor.
+	 * Ser considerado apenas na prxima inicializao do sistema de entrada.
+	 * @param journal referncia do dirio de teclado ou null para no gravar os eventos.
+	 */
+
+	public void setKeyboardJournal(KeyboardJournal journal)
+	{
+		keyboardJournal = journal;
+	}
+
+	/**
+	 * O barramento publica todos os eventos de teclado recebidos para outros processos do computador.
+	 * @return aquisio do barramento de teclado ou null se os eventos no forem publicados.
+	 */
+
+	public KeyboardBus getKeyboardBus()
+	{
+		return keyboardBus;
+	}
+
+	/**
+	 * Permite definir o barramento onde os eventos de teclado sero publicados para outros processos,
+	 * que os recebem atravs de <code>BusKeyboardSource</code>. Com um barramento o apanhador  criado
+	 * mesmo sem despachantes, para que um processo apenas publique os eventos do gancho.
+	 * Ser considerado apenas na prxima inicializao do sistema de entrada.
+	 * @param bus referncia do barramento de teclado ou null para no publicar os eventos.
+	 */
+
+	public void setKeyboardBus(KeyboardBus bus)
+	{
+		keyboardBus = bus;
+	}
+
+	/**
+	 * A pgina espelha as teclas abaixadas e os modificadores para outros processos do computador.
+	 * @return aquisio da pgina de estado do teclado ou null se o estado no for espelhado.
+	 */
+
+	public KeyboardStatePage getKeyboardStatePage()
+	{
+		return keyboardStatePage;
+	}
+
+	/**
+	 * Permite definir a pgina onde o estado do teclado ser espelhado para outros processos,
+	 * que o consultam atravs de <code>KeyboardStatePageReader</code>. A pgina  atualizada pelo
+	 * processador de teclado, independente de o estado do teclado ser mantido no sistema de entrada.
+	 * Ser considerado apenas na prxima inicializao do sistema de entrada.
+	 * @param page referncia da pgina de estado do teclado ou null para no espelhar o estado.
+	 */
+
+	public void setKeyboardStatePage(KeyboardStatePage page)
+	{
+		keyboardStatePage = page;
+	}
+
+	/**
+	 * O tradutor determina a tecla, o caracter e os modificadores de cada tecla virtual.
+	 * @return aquisio do tradutor de teclas usado pelo apanhador para teclado.
+	 */
+
+	public KeyTranslator getKeyTranslator()
+	{
+		return keyTranslator;
+	}
+
+	/**
+	 * Permite trocar o tradutor de teclas, mesmo com o sistema de entrada j inicializado.
+	 * Os prximos eventos recebidos da DLL j sero traduzidos pelo novo tradutor.
+	 * @param translator referncia do tradutor de teclas que ser usado.
+	 * @throws InputException apenas se o tradutor no tiver sido definido.
+	 */
+
+	public void setKeyTranslator(KeyTranslator translator) throws InputException
+	{
+		if (translator == null)
+			throw new InputException("tradutor de teclas no definido");
+
+		keyTranslator = translator;
+	}
+
+	/**
+	 * O carregador pode ser usado para carregar layouts antecipadamente ou limpar o cache.
+	 * @return aquisio do carregador de layouts de teclado usado pelo sistema de entrada.
+	 */
+
+	public KeyboardLayoutLoader getKeyboardLayoutLoader()
+	{
+		return keyboardLayoutLoader;
+	}
+
+	/**
+	 * As aes armazenadas so expiradas pelo atraso informado a cada <code>update(long)</code>,
+	 * podendo ser consumidas pelo seu cdigo por qualquer despachante ou pela thread do jogo.
+	 * @return aquisio do armazenamento de aes do sistema de entrada.
+	 */
+
+	public ActionBuffer getActionBuffer()
+	{
+		return actionBuffer;
+	}
+
+	/**
+	 * Carrega um layout de teclado e o define como tradutor de teclas do sistema de entrada.
+	 * A troca  atmica, os prximos eventos recebidos j sero traduzidos pelo novo layout.
+	 * @param file arquivo binrio ou descrio em texto do layout de teclado.
+	 * @throws InputException falha na leitura ou se o contedo do arquivo for invlido.
+	 */
+
+	public void setKeyboardLayout(File file) throws InputException
+	{
+		setKeyTranslator(keyboardLayoutLoader.load(file));
 	}
 
 	/**
@@ -150,6 +958,37 @@ public class InputSystem extends SystemBase
 		keyboardDispatcher = dispatcher;
 	}
 
+	/**
+	 * Despachante compactado recebe os eventos de teclado sem que objetos sejam criados.
+	 * @return aquisio do atual despachante para eventos de teclado compactados.
+	 */
+
+	public PackedKeyboardDispatcher getPackedKeyboardDispatcher()
+	{
+		return packedKeyboardDispatcher;
+	}
+
+	/**
+	 * Permite definir qual ser o novo despachante de eventos compactados a ser usado.
+	 * Pode ser usado junto de um despachante para teclado, ambos iro receber os eventos.
+	 * @param dispatcher referncia do objeto que ser o novo despachante compactado.
+	 * @throws InputException apenas se j houver um e este no puder ser interrompido.
+	 */
+
+	public void setPackedKeyboardDispatcher(PackedKeyboardDispatcher dispatcher) throws InputException
+	{
+		try {
+
+			if (packedKeyboardDispatcher != null)
+				packedKeyboardDispatcher.interrupted();
+
+		} catch (ServiceException e) {
+			throw new InputException(e.getMessage());
+		}
+
+		packedKeyboardDispatcher = dispatcher;
+	}
+
 	/**
 	 * Essa classe utiliza o padro de projeto Singleton onde s pode existir
 	 * apenas uma instncia desse objeto, no sendo possvel criar uma outra.
@@ -0,0 +1,275 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyboardJournal.HEADER_SIZE;
+import static org.diverproject.jni.input.KeyboardJournal.MAGIC;
+import static org.diverproject.jni.input.KeyboardJournal.RECORD_SIZE;
+import static org.diverproject.jni.input.KeyboardJournal.VERSION;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h1>Fonte de Reproduo para Teclado</h1>
+ *
+ * <p>Fonte de eventos que reproduz um dirio de teclado gravado anteriormente,
+ * repassando os eventos gravados pelo processador e pelos despachantes definidos.
+ * Permite executar sesses reais de usurios contra novas verses dos despachantes.</p>
+ *
+ * <p>Os segmentos do dirio so mapeados em memria e lidos sequencialmente, em ordem de ndice,
+ * at que no exista o prximo segmento. Os eventos gravados j esto traduzidos, portanto
+ * so repassados ao receptor como esto, sem passar pelo tradutor de teclas.</p>
+ *
+ * <p>A velocidade determina o intervalo entre os eventos: <code>1</code> reproduz no tempo original,
+ * valores maiores aceleram a reproduo (<code>10</code>  dez vezes mais rpido) e
+ * <code>MAX_SPEED</code> reproduz o mais rpido possvel. O momento de cada evento  calculado
+ * a partir do incio da reproduo pelo relgio monotnico, sem acumular atrasos entre eventos.</p>
+ *
+ * @see KeyboardEventSource
+ * @see KeyboardJournal
+ *
+ * @author Andrew
+ */
+
+public class JournalKeyboardSource implements KeyboardEventSource
+{
+	/**
+	 * Velocidade para reproduzir os eventos no tempo original em que foram gravados.
+	 */
+	public static final double ORIGINAL_SPEED = 1.0;
+
+	/**
+	 * Velocidade para reproduzir os eventos o mais rpido possvel.
+	 */
+	public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+
+	/**
+	 * Diretrio onde se encontram os segmentos do dirio.
+	 */
+	private final File directory;
+
+	/**
+	 * Nome do dirio, usado como prefixo dos arquivos dos segmentos.
+	 */
+	private final String name;
+
+	/**
+	 * Velocidade da reproduo em relao ao tempo original.
+	 */
+	private final double speed;
+
+	/**
+	 * Receptor para o qual os eventos reproduzidos sero repassados.
+	 */
+	private volatile KeyboardReceiver receiver;
+
+	/**
+	 * Thread que reproduz os eventos enquanto a fonte estiver iniciada.
+	 */
+	private Thread thread;
+
+	/**
+	 * Quantidade de eventos reproduzidos desde que a fonte foi iniciada.
+	 */
+	private volatile long replayed;
+
+	/**
+	 * Maior atraso em nanossegundos de um evento em relao ao seu momento programado.
+	 */
+	private volatile long lateness;
+
+	/**
+	 * Falha que interrompeu a reproduo ou null se no houver.
+	 */
+	private volatile IOException failure;
+
+	/**
+	 * Constri uma nova fonte de reproduo para teclado no tempo original.
+	 * @param directory diretrio onde se encontram os segmentos do dirio.
+	 * @param name nome do dirio, usado como prefixo dos arquivos dos segmentos.
+	 */
+
+	public JournalKeyboardSource(File directory, String name)
+	{
+		this(directory, name, ORIGINAL_SPEED);
+	}
+
+	/**
+	 * Constri uma nova fonte de reproduo para teclado sendo necessrio definir:
+	 * @param directory diretrio onde se encontram os segmentos do dirio.
+	 * @param name nome do dirio, usado como prefixo dos arquivos dos segmentos.
+	 * @param speed velocidade da reproduo em relao ao tempo original ou <code>MAX_SPEED</code>.
+	 */
+
+	public JournalKeyboardSource(File directory, String name, double speed)
+	{
+		if (!(speed > 0))
+			throw new InputRuntimeException("velocidade invlida para reproduo (speed: %f)", speed);
+
+		this.directory = directory;
+		this.name = name;
+		this.speed = speed;
+	}
+
+	@Override
+	public synchronized void start(KeyboardReceiver receiver) throws InputException
+	{
+		if (thread != null)
+			throw new InputException("fonte de reproduo para teclado j iniciada");
+
+		if (!KeyboardJournal.getSegmentFile(directory, name, 0).exists())
+			throw new InputException("dirio de teclado no encontrado (name: %s)", name);
+
+		this.receiver = receiver;
+		this.replayed = 0;
+		this.lateness = 0;
+		this.failure = null;
+
+		thread = new Thread(this::replay, "JNI KReplay");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public synchronized void stop()
+	{
+		if (thread != null)
+		{
+			thread.interrupt();
+
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			thread = null;
+		}
+	}
+
+	/**
+	 * Procedimento executado pela thread da fonte, reproduz os segmentos at o ltimo ou ser parada.
+	 */
+
+	private void replay()
+	{
+		KeyboardReceiver receiver = this.receiver;
+		Thread current = Thread.currentThread();
+		boolean paced = speed != MAX_SPEED;
+		long origin = 0;
+		long start = 0;
+
+		try {
+
+			for (int index = 0; !current.isInterrupted(); index++)
+			{
+				File file = KeyboardJournal.getSegmentFile(directory, name, index);
+
+				if (!file.exists())
+					break;
+
+				MappedByteBuffer segment = mapSegment(file);
+
+				while (segment.remaining() >= RECORD_SIZE && !current.isInterrupted())
+				{
+					long timestamp = segment.getLong();
+					long event = segment.getLong();
+
+					if (event == PackedKeyEvent.NONE)
+						break;
+
+					if (paced)
+					{
+						if (replayed == 0)
+						{
+							origin = timestamp;
+							start = System.nanoTime();
+						}
+
+						long deadline = start + (long) ((timestamp - origin) / speed);
+						long remaining;
+
+						while ((remaining = deadline - System.nanoTime()) > 0 && !current.isInterrupted())
+							LockSupport.parkNanos(remaining);
+
+						if (-remaining > lateness)
+							lateness = -remaining;
+					}
+
+					receiver.receiveEvent(event);
+					replayed++;
+				}
+			}
+
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+	/**
+	 * Mapeia um segmento do dirio em memria somente para leitura e valida o seu cabealho.
+	 * @param file arquivo do segmento do dirio.
+	 * @return aquisio do segmento posicionado no primeiro registro.
+	 * @throws IOException se o arquivo no puder ser lido ou no for um segmento vlido.
+	 */
+
+	private static MappedByteBuffer mapSegment(File file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			MappedByteBuffer segment = channel.map(MapMode.READ_ONLY, 0, channel.size());
+
+			if (segment.remaining() < HEADER_SIZE || segment.getInt(0) != MAGIC || segment.getShort(4) != VERSION || segment.getShort(6) != RECORD_SIZE)
+				throw new IOException("segmento de dirio invlido: " + file);
+
+			segment.position(HEADER_SIZE);
+
+			return segment;
+		}
+	}
+
+	/**
+	 * Cada evento reproduzido  repassado ao receptor, mesmo que seja descartado pela fila.
+	 * @return aquisio da quantidade de eventos reproduzidos desde que a fonte foi iniciada.
+	 */
+
+	public long getReplayed()
+	{
+		return replayed;
+	}
+
+	/**
+	 * O atraso indica o quanto a reproduo deixou de acompanhar o tempo programado.
+	 * @return aquisio do maior atraso de um evento em nanossegundos.
+	 */
+
+	public long getLateness()
+	{
+		return lateness;
+	}
+
+	/**
+	 * A reproduo  interrompida em caso de falha, que fica disponvel para consulta.
+	 * @return aquisio da falha que interrompeu a reproduo ou null se no houver.
+	 */
+
+	public IOException getFailure()
+	{
+		return failure;
+	}
+
+	/**
+	 * A fonte termina sozinha aps reproduzir o ltimo segmento do dirio.
+	 * @return true se ainda estiver reproduzindo eventos ou false caso contrrio.
+	 */
+
+	public synchronized boolean isRunning()
+	{
+		return thread != null && thread.isAlive();
+	}
+}
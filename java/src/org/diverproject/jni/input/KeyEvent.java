@@ -5,7 +5,8 @@ import static org.diverproject.jni.input.enums.EnumCH.*;
 import static org.diverproject.jni.input.enums.EnumKEY.*;
 import static org.diverproject.jni.input.enums.EnumVK.*;
 
-import org.diverproject.util.BitWise;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import org.diverproject.util.ObjectDescription;
 
 /**
@@ -36,6 +37,12 @@ import org.diverproject.util.ObjectDescription;
  * Como por exemplo a ativao do <code>CAPITAL</code> ativado ao clicar com o Caps Lock.
  * Alm desse h de alt, control e shift pressionadas ou se a tecla est pressionada ou no.</p>
  *
+ * <p>Quando o sistema de entrada utilizar eventos reciclados, o mesmo objeto ser reutilizado
+ * por outros eventos assim que o despache for concludo. Caso seja necessrio manter uma
+ * referncia aps o despache, deve ser chamado <code>retain()</code> e depois <code>release()</code>.</p>
+ *
+ * @see KeyEventPool
+ *
  * @author Andrew
  */
 
@@ -95,12 +102,17 @@ public class KeyEvent extends InputEvent
 	 */
 	public static final int KP_ALTERNATIVE = 0x20;
 
+	/**
+	 * Cdigo que ir determinar a propriedade do teclado como <b>Tecla em Transio</b>.
+	 */
+	public static final int KP_TRANSITION = 0x40;
+
 	/**
 	 * Vetor contendo o nome de todas as propriedades que o teclado pode possuir.
 	 */
 	public static final String KEY_PROPERTIES[] = new String[]
 	{
-		"CAPITAL", "LEFT", "RIGHT", "SHIFT", "CONTROL", "ALTERNATVE",
+		"CAPITAL", "LEFT", "RIGHT", "SHIFT", "CONTROL", "ALTERNATIVE", "TRANSITION",
 	};
 
 
@@ -119,10 +131,46 @@ public class KeyEvent extends InputEvent
 	 */
 	private char ch;
 
+	/**
+	 * Atualizador atmico usado para o contador de referncias de eventos reciclados.
+	 */
+	private static final AtomicIntegerFieldUpdater<KeyEvent> REFERENCES = AtomicIntegerFieldUpdater.newUpdater(KeyEvent.class, "references");
+
+
 	/**
 	 * Propriedades respectivas as condies do teclado durante o evento.
 	 */
-	private BitWise properties;
+	private int properties;
+
+	/**
+	 * Conjunto de eventos do qual esse evento pertence ou null se no for reciclado.
+	 */
+	private final KeyEventPool pool;
+
+	/**
+	 * Quantidade de referncias que ainda utilizam esse evento (apenas reciclados).
+	 */
+	private volatile int references;
+
+	/**
+	 * Nmero de sequncia atribudo ao evento quando recebido ou zero se no houver.
+	 */
+	private long sequence;
+
+	/**
+	 * Quantidade de ocorrncias agrupadas nesse evento, no mnimo 1.
+	 */
+	private int repeatCount;
+
+	/**
+	 * Momento em nanossegundos em que a ltima ocorrncia foi recebida.
+	 */
+	private long lastTime;
+
+	/**
+	 * Momento em nanossegundos em que o evento foi retirado da fila de espera ou zero se no houver.
+	 */
+	private long dequeuedTime;
 
 	/**
 	 * Constri um novo evento para teclas do teclado, sendo necessrio passar:
@@ -130,7 +178,7 @@ public class KeyEvent extends InputEvent
 	 * @param vk cdigo da tecla virtual que gerou o evento (<code>VK</code>).
 	 * @param key codigo na biblioteca da tecla que gerou o evento (<code>KEY</code>).
 	 * @param ch caracter que apareceu como digitao para o evento (<code>CH</code>).
-	 * @param properties valor contendo as propriedades no formato <class>BitWise</class>.
+	 * @param properties valor contendo as propriedades do teclado (<code>KP</code>).
 	 */
 
 	public KeyEvent(int type, int vk, int key, char ch, int properties)
@@ -140,7 +188,179 @@ public class KeyEvent extends InputEvent
 		this.ch = ch;
 		this.vk = vk;
 		this.key = key;
-		this.properties = new BitWise(KEY_PROPERTIES);
+		this.properties = properties;
+		this.pool = null;
+		this.repeatCount = 1;
+		this.lastTime = getTime();
+	}
+
+	/**
+	 * Constri um novo evento reciclvel, usado apenas pelo conjunto de eventos.
+	 * @param pool conjunto de eventos do qual o evento ser devolvido ao ser liberado.
+	 */
+
+	KeyEvent(KeyEventPool pool)
+	{
+		super(EV_KEYBOARD, KT_TYPED);
+
+		this.pool = pool;
+		this.repeatCount = 1;
+	}
+
+	/**
+	 * Reutiliza esse evento com as informaes de um novo evento detectado no teclado.
+	 * Deve ser chamado apenas pelo conjunto de eventos antes de ser despachado.
+	 * @param type qual o tipo de ao que ser usado (<code>KT</code>).
+	 * @param vk cdigo da tecla virtual que gerou o evento (<code>VK</code>).
+	 * @param key codigo na biblioteca da tecla que gerou o evento (<code>KEY</code>).
+	 * @param ch caracter que apareceu como digitao para o evento (<code>CH</code>).
+	 * @param properties valor contendo as propriedades do teclado (<code>KP</code>).
+	 */
+
+	void set(int type, int vk, int key, char ch, int properties)
+	{
+		reset(type);
+
+		this.ch = ch;
+		this.vk = vk;
+		this.key = key;
+		this.properties = properties;
+		this.references = 1;
+	}
+
+	/**
+	 * Deve ser chamado por quem precisar manter esse evento aps o despache ter terminado.
+	 * Para cada chamada deste dever haver uma chamada de <code>release()</code> depois.
+	 * Eventos que no so reciclados podem ser mantidos sem a necessidade de cham-lo.
+	 * @return referncia do prprio evento de teclado.
+	 */
+
+	public KeyEvent retain()
+	{
+		if (pool != null)
+			REFERENCES.incrementAndGet(this);
+
+		return this;
+	}
+
+	/**
+	 * Libera uma referncia do evento, quando no houver mais nenhuma ele ser reciclado.
+	 * Aps a liberao o evento no deve mais ser usado por quem o liberou.
+	 */
+
+	public void release()
+	{
+		if (pool != null && REFERENCES.decrementAndGet(this) == 0)
+			pool.recycle(this);
+	}
+
+	/**
+	 * Eventos reciclados so reutilizados pelo sistema assim que no houver mais referncias.
+	 * @return true se o evento for reciclado ou false se for um evento comum.
+	 */
+
+	public boolean isRecyclable()
+	{
+		return pool != null;
+	}
+
+	/**
+	 * O nmero de sequncia  atribudo pelo apanhador para teclado a cada evento recebido,
+	 * lacunas na sequncia indicam eventos descartados por falta de espao na fila de espera.
+	 * Com a fila concorrente os eventos recusados no deixam lacunas, apenas as mtricas os contabilizam.
+	 * @return aquisio do nmero de sequncia do evento ou zero se no tiver sido recebido.
+	 */
+
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+	/**
+	 * Define o nmero de sequncia do evento, usado apenas pelo processador para teclado.
+	 * @param sequence nmero de sequncia atribudo ao evento quando recebido.
+	 */
+
+	void setSequence(long sequence)
+	{
+		this.sequence = sequence;
+	}
+
+	/**
+	 * Enquanto uma tecla  mantida abaixada o sistema operacional repete a digitao e o pressionamento,
+	 * repeties que ainda no foram despachadas podem ser agrupadas em um nico evento.
+	 * @return aquisio da quantidade de ocorrncias agrupadas nesse evento, no mnimo 1.
+	 */
+
+	public int getRepeatCount()
+	{
+		return repeatCount;
+	}
+
+	/**
+	 * Define a quantidade de ocorrncias agrupadas, usado apenas ao converter eventos compactados.
+	 * @param repeatCount quantidade de ocorrncias agrupadas nesse evento.
+	 */
+
+	void setRepeatCount(int repeatCount)
+	{
+		this.repeatCount = repeatCount;
+	}
+
+	/**
+	 * Mesmo que <code>getTime()</code>, o momento em que o apanhador recebeu o evento.
+	 * @return aquisio do momento em nanossegundos em que a primeira ocorrncia foi recebida.
+	 */
+
+	public long getFirstTime()
+	{
+		return getTime();
+	}
+
+	/**
+	 * Igual ao momento da primeira ocorrncia caso o evento no tenha repeties agrupadas.
+	 * @return aquisio do momento em nanossegundos em que a ltima ocorrncia foi recebida.
+	 */
+
+	public long getLastTime()
+	{
+		return lastTime;
+	}
+
+	/**
+	 * A diferena para o momento da primeira ocorrncia  o tempo em que aguardou na fila.
+	 * No modo de despache por caixas de mensagens  a retirada da caixa de mensagens.
+	 * @return aquisio do momento em nanossegundos em que o evento foi retirado da fila de espera.
+	 */
+
+	public long getDequeuedTime()
+	{
+		return dequeuedTime;
+	}
+
+	/**
+	 * Define os momentos do caminho do evento at o despache, usado apenas pelo processador.
+	 * @param firstTime momento em nanossegundos em que a primeira ocorrncia foi recebida.
+	 * @param lastTime momento em nanossegundos em que a ltima ocorrncia foi recebida.
+	 * @param dequeuedTime momento em nanossegundos em que o evento foi retirado da fila de espera.
+	 */
+
+	void setTimes(long firstTime, long lastTime, long dequeuedTime)
+	{
+		setTime(firstTime);
+
+		this.lastTime = lastTime;
+		this.dequeuedTime = dequeuedTime;
+	}
+
+	/**
+	 * Valor contendo todas as propriedades do teclado no momento em que o evento ocorreu.
+	 * @return aquisio das propriedades do teclado (<code>KP</code>).
+	 */
+
+	public int getProperties()
+	{
+		return properties;
 	}
 
 	/**
@@ -218,7 +438,7 @@ public class KeyEvent extends InputEvent
 
 	public boolean hasAlt()
 	{
-		return properties.is(KP_ALTERNATIVE);
+		return (properties & KP_ALTERNATIVE) != 0;
 	}
 
 	/**
@@ -229,7 +449,7 @@ public class KeyEvent extends InputEvent
 
 	public boolean hasCtrl()
 	{
-		return properties.is(KP_CONTROL);
+		return (properties & KP_CONTROL) != 0;
 	}
 
 	/**
@@ -240,7 +460,7 @@ public class KeyEvent extends InputEvent
 
 	public boolean hasShift()
 	{
-		return properties.is(KP_SHIFT);
+		return (properties & KP_SHIFT) != 0;
 	}
 
 	/**
@@ -252,7 +472,7 @@ public class KeyEvent extends InputEvent
 
 	public boolean isLeft()
 	{
-		return properties.is(KP_LEFT);
+		return (properties & KP_LEFT) != 0;
 	}
 
 	/**
@@ -264,7 +484,7 @@ public class KeyEvent extends InputEvent
 
 	public boolean isRight()
 	{
-		return properties.is(KP_RIGHT);
+		return (properties & KP_RIGHT) != 0;
 	}
 
 	/**
@@ -286,7 +506,7 @@ public class KeyEvent extends InputEvent
 		{
 			KeyEvent event = (KeyEvent) obj;
 
-			return	event.vk == vk && event.properties.getValue() == properties.getValue();
+			return	event.vk == vk && event.properties == properties;
 		}
 		
 		return false;
@@ -313,6 +533,29 @@ public class KeyEvent extends InputEvent
 		description.append("keyName", getKeyName());
 		description.append("virtualName", getVirtualKeyName());
 		description.append("characterName", getCharName());
-		description.append("properties", properties.toStringProperties());
+		description.append("properties", toStringProperties());
+		description.append("sequence", sequence);
+		description.append("repeatCount", repeatCount);
+	}
+
+	/**
+	 * Usado apenas para uma identificao visual das propriedades do teclado no evento.
+	 * @return aquisio dos nomes das propriedades ativas separados por vrgula.
+	 */
+
+	private String toStringProperties()
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; i < KEY_PROPERTIES.length; i++)
+			if ((properties & (1 << i)) != 0)
+			{
+				if (builder.length() > 0)
+					builder.append(", ");
+
+				builder.append(KEY_PROPERTIES[i]);
+			}
+
+		return builder.toString();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package org.diverproject.jni.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <h1>Conjunto de Eventos de Tecla</h1>
+ *
+ * <p>Mantm os eventos de tecla que j foram despachados para que sejam reutilizados.
+ * Dessa forma, depois de aquecido, nenhum novo objeto  alocado para cada tecla detectada.
+ * Os eventos retornam ao conjunto quando todas as suas referncias forem liberadas.</p>
+ *
+ * <p>Os eventos so obtidos por uma nica thread de cada vez (processador ou caixa de mensagens),
+ * quando um despachante para teclado precisar de um objeto para o evento compactado. Como um evento mantido por um ouvinte
+ * pode ser liberado em qualquer thread, os eventos livres ficam em um vetor circular
+ * onde diversas threads podem devolver eventos sem a necessidade de sincronizao.</p>
+ *
+ * @see KeyEvent
+ * @see PackedKeyEvent
+ *
+ * @author Andrew
+ */
+
+class KeyEventPool
+{
+	/**
+	 * Vetor circular contendo os eventos livres para serem reutilizados.
+	 */
+	private final AtomicReferenceArray<KeyEvent> free;
+
+	/**
+	 * Mscara usada para converter uma posio no ndice do vetor.
+	 */
+	private final int mask;
+
+	/**
+	 * Posio do prximo evento livre a ser obtido pelo processador.
+	 */
+	private final AtomicLong head;
+
+	/**
+	 * Posio onde o prximo evento liberado ser devolvido.
+	 */
+	private final AtomicLong tail;
+
+	/**
+	 * Constri um novo conjunto de eventos j alocando os eventos iniciais.
+	 * @param capacity quantidade de eventos que sero alocados inicialmente,
+	 * o conjunto poder manter at o dobro dessa quantidade de eventos livres.
+	 */
+
+	KeyEventPool(int capacity)
+	{
+		int size = 1;
+		int limit = capacity < KeyboardRingBuffer.MAX_CAPACITY / 2 ? capacity * 2 : KeyboardRingBuffer.MAX_CAPACITY;
+
+		while (size < limit)
+			size <<= 1;
+
+		this.free = new AtomicReferenceArray<KeyEvent>(size);
+		this.mask = size - 1;
+		this.head = new AtomicLong();
+		this.tail = new AtomicLong();
+
+		for (int i = 0; i < capacity; i++)
+			recycle(new KeyEvent(this));
+	}
+
+	/**
+	 * Obtm um evento livre do conjunto, ou cria um novo se no houver nenhum livre,
+	 * j definindo as informaes do evento compactado com uma nica referncia.
+	 * Deve ser chamado apenas pela thread do processador para teclado, ou pela tarefa da caixa
+	 * de mensagens do despachante para teclado no modo de despache por caixas de mensagens.
+	 * @param packed valor contendo o evento de tecla compactado.
+	 * @return aquisio de um evento de tecla reciclvel pronto para ser despachado.
+	 */
+
+	KeyEvent acquire(long packed)
+	{
+		long position = head.get();
+		int index = (int) position & mask;
+		KeyEvent event = free.get(index);
+
+		if (event == null)
+			event = new KeyEvent(this);
+
+		else
+		{
+			free.lazySet(index, null);
+			head.lazySet(position + 1);
+		}
+
+		event.set(PackedKeyEvent.getType(packed), PackedKeyEvent.getVirtualKey(packed), PackedKeyEvent.getKey(packed), PackedKeyEvent.getChar(packed), PackedKeyEvent.getProperties(packed));
+		event.setRepeatCount(PackedKeyEvent.getRepeatCount(packed));
+
+		return event;
+	}
+
+	/**
+	 * Chamado pelo evento quando a sua ltima referncia for liberada.
+	 * Caso o conjunto j esteja cheio o evento ser deixado para o coletor de lixo.
+	 * @param event referncia do evento de tecla que poder ser reutilizado.
+	 */
+
+	void recycle(KeyEvent event)
+	{
+		long position;
+
+		do {
+
+			position = tail.get();
+
+			if (position - head.get() > mask)
+				return;
+
+		} while (!tail.compareAndSet(position, position + 1));
+
+		free.lazySet((int) position & mask, event);
+	}
+
+	/**
+	 * Quantidade de eventos livres  apenas uma estimativa, j que outras threads podem alter-la.
+	 * @return aquisio da quantidade de eventos livres no conjunto.
+	 */
+
+	int available()
+	{
+		long size = tail.get() - head.get();
+
+		return size < 0 ? 0 : (int) size;
+	}
+}
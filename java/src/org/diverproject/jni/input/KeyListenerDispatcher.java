@@ -0,0 +1,376 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.KeyEvent.KT_TYPED;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_MAX;
+
+import java.util.Arrays;
+
+/**
+ * <h1>Despachante de Leituras de Tecla</h1>
+ *
+ * <p>Despachante para teclado que repassa os eventos para as leituras de tecla registradas.
+ * Cada leitura pode ser registrada para uma tecla especfica (<code>EnumKEY</code>) ou para
+ * qualquer tecla, e possui uma prioridade, sendo que leituras de maior prioridade so chamadas
+ * primeiro e leituras de mesma prioridade na ordem em que foram registradas.</p>
+ *
+ * <p>As leituras ficam em vetores que nunca so alterados, um para cada tecla, j contendo as
+ * leituras de qualquer tecla na ordem de prioridade. O despache apenas obtm o vetor da tecla
+ * do evento e o percorre, sem bloqueios e sem criar objetos. Registrar ou remover uma leitura
+ * cria novos vetores e os publica de uma nica vez, podendo ser feito por qualquer thread
+ * sem interromper um despache em andamento, que continua usando os vetores anteriores.</p>
+ *
+ * <p>Quando uma leitura consumir o evento as leituras seguintes no sero chamadas.
+ * Um evento que j chegue consumido ao despachante no  repassado para nenhuma leitura.</p>
+ *
+ * <p>No modo de despache por caixas de mensagens cada leitura registrada possui a sua prpria caixa,
+ * para que uma leitura que demore ou bloqueie no atrase as demais. Nesse modo cada leitura recebe o
+ * seu prprio objeto de evento, portanto consumir o evento no impede que as demais leituras o recebam,
+ * e a prioridade determina apenas a ordem entre os registros de uma mesma leitura.</p>
+ *
+ * @see KeyListener
+ * @see KeyboardDispatcher
+ *
+ * @author Andrew
+ */
+
+public class KeyListenerDispatcher implements KeyboardDispatcher
+{
+	/**
+	 * Cdigo usado para registrar uma leitura que recebe os eventos de qualquer tecla.
+	 */
+	public static final int ANY_KEY = -1;
+
+	/**
+	 * Prioridade usada quando nenhuma prioridade for especificada no registro.
+	 */
+	public static final int DEFAULT_PRIORITY = 0;
+
+	/**
+	 * Vetor vazio compartilhado pelas teclas sem nenhuma leitura registrada.
+	 */
+	private static final Registration EMPTY[] = new Registration[0];
+
+
+	/**
+	 * Todos os registros de leitura em ordem de prioridade, alterado apenas com o bloqueio.
+	 */
+	private Registration registrations[];
+
+	/**
+	 * Vetores de registros publicados para cada tecla, j incluindo os de qualquer tecla.
+	 */
+	private volatile Registration table[][];
+
+	/**
+	 * Leituras registradas publicadas junto da tabela, sem repeties e em ordem de prioridade.
+	 */
+	private volatile KeyListener listeners[];
+
+	/**
+	 * Constri um novo despachante de leituras de tecla sem nenhuma leitura registrada.
+	 */
+
+	public KeyListenerDispatcher()
+	{
+		publish(EMPTY);
+	}
+
+	/**
+	 * Registra uma leitura para os eventos de qualquer tecla com a prioridade padro.
+	 * @param listener referncia da leitura de tecla que ser registrada.
+	 */
+
+	public void addListener(KeyListener listener)
+	{
+		addListener(listener, ANY_KEY, DEFAULT_PRIORITY);
+	}
+
+	/**
+	 * Registra uma leitura para os eventos de uma nica tecla com a prioridade padro.
+	 * @param listener referncia da leitura de tecla que ser registrada.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>) ou <code>ANY_KEY</code>.
+	 */
+
+	public void addListener(KeyListener listener, int key)
+	{
+		addListener(listener, key, DEFAULT_PRIORITY);
+	}
+
+	/**
+	 * Registra uma leitura de tecla, uma mesma leitura pode ser registrada para diversas teclas.
+	 * Pode ser chamado por qualquer thread, valendo a partir do prximo evento despachado.
+	 * @param listener referncia da leitura de tecla que ser registrada.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>) ou <code>ANY_KEY</code>.
+	 * @param priority prioridade da leitura, maiores prioridades so chamadas primeiro.
+	 */
+
+	public synchronized void addListener(KeyListener listener, int key, int priority)
+	{
+		if (listener == null)
+			throw new InputRuntimeException("leitura de tecla no definida");
+
+		if (key != ANY_KEY && (key < 0 || key >= KEY_MAX))
+			throw new InputRuntimeException("tecla invlida para a leitura (key: %d)", key);
+
+		Registration registration = new Registration(listener, key, priority);
+		Registration updated[] = new Registration[registrations.length + 1];
+		int index = 0;
+
+		while (index < registrations.length && registrations[index].priority >= priority)
+			index++;
+
+		System.arraycopy(registrations, 0, updated, 0, index);
+		System.arraycopy(registrations, index, updated, index + 1, registrations.length - index);
+		updated[index] = registration;
+
+		publish(updated);
+	}
+
+	/**
+	 * Remove todos os registros de uma leitura de tecla, independente das teclas registradas.
+	 * Pode ser chamado por qualquer thread, inclusive durante o despache pela prpria leitura.
+	 * @param listener referncia da leitura de tecla que ser removida.
+	 * @return true se a leitura possua algum registro ou false caso contrrio.
+	 */
+
+	public synchronized boolean removeListener(KeyListener listener)
+	{
+		Registration updated[] = new Registration[registrations.length];
+		int size = 0;
+
+		for (Registration registration : registrations)
+			if (registration.listener != listener)
+				updated[size++] = registration;
+
+		if (size == registrations.length)
+			return false;
+
+		publish(Arrays.copyOf(updated, size));
+
+		return true;
+	}
+
+	/**
+	 * Remove todas as leituras de tecla registradas no despachante.
+	 */
+
+	public synchronized void clearListeners()
+	{
+		publish(EMPTY);
+	}
+
+	/**
+	 * Cada registro de uma mesma leitura para teclas diferentes  contado separadamente.
+	 * @return aquisio da quantidade de registros de leitura de tecla.
+	 */
+
+	public synchronized int size()
+	{
+		return registrations.length;
+	}
+
+	/**
+	 * Substitui os registros de leitura e publica os novos vetores para cada tecla.
+	 * Deve ser chamado apenas com o bloqueio do despachante.
+	 * @param updated novos registros de leitura em ordem de prioridade.
+	 */
+
+	private void publish(Registration updated[])
+	{
+		KeyListener listeners[] = new KeyListener[updated.length];
+		int size = 0;
+
+		for (Registration registration : updated)
+		{
+			int index = 0;
+
+			while (index < size && listeners[index] != registration.listener)
+				index++;
+
+			if (index == size)
+				listeners[size++] = registration.listener;
+		}
+
+		registrations = updated;
+		table = newTable(updated);
+		this.listeners = Arrays.copyOf(listeners, size);
+	}
+
+	/**
+	 * Cria os vetores de registros de cada tecla a partir dos registros em ordem de prioridade.
+	 * Teclas sem nenhum registro especfico compartilham o vetor de registros de qualquer tecla.
+	 * @param registrations registros de leitura em ordem de prioridade.
+	 * @return aquisio dos vetores de registros indexados pelo cdigo da tecla.
+	 */
+
+	private static Registration[][] newTable(Registration registrations[])
+	{
+		int any = 0;
+		int counts[] = new int[KEY_MAX];
+
+		for (Registration registration : registrations)
+			if (registration.key == ANY_KEY)
+				any++;
+			else
+				counts[registration.key]++;
+
+		Registration anyKey[] = any == 0 ? EMPTY : new Registration[any];
+		Registration table[][] = new Registration[KEY_MAX][];
+
+		for (int key = 0; key < KEY_MAX; key++)
+			table[key] = counts[key] == 0 ? anyKey : new Registration[counts[key] + any];
+
+		int sizes[] = new int[KEY_MAX];
+		any = 0;
+
+		for (Registration registration : registrations)
+		{
+			if (registration.key != ANY_KEY)
+			{
+				table[registration.key][sizes[registration.key]++] = registration;
+				continue;
+			}
+
+			anyKey[any++] = registration;
+
+			for (int key = 0; key < KEY_MAX; key++)
+				if (counts[key] != 0)
+					table[key][sizes[key]++] = registration;
+		}
+
+		return table;
+	}
+
+	/**
+	 * O vetor  substitudo a cada registro ou remoo, no  alterado aps ser obtido.
+	 * @return aquisio das leituras registradas, sem repeties e em ordem de prioridade.
+	 */
+
+	KeyListener[] getListeners()
+	{
+		return listeners;
+	}
+
+	@Override
+	public void dispatch(KeyEvent event)
+	{
+		dispatch(table, event, null);
+	}
+
+	@Override
+	public void dispatchBatch(KeyEvent events[], int offset, int count)
+	{
+		dispatchBatch(null, events, offset, count);
+	}
+
+	/**
+	 * Repassa os eventos de um lote apenas aos registros de uma nica leitura, usado pela caixa de mensagens da leitura.
+	 * @param listener leitura que receber os eventos ou null para repassar a todas as leituras registradas.
+	 * @param events vetor contendo as referncias dos eventos de teclado.
+	 * @param offset ndice do primeiro evento do vetor que deve ser repassado.
+	 * @param count quantidade de eventos do vetor que devem ser repassados.
+	 */
+
+	void dispatchBatch(KeyListener listener, KeyEvent events[], int offset, int count)
+	{
+		Registration table[][] = this.table;
+
+		for (int i = offset; i < offset + count; i++)
+			dispatch(table, events[i], listener);
+	}
+
+	/**
+	 * Repassa um evento s leituras registradas para a sua tecla, em ordem de prioridade,
+	 * at que todas tenham sido chamadas ou que alguma consuma o evento.
+	 * @param table tabela de leituras por tecla obtida uma nica vez para o evento ou lote.
+	 * @param event referncia do evento de teclado que ser repassado.
+	 * @param only leitura que receber o evento ou null para repassar a todas as leituras.
+	 */
+
+	private static void dispatch(Registration table[][], KeyEvent event, KeyListener only)
+	{
+		int key = event.getKey();
+		Registration registrations[] = table[key >= 0 && key < KEY_MAX ? key : 0];
+
+		for (int i = 0; i < registrations.length && !event.isConsumed(); i++)
+		{
+			KeyListener listener = registrations[i].listener;
+
+			if (only != null && listener != only)
+				continue;
+
+			switch (event.getType())
+			{
+				case KT_TYPED: listener.keyTyped(event); break;
+				case KT_PRESSED: listener.keyPressed(event); break;
+				case KT_RELEASED: listener.keyReleased(event); break;
+			}
+		}
+	}
+
+	@Override
+	public int getState()
+	{
+		return SERVICE_UNDEFINID;
+	}
+
+	@Override
+	public void start()
+	{
+	}
+
+	@Override
+	public void update(long delay)
+	{
+	}
+
+	@Override
+	public void interrupted()
+	{
+	}
+
+	@Override
+	public void terminate()
+	{
+	}
+
+	/**
+	 * <h1>Registro de Leitura</h1>
+	 *
+	 * <p>Registro imutvel de uma leitura de tecla para uma tecla e prioridade.</p>
+	 */
+
+	private static final class Registration
+	{
+		/**
+		 * Leitura de tecla que ser chamada pelo despachante.
+		 */
+		final KeyListener listener;
+
+		/**
+		 * Cdigo da tecla no JNI registrada ou <code>ANY_KEY</code>.
+		 */
+		final int key;
+
+		/**
+		 * Prioridade da leitura, maiores prioridades so chamadas primeiro.
+		 */
+		final int priority;
+
+		/**
+		 * Constri um novo registro de leitura sendo necessrio definir:
+		 * @param listener leitura de tecla que ser chamada pelo despachante.
+		 * @param key cdigo da tecla no JNI registrada ou <code>ANY_KEY</code>.
+		 * @param priority prioridade da leitura, maiores prioridades so chamadas primeiro.
+		 */
+
+		Registration(KeyListener listener, int key, int priority)
+		{
+			this.listener = listener;
+			this.key = key;
+			this.priority = priority;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package org.diverproject.jni.input;
+
+/**
+ * <h1>Tradutor de Teclas</h1>
+ *
+ * <p>Responsvel por converter as teclas virtuais recebidas da DLL em eventos da biblioteca.
+ * A DLL repassa apenas o cdigo da tecla virtual e as suas flags, enquanto o tradutor
+ * determina qual a tecla na biblioteca, o caracter digitado e os modificadores da tecla.</p>
+ *
+ * <p>O estado dos modificadores (shift, control, alt, caps lock)  mantido pelo apanhador,
+ * assim o tradutor no possui estado e pode ser trocado a qualquer momento no sistema de entrada,
+ * mesmo que haja teclas pressionadas, sem que o estado do teclado seja perdido.</p>
+ *
+ * @see TableKeyTranslator
+ *
+ * @author Andrew
+ */
+
+public interface KeyTranslator
+{
+	/**
+	 * Flag que indica que a tecla  estendida, como o ENTER do teclado numrico.
+	 */
+	int KF_EXTENDED = 0x01;
+
+	/**
+	 * Algumas teclas virtuais no so reconhecidas pela biblioteca e no geram eventos.
+	 * @param vk cdigo da tecla virtual recebida da DLL (<code>VK</code>).
+	 * @return true se a tecla dever ser ignorada ou false caso contrrio.
+	 */
+
+	boolean isIgnored(int vk);
+
+	/**
+	 * Converte o cdigo da tecla virtual no cdigo da tecla na biblioteca.
+	 * @param vk cdigo da tecla virtual recebida da DLL (<code>VK</code>).
+	 * @param flags flags da tecla recebidas da DLL (<code>KF</code>).
+	 * @return aquisio do cdigo da tecla na biblioteca (<code>KEY</code>).
+	 */
+
+	int getKey(int vk, int flags);
+
+	/**
+	 * Determina o caracter digitado pela tecla de acordo com o estado do teclado.
+	 * @param vk cdigo da tecla virtual recebida da DLL (<code>VK</code>).
+	 * @param properties propriedades do teclado no momento da digitao (<code>KP</code>).
+	 * @return aquisio do caracter digitado ou <code>CH_NULL</code> se no houver um.
+	 */
+
+	char getChar(int vk, int properties);
+
+	/**
+	 * Determina quais propriedades do teclado so ativadas enquanto a tecla estiver abaixada.
+	 * @param vk cdigo da tecla virtual recebida da DLL (<code>VK</code>).
+	 * @return aquisio das propriedades ativadas pela tecla (<code>KP</code>) ou zero.
+	 */
+
+	int getModifiers(int vk);
+}
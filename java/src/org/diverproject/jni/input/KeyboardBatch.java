@@ -0,0 +1,217 @@
+package org.diverproject.jni.input;
+
+/**
+ * <h1>Lote de Eventos de Teclado</h1>
+ *
+ * <p>Vetores reutilizveis onde so reunidos os eventos retirados de uma fila de uma nica vez,
+ * para que sejam entregues aos despachantes em uma nica chamada de <code>dispatchBatch</code>.
+ * Todos os vetores so alocados na construo, nenhum objeto  criado ao reunir eventos,
+ * apenas os objetos de evento para o despachante para teclado, que podem ser reciclados.</p>
+ *
+ * <p>O tempo gasto em cada despachante  registrado nas mtricas do apanhador, assim como
+ * o momento em que cada despachante retornou  registrado no rastreador, se houverem.</p>
+ *
+ * <p>Usado por uma nica thread de cada vez, o processador para teclado ou a caixa de mensagens.</p>
+ *
+ * @see KeyboardProcessor
+ * @see KeyboardMailbox
+ *
+ * @author Andrew
+ */
+
+class KeyboardBatch
+{
+	/**
+	 * Quantidade mxima de eventos em um lote, independente da capacidade da fila.
+	 */
+	static final int MAX_SIZE = 256;
+
+	/**
+	 * Valor dos eventos de tecla compactados do lote.
+	 */
+	final long events[];
+
+	/**
+	 * Nmero de sequncia de cada evento do lote.
+	 */
+	final long sequences[];
+
+	/**
+	 * Momento em que cada evento do lote foi recebido.
+	 */
+	final long timestamps[];
+
+	/**
+	 * Momento em que a ltima repetio agrupada em cada evento do lote foi recebida.
+	 */
+	final long lastTimestamps[];
+
+	/**
+	 * Momento em que cada evento do lote foi retirado da fila.
+	 */
+	final long dequeuedTimes[];
+
+	/**
+	 * Objetos de evento entregues ao despachante para teclado, vazios fora do despache.
+	 */
+	private final KeyEvent keyEvents[];
+
+	/**
+	 * Quantidade de eventos reunidos no lote.
+	 */
+	int size;
+
+	/**
+	 * Constri um novo lote vazio sendo necessrio definir:
+	 * @param capacity quantidade mxima de eventos do lote, limitada a <code>MAX_SIZE</code>.
+	 */
+
+	KeyboardBatch(int capacity)
+	{
+		int length = Math.min(capacity, MAX_SIZE);
+
+		this.events = new long[length];
+		this.sequences = new long[length];
+		this.timestamps = new long[length];
+		this.lastTimestamps = new long[length];
+		this.dequeuedTimes = new long[length];
+		this.keyEvents = new KeyEvent[length];
+	}
+
+	/**
+	 * Inclui o ltimo evento retirado de uma fila ao final do lote.
+	 * @param buffer fila da qual o evento acabou de ser retirado.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @param dequeuedTime momento em nanossegundos em que o evento foi retirado da fila.
+	 */
+
+	void add(KeyboardBuffer buffer, long event, long dequeuedTime)
+	{
+		events[size] = event;
+		sequences[size] = buffer.getSequence();
+		timestamps[size] = buffer.getTimestamp();
+		lastTimestamps[size] = buffer.getLastTimestamp();
+		dequeuedTimes[size] = dequeuedTime;
+		size++;
+	}
+
+	/**
+	 * Esvazia o lote para que novos eventos sejam reunidos.
+	 */
+
+	void clear()
+	{
+		size = 0;
+	}
+
+	/**
+	 * Verifica se no cabem mais eventos no lote.
+	 * @return true se o lote estiver cheio ou false caso contrrio.
+	 */
+
+	boolean isFull()
+	{
+		return size == events.length;
+	}
+
+	/**
+	 * Entrega todos os eventos do lote ao despachante compactado em uma nica chamada.
+	 * @param dispatcher referncia do despachante compactado que receber o lote.
+	 * @param picker apanhador para teclado com as mtricas e o rastreador.
+	 */
+
+	void dispatch(PackedKeyboardDispatcher dispatcher, KeyboardPicker picker)
+	{
+		long start = picker.metrics != null ? System.nanoTime() : 0;
+
+		dispatcher.dispatchBatch(events, sequences, timestamps, 0, size);
+
+		dispatched(picker, true, start);
+	}
+
+	/**
+	 * Cria (ou recicla) os objetos de evento e os entrega ao despachante para teclado em uma nica
+	 * chamada, liberando todos os objetos de evento aps o despache, mesmo que o despachante falhe.
+	 * @param dispatcher referncia do despachante para teclado que receber o lote.
+	 * @param picker apanhador para teclado usado para obter os objetos de evento, as mtricas e o rastreador.
+	 */
+
+	void dispatch(KeyboardDispatcher dispatcher, KeyboardPicker picker)
+	{
+		dispatch(dispatcher, null, picker);
+	}
+
+	/**
+	 * Cria (ou recicla) os objetos de evento e os entrega apenas a uma das leituras do despachante de
+	 * leituras de tecla, usado pela caixa de mensagens da leitura, liberando os objetos aps o despache.
+	 * @param dispatcher referncia do despachante de leituras de tecla onde a leitura est registrada.
+	 * @param listener leitura de tecla que receber o lote.
+	 * @param picker apanhador para teclado usado para obter os objetos de evento, as mtricas e o rastreador.
+	 */
+
+	void dispatch(KeyListenerDispatcher dispatcher, KeyListener listener, KeyboardPicker picker)
+	{
+		dispatch((KeyboardDispatcher) dispatcher, listener, picker);
+	}
+
+	/**
+	 * Cria (ou recicla) os objetos de evento e os entrega ao despachante para teclado, ou apenas a uma das
+	 * suas leituras, liberando todos os objetos de evento aps o despache, mesmo que o despachante falhe.
+	 * @param dispatcher referncia do despachante para teclado que receber o lote.
+	 * @param listener leitura do despachante de leituras de tecla que receber o lote ou null para todo o despachante.
+	 * @param picker apanhador para teclado usado para obter os objetos de evento, as mtricas e o rastreador.
+	 */
+
+	private void dispatch(KeyboardDispatcher dispatcher, KeyListener listener, KeyboardPicker picker)
+	{
+		long start = picker.metrics != null ? System.nanoTime() : 0;
+
+		try {
+
+			for (int i = 0; i < size; i++)
+				keyEvents[i] = picker.newKeyEvent(events[i], sequences[i], timestamps[i], lastTimestamps[i], dequeuedTimes[i]);
+
+			if (listener != null)
+				((KeyListenerDispatcher) dispatcher).dispatchBatch(listener, keyEvents, 0, size);
+			else
+				dispatcher.dispatchBatch(keyEvents, 0, size);
+
+		} finally {
+
+			for (int i = 0; i < size && keyEvents[i] != null; i++)
+			{
+				keyEvents[i].release();
+				keyEvents[i] = null;
+			}
+		}
+
+		dispatched(picker, false, start);
+	}
+
+	/**
+	 * Registra o retorno de um despachante nas mtricas e no rastreador do apanhador, se houverem.
+	 * @param picker apanhador para teclado com as mtricas e o rastreador.
+	 * @param packed true para o despachante compactado ou false para o despachante para teclado.
+	 * @param start momento em nanossegundos em que o despache do lote comeou.
+	 */
+
+	private void dispatched(KeyboardPicker picker, boolean packed, long start)
+	{
+		KeyboardMetrics metrics = picker.metrics;
+		KeyboardTracer tracer = picker.tracer;
+
+		if (metrics == null && tracer == null)
+			return;
+
+		long end = System.nanoTime();
+
+		if (metrics != null && packed)
+			metrics.packedDispatched(end - start);
+
+		else if (metrics != null)
+			metrics.keyboardDispatched(end - start);
+
+		if (tracer != null)
+			tracer.dispatched(this, packed, end);
+	}
+}
@@ -0,0 +1,128 @@
+package org.diverproject.jni.input;
+
+/**
+ * <h1>Buffer para Teclado</h1>
+ *
+ * <p>Estrutura usada entre o apanhador e o processador para teclado como fila de espera.
+ * Os eventos so inseridos pela thread do gancho e retirados pela thread do processador.
+ * Nenhuma implementao deve bloquear a thread que insere, nem usar sincronizao.</p>
+ *
+ * <p>Todas as implementaes possuem uma capacidade fixa definida na sua construo.
+ * Quando o buffer estiver cheio o evento no ser inserido e o chamador ser avisado.
+ * Dessa forma o gancho do sistema operacional nunca fica esperando pelo processador.</p>
+ *
+ * <p>Os eventos so armazenados compactados em valores do tipo long, sem alocar objetos.
+ * Objetos de evento s sero criados pelo processador se forem de fato necessrios.
+ * Junto de cada evento  armazenado o momento em que foi recebido, usado pelos eventos e mtricas.</p>
+ *
+ * <p>Cada evento recebido reserva um nmero de sequncia, mesmo que no venha a ser inserido,
+ * assim os despachantes podem identificar os eventos perdidos pelas lacunas na sequncia.
+ * Buffers com diversos produtores derivam o nmero de sequncia da posio reservada na insero,
+ * para que a sequncia tenha a mesma ordem das posies, onde os eventos recusados no deixam lacunas.
+ * Buffers descartveis permitem que o produtor descarte o evento mais antigo para abrir espao.</p>
+ *
+ * <p>Buffers com agrupamento de repeties permitem que o produtor some uma repetio automtica
+ * de uma tecla mantida abaixada a um evento idntico que ainda aguarda no buffer, sem ocupar uma
+ * nova posio. Repeties agrupadas no reservam nmero de sequncia.</p>
+ *
+ * @see PackedKeyEvent
+ * @see KeyboardRingBuffer
+ * @see KeyboardConcurrentRingBuffer
+ *
+ * @author Andrew
+ */
+
+interface KeyboardBuffer
+{
+	/**
+	 * Capacidade padro utilizada pelos buffers quando no for especificada uma.
+	 */
+	int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * Reserva o prximo nmero de sequncia, deve ser chamado pelo produtor para cada evento recebido.
+	 * @return aquisio do nmero de sequncia do evento, sempre maior que o anterior,
+	 * ou zero se o buffer derivar o nmero de sequncia da posio reservada na insero.
+	 */
+
+	long nextSequence();
+
+	/**
+	 * Insere um novo evento ao final do buffer sem bloquear a thread que o chamou.
+	 * @param event valor contendo o evento de tecla compactado, nunca <code>NONE</code>.
+	 * @param sequence nmero de sequncia reservado para o evento,
+	 * ignorado se o buffer derivar o nmero de sequncia da posio reservada.
+	 * @param timestamp momento em nanossegundos em que o evento foi inserido ou zero.
+	 * @return true se tiver sido inserido ou false se o buffer estiver cheio.
+	 */
+
+	boolean offer(long event, long sequence, long timestamp);
+
+	/**
+	 * Descarta o evento mais antigo do buffer para abrir espao, deve ser chamado apenas pelo produtor.
+	 * Caso o consumidor retire o evento ao mesmo tempo nenhum evento ser descartado.
+	 * @return true se um evento tiver sido descartado ou false se o buffer no estiver mais cheio
+	 * ou no for descartvel.
+	 */
+
+	boolean discard();
+
+	/**
+	 * Agrupa uma repetio no evento idntico mais recente que ainda no foi retirado, deve ser chamado
+	 * apenas pelo produtor. Eventos de tecla solta nunca so agrupados, nem ultrapassam outros eventos.
+	 * @param event valor contendo o evento de tecla compactado, sem repeties agrupadas.
+	 * @param timestamp momento em nanossegundos em que a repetio foi recebida ou zero.
+	 * @return true se a repetio tiver sido agrupada ou false se dever ser inserida.
+	 */
+
+	boolean fold(long event, long timestamp);
+
+	/**
+	 * Remove o evento mais antigo do buffer, deve ser chamado apenas pelo consumidor.
+	 * @return aquisio do evento removido ou <code>NONE</code> se no houver nenhum disponvel.
+	 */
+
+	long poll();
+
+	/**
+	 * Momento informado na insero do evento, deve ser chamado apenas pelo consumidor.
+	 * @return aquisio do momento em que o ltimo evento removido foi inserido.
+	 */
+
+	long getTimestamp();
+
+	/**
+	 * Momento informado na ltima repetio agrupada, deve ser chamado apenas pelo consumidor.
+	 * @return aquisio do momento em que a ltima repetio do ltimo evento removido foi recebida.
+	 */
+
+	long getLastTimestamp();
+
+	/**
+	 * Nmero de sequncia reservado na insero, deve ser chamado apenas pelo consumidor.
+	 * @return aquisio do nmero de sequncia do ltimo evento removido.
+	 */
+
+	long getSequence();
+
+	/**
+	 * Verifica se h eventos no buffer que ainda no foram retirados pelo consumidor.
+	 * @return true se no houver nenhum evento disponvel ou false caso contrrio.
+	 */
+
+	boolean isEmpty();
+
+	/**
+	 * Quantidade de eventos  apenas uma estimativa, j que outra thread pode alter-lo.
+	 * @return aquisio da quantidade de eventos que aguardam no buffer.
+	 */
+
+	int size();
+
+	/**
+	 * A capacidade  sempre uma potncia de dois para que o ndice seja uma mscara.
+	 * @return aquisio da quantidade mxima de eventos que o buffer pode armazenar.
+	 */
+
+	int capacity();
+}
@@ -0,0 +1,319 @@
+package org.diverproject.jni.input;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <h1>Barramento de Teclado</h1>
+ *
+ * <p>Publicador que escreve os eventos recebidos pelo apanhador para teclado em um arquivo circular
+ * mapeado em memria, para que outros processos do mesmo computador recebam os mesmos eventos atravs de
+ * <code>BusKeyboardSource</code>, sem que cada processo precise instalar o seu prprio gancho e sem sockets.
+ * Cada processo leitor percorre o arquivo com a sua prpria posio, sem nenhuma comunicao com o publicador,
+ * portanto a quantidade de leitores no altera o custo da publicao.</p>
+ *
+ * <p>O arquivo possui um cabealho e uma quantidade fixa de registros, potncia de 2. Cada registro possui o
+ * nmero de sequncia do evento, o momento do recebimento e o evento compactado, e ocupa a posio indicada
+ * pelo seu nmero de sequncia, sobrescrevendo o registro de uma volta anterior. O nmero de sequncia do
+ * ltimo evento publicado fica no cabealho, em uma linha de cache separada dos registros.</p>
+ *
+ * <p>O nmero de sequncia de um registro  invalidado antes do evento ser escrito e s  escrito novamente
+ * aps o evento, de modo que um leitor que encontre o registro sendo sobrescrito perceba a diferena e o descarte.
+ * A ordem das escritas  garantida por uma barreira de memria entre elas (<code>MemoryFence</code>). Publicar um evento  apenas
+ * escrever cinco valores na memria, sem chamadas ao sistema operacional na thread da fonte de eventos.</p>
+ *
+ * <p>O arquivo  bloqueado enquanto o barramento estiver aberto, impedindo um segundo publicador. Um arquivo j
+ * existente com a mesma capacidade continua a partir do ltimo nmero de sequncia publicado, para que os leitores
+ * que permaneceram abertos continuem recebendo os eventos aps o publicador ser reiniciado.</p>
+ *
+ * @see BusKeyboardSource
+ * @see KeyboardPicker
+ *
+ * @author Andrew
+ */
+
+public class KeyboardBus
+{
+	/**
+	 * Identificao de um arquivo de barramento de teclado ("JIKB").
+	 */
+	public static final int MAGIC = 0x4A494B42;
+
+	/**
+	 * Verso atual do formato do arquivo de barramento de teclado.
+	 */
+	public static final short VERSION = 1;
+
+	/**
+	 * Tamanho do cabealho do arquivo, duas linhas de cache.
+	 */
+	public static final int HEADER_SIZE = 128;
+
+	/**
+	 * Tamanho de cada registro: nmero de sequncia, momento do recebimento e evento compactado (long).
+	 */
+	public static final int RECORD_SIZE = 32;
+
+	/**
+	 * Quantidade padro de registros do arquivo (2MB).
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	/**
+	 * Posio no cabealho da quantidade de registros do arquivo.
+	 */
+	static final int CAPACITY_OFFSET = 8;
+
+	/**
+	 * Posio no cabealho do nmero de sequncia do ltimo evento publicado.
+	 */
+	static final int SEQUENCE_OFFSET = 64;
+
+	/**
+	 * Deslocamento do momento de recebimento em um registro.
+	 */
+	static final int TIMESTAMP_OFFSET = 8;
+
+	/**
+	 * Deslocamento do evento compactado em um registro.
+	 */
+	static final int EVENT_OFFSET = 16;
+
+
+	/**
+	 * Arquivo circular onde os eventos sero publicados.
+	 */
+	private final File file;
+
+	/**
+	 * Quantidade de registros do arquivo, potncia de 2.
+	 */
+	private final int capacity;
+
+	/**
+	 * Canal do arquivo, mantido aberto para manter o bloqueio do publicador.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Bloqueio do arquivo, obtido na abertura e liberado ao fechar o barramento.
+	 */
+	private FileLock lock;
+
+	/**
+	 * Arquivo inteiro mapeado em memria ou null se o barramento estiver fechado.
+	 */
+	private volatile MappedByteBuffer mapped;
+
+	/**
+	 * Nmero de sequncia do ltimo evento publicado.
+	 */
+	private long sequence;
+
+	/**
+	 * Quantidade de eventos publicados desde a abertura do barramento.
+	 */
+	private volatile long published;
+
+	/**
+	 * Constri um novo barramento de teclado com a quantidade de registros padro.
+	 * @param file arquivo circular onde os eventos sero publicados.
+	 */
+
+	public KeyboardBus(File file)
+	{
+		this(file, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constri um novo barramento de teclado sendo necessrio definir:
+	 * @param file arquivo circular onde os eventos sero publicados.
+	 * @param capacity quantidade de registros do arquivo, deve ser potncia de 2.
+	 */
+
+	public KeyboardBus(File file, int capacity)
+	{
+		if (capacity < 2 || Integer.bitCount(capacity) != 1)
+			throw new InputRuntimeException("capacidade invlida para barramento (capacity: %d)", capacity);
+
+		this.file = file;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Abre o barramento bloqueando e mapeando o arquivo, criado caso ainda no exista.
+	 * Um arquivo com outro formato ou capacidade tem o cabealho e os registros reiniciados.
+	 * @throws InputException se j estiver aberto, o arquivo estiver bloqueado por outro publicador
+	 * ou no puder ser criado e mapeado.
+	 */
+
+	public synchronized void open() throws InputException
+	{
+		if (mapped != null)
+			throw new InputException("barramento de teclado j aberto (file: %s)", file);
+
+		try {
+
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			lock = channel.tryLock();
+
+		} catch (OverlappingFileLockException e) {
+			lock = null;
+		} catch (IOException e) {
+			close();
+			throw new InputException(e, "falha ao abrir barramento de teclado (file: %s)", file);
+		}
+
+		if (lock == null)
+		{
+			close();
+			throw new InputException("barramento de teclado em uso por outro publicador (file: %s)", file);
+		}
+
+		MappedByteBuffer mapped;
+
+		try {
+			mapped = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+		} catch (IOException e) {
+			close();
+			throw new InputException(e, "falha ao abrir barramento de teclado (file: %s)", file);
+		}
+
+		if (isValid(mapped) && mapped.getInt(CAPACITY_OFFSET) == capacity)
+			sequence = mapped.getLong(SEQUENCE_OFFSET);
+
+		else
+		{
+			for (int offset = HEADER_SIZE; offset < mapped.capacity(); offset += RECORD_SIZE)
+				mapped.putLong(offset, 0);
+
+			sequence = 0;
+
+			mapped.putLong(SEQUENCE_OFFSET, 0);
+			mapped.putLong(16, System.currentTimeMillis());
+			mapped.putInt(CAPACITY_OFFSET, capacity);
+			mapped.putShort(6, (short) RECORD_SIZE);
+			mapped.putShort(4, VERSION);
+			mapped.putInt(0, MAGIC);
+		}
+
+		this.published = 0;
+		this.mapped = mapped;
+	}
+
+	/**
+	 * Fecha o barramento liberando o bloqueio do arquivo, que permanece com os ltimos eventos publicados.
+	 * Os leitores continuam abertos e voltam a receber eventos quando o barramento for aberto novamente.
+	 */
+
+	public synchronized void close()
+	{
+		mapped = null;
+		lock = null;
+
+		if (channel != null)
+		{
+			try {
+				channel.close();
+			} catch (IOException e) {
+			}
+
+			channel = null;
+		}
+	}
+
+	/**
+	 * Publica um evento no registro do prximo nmero de sequncia, sobrescrevendo o da volta anterior.
+	 * Deve ser chamado apenas pela thread da fonte de eventos, no h sincronizao.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @param timestamp momento em nanossegundos em que o evento foi recebido.
+	 */
+
+	public void publish(long event, long timestamp)
+	{
+		MappedByteBuffer mapped = this.mapped;
+
+		if (mapped == null)
+			return;
+
+		long sequence = ++this.sequence;
+		int offset = HEADER_SIZE + (int) (sequence & (capacity - 1)) * RECORD_SIZE;
+
+		mapped.putLong(offset, 0);
+		MemoryFence.store();
+		mapped.putLong(offset + TIMESTAMP_OFFSET, timestamp);
+		mapped.putLong(offset + EVENT_OFFSET, event);
+		MemoryFence.store();
+		mapped.putLong(offset, sequence);
+		mapped.putLong(SEQUENCE_OFFSET, sequence);
+
+		published++;
+	}
+
+	/**
+	 * Verifica se o cabealho de um arquivo mapeado  de um barramento de teclado na verso atual.
+	 * @param mapped arquivo mapeado em memria, com pelo menos o tamanho do cabealho.
+	 * @return true se a identificao, a verso e o tamanho dos registros forem os esperados.
+	 */
+
+	static boolean isValid(MappedByteBuffer mapped)
+	{
+		return mapped.capacity() >= HEADER_SIZE && mapped.getInt(0) == MAGIC && mapped.getShort(4) == VERSION && mapped.getShort(6) == RECORD_SIZE;
+	}
+
+	/**
+	 * O arquivo pode ser lido por qualquer quantidade de processos atravs de <code>BusKeyboardSource</code>.
+	 * @return aquisio do arquivo circular onde os eventos so publicados.
+	 */
+
+	public File getFile()
+	{
+		return file;
+	}
+
+	/**
+	 * Leitores que ficarem mais que essa quantidade de eventos atrs do publicador perdem os mais antigos.
+	 * @return aquisio da quantidade de registros do arquivo.
+	 */
+
+	public int getCapacity()
+	{
+		return capacity;
+	}
+
+	/**
+	 * Eventos publicados por aberturas anteriores do barramento no so contados.
+	 * @return aquisio da quantidade de eventos publicados desde a abertura do barramento.
+	 */
+
+	public long getPublished()
+	{
+		return published;
+	}
+
+	/**
+	 * O nmero de sequncia continua do arquivo existente quando a capacidade for a mesma.
+	 * @return aquisio do nmero de sequncia do ltimo evento publicado.
+	 */
+
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+	/**
+	 * O barramento s publica eventos enquanto estiver aberto.
+	 * @return true se o barramento estiver aberto ou false caso contrrio.
+	 */
+
+	public boolean isOpen()
+	{
+		return mapped != null;
+	}
+}
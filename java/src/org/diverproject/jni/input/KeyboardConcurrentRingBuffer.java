@@ -0,0 +1,101 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.PackedKeyEvent.NONE;
+
+/**
+ * <h1>Buffer Circular Concorrente para Teclado</h1>
+ *
+ * <p>Variao do buffer circular onde diversas threads podem inserir ao mesmo tempo.
+ * Necessrio quando mais de uma thread nativa estiver anexada e gerando eventos.
+ * Ainda assim deve existir apenas uma nica thread removendo os eventos do buffer.</p>
+ *
+ * <p>Cada produtor reserva a sua posio atravs de uma operao compare-and-set,
+ * e s ento publica o evento na posio reservada. O consumidor considera que a posio
+ * ainda no est disponvel enquanto o evento reservado no tiver sido publicado,
+ * ou seja, enquanto a posio ainda possuir o valor <code>NONE</code>.</p>
+ *
+ * <p>O nmero de sequncia de cada evento  derivado da posio reservada, portanto a mesma operao
+ * compare-and-set reserva a posio e o nmero de sequncia, e a ordem dos nmeros de sequncia 
+ * sempre a ordem das posies. Eventos recusados por falta de espao no reservam posio e por isso
+ * no deixam lacunas na sequncia, sendo apenas contabilizados nas mtricas.</p>
+ *
+ * <p>No  possvel descartar o evento mais antigo, pois o evento da posio de leitura pode ainda
+ * estar sendo publicado por outro produtor. Pelo mesmo motivo repeties no so agrupadas,
+ * j que no existe um ltimo evento nico.</p>
+ *
+ * @see KeyboardRingBuffer
+ *
+ * @author Andrew
+ */
+
+class KeyboardConcurrentRingBuffer extends KeyboardRingBuffer
+{
+	/**
+	 * Constri um novo buffer circular concorrente para teclado sendo necessrio definir:
+	 * @param capacity quantidade mnima de eventos que o buffer dever suportar,
+	 * ser arredondada para a prxima potncia de dois se necessrio.
+	 */
+
+	KeyboardConcurrentRingBuffer(int capacity)
+	{
+		super(capacity);
+	}
+
+	@Override
+	public long nextSequence()
+	{
+		return 0;
+	}
+
+	@Override
+	public boolean offer(long event, long sequence, long timestamp)
+	{
+		long position;
+
+		do {
+
+			position = tail.get();
+
+			if (position - head.get() > mask)
+				return false;
+
+		} while (!tail.compareAndSet(position, position + 1));
+
+		timestamps[(int) position & mask] = timestamp;
+		sequences[(int) position & mask] = position + 1;
+		events.lazySet((int) position & mask, event);
+
+		return true;
+	}
+
+	@Override
+	public boolean discard()
+	{
+		return false;
+	}
+
+	@Override
+	public boolean fold(long event, long timestamp)
+	{
+		return false;
+	}
+
+	@Override
+	public long poll()
+	{
+		long position = head.get();
+		int index = (int) position & mask;
+		long event = events.get(index);
+
+		if (event == NONE)
+			return NONE;
+
+		timestamp = timestamps[index];
+		lastTimestamp = timestamp;
+		sequence = sequences[index];
+		events.lazySet(index, NONE);
+		head.lazySet(position + 1);
+
+		return event;
+	}
+}
@@ -26,4 +26,20 @@ public interface KeyboardDispatcher extends Service
 	 */
 
 	void dispatch(KeyEvent event);
+
+	/**
+	 * Chamado pelo processador com todos os eventos retirados de uma nica vez da fila de espera,
+	 * permitindo que o custo de cada chamada seja dividido entre os eventos de uma rajada.
+	 * Os eventos e o vetor s so vlidos durante a chamada, assim como em <code>dispatch(KeyEvent)</code>.
+	 * Por padro cada evento  despachado individualmente e na ordem do vetor.
+	 * @param events vetor contendo as referncias dos eventos de teclado detectados no sistema.
+	 * @param offset ndice do primeiro evento do vetor que deve ser despachado.
+	 * @param count quantidade de eventos do vetor que devem ser despachados.
+	 */
+
+	default void dispatchBatch(KeyEvent events[], int offset, int count)
+	{
+		for (int i = offset; i < offset + count; i++)
+			dispatch(events[i]);
+	}
 }
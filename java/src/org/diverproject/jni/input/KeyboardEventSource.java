@@ -0,0 +1,39 @@
+package org.diverproject.jni.input;
+
+/**
+ * <h1>Fonte de Eventos para Teclado</h1>
+ *
+ * <p>Origem dos eventos de teclado que sero despachados pelo sistema de entrada.
+ * Cada fonte possui a sua prpria thread (ou threads) para gerar os eventos,
+ * que so repassados ao receptor e inseridos na fila de espera do processador.</p>
+ *
+ * <p>A fonte padro  o gancho nativo do Windows (DLL), porm outras fontes permitem
+ * usar o sistema de entrada sem a DLL, como um gerador de eventos sintticos,
+ * a reproduo de eventos gravados ou a leitura de dispositivos em outros sistemas.</p>
+ *
+ * <p>A fonte  selecionada no sistema de entrada e iniciada na sua inicializao,
+ * sendo parada quando o sistema de entrada for desligado.</p>
+ *
+ * @see KeyboardReceiver
+ * @see NativeKeyboardSource
+ * @see SyntheticKeyboardSource
+ *
+ * @author Andrew
+ */
+
+public interface KeyboardEventSource
+{
+	/**
+	 * Inicia a gerao de eventos de teclado, no deve bloquear a thread que a chamou.
+	 * @param receiver receptor para qual os eventos gerados devero ser repassados.
+	 * @throws InputException apenas se a fonte no puder ser iniciada.
+	 */
+
+	void start(KeyboardReceiver receiver) throws InputException;
+
+	/**
+	 * Interrompe a gerao de eventos de teclado e libera as threads usadas pela fonte.
+	 */
+
+	void stop();
+}
@@ -0,0 +1,265 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KP_ALTERNATIVE;
+import static org.diverproject.jni.input.KeyEvent.KP_CONTROL;
+import static org.diverproject.jni.input.KeyEvent.KP_SHIFT;
+import static org.diverproject.jni.input.KeyboardState.WORDS;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_MAX;
+
+import org.diverproject.util.ObjectDescription;
+
+/**
+ * <h1>Quadro do Teclado</h1>
+ *
+ * <p>Estado do teclado publicado a cada atualizao do sistema de entrada, contendo as teclas
+ * abaixadas no momento da atualizao e as teclas pressionadas e soltas desde o quadro anterior.
+ * Uma tecla pode ter sido pressionada e solta no mesmo quadro, sem nunca aparecer abaixada.</p>
+ *
+ * <p>Os quadros so reutilizados de forma alternada pelo estado do teclado, portanto um quadro
+ * s pode ser consultado at a prxima atualizao e no deve ser mantido entre quadros.</p>
+ *
+ * @see KeyboardState
+ *
+ * @author Andrew
+ */
+
+public final class KeyboardFrame
+{
+	/**
+	 * Teclas que estavam abaixadas no momento da atualizao, um bit para cada tecla.
+	 */
+	final long down[];
+
+	/**
+	 * Teclas pressionadas desde o quadro anterior, um bit para cada tecla.
+	 */
+	final long pressed[];
+
+	/**
+	 * Teclas soltas desde o quadro anterior, um bit para cada tecla.
+	 */
+	final long released[];
+
+	/**
+	 * Nmero do quadro, incrementado a cada atualizao do sistema de entrada.
+	 */
+	private long number;
+
+	/**
+	 * Momento em nanossegundos em que o quadro foi publicado.
+	 */
+	private long time;
+
+	/**
+	 * Tempo desde a ltima atualizao informado ao sistema de entrada.
+	 */
+	private long delay;
+
+	/**
+	 * Propriedades do teclado no momento da atualizao.
+	 */
+	private int properties;
+
+	/**
+	 * Constri um novo quadro do teclado sem nenhuma tecla, usado apenas pelo estado do teclado.
+	 */
+
+	KeyboardFrame()
+	{
+		down = new long[WORDS];
+		pressed = new long[WORDS];
+		released = new long[WORDS];
+	}
+
+	/**
+	 * Define as informaes do quadro aps as teclas terem sido copiadas.
+	 * @param number nmero do quadro, incrementado a cada atualizao.
+	 * @param time momento em nanossegundos em que o quadro foi publicado.
+	 * @param delay tempo desde a ltima atualizao informado ao sistema de entrada.
+	 * @param properties propriedades do teclado no momento da atualizao.
+	 */
+
+	void set(long number, long time, long delay, int properties)
+	{
+		this.number = number;
+		this.time = time;
+		this.delay = delay;
+		this.properties = properties;
+	}
+
+	/**
+	 * Verifica se uma tecla est presente em um dos conjuntos de teclas do quadro.
+	 * @param keys conjunto de teclas, um bit para cada tecla.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @return true se a tecla for vlida e estiver presente no conjunto.
+	 */
+
+	private static boolean contains(long keys[], int key)
+	{
+		return key > 0 && key < KEY_MAX && (keys[key >>> 6] & 1L << key) != 0;
+	}
+
+	/**
+	 * Teclas abaixadas so aquelas pressionadas e ainda no soltas no momento da atualizao.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @return true se a tecla estava abaixada ou false se estava solta ou no for vlida.
+	 */
+
+	public boolean isDown(int key)
+	{
+		return contains(down, key);
+	}
+
+	/**
+	 * Repeties automticas de uma tecla que j estava abaixada no so consideradas.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @return true se a tecla foi pressionada desde o quadro anterior ou false caso contrrio.
+	 */
+
+	public boolean isJustPressed(int key)
+	{
+		return contains(pressed, key);
+	}
+
+	/**
+	 * Uma tecla solta nesse quadro pode ter sido pressionada tambm nesse quadro.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @return true se a tecla foi solta desde o quadro anterior ou false caso contrrio.
+	 */
+
+	public boolean isJustReleased(int key)
+	{
+		return contains(released, key);
+	}
+
+	/**
+	 * Permite percorrer as teclas abaixadas sem consultar tecla por tecla.
+	 * @return aquisio de uma cpia das teclas abaixadas, um bit para cada tecla.
+	 */
+
+	public long[] getDown()
+	{
+		return down.clone();
+	}
+
+	/**
+	 * Permite percorrer as teclas pressionadas sem consultar tecla por tecla.
+	 * @return aquisio de uma cpia das teclas pressionadas desde o quadro anterior.
+	 */
+
+	public long[] getJustPressed()
+	{
+		return pressed.clone();
+	}
+
+	/**
+	 * Permite percorrer as teclas soltas sem consultar tecla por tecla.
+	 * @return aquisio de uma cpia das teclas soltas desde o quadro anterior.
+	 */
+
+	public long[] getJustReleased()
+	{
+		return released.clone();
+	}
+
+	/**
+	 * O primeiro quadro publicado possui o nmero 1, antes disso o quadro vazio possui 0.
+	 * @return aquisio do nmero do quadro, incrementado a cada atualizao.
+	 */
+
+	public long getNumber()
+	{
+		return number;
+	}
+
+	/**
+	 * O momento  obtido do relgio monotnico e s pode ser comparado com outros quadros.
+	 * @return aquisio do momento em nanossegundos em que o quadro foi publicado.
+	 */
+
+	public long getTime()
+	{
+		return time;
+	}
+
+	/**
+	 * O tempo  repassado como informado na atualizao do sistema de entrada.
+	 * @return aquisio do tempo desde a ltima atualizao.
+	 */
+
+	public long getDelay()
+	{
+		return delay;
+	}
+
+	/**
+	 * As propriedades so as do ltimo evento retirado da fila antes da atualizao (<code>KP</code>).
+	 * @return aquisio das propriedades do teclado no momento da atualizao.
+	 */
+
+	public int getProperties()
+	{
+		return properties;
+	}
+
+	/**
+	 * Deve verificar se havia uma tecla ALT abaixada no momento da atualizao.
+	 * @return true se havia qualquer uma das duas teclas ALT abaixadas.
+	 */
+
+	public boolean hasAlt()
+	{
+		return (properties & KP_ALTERNATIVE) != 0;
+	}
+
+	/**
+	 * Deve verificar se havia uma tecla CTRL abaixada no momento da atualizao.
+	 * @return true se havia qualquer uma das duas teclas CTRL abaixadas.
+	 */
+
+	public boolean hasCtrl()
+	{
+		return (properties & KP_CONTROL) != 0;
+	}
+
+	/**
+	 * Deve verificar se havia uma tecla SHIFT abaixada no momento da atualizao.
+	 * @return true se havia qualquer uma das duas teclas SHIFT abaixadas.
+	 */
+
+	public boolean hasShift()
+	{
+		return (properties & KP_SHIFT) != 0;
+	}
+
+	/**
+	 * Conta a quantidade de teclas em um dos conjuntos de teclas do quadro.
+	 * @param keys conjunto de teclas, um bit para cada tecla.
+	 * @return aquisio da quantidade de bits definidos no conjunto.
+	 */
+
+	private static int count(long keys[])
+	{
+		int count = 0;
+
+		for (long word : keys)
+			count += Long.bitCount(word);
+
+		return count;
+	}
+
+	@Override
+	public String toString()
+	{
+		ObjectDescription description = new ObjectDescription(getClass());
+
+		description.append("number", number);
+		description.append("delay", delay);
+		description.append("down", count(down));
+		description.append("pressed", count(pressed));
+		description.append("released", count(released));
+		description.append("properties", properties);
+
+		return description.toString();
+	}
+}
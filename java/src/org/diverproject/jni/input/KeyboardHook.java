@@ -9,9 +9,11 @@ package org.diverproject.jni.input;
  * o sistema ir "travar", pois a DLL s far a liberao atravs de outra Thread.</p>
  *
  * <p>Tem como finalidade apenas garantir que quando iniciado registre a Thread na DLL.
- * Como ainda tambm deve permitir desfazer o registro da Thread liberando o mesmo.</p>
+ * Como ainda tambm deve permitir desfazer o registro da Thread liberando o mesmo.
+ * As teclas recebidas da DLL so repassadas diretamente ao receptor para teclado.</p>
  *
- * @see KeyboardPicker
+ * @see NativeKeyboardSource
+ * @see KeyboardReceiver
  *
  * @author Andrew
  */
@@ -19,40 +21,64 @@ package org.diverproject.jni.input;
 class KeyboardHook extends Thread
 {
 	/**
-	 * Referncia do objeto que ir receber os eventos de teclado direto da DLL.
+	 * Receptor para o qual sero repassadas as teclas recebidas da DLL.
 	 */
-	private KeyboardPicker picker;
+	private final KeyboardReceiver receiver;
 
 	/**
 	 * Constri uma nova thread para manter o registro da aplicao com a DLL.
 	 * Essa thread ser automaticamente encerrada junto com a Thread Main.
+	 * @param receiver receptor para o qual sero repassadas as teclas recebidas.
 	 */
 
-	KeyboardHook()
+	KeyboardHook(KeyboardReceiver receiver)
 	{
 		this.setDaemon(true);
 		this.setName("JNI KPoolHook");
+		this.receiver = receiver;
 	}
 
 	@Override
 	public void run()
 	{
-		picker = new KeyboardPicker();
-		picker.register();
+		register();
 	}
 
 	/**
-	 * Quando chamado dever dizer ao apanhador para teclado desfazer o registro.
+	 * Chamado apenas pela DLL sempre que uma tecla for detectada pelo gancho.
+	 * @param type qual o tipo de ao que foi detectada (<code>KT</code>).
+	 * @param vk cdigo da tecla virtual que gerou o evento (<code>VK</code>).
+	 * @param flags flags da tecla virtual recebidas do sistema operacional (<code>KF</code>).
+	 */
+
+	private void receiveKey(int type, int vk, int flags)
+	{
+		receiver.receiveKey(type, vk, flags);
+	}
+
+	/**
+	 * Quando chamado dever desfazer o registro da thread na DLL.
 	 * Uma vez chamado a thread terminar seu loop dentro do registro na DLL.
-	 * Como tambm ir fazer com que o apanhador para teclado pare de receber eventos.
+	 * Como tambm ir fazer com que o receptor pare de receber eventos.
 	 */
 
 	public void shutdown()
 	{
-		if (picker != null)
-		{
-			picker.unregister();
-			picker = null;
-		}
+		unregister();
 	}
+
+	/**
+	 * Deve ser chamado para fazer um novo registro desse objeto na DLL.
+	 * Ao ser chamado a Thread que o chamou ficar presa at o cancelamento do registro.
+	 * Assim  necessrio a existncia de duas thread, uma para fazer e outra para cancelar.
+	 */
+
+	private native void register();
+
+	/**
+	 * Deve ser chamado para cancelar um registro feito por esse objeto na DLL.
+	 * Assim que chamado ir cancelar qualquer recebimento de eventos para teclado.
+	 */
+
+	private native void unregister();
 }
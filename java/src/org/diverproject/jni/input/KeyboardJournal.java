@@ -0,0 +1,341 @@
+package org.diverproject.jni.input;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h1>Dirio de Teclado</h1>
+ *
+ * <p>Gravador que registra em arquivo todos os eventos recebidos pelo apanhador para teclado.
+ * Cada registro possui tamanho fixo: o momento em que foi recebido (nanossegundos) e o evento
+ * compactado, que j contm o tipo, a tecla virtual, a tecla, o caracter e as propriedades.</p>
+ *
+ * <p>Os registros so gravados em segmentos de tamanho fixo mapeados em memria, de modo que
+ * gravar um registro seja apenas escrever dois valores na memria, sem chamadas ao sistema
+ * operacional na thread da fonte de eventos. O prximo segmento  criado e mapeado antecipadamente
+ * por uma thread prpria do dirio, e apenas trocado pela thread da fonte ao encher o atual.
+ * Caso o prximo segmento ainda no esteja pronto o registro  descartado e contabilizado.</p>
+ *
+ * <p>Os segmentos so nomeados pelo nome do dirio e o seu ndice (<code>nome.000000.journal</code>).
+ * Cada segmento possui um cabealho com o horrio do sistema e o relgio monotnico no momento da sua
+ * criao, permitindo relacionar o momento dos registros com o horrio do sistema. As posies ainda
+ * no gravadas de um segmento possuem o evento <code>NONE</code>, que indica o fim dos registros.</p>
+ *
+ * @see KeyboardPicker
+ * @see PackedKeyEvent
+ *
+ * @author Andrew
+ */
+
+public class KeyboardJournal
+{
+	/**
+	 * Identificao de um segmento do dirio de teclado ("JIKJ").
+	 */
+	public static final int MAGIC = 0x4A494B4A;
+
+	/**
+	 * Verso atual do formato dos segmentos do dirio de teclado.
+	 */
+	public static final short VERSION = 1;
+
+	/**
+	 * Tamanho do cabealho de cada segmento.
+	 */
+	public static final int HEADER_SIZE = 32;
+
+	/**
+	 * Tamanho de cada registro: momento do recebimento (long) e o evento compactado (long).
+	 */
+	public static final int RECORD_SIZE = 16;
+
+	/**
+	 * Tamanho padro de cada segmento do dirio de teclado (64MB).
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * Extenso usada pelos arquivos dos segmentos do dirio de teclado.
+	 */
+	public static final String EXTENSION = ".journal";
+
+
+	/**
+	 * Diretrio onde os segmentos do dirio sero criados.
+	 */
+	private final File directory;
+
+	/**
+	 * Nome do dirio, usado como prefixo dos arquivos dos segmentos.
+	 */
+	private final String name;
+
+	/**
+	 * Tamanho de cada segmento do dirio, incluindo o cabealho.
+	 */
+	private final int segmentSize;
+
+	/**
+	 * ndice do prximo segmento que ser criado.
+	 */
+	private int index;
+
+	/**
+	 * Segmento onde os registros esto sendo gravados no momento.
+	 */
+	private MappedByteBuffer current;
+
+	/**
+	 * Prximo segmento j criado e mapeado ou null se ainda no estiver pronto.
+	 */
+	private volatile MappedByteBuffer next;
+
+	/**
+	 * Thread que cria e mapeia o prximo segmento antecipadamente.
+	 */
+	private Thread preparer;
+
+	/**
+	 * Falha na criao do ltimo segmento ou null se no houver.
+	 */
+	private volatile IOException failure;
+
+	/**
+	 * Quantidade de registros gravados no dirio.
+	 */
+	private volatile long recorded;
+
+	/**
+	 * Quantidade de registros descartados por no haver um segmento pronto.
+	 */
+	private volatile long lost;
+
+	/**
+	 * Constri um novo dirio de teclado com o tamanho de segmento padro.
+	 * @param directory diretrio onde os segmentos do dirio sero criados.
+	 * @param name nome do dirio, usado como prefixo dos arquivos dos segmentos.
+	 */
+
+	public KeyboardJournal(File directory, String name)
+	{
+		this(directory, name, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Constri um novo dirio de teclado sendo necessrio definir:
+	 * @param directory diretrio onde os segmentos do dirio sero criados.
+	 * @param name nome do dirio, usado como prefixo dos arquivos dos segmentos.
+	 * @param segmentSize tamanho de cada segmento, incluindo o cabealho.
+	 */
+
+	public KeyboardJournal(File directory, String name, int segmentSize)
+	{
+		if (segmentSize < HEADER_SIZE + RECORD_SIZE)
+			throw new InputRuntimeException("tamanho invlido para segmento de dirio (segmentSize: %d)", segmentSize);
+
+		this.directory = directory;
+		this.name = name;
+		this.segmentSize = HEADER_SIZE + (segmentSize - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+	}
+
+	/**
+	 * Abre o dirio criando o primeiro segmento e iniciando a thread que cria os prximos.
+	 * Um dirio que j tenha sido fechado continua a partir do segmento seguinte ao ltimo.
+	 * @throws InputException se o dirio j estiver aberto ou o segmento no puder ser criado.
+	 */
+
+	public synchronized void open() throws InputException
+	{
+		if (preparer != null)
+			throw new InputException("dirio de teclado j aberto (name: %s)", name);
+
+		try {
+			current = createSegment();
+		} catch (IOException e) {
+			throw new InputException(e, "falha ao criar segmento do dirio (name: %s, index: %d)", name, index);
+		}
+
+		failure = null;
+		next = null;
+		preparer = new Thread(this::prepare, "JNI KJournal");
+		preparer.setDaemon(true);
+		preparer.start();
+	}
+
+	/**
+	 * Fecha o dirio, interrompendo a thread que cria os segmentos e descarregando o segmento atual.
+	 * Um segmento que j tenha sido criado antecipadamente permanece apenas com o cabealho.
+	 */
+
+	public synchronized void close()
+	{
+		if (preparer == null)
+			return;
+
+		preparer.interrupt();
+
+		try {
+			preparer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		preparer = null;
+
+		if (current != null)
+		{
+			current.force();
+			current = null;
+		}
+	}
+
+	/**
+	 * Grava um novo registro no dirio com o momento atual do relgio monotnico.
+	 * Deve ser chamado apenas pela thread da fonte de eventos, no h sincronizao.
+	 * @param event valor contendo o evento de tecla compactado.
+	 */
+
+	public void record(long event)
+	{
+		MappedByteBuffer segment = current;
+
+		if (segment == null || segment.remaining() < RECORD_SIZE)
+		{
+			if ((segment = next) == null)
+			{
+				lost++;
+				return;
+			}
+
+			next = null;
+			current = segment;
+
+			LockSupport.unpark(preparer);
+		}
+
+		segment.putLong(System.nanoTime());
+		segment.putLong(event);
+
+		recorded++;
+	}
+
+	/**
+	 * Procedimento executado pela thread do dirio, mantm sempre um prximo segmento pronto.
+	 */
+
+	private void prepare()
+	{
+		Thread thread = Thread.currentThread();
+
+		while (!thread.isInterrupted())
+		{
+			if (next == null && failure == null)
+			{
+				try {
+					next = createSegment();
+				} catch (IOException e) {
+					failure = e;
+				}
+			}
+
+			LockSupport.park(this);
+		}
+	}
+
+	/**
+	 * Cria um novo segmento do dirio, mapeando todo o arquivo em memria e gravando o cabealho.
+	 * O canal do arquivo  fechado logo em seguida, o mapeamento permanece vlido.
+	 * @return aquisio do segmento posicionado no primeiro registro.
+	 * @throws IOException se o arquivo j existir ou no puder ser criado.
+	 */
+
+	private MappedByteBuffer createSegment() throws IOException
+	{
+		File file = getSegmentFile(directory, name, index);
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{
+			MappedByteBuffer segment = channel.map(MapMode.READ_WRITE, 0, segmentSize);
+
+			segment.putInt(MAGIC);
+			segment.putShort(VERSION);
+			segment.putShort((short) RECORD_SIZE);
+			segment.putInt(index);
+			segment.putInt(0);
+			segment.putLong(System.currentTimeMillis());
+			segment.putLong(System.nanoTime());
+
+			index++;
+
+			return segment;
+		}
+	}
+
+	/**
+	 * Obtm o arquivo de um segmento do dirio de teclado.
+	 * @param directory diretrio onde os segmentos do dirio so criados.
+	 * @param name nome do dirio, usado como prefixo dos arquivos dos segmentos.
+	 * @param index ndice do segmento desejado.
+	 * @return aquisio do arquivo do segmento, que pode ainda no existir.
+	 */
+
+	public static File getSegmentFile(File directory, String name, int index)
+	{
+		return new File(directory, String.format("%s.%06d%s", name, index, EXTENSION));
+	}
+
+	/**
+	 * O nome do dirio  usado como prefixo dos arquivos dos segmentos.
+	 * @return aquisio do nome do dirio de teclado.
+	 */
+
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Diretrio onde os segmentos do dirio de teclado so criados.
+	 * @return aquisio do diretrio dos segmentos do dirio.
+	 */
+
+	public File getDirectory()
+	{
+		return directory;
+	}
+
+	/**
+	 * Quantidade de registros gravados desde a construo do dirio.
+	 * @return aquisio da quantidade de registros gravados.
+	 */
+
+	public long getRecorded()
+	{
+		return recorded;
+	}
+
+	/**
+	 * Registros so descartados apenas se o prximo segmento no estiver pronto a tempo.
+	 * @return aquisio da quantidade de registros descartados.
+	 */
+
+	public long getLost()
+	{
+		return lost;
+	}
+
+	/**
+	 * A thread do dirio para de criar segmentos aps uma falha.
+	 * @return aquisio da falha na criao do ltimo segmento ou null se no houver.
+	 */
+
+	public IOException getFailure()
+	{
+		return failure;
+	}
+}
@@ -0,0 +1,245 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.enums.EnumVK.VK_MAX;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import org.diverproject.util.ObjectDescription;
+
+/**
+ * <h1>Layout de Teclado</h1>
+ *
+ * <p>Tradutor de teclas por tabelas onde as tabelas so obtidas de um arquivo binrio compacto.
+ * O arquivo binrio  gerado pelo compilador de layouts a partir de uma descrio em texto,
+ * e  lido de uma nica vez, sem nenhuma interpretao de texto durante o carregamento.</p>
+ *
+ * <p>Cada tecla virtual possui quatro colunas de caracteres: normal, shift, caps lock e AltGr.
+ * As colunas so expandidas nos oito planos do tradutor por tabelas durante a leitura,
+ * de modo que a traduo de um layout carregado custe o mesmo que a do tradutor padro.</p>
+ *
+ * <p>Formato do arquivo binrio (big-endian), onde todos os vetores possuem uma posio por tecla virtual:<br>
+ * <b>Cabealho:</b> MAGIC (int), VERSION (short), tamanho do nome (short) e o nome em UTF-8.<br>
+ * <b>Tabelas:</b> teclas ignoradas (bitmap), teclas, teclas estendidas, quatro colunas de caracteres e modificadores.<br>
+ * <b>Rodap:</b> CRC32 (int) de todo o contedo anterior.</p>
+ *
+ * @see TableKeyTranslator
+ * @see KeyboardLayoutCompiler
+ * @see KeyboardLayoutLoader
+ *
+ * @author Andrew
+ */
+
+public class KeyboardLayout extends TableKeyTranslator
+{
+	/**
+	 * Identificao do arquivo binrio de layout ("JIKL").
+	 */
+	public static final int MAGIC = 0x4A494B4C;
+
+	/**
+	 * Verso atual do formato do arquivo binrio de layout.
+	 */
+	public static final short VERSION = 1;
+
+	/**
+	 * Quantidade de colunas de caracteres por tecla virtual.
+	 */
+	public static final int COLUMNS = 4;
+
+	/**
+	 * Coluna do caracter digitado sem nenhum modificador.
+	 */
+	public static final int COLUMN_PLAIN = 0;
+
+	/**
+	 * Coluna do caracter digitado com o shift pressionado.
+	 */
+	public static final int COLUMN_SHIFT = 1;
+
+	/**
+	 * Coluna do caracter digitado com o caps lock ativo.
+	 */
+	public static final int COLUMN_CAPITAL = 2;
+
+	/**
+	 * Coluna do caracter digitado com o alt (AltGr) pressionado.
+	 */
+	public static final int COLUMN_ALTGR = 3;
+
+	/**
+	 * Tamanho em bytes das tabelas de um arquivo binrio, sem o cabealho e o rodap.
+	 */
+	public static final int TABLES_SIZE = VK_COUNT / 8 + VK_COUNT * 2 + VK_COUNT * COLUMNS + VK_COUNT;
+
+	/**
+	 * Posio da tabela de teclas ignoradas (bitmap) nas tabelas do arquivo binrio.
+	 */
+	static final int TABLE_IGNORED = 0;
+
+	/**
+	 * Posio da tabela de teclas nas tabelas do arquivo binrio.
+	 */
+	static final int TABLE_KEYS = TABLE_IGNORED + VK_COUNT / 8;
+
+	/**
+	 * Posio da tabela de teclas estendidas nas tabelas do arquivo binrio.
+	 */
+	static final int TABLE_EXTENDED = TABLE_KEYS + VK_COUNT;
+
+	/**
+	 * Posio das colunas de caracteres nas tabelas do arquivo binrio.
+	 */
+	static final int TABLE_CHARS = TABLE_EXTENDED + VK_COUNT;
+
+	/**
+	 * Posio da tabela de modificadores nas tabelas do arquivo binrio.
+	 */
+	static final int TABLE_MODIFIERS = TABLE_CHARS + VK_COUNT * COLUMNS;
+
+
+	/**
+	 * Nome do layout definido na sua descrio.
+	 */
+	private final String name;
+
+	/**
+	 * Cdigo hash do arquivo do qual o layout foi carregado.
+	 */
+	private final String hash;
+
+	/**
+	 * Constri um novo layout de teclado com as tabelas vazias sendo necessrio definir:
+	 * @param name nome do layout definido na sua descrio.
+	 * @param hash cdigo hash do arquivo do qual o layout foi carregado.
+	 */
+
+	private KeyboardLayout(String name, String hash)
+	{
+		super(false);
+
+		this.name = name;
+		this.hash = hash;
+	}
+
+	/**
+	 * O nome no  usado na traduo, serve apenas para identificar o layout.
+	 * @return aquisio do nome do layout definido na sua descrio.
+	 */
+
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * O cdigo hash  usado pelo carregador para identificar layouts j carregados.
+	 * @return aquisio do cdigo hash do arquivo do qual o layout foi carregado.
+	 */
+
+	public String getHash()
+	{
+		return hash;
+	}
+
+	/**
+	 * L um layout de teclado a partir do contedo de um arquivo binrio de layout.
+	 * A leitura comea na posio atual do buffer, que no ter a sua posio alterada.
+	 * @param buffer buffer contendo o contedo do arquivo binrio de layout.
+	 * @param hash cdigo hash do arquivo do qual o layout est sendo carregado.
+	 * @return aquisio do layout de teclado com as tabelas preenchidas.
+	 * @throws InputException se o contedo no for um arquivo binrio de layout vlido.
+	 */
+
+	public static KeyboardLayout read(ByteBuffer buffer, String hash) throws InputException
+	{
+		ByteBuffer input = buffer.duplicate();
+
+		try {
+
+			int start = input.position();
+
+			if (input.getInt() != MAGIC)
+				throw new InputException("arquivo no  um layout de teclado");
+
+			short version = input.getShort();
+
+			if (version != VERSION)
+				throw new InputException("verso de layout de teclado no suportada (version: %d)", version);
+
+			byte name[] = new byte[input.getShort() & 0xFFFF];
+			input.get(name);
+
+			byte tables[] = new byte[TABLES_SIZE];
+			input.get(tables);
+
+			CRC32 crc = new CRC32();
+			ByteBuffer content = buffer.duplicate();
+			content.limit(input.position());
+			content.position(start);
+			crc.update(content);
+
+			if (input.getInt() != (int) crc.getValue())
+				throw new InputException("layout de teclado corrompido (crc: %08X)", crc.getValue());
+
+			KeyboardLayout layout = new KeyboardLayout(new String(name, StandardCharsets.UTF_8), hash);
+			layout.fill(tables);
+
+			return layout;
+
+		} catch (BufferUnderflowException e) {
+			throw new InputException("layout de teclado incompleto (size: %d)", buffer.remaining());
+		}
+	}
+
+	/**
+	 * Preenche as tabelas do tradutor a partir das tabelas de um arquivo binrio de layout.
+	 * @param tables vetor contendo apenas as tabelas do arquivo binrio de layout.
+	 */
+
+	private void fill(byte tables[])
+	{
+		for (int vk = 0; vk <= VK_MAX; vk++)
+		{
+			if ((tables[TABLE_IGNORED + (vk >> 3)] & (1 << (vk & 7))) != 0)
+				ignore(vk);
+
+			int key = tables[TABLE_KEYS + vk] & 0xFF;
+			int modifier = tables[TABLE_MODIFIERS + vk] & 0xFF;
+
+			if (modifier != 0)
+				modifier(vk, key, modifier);
+			else
+				layout(vk, key, getChar(tables, vk, COLUMN_PLAIN), getChar(tables, vk, COLUMN_SHIFT),
+						getChar(tables, vk, COLUMN_CAPITAL), getChar(tables, vk, COLUMN_ALTGR));
+
+			extend(vk, tables[TABLE_EXTENDED + vk] & 0xFF);
+		}
+	}
+
+	/**
+	 * Obtm o caracter de uma coluna das tabelas de um arquivo binrio de layout.
+	 * @param tables vetor contendo apenas as tabelas do arquivo binrio de layout.
+	 * @param vk cdigo da tecla virtual (<code>VK</code>).
+	 * @param column coluna do caracter desejado (<code>COLUMN</code>).
+	 * @return aquisio do caracter na coluna da tecla virtual (<code>CH</code>).
+	 */
+
+	private static int getChar(byte tables[], int vk, int column)
+	{
+		return tables[TABLE_CHARS + column * VK_COUNT + vk] & 0xFF;
+	}
+
+	@Override
+	public String toString()
+	{
+		ObjectDescription description = new ObjectDescription(getClass());
+
+		description.append("name", name);
+		description.append("hash", hash);
+
+		return description.toString();
+	}
+}
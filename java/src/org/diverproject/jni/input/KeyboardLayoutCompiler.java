@@ -0,0 +1,399 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KEY_PROPERTIES;
+import static org.diverproject.jni.input.KeyboardLayout.*;
+import static org.diverproject.jni.input.TableKeyTranslator.VK_COUNT;
+import static org.diverproject.jni.input.enums.EnumCH.CHARACTER_NAME;
+import static org.diverproject.jni.input.enums.EnumCH.CH_NULL;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_NAME;
+import static org.diverproject.jni.input.enums.EnumVK.VIRTUAL_KEY_NAME;
+import static org.diverproject.jni.input.enums.EnumVK.isKeyCode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * <h1>Compilador de Layouts de Teclado</h1>
+ *
+ * <p>Converte a descrio de um layout de teclado em texto no arquivo binrio compacto,
+ * que poder ser lido sem nenhuma interpretao de texto pelo carregador de layouts.
+ * A descrio possui um comando por linha e tudo aps um <code>#</code>  comentrio.</p>
+ *
+ * <p>Comandos reconhecidos pela descrio de um layout de teclado:<br>
+ * <b>name</b> <i>nome</i>: define o nome do layout.<br>
+ * <b>ignore</b> <i>VK...</i>: teclas virtuais que no iro gerar eventos.<br>
+ * <b>key</b> <i>VK KEY [normal [shift [caps [altgr]]]]</i>: tecla e caracteres de cada coluna.<br>
+ * <b>modifier</b> <i>VK KEY KP...</i>: tecla e propriedades ativadas enquanto estiver abaixada.<br>
+ * <b>extend</b> <i>VK KEY</i>: tecla quando a tecla virtual for estendida.</p>
+ *
+ * <p>Teclas virtuais, teclas, caracteres e propriedades usam os mesmos nomes das enumeraes,
+ * com ou sem o prefixo (<code>VK_</code>, <code>KEY_</code>, <code>CH_</code>, <code>KP_</code>).
+ * Caracteres tambm podem ser escritos entre aspas simples (<code>'a'</code>), em hexadecimal
+ * (<code>0x61</code>) ou com <code>-</code> quando no houver caracter. As colunas omitidas
+ * de uma tecla repetem o caracter normal da mesma.</p>
+ *
+ * @see KeyboardLayout
+ * @see KeyboardLayoutLoader
+ *
+ * @author Andrew
+ */
+
+public final class KeyboardLayoutCompiler
+{
+	/**
+	 * No deve ser instanciado, possui apenas procedimentos estticos.
+	 */
+
+	private KeyboardLayoutCompiler()
+	{
+	}
+
+	/**
+	 * Compila a descrio de um layout de teclado salvando o arquivo binrio gerado.
+	 * @param source arquivo contendo a descrio do layout em texto (UTF-8).
+	 * @param target arquivo onde ser salvo o arquivo binrio do layout.
+	 * @throws InputException falha na leitura, escrita ou se a descrio for invlida.
+	 */
+
+	public static void compile(File source, File target) throws InputException
+	{
+		try {
+
+			String description = new String(Files.readAllBytes(source.toPath()), StandardCharsets.UTF_8);
+			ByteBuffer buffer = compile(description);
+
+			Files.write(target.toPath(), buffer.array());
+
+		} catch (IOException e) {
+			throw new InputException(e, "falha ao compilar layout (source: %s, target: %s)", source, target);
+		}
+	}
+
+	/**
+	 * Compila a descrio de um layout de teclado no contedo de um arquivo binrio.
+	 * @param description descrio do layout de teclado em texto.
+	 * @return aquisio do buffer contendo o contedo do arquivo binrio do layout.
+	 * @throws InputException apenas se a descrio do layout for invlida.
+	 */
+
+	public static ByteBuffer compile(String description) throws InputException
+	{
+		String name = "";
+		byte tables[] = new byte[TABLES_SIZE];
+		String lines[] = description.split("\r?\n|\r");
+
+		for (int line = 0; line < lines.length; line++)
+		{
+			List<String> tokens = tokenize(lines[line], line + 1);
+
+			if (tokens.isEmpty())
+				continue;
+
+			switch (tokens.get(0))
+			{
+				case "name":
+					expect(tokens, 2, tokens.size(), line + 1);
+					name = String.join(" ", tokens.subList(1, tokens.size()));
+					break;
+
+				case "ignore":
+					expect(tokens, 2, tokens.size(), line + 1);
+					compileIgnore(tables, tokens, line + 1);
+					break;
+
+				case "key":
+					expect(tokens, 3, 3 + COLUMNS, line + 1);
+					compileKey(tables, tokens, line + 1);
+					break;
+
+				case "modifier":
+					expect(tokens, 4, tokens.size(), line + 1);
+					compileModifier(tables, tokens, line + 1);
+					break;
+
+				case "extend":
+					expect(tokens, 3, 3, line + 1);
+					tables[TABLE_EXTENDED + parseVirtualKey(tokens.get(1), line + 1)] = (byte) parseKey(tokens.get(2), line + 1);
+					break;
+
+				default:
+					throw new InputException("comando de layout desconhecido (line: %d, command: %s)", line + 1, tokens.get(0));
+			}
+		}
+
+		byte bytes[] = name.getBytes(StandardCharsets.UTF_8);
+
+		if (bytes.length > 0xFFFF)
+			throw new InputException("nome de layout muito longo (length: %d)", bytes.length);
+
+		ByteBuffer buffer = ByteBuffer.allocate(4 + 2 + 2 + bytes.length + TABLES_SIZE + 4);
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.putShort((short) bytes.length);
+		buffer.put(bytes);
+		buffer.put(tables);
+
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), 0, buffer.position());
+		buffer.putInt((int) crc.getValue());
+		buffer.flip();
+
+		return buffer;
+	}
+
+	/**
+	 * Compila o comando <b>ignore</b> marcando as teclas virtuais como ignoradas.
+	 * @param tables vetor contendo as tabelas do arquivo binrio que est sendo gerado.
+	 * @param tokens lista com os elementos do comando, incluindo o comando.
+	 * @param number nmero da linha na descrio, usado nas mensagens de erro.
+	 * @throws InputException se alguma tecla virtual no for vlida.
+	 */
+
+	private static void compileIgnore(byte tables[], List<String> tokens, int number) throws InputException
+	{
+		for (int i = 1; i < tokens.size(); i++)
+		{
+			int vk = parseVirtualKey(tokens.get(i), number);
+			tables[TABLE_IGNORED + (vk >> 3)] |= 1 << (vk & 7);
+		}
+	}
+
+	/**
+	 * Compila o comando <b>key</b> definindo a tecla e os caracteres de cada coluna.
+	 * @param tables vetor contendo as tabelas do arquivo binrio que est sendo gerado.
+	 * @param tokens lista com os elementos do comando, incluindo o comando.
+	 * @param number nmero da linha na descrio, usado nas mensagens de erro.
+	 * @throws InputException se a tecla virtual, a tecla ou algum caracter no for vlido.
+	 */
+
+	private static void compileKey(byte tables[], List<String> tokens, int number) throws InputException
+	{
+		int vk = parseVirtualKey(tokens.get(1), number);
+		int key = parseKey(tokens.get(2), number);
+		int plain = tokens.size() > 3 ? parseChar(tokens.get(3), number) : CH_NULL;
+
+		tables[TABLE_KEYS + vk] = (byte) key;
+		tables[TABLE_EXTENDED + vk] = (byte) key;
+		tables[TABLE_MODIFIERS + vk] = 0;
+
+		for (int column = 0; column < COLUMNS; column++)
+		{
+			int ch = tokens.size() > 3 + column ? parseChar(tokens.get(3 + column), number) : plain;
+			tables[TABLE_CHARS + column * VK_COUNT + vk] = (byte) ch;
+		}
+	}
+
+	/**
+	 * Compila o comando <b>modifier</b> definindo a tecla e as propriedades ativadas por ela.
+	 * @param tables vetor contendo as tabelas do arquivo binrio que est sendo gerado.
+	 * @param tokens lista com os elementos do comando, incluindo o comando.
+	 * @param number nmero da linha na descrio, usado nas mensagens de erro.
+	 * @throws InputException se a tecla virtual, a tecla ou alguma propriedade no for vlida.
+	 */
+
+	private static void compileModifier(byte tables[], List<String> tokens, int number) throws InputException
+	{
+		int vk = parseVirtualKey(tokens.get(1), number);
+		int key = parseKey(tokens.get(2), number);
+		int properties = 0;
+
+		for (int i = 3; i < tokens.size(); i++)
+			properties |= parseProperty(tokens.get(i), number);
+
+		tables[TABLE_KEYS + vk] = (byte) key;
+		tables[TABLE_EXTENDED + vk] = (byte) key;
+		tables[TABLE_MODIFIERS + vk] = (byte) properties;
+
+		for (int column = 0; column < COLUMNS; column++)
+			tables[TABLE_CHARS + column * VK_COUNT + vk] = (byte) CH_NULL;
+	}
+
+	/**
+	 * Separa uma linha da descrio nos seus elementos, ignorando os comentrios.
+	 * Caracteres entre aspas simples so mantidos como um nico elemento.
+	 * @param line linha da descrio do layout de teclado.
+	 * @param number nmero da linha na descrio, usado nas mensagens de erro.
+	 * @return aquisio da lista com os elementos encontrados na linha.
+	 * @throws InputException apenas se houver aspas simples sem fechamento.
+	 */
+
+	private static List<String> tokenize(String line, int number) throws InputException
+	{
+		List<String> tokens = new ArrayList<>();
+		int offset = 0;
+
+		while (offset < line.length())
+		{
+			char c = line.charAt(offset);
+
+			if (Character.isWhitespace(c))
+				offset++;
+
+			else if (c == '#')
+				break;
+
+			else if (c == '\'')
+			{
+				int end = line.indexOf('\'', offset + 2);
+
+				if (end == -1)
+					throw new InputException("caracter sem aspas de fechamento (line: %d)", number);
+
+				tokens.add(line.substring(offset, end + 1));
+				offset = end + 1;
+			}
+
+			else
+			{
+				int end = offset;
+
+				while (end < line.length() && !Character.isWhitespace(line.charAt(end)))
+					end++;
+
+				tokens.add(line.substring(offset, end));
+				offset = end;
+			}
+		}
+
+		return tokens;
+	}
+
+	/**
+	 * Verifica se a quantidade de elementos de um comando est dentro do esperado.
+	 * @param tokens lista com os elementos do comando, incluindo o comando.
+	 * @param min quantidade mnima de elementos do comando.
+	 * @param max quantidade mxima de elementos do comando.
+	 * @param number nmero da linha na descrio, usado nas mensagens de erro.
+	 * @throws InputException se a quantidade de elementos no for a esperada.
+	 */
+
+	private static void expect(List<String> tokens, int min, int max, int number) throws InputException
+	{
+		if (tokens.size() < min || tokens.size() > max)
+			throw new InputException("quantidade de argumentos invlida (line: %d, command: %s)", number, tokens.get(0));
+	}
+
+	/**
+	 * Procura um nome em um vetor de nomes de uma enumerao, com ou sem o seu prefixo.
+	 * @param names vetor com os nomes da enumerao, indexado pelo seu cdigo.
+	 * @param prefix prefixo usado pelas constantes da enumerao.
+	 * @param token elemento que ser procurado no vetor de nomes.
+	 * @return aquisio do cdigo do nome ou -1 se no tiver sido encontrado.
+	 */
+
+	private static int indexOf(String names[], String prefix, String token)
+	{
+		if (token.startsWith(prefix))
+			token = token.substring(prefix.length());
+
+		for (int i = 0; i < names.length; i++)
+			if (token.equals(names[i]))
+				return i;
+
+		return -1;
+	}
+
+	/**
+	 * Converte um elemento da descrio no cdigo de uma tecla virtual.
+	 * @param token nome da tecla virtual ou o seu cdigo em hexadecimal.
+	 * @param number nmero da linha na descrio, usado nas mensagens de erro.
+	 * @return aquisio do cdigo da tecla virtual (<code>VK</code>).
+	 * @throws InputException se no for uma tecla virtual vlida.
+	 */
+
+	private static int parseVirtualKey(String token, int number) throws InputException
+	{
+		int vk = token.startsWith("0x") ? parseHex(token, number) : indexOf(VIRTUAL_KEY_NAME, "VK_", token);
+
+		if (!isKeyCode(vk))
+			throw new InputException("tecla virtual invlida (line: %d, vk: %s)", number, token);
+
+		return vk;
+	}
+
+	/**
+	 * Converte um elemento da descrio no cdigo de uma tecla na biblioteca.
+	 * @param token nome da tecla na biblioteca.
+	 * @param number nmero da linha na descrio, usado nas mensagens de erro.
+	 * @return aquisio do cdigo da tecla na biblioteca (<code>KEY</code>).
+	 * @throws InputException se no for uma tecla vlida.
+	 */
+
+	private static int parseKey(String token, int number) throws InputException
+	{
+		int key = indexOf(KEY_NAME, "KEY_", token);
+
+		if (key == -1)
+			throw new InputException("tecla invlida (line: %d, key: %s)", number, token);
+
+		return key;
+	}
+
+	/**
+	 * Converte um elemento da descrio em um caracter.
+	 * @param token nome do caracter, caracter entre aspas simples, cdigo em hexadecimal ou <code>-</code>.
+	 * @param number nmero da linha na descrio, usado nas mensagens de erro.
+	 * @return aquisio do caracter (<code>CH</code>).
+	 * @throws InputException se no for um caracter vlido.
+	 */
+
+	private static int parseChar(String token, int number) throws InputException
+	{
+		int ch;
+
+		if (token.equals("-"))
+			ch = CH_NULL;
+		else if (token.length() == 3 && token.charAt(0) == '\'')
+			ch = token.charAt(1);
+		else if (token.startsWith("0x"))
+			ch = parseHex(token, number);
+		else
+			ch = indexOf(CHARACTER_NAME, "CH_", token);
+
+		if (ch < 0 || ch >= CHARACTER_NAME.length)
+			throw new InputException("caracter invlido (line: %d, ch: %s)", number, token);
+
+		return ch;
+	}
+
+	/**
+	 * Converte um elemento da descrio em uma propriedade do teclado.
+	 * @param token nome da propriedade do teclado.
+	 * @param number nmero da linha na descrio, usado nas mensagens de erro.
+	 * @return aquisio da propriedade do teclado (<code>KP</code>).
+	 * @throws InputException se no for uma propriedade vlida.
+	 */
+
+	private static int parseProperty(String token, int number) throws InputException
+	{
+		int index = indexOf(KEY_PROPERTIES, "KP_", token);
+
+		if (index == -1)
+			throw new InputException("propriedade invlida (line: %d, kp: %s)", number, token);
+
+		return 1 << index;
+	}
+
+	/**
+	 * Converte um elemento da descrio escrito em hexadecimal.
+	 * @param token valor em hexadecimal iniciado por <code>0x</code>.
+	 * @param number nmero da linha na descrio, usado nas mensagens de erro.
+	 * @return aquisio do valor convertido.
+	 * @throws InputException se no for um valor em hexadecimal vlido.
+	 */
+
+	private static int parseHex(String token, int number) throws InputException
+	{
+		try {
+			return Integer.parseInt(token.substring(2), 16);
+		} catch (NumberFormatException e) {
+			throw new InputException("valor hexadecimal invlido (line: %d, value: %s)", number, token);
+		}
+	}
+}
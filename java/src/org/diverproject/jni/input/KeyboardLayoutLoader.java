@@ -0,0 +1,142 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyboardLayout.MAGIC;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <h1>Carregador de Layouts de Teclado</h1>
+ *
+ * <p>Carrega layouts de teclado a partir de arquivos mapeados em memria, sem cpias intermedirias.
+ * O arquivo pode ser tanto o arquivo binrio compacto quanto a descrio do layout em texto,
+ * sendo que nesse ltimo caso a descrio ser compilada antes de ser carregada.</p>
+ *
+ * <p>Layouts carregados so mantidos em cache pelo cdigo hash (SHA-256) do contedo do arquivo,
+ * assim carregar novamente o mesmo arquivo, ou outro com o mesmo contedo, apenas calcula o hash.
+ * Como os layouts no possuem estado, o mesmo layout pode ser usado por diversos sistemas.</p>
+ *
+ * <p>Para trocar o layout em uso basta definir o layout carregado como tradutor do sistema de entrada.
+ * A troca  atmica, o processador de teclado no  interrompido e os modificadores so mantidos.</p>
+ *
+ * @see KeyboardLayout
+ * @see KeyboardLayoutCompiler
+ * @see InputSystem#setKeyTranslator(KeyTranslator)
+ *
+ * @author Andrew
+ */
+
+public class KeyboardLayoutLoader
+{
+	/**
+	 * Layouts de teclado j carregados indexados pelo cdigo hash do contedo do arquivo.
+	 */
+	private final Map<String, KeyboardLayout> cache;
+
+	/**
+	 * Constri um novo carregador de layouts de teclado com o cache vazio.
+	 */
+
+	public KeyboardLayoutLoader()
+	{
+		cache = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Carrega um layout de teclado de um arquivo binrio ou de uma descrio em texto.
+	 * Caso um arquivo com o mesmo contedo j tenha sido carregado, usa o layout em cache.
+	 * @param file arquivo contendo o layout de teclado que ser carregado.
+	 * @return aquisio do layout de teclado carregado do arquivo.
+	 * @throws InputException falha na leitura ou se o contedo do arquivo for invlido.
+	 */
+
+	public KeyboardLayout load(File file) throws InputException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			String hash = hash(buffer);
+			KeyboardLayout layout = cache.get(hash);
+
+			if (layout != null)
+				return layout;
+
+			if (buffer.remaining() >= 4 && buffer.getInt(0) == MAGIC)
+				layout = KeyboardLayout.read(buffer, hash);
+			else
+				layout = KeyboardLayout.read(KeyboardLayoutCompiler.compile(StandardCharsets.UTF_8.decode(buffer).toString()), hash);
+
+			KeyboardLayout loaded = cache.putIfAbsent(hash, layout);
+
+			return loaded == null ? layout : loaded;
+
+		} catch (IOException e) {
+			throw new InputException(e, "falha ao carregar layout (file: %s)", file);
+		}
+	}
+
+	/**
+	 * Procura no cache um layout de teclado que j tenha sido carregado.
+	 * @param hash cdigo hash do contedo do arquivo do qual o layout foi carregado.
+	 * @return aquisio do layout de teclado ou null se no estiver em cache.
+	 */
+
+	public KeyboardLayout get(String hash)
+	{
+		return cache.get(hash);
+	}
+
+	/**
+	 * Remove todos os layouts de teclado do cache, os layouts em uso no so afetados.
+	 */
+
+	public void clear()
+	{
+		cache.clear();
+	}
+
+	/**
+	 * Cada arquivo com contedo diferente que tenha sido carregado ocupa uma posio no cache.
+	 * @return aquisio da quantidade de layouts de teclado em cache.
+	 */
+
+	public int size()
+	{
+		return cache.size();
+	}
+
+	/**
+	 * Calcula o cdigo hash do contedo de um arquivo sem alterar a posio do buffer.
+	 * @param buffer buffer contendo o contedo do arquivo.
+	 * @return aquisio do cdigo hash (SHA-256) em hexadecimal.
+	 */
+
+	private static String hash(ByteBuffer buffer)
+	{
+		try {
+
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(buffer.duplicate());
+
+			StringBuilder builder = new StringBuilder();
+
+			for (byte b : digest.digest())
+				builder.append(String.format("%02x", b));
+
+			return builder.toString();
+
+		} catch (NoSuchAlgorithmException e) {
+			throw new InputRuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,323 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.PackedKeyEvent.NONE;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <h1>Caixa de Mensagens para Teclado</h1>
+ *
+ * <p>Fila de eventos prpria de um despachante, ou de uma nica leitura do despachante de leituras de
+ * tecla, usada pelo processador no modo de despache por caixas de mensagens. O processador apenas insere os eventos retirados da fila de espera, enquanto o despache
+ *  feito pela thread prpria da caixa ou por uma tarefa executada no executor definido no sistema de
+ * entrada. Assim um despachante que demore ou bloqueie (leitura de arquivos, registros) no atrasa os
+ * demais despachantes.</p>
+ *
+ * <p>Sem um executor a caixa possui uma nica thread, criada pela fbrica de threads do processador e
+ * mantida at o encerramento, que aguarda os eventos suspensa e  acordada pelo processador a cada evento.
+ * Uma exceo do despachante  repassada ao tratador de excees da thread sem interromper a caixa.</p>
+ *
+ * <p>Com um executor, apenas uma tarefa de cada caixa  agendada por vez, portanto os eventos de um mesmo
+ * despachante so despachados na ordem em que foram retirados, mesmo que cada tarefa seja executada por
+ * uma thread diferente. Cada tarefa despacha no mximo <code>BATCH</code> eventos em um nico lote e ento
+ * se agenda novamente, para que executores compartilhados tambm atendam as demais tarefas. Se o executor
+ * recusar a tarefa, os eventos so despachados pela prpria thread que tentou agend-la, e uma exceo do
+ * despachante  repassada ao tratador de excees dessa thread, sem interromper o processador.</p>
+ *
+ * <p>A caixa possui a mesma capacidade da fila de espera, quando estiver cheia o evento  descartado
+ * apenas para esse despachante, deixando uma lacuna na sua sequncia de eventos.</p>
+ *
+ * @see KeyboardProcessor
+ * @see KeyboardRingBuffer
+ *
+ * @author Andrew
+ */
+
+class KeyboardMailbox implements Runnable
+{
+	/**
+	 * Quantidade mxima de eventos despachados por uma nica tarefa.
+	 */
+	static final int BATCH = 64;
+
+	/**
+	 * Fila dos eventos ainda no despachados, o processador insere e a tarefa agendada remove.
+	 */
+	private final KeyboardRingBuffer buffer;
+
+	/**
+	 * Lote reutilizado onde so reunidos os eventos retirados da caixa por cada tarefa.
+	 */
+	private final KeyboardBatch batch;
+
+	/**
+	 * Apanhador para teclado do qual so obtidos o conjunto de eventos, as mtricas e o rastreador.
+	 */
+	private final KeyboardPicker picker;
+
+	/**
+	 * Determina se os eventos sero despachados para o despachante compactado ou para o comum.
+	 */
+	private final boolean packed;
+
+	/**
+	 * Leitura do despachante de leituras de tecla que receber os eventos ou null para todo o despachante.
+	 */
+	private final KeyListener listener;
+
+	/**
+	 * Executor onde as tarefas de despache da caixa sero agendadas ou null se a caixa possuir thread.
+	 */
+	private final Executor executor;
+
+	/**
+	 * Thread prpria da caixa que despacha os eventos ou null se forem despachados pelo executor.
+	 */
+	private final Thread thread;
+
+	/**
+	 * Estratgia usada pela thread da caixa quando no houver eventos ou null se no houver thread.
+	 */
+	private final KeyboardWaitStrategy waitStrategy;
+
+	/**
+	 * Determina se a thread da caixa deve continuar aguardando novos eventos.
+	 */
+	private volatile boolean running;
+
+	/**
+	 * Determina se h uma tarefa de despache agendada ou em execuo.
+	 */
+	private final AtomicBoolean scheduled;
+
+	/**
+	 * Quantidade de eventos descartados por no haver espao na caixa, alterada apenas pelo processador.
+	 */
+	private volatile long dropped;
+
+	/**
+	 * Constri uma nova caixa de mensagens vazia sendo necessrio definir:
+	 * @param picker apanhador para teclado do qual so obtidos o conjunto de eventos e as mtricas.
+	 * @param executor executor onde as tarefas de despache sero agendadas ou null para criar uma thread.
+	 * @param threadFactory fbrica usada para criar a thread da caixa quando no houver executor.
+	 * @param capacity quantidade de eventos que a caixa poder armazenar.
+	 * @param packed true para o despachante compactado ou false para o despachante para teclado.
+	 * @param listener leitura do despachante de leituras de tecla que receber os eventos
+	 * ou null para que todo o despachante os receba.
+	 */
+
+	KeyboardMailbox(KeyboardPicker picker, Executor executor, ThreadFactory threadFactory, int capacity, boolean packed, KeyListener listener)
+	{
+		this.buffer = new KeyboardRingBuffer(capacity, false, false);
+		this.batch = new KeyboardBatch(BATCH);
+		this.picker = picker;
+		this.packed = packed;
+		this.listener = listener;
+		this.executor = executor;
+		this.scheduled = new AtomicBoolean();
+		this.running = true;
+		this.waitStrategy = executor == null ? new ParkWaitStrategy() : null;
+		this.thread = executor == null ? threadFactory.newThread(this::follow) : null;
+
+		if (executor == null && thread == null)
+			throw new InputRuntimeException("fbrica de threads no criou a caixa de mensagens");
+	}
+
+	/**
+	 * Inicia a thread da caixa, deve ser chamado uma nica vez.
+	 * Uma caixa despachada por um executor no possui thread, portanto nada ser feito.
+	 */
+
+	void start()
+	{
+		if (thread != null)
+			thread.start();
+	}
+
+	/**
+	 * Encerra a thread da caixa aps despachar os eventos que ainda estiverem na caixa.
+	 * Deve ser chamado apenas aps o processador ter sido encerrado, sem aguardar o despache.
+	 */
+
+	void shutdown()
+	{
+		running = false;
+
+		if (waitStrategy != null)
+			waitStrategy.signal();
+	}
+
+	/**
+	 * Insere um evento na caixa e agenda uma tarefa de despache se no houver nenhuma.
+	 * Deve ser chamado apenas pela thread do processador para teclado.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @param sequence nmero de sequncia do evento.
+	 * @param timestamp momento em nanossegundos em que o evento foi recebido ou zero.
+	 * @param lastTimestamp momento em nanossegundos da ltima repetio agrupada ou zero.
+	 */
+
+	void post(long event, long sequence, long timestamp, long lastTimestamp)
+	{
+		if (!buffer.offer(event, sequence, timestamp, lastTimestamp))
+		{
+			dropped++;
+			return;
+		}
+
+		if (waitStrategy != null)
+			waitStrategy.signal();
+		else
+			schedule();
+	}
+
+	/**
+	 * Agenda uma tarefa de despache no executor caso no haja nenhuma agendada.
+	 * Se o executor recusar a tarefa, os eventos so despachados pela thread que tentou agend-la,
+	 * at que a caixa esteja vazia ou o executor volte a aceitar a tarefa. Uma exceo do despachante
+	 *  repassada ao tratador de excees dessa thread, que continua sendo executada normalmente.
+	 */
+
+	private void schedule()
+	{
+		while (scheduled.compareAndSet(false, true))
+		{
+			try {
+
+				executor.execute(this);
+				return;
+
+			} catch (RejectedExecutionException e) {
+
+				try {
+					drain();
+				} catch (RuntimeException failure) {
+					Thread current = Thread.currentThread();
+					current.getUncaughtExceptionHandler().uncaughtException(current, failure);
+				} finally {
+					scheduled.set(false);
+				}
+			}
+
+			if (buffer.isEmpty())
+				return;
+		}
+	}
+
+	/**
+	 * Despacha os eventos da caixa em um nico lote, no mximo <code>BATCH</code>, e agenda uma nova
+	 * tarefa se ainda houver eventos. Uma exceo do despachante  repassada ao executor sem
+	 * interromper a caixa, os eventos do lote em que ocorreu no so despachados novamente.
+	 */
+
+	@Override
+	public void run()
+	{
+		try {
+
+			drain();
+
+		} finally {
+
+			scheduled.set(false);
+
+			if (!buffer.isEmpty())
+				schedule();
+		}
+	}
+
+	/**
+	 * Procedimento executado pela thread da caixa, despacha os eventos at que a caixa seja encerrada
+	 * e esteja vazia, aguardando pela estratgia de espera enquanto no houver eventos.
+	 */
+
+	private void follow()
+	{
+		int attempts = 0;
+
+		while (running || !buffer.isEmpty())
+		{
+			try {
+
+				if (drain() > 0)
+				{
+					attempts = 0;
+					continue;
+				}
+
+			} catch (RuntimeException e) {
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+				continue;
+			}
+
+			waitStrategy.idle(attempts < Integer.MAX_VALUE ? ++attempts : attempts);
+		}
+	}
+
+	/**
+	 * Retira da caixa e despacha um nico lote de eventos, no mximo <code>BATCH</code>.
+	 * @return aquisio da quantidade de eventos retirados da caixa.
+	 */
+
+	private int drain()
+	{
+		batch.clear();
+
+		while (!batch.isFull())
+		{
+			long event = buffer.poll();
+
+			if (event == NONE)
+				break;
+
+			batch.add(buffer, event, System.nanoTime());
+		}
+
+		int size = batch.size;
+
+		if (size > 0)
+			dispatch(InputSystem.getInstance());
+
+		return size;
+	}
+
+	/**
+	 * Entrega o lote ao despachante da caixa, caso ainda esteja definido no sistema de entrada.
+	 * A caixa de uma leitura entrega o lote apenas se o despachante ainda for de leituras de tecla.
+	 * @param system referncia do sistema de entrada com os despachantes definidos.
+	 */
+
+	private void dispatch(InputSystem system)
+	{
+		if (packed)
+		{
+			PackedKeyboardDispatcher dispatcher = system.getPackedKeyboardDispatcher();
+
+			if (dispatcher != null)
+				batch.dispatch(dispatcher, picker);
+		}
+
+		else
+		{
+			KeyboardDispatcher dispatcher = system.getKeyboardDispatcher();
+
+			if (listener != null && dispatcher instanceof KeyListenerDispatcher)
+				batch.dispatch((KeyListenerDispatcher) dispatcher, listener, picker);
+
+			else if (listener == null && dispatcher != null)
+				batch.dispatch(dispatcher, picker);
+		}
+	}
+
+	/**
+	 * Eventos descartados pela caixa continuam sendo despachados para os demais despachantes.
+	 * @return aquisio da quantidade de eventos descartados por no haver espao na caixa.
+	 */
+
+	long getDropped()
+	{
+		return dropped;
+	}
+}
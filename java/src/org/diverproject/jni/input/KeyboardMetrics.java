@@ -0,0 +1,197 @@
+package org.diverproject.jni.input;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <h1>Mtricas para Teclado</h1>
+ *
+ * <p>Registra as medies do caminho de um evento entre o apanhador, o processador e os despachantes:
+ * quantidade de eventos despachados, maior profundidade da fila de espera, latncia entre a insero
+ * na fila e o despache, e o tempo gasto em cada despachante.</p>
+ *
+ * <p>Todas as medies so escritas apenas pela thread do processador, portanto no h bloqueios
+ * nem operaes atmicas de leitura e escrita, apenas escritas ordenadas que podem ser lidas
+ * por qualquer outra thread. Todos os valores ficam em um nico vetor alocado na construo,
+ * nenhum objeto  criado ao registrar uma medio, apenas ao obter uma fotografia.</p>
+ *
+ * <p>No modo de despache por caixas de mensagens o tempo de cada despachante  escrito pela sua caixa.
+ * O tempo do despachante compactado continua tendo um nico escritor, j o tempo do despachante para
+ * teclado pode ser escrito pelas caixas de diversas leituras de tecla ao mesmo tempo, portanto 
+ * registrado com operaes atmicas.</p>
+ *
+ * <p>A latncia  registrada em um histograma de escala logartmica, onde cada posio contm
+ * os valores entre duas potncias de dois consecutivas, cobrindo qualquer valor de um long.</p>
+ *
+ * @see KeyboardMetricsSnapshot
+ * @see KeyboardProcessor
+ *
+ * @author Andrew
+ */
+
+class KeyboardMetrics
+{
+	/**
+	 * Quantidade de posies do histograma de latncia, uma para zero e uma para cada bit.
+	 */
+	static final int BUCKETS = 65;
+
+	/**
+	 * ndice da quantidade de eventos retirados da fila de espera.
+	 */
+	private static final int DISPATCHED = 0;
+
+	/**
+	 * ndice da maior profundidade da fila de espera encontrada aps retirar um evento.
+	 */
+	private static final int DEPTH_MAX = 1;
+
+	/**
+	 * ndice da soma das latncias entre a insero e o despache.
+	 */
+	private static final int LATENCY_TOTAL = 2;
+
+	/**
+	 * ndice da maior latncia entre a insero e o despache.
+	 */
+	private static final int LATENCY_MAX = 3;
+
+	/**
+	 * ndice do tempo total gasto no despachante compactado.
+	 */
+	private static final int PACKED_TIME = 4;
+
+	/**
+	 * ndice do maior tempo gasto no despachante compactado por uma nica chamada, evento ou lote.
+	 */
+	private static final int PACKED_MAX = 5;
+
+	/**
+	 * ndice do tempo total gasto no despachante para teclado, incluindo a criao do evento.
+	 */
+	private static final int KEYBOARD_TIME = 6;
+
+	/**
+	 * ndice do maior tempo gasto no despachante para teclado por uma nica chamada, evento ou lote.
+	 */
+	private static final int KEYBOARD_MAX = 7;
+
+	/**
+	 * ndice da primeira posio do histograma de latncia.
+	 */
+	private static final int HISTOGRAM = 8;
+
+
+	/**
+	 * Vetor contendo todas as medies, escritas pela thread do processador e pelas caixas de mensagens.
+	 */
+	private final AtomicLongArray values;
+
+	/**
+	 * Constri um novo registro de mtricas para teclado com todas as medies zeradas.
+	 */
+
+	KeyboardMetrics()
+	{
+		values = new AtomicLongArray(HISTOGRAM + BUCKETS);
+	}
+
+	/**
+	 * Registra um evento retirado da fila de espera pelo processador.
+	 * @param latency tempo em nanossegundos entre a insero do evento e a sua retirada.
+	 * @param depth quantidade de eventos que permaneceram na fila de espera aps a retirada.
+	 */
+
+	void dequeued(long latency, int depth)
+	{
+		if (latency < 0)
+			latency = 0;
+
+		add(DISPATCHED, 1);
+		max(DEPTH_MAX, depth);
+		add(LATENCY_TOTAL, latency);
+		max(LATENCY_MAX, latency);
+		add(HISTOGRAM + getBucket(latency), 1);
+	}
+
+	/**
+	 * Registra o tempo gasto pelo despachante compactado em uma chamada, com um evento ou um lote.
+	 * @param nanos tempo em nanossegundos gasto no despache do evento ou do lote.
+	 */
+
+	void packedDispatched(long nanos)
+	{
+		add(PACKED_TIME, nanos);
+		max(PACKED_MAX, nanos);
+	}
+
+	/**
+	 * Registra o tempo gasto pelo despachante para teclado em uma chamada, com um evento ou um lote.
+	 * Pode ser chamado ao mesmo tempo pelas caixas de mensagens de diversas leituras de tecla.
+	 * @param nanos tempo em nanossegundos gasto no despache do evento ou do lote.
+	 */
+
+	void keyboardDispatched(long nanos)
+	{
+		values.getAndAdd(KEYBOARD_TIME, nanos);
+
+		for (long max = values.get(KEYBOARD_MAX); nanos > max; max = values.get(KEYBOARD_MAX))
+			if (values.compareAndSet(KEYBOARD_MAX, max, nanos))
+				break;
+	}
+
+	/**
+	 * Soma um valor a uma das medies, deve ser chamado apenas pela thread do processador.
+	 * @param index ndice da medio no vetor de medies.
+	 * @param value valor que ser somado  medio.
+	 */
+
+	private void add(int index, long value)
+	{
+		values.lazySet(index, values.get(index) + value);
+	}
+
+	/**
+	 * Atualiza uma das medies caso o valor seja maior, deve ser chamado apenas pela thread do processador.
+	 * @param index ndice da medio no vetor de medies.
+	 * @param value valor que ser comparado com a medio.
+	 */
+
+	private void max(int index, long value)
+	{
+		if (value > values.get(index))
+			values.lazySet(index, value);
+	}
+
+	/**
+	 * Cria uma fotografia das medies registradas at o momento, pode ser chamado por qualquer thread.
+	 * As medies so lidas uma a uma, portanto podem no corresponder exatamente ao mesmo instante.
+	 * @param enqueued quantidade de eventos inseridos na fila de espera.
+	 * @param dropped quantidade de eventos descartados por no haver espao na fila.
+	 * @param coalesced quantidade de repeties agrupadas em eventos da fila.
+	 * @param depth quantidade de eventos aguardando na fila de espera no momento.
+	 * @return aquisio de uma nova fotografia das mtricas para teclado.
+	 */
+
+	KeyboardMetricsSnapshot snapshot(long enqueued, long dropped, long coalesced, int depth)
+	{
+		long histogram[] = new long[BUCKETS];
+
+		for (int i = 0; i < BUCKETS; i++)
+			histogram[i] = values.get(HISTOGRAM + i);
+
+		return new KeyboardMetricsSnapshot(System.nanoTime(), enqueued, dropped, coalesced, values.get(DISPATCHED), depth, (int) values.get(DEPTH_MAX),
+				values.get(LATENCY_TOTAL), values.get(LATENCY_MAX), histogram,
+				values.get(PACKED_TIME), values.get(PACKED_MAX), values.get(KEYBOARD_TIME), values.get(KEYBOARD_MAX));
+	}
+
+	/**
+	 * Obtm a posio do histograma onde um valor deve ser registrado.
+	 * @param value valor no negativo que ser registrado.
+	 * @return aquisio da quantidade de bits significativos do valor.
+	 */
+
+	static int getBucket(long value)
+	{
+		return 64 - Long.numberOfLeadingZeros(value);
+	}
+}
@@ -0,0 +1,353 @@
+package org.diverproject.jni.input;
+
+import org.diverproject.util.ObjectDescription;
+
+/**
+ * <h1>Fotografia das Mtricas para Teclado</h1>
+ *
+ * <p>Cpia imutvel das mtricas do despache de eventos de teclado em um determinado momento.
+ * Permite identificar onde est o atraso de uma entrada: no gancho (eventos descartados),
+ * na fila de espera (profundidade e latncia) ou em um despachante lento (tempo de despache).</p>
+ *
+ * <p>A latncia  o tempo entre a insero do evento na fila e a sua retirada pelo processador.
+ * O histograma de latncia possui uma posio para zero e uma posio para cada bit, onde a posio
+ * <code>n</code> contm os valores entre <code>2^(n-1)</code> e <code>2^n - 1</code> nanossegundos.
+ * Percentis so aproximados pelo maior valor da posio onde se encontram.</p>
+ *
+ * <p>Todos os tempos so em nanossegundos. Para obter as medies de um intervalo basta
+ * subtrair as contagens de uma fotografia anterior atravs de <code>since</code>.</p>
+ *
+ * @see KeyboardMetrics
+ * @see InputSystem#getKeyboardMetrics()
+ *
+ * @author Andrew
+ */
+
+public final class KeyboardMetricsSnapshot
+{
+	/**
+	 * Momento em nanossegundos em que a fotografia foi obtida.
+	 */
+	private final long time;
+
+	/**
+	 * Quantidade de eventos inseridos na fila de espera.
+	 */
+	private final long enqueued;
+
+	/**
+	 * Quantidade de eventos descartados por no haver espao na fila.
+	 */
+	private final long dropped;
+
+	/**
+	 * Quantidade de repeties agrupadas em eventos que aguardavam na fila.
+	 */
+	private final long coalesced;
+
+	/**
+	 * Quantidade de eventos retirados da fila e despachados.
+	 */
+	private final long dispatched;
+
+	/**
+	 * Quantidade de eventos aguardando na fila de espera.
+	 */
+	private final int depth;
+
+	/**
+	 * Maior quantidade de eventos aguardando na fila de espera.
+	 */
+	private final int maxDepth;
+
+	/**
+	 * Soma das latncias de todos os eventos despachados.
+	 */
+	private final long latencyTotal;
+
+	/**
+	 * Maior latncia de um evento despachado.
+	 */
+	private final long latencyMax;
+
+	/**
+	 * Quantidade de eventos em cada posio do histograma de latncia.
+	 */
+	private final long histogram[];
+
+	/**
+	 * Tempo total gasto no despachante compactado.
+	 */
+	private final long packedTime;
+
+	/**
+	 * Maior tempo gasto no despachante compactado por uma nica chamada, evento ou lote.
+	 */
+	private final long packedMax;
+
+	/**
+	 * Tempo total gasto no despachante para teclado.
+	 */
+	private final long keyboardTime;
+
+	/**
+	 * Maior tempo gasto no despachante para teclado por uma nica chamada, evento ou lote.
+	 */
+	private final long keyboardMax;
+
+	/**
+	 * Constri uma nova fotografia das mtricas para teclado, usado apenas pelas mtricas.
+	 * @param time momento em nanossegundos em que a fotografia foi obtida.
+	 * @param enqueued quantidade de eventos inseridos na fila de espera.
+	 * @param dropped quantidade de eventos descartados por no haver espao na fila.
+	 * @param coalesced quantidade de repeties agrupadas em eventos que aguardavam na fila.
+	 * @param dispatched quantidade de eventos retirados da fila e despachados.
+	 * @param depth quantidade de eventos aguardando na fila de espera.
+	 * @param maxDepth maior quantidade de eventos aguardando na fila de espera.
+	 * @param latencyTotal soma das latncias de todos os eventos despachados.
+	 * @param latencyMax maior latncia de um evento despachado.
+	 * @param histogram quantidade de eventos em cada posio do histograma de latncia.
+	 * @param packedTime tempo total gasto no despachante compactado.
+	 * @param packedMax maior tempo gasto no despachante compactado por uma nica chamada, evento ou lote.
+	 * @param keyboardTime tempo total gasto no despachante para teclado.
+	 * @param keyboardMax maior tempo gasto no despachante para teclado por uma nica chamada, evento ou lote.
+	 */
+
+	KeyboardMetricsSnapshot(long time, long enqueued, long dropped, long coalesced, long dispatched, int depth, int maxDepth,
+			long latencyTotal, long latencyMax, long histogram[], long packedTime, long packedMax, long keyboardTime, long keyboardMax)
+	{
+		this.time = time;
+		this.enqueued = enqueued;
+		this.dropped = dropped;
+		this.coalesced = coalesced;
+		this.dispatched = dispatched;
+		this.depth = depth;
+		this.maxDepth = maxDepth;
+		this.latencyTotal = latencyTotal;
+		this.latencyMax = latencyMax;
+		this.histogram = histogram;
+		this.packedTime = packedTime;
+		this.packedMax = packedMax;
+		this.keyboardTime = keyboardTime;
+		this.keyboardMax = keyboardMax;
+	}
+
+	/**
+	 * O momento  obtido do relgio monotnico e s pode ser comparado com outras fotografias.
+	 * @return aquisio do momento em nanossegundos em que a fotografia foi obtida.
+	 */
+
+	public long getTime()
+	{
+		return time;
+	}
+
+	/**
+	 * Eventos inseridos so todos os eventos recebidos que couberam na fila de espera.
+	 * @return aquisio da quantidade de eventos inseridos na fila de espera.
+	 */
+
+	public long getEnqueued()
+	{
+		return enqueued;
+	}
+
+	/**
+	 * Eventos descartados indicam que o processador no acompanhou a fonte de eventos.
+	 * @return aquisio da quantidade de eventos descartados por no haver espao na fila.
+	 */
+
+	public long getDropped()
+	{
+		return dropped;
+	}
+
+	/**
+	 * Repeties agrupadas no ocupam a fila e no so contadas como eventos inseridos.
+	 * @return aquisio da quantidade de repeties agrupadas em eventos que aguardavam na fila.
+	 */
+
+	public long getCoalesced()
+	{
+		return coalesced;
+	}
+
+	/**
+	 * Cada evento retirado da fila  repassado para todos os despachantes definidos.
+	 * @return aquisio da quantidade de eventos retirados da fila e despachados.
+	 */
+
+	public long getDispatched()
+	{
+		return dispatched;
+	}
+
+	/**
+	 * A profundidade  apenas uma estimativa, j que a fila continua sendo alterada.
+	 * @return aquisio da quantidade de eventos aguardando na fila de espera.
+	 */
+
+	public int getDepth()
+	{
+		return depth;
+	}
+
+	/**
+	 * A maior profundidade  medida pelo processador aps retirar cada evento.
+	 * @return aquisio da maior quantidade de eventos aguardando na fila de espera.
+	 */
+
+	public int getMaxDepth()
+	{
+		return maxDepth;
+	}
+
+	/**
+	 * A latncia mdia  a soma das latncias dividida pela quantidade de eventos despachados.
+	 * @return aquisio da latncia mdia em nanossegundos ou zero se no houver eventos.
+	 */
+
+	public long getLatencyMean()
+	{
+		return dispatched == 0 ? 0 : latencyTotal / dispatched;
+	}
+
+	/**
+	 * A maior latncia  exata, ao contrrio dos percentis obtidos do histograma.
+	 * @return aquisio da maior latncia de um evento despachado em nanossegundos.
+	 */
+
+	public long getLatencyMax()
+	{
+		return latencyMax;
+	}
+
+	/**
+	 * Obtm um percentil aproximado da latncia atravs do histograma de latncia.
+	 * @param percentile percentil desejado entre 0 e 100, por exemplo 99.9.
+	 * @return aquisio do maior valor da posio do histograma onde se encontra o percentil.
+	 */
+
+	public long getLatencyPercentile(double percentile)
+	{
+		if (percentile < 0 || percentile > 100)
+			throw new InputRuntimeException("percentil invlido (percentile: %f)", percentile);
+
+		long total = 0;
+
+		for (long count : histogram)
+			total += count;
+
+		if (total == 0)
+			return 0;
+
+		long target = (long) Math.ceil(total * percentile / 100);
+		long count = 0;
+
+		for (int bucket = 0; bucket < histogram.length; bucket++)
+			if ((count += histogram[bucket]) >= target && count > 0)
+				return Math.min(getBucketLimit(bucket), latencyMax);
+
+		return latencyMax;
+	}
+
+	/**
+	 * O histograma possui uma posio para zero e uma posio para cada bit de um long.
+	 * @return aquisio de uma cpia da quantidade de eventos em cada posio do histograma.
+	 */
+
+	public long[] getLatencyHistogram()
+	{
+		return histogram.clone();
+	}
+
+	/**
+	 * Tempo gasto apenas na chamada ao despachante compactado, sem a retirada da fila.
+	 * @return aquisio do tempo total gasto no despachante compactado em nanossegundos.
+	 */
+
+	public long getPackedDispatchTime()
+	{
+		return packedTime;
+	}
+
+	/**
+	 * Um valor alto indica que algum evento foi retido pelo despachante compactado.
+	 * @return aquisio do maior tempo gasto no despachante compactado por uma nica chamada (evento ou lote).
+	 */
+
+	public long getPackedDispatchMax()
+	{
+		return packedMax;
+	}
+
+	/**
+	 * Tempo gasto na chamada ao despachante para teclado, incluindo a criao do evento.
+	 * @return aquisio do tempo total gasto no despachante para teclado em nanossegundos.
+	 */
+
+	public long getKeyboardDispatchTime()
+	{
+		return keyboardTime;
+	}
+
+	/**
+	 * Um valor alto indica que algum evento foi retido pelo despachante para teclado.
+	 * @return aquisio do maior tempo gasto no despachante para teclado por uma nica chamada (evento ou lote).
+	 */
+
+	public long getKeyboardDispatchMax()
+	{
+		return keyboardMax;
+	}
+
+	/**
+	 * Cria uma fotografia com as contagens ocorridas entre uma fotografia anterior e esta.
+	 * Profundidades e valores mximos no podem ser subtrados e so mantidos como esto.
+	 * @param previous fotografia anterior obtida do mesmo sistema de entrada.
+	 * @return aquisio de uma nova fotografia contendo apenas o intervalo entre as duas.
+	 */
+
+	public KeyboardMetricsSnapshot since(KeyboardMetricsSnapshot previous)
+	{
+		long difference[] = new long[histogram.length];
+
+		for (int i = 0; i < difference.length; i++)
+			difference[i] = histogram[i] - previous.histogram[i];
+
+		return new KeyboardMetricsSnapshot(time, enqueued - previous.enqueued, dropped - previous.dropped, coalesced - previous.coalesced, dispatched - previous.dispatched, depth, maxDepth,
+				latencyTotal - previous.latencyTotal, latencyMax, difference,
+				packedTime - previous.packedTime, packedMax, keyboardTime - previous.keyboardTime, keyboardMax);
+	}
+
+	/**
+	 * Obtm o maior valor que pode ser registrado em uma posio do histograma de latncia.
+	 * @param bucket posio do histograma de latncia.
+	 * @return aquisio do maior valor em nanossegundos da posio do histograma.
+	 */
+
+	public static long getBucketLimit(int bucket)
+	{
+		return bucket >= 64 ? Long.MAX_VALUE : (1L << bucket) - 1;
+	}
+
+	@Override
+	public String toString()
+	{
+		ObjectDescription description = new ObjectDescription(getClass());
+
+		description.append("enqueued", enqueued);
+		description.append("dropped", dropped);
+		description.append("coalesced", coalesced);
+		description.append("dispatched", dispatched);
+		description.append("depth", depth);
+		description.append("maxDepth", maxDepth);
+		description.append("latencyMean", getLatencyMean());
+		description.append("latencyP99", getLatencyPercentile(99));
+		description.append("latencyMax", latencyMax);
+		description.append("packedTime", packedTime);
+		description.append("keyboardTime", keyboardTime);
+
+		return description.toString();
+	}
+}
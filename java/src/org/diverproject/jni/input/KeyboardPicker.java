@@ -1,8 +1,17 @@
 
 package org.diverproject.jni.input;
 
-import org.diverproject.util.collection.Queue;
-import org.diverproject.util.collection.abstraction.DynamicQueue;
+import static org.diverproject.jni.input.InputSystem.KO_BLOCK;
+import static org.diverproject.jni.input.InputSystem.KO_COALESCE;
+import static org.diverproject.jni.input.InputSystem.KO_DROP_OLDEST;
+import static org.diverproject.jni.input.KeyEvent.KP_TRANSITION;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.KeyEvent.KT_TYPED;
+import static org.diverproject.jni.input.enums.EnumCH.CH_NULL;
+import static org.diverproject.jni.input.enums.EnumVK.isKeyCode;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Apanhador para Teclado
@@ -11,61 +20,379 @@ import org.diverproject.util.collection.abstraction.DynamicQueue;
  * Sempre que um novo evento for recebido ir coloc-lo na fila de espera.
  * Uma outra Thread ir garantir que esses eventos sejam despachados.
  *
- * @see Queue
+ * A fila de espera  um buffer de capacidade fixa que no utiliza bloqueios,
+ * assim a thread da fonte de eventos nunca fica esperando pela thread do processador.
+ *
+ * A fonte de eventos repassa apenas a tecla virtual e as suas flags, a traduo  feita pelo
+ * tradutor de teclas do sistema de entrada, enquanto o estado dos modificadores
+ * do teclado  mantido aqui, para que o tradutor possa ser trocado a qualquer momento.
+ *
+ * Quando a fila de espera estiver cheia a poltica de transbordo determina se o evento recebido
+ * ou o mais antigo ser descartado, ou ainda se a fonte de eventos ir esperar por espao.
+ * Cada evento recebe um nmero de sequncia, de modo que descartes deixam lacunas na sequncia.
+ *
+ * Com o agrupamento de repeties, uma repetio automtica idntica a um evento que ainda aguarda
+ * na fila  somada a esse evento, sem reservar nmero de sequncia nem ocupar uma nova posio.
+ *
+ * Com a fila concorrente diversas threads podem inserir eventos ao mesmo tempo. Por isso os
+ * modificadores do teclado so mantidos para cada thread produtora, como se cada uma fosse uma fonte
+ * separada, e os contadores so acumuladores concorrentes, lidos por qualquer thread nas mtricas.
+ *
+ * @see KeyTranslator
+ * @see KeyboardBuffer
+ * @see KeyboardReceiver
  * @see KeyboardProcessor
+ * @see KeyboardPickerConfig
  *
  * @author Andrew
  */
 
-class KeyboardPicker
+class KeyboardPicker implements KeyboardReceiver
 {
+	/**
+	 * Quantidade de tentativas cedendo a thread antes de estacionar com a poltica de bloqueio.
+	 */
+	private static final int BLOCK_YIELDS = 100;
+
+	/**
+	 * Tempo em nanossegundos que a thread estaciona entre as tentativas com a poltica de bloqueio.
+	 */
+	private static final long BLOCK_PARK = 50000L;
+
 	/**
 	 * Fila contendo todos os eventos ainda no despachados.
 	 */
-	Queue<KeyEvent> buffer;
+	final KeyboardBuffer buffer;
+
+	/**
+	 * Estratgia de espera que ser sinalizada a cada evento inserido na fila.
+	 */
+	final KeyboardWaitStrategy waitStrategy;
+
+	/**
+	 * Conjunto de eventos reciclados usado pelo processador ou null se no forem reciclados.
+	 */
+	final KeyEventPool pool;
+
+	/**
+	 * Dirio onde todos os eventos recebidos sero gravados ou null se no houver.
+	 */
+	final KeyboardJournal journal;
+
+	/**
+	 * Barramento onde todos os eventos recebidos sero publicados para outros processos ou null se no houver.
+	 */
+	final KeyboardBus bus;
+
+	/**
+	 * Pgina onde o estado do teclado ser espelhado pelo processador para outros processos ou null se no houver.
+	 */
+	final KeyboardStatePage statePage;
+
+	/**
+	 * Mtricas registradas pelo processador ou null se no forem registradas.
+	 */
+	final KeyboardMetrics metrics;
+
+	/**
+	 * Estado do teclado atualizado pelo processador ou null se no for mantido.
+	 */
+	final KeyboardState state;
+
+	/**
+	 * Rastreador dos eventos amostrados pelo processador ou null se no forem rastreados.
+	 */
+	final KeyboardTracer tracer;
+
+	/**
+	 * Poltica usada quando a fila de espera estiver cheia (<code>KO</code>).
+	 */
+	private final int overflowPolicy;
+
+	/**
+	 * Determina se as repeties de teclas mantidas abaixadas sero agrupadas na fila.
+	 */
+	private final boolean coalescing;
+
+	/**
+	 * Sistema de entrada do qual ser obtido o tradutor de teclas.
+	 */
+	private final InputSystem system;
+
+	/**
+	 * Propriedades atuais do teclado de cada thread produtora, de acordo com os seus modificadores abaixados.
+	 */
+	private final ThreadLocal<int[]> properties;
+
+	/**
+	 * Quantidade de eventos inseridos na fila de espera.
+	 */
+	private final LongAdder enqueued;
+
+	/**
+	 * Quantidade de eventos descartados por no haver espao na fila.
+	 */
+	private final LongAdder dropped;
+
+	/**
+	 * Quantidade de repeties agrupadas em eventos que aguardavam na fila.
+	 */
+	private final LongAdder coalesced;
+
+	/**
+	 * ltimo evento inserido na fila de espera, usado para identificar repeties.
+	 * Usado apenas pela poltica de agrupamento, que s  permitida com um nico produtor.
+	 */
+	private long last;
 
 	/**
 	 * Processador de teclado que ir despachar a fila de eventos.
 	 */
-	private KeyboardProcessor processor;
+	private final KeyboardProcessor processor;
 
 	/**
 	 * Constri um novo apanhador para teclado, deve iniciar a fila de eventos,
 	 * como tambm instanciar uma nova thread para fazer o despache dessa fila.
+	 * @param config configurao contendo a fila de espera, a estratgia de espera
+	 * e os estgios opcionais do apanhador para teclado.
 	 */
 
-	public KeyboardPicker()
+	public KeyboardPicker(KeyboardPickerConfig config)
 	{
-		 buffer = new DynamicQueue<KeyEvent>();
-		 processor = new KeyboardProcessor(this);
+		 this.buffer = config.buffer;
+		 this.waitStrategy = config.waitStrategy;
+		 this.pool = config.pool;
+		 this.journal = config.journal;
+		 this.bus = config.bus;
+		 this.statePage = config.statePage;
+		 this.metrics = config.metrics;
+		 this.state = config.state;
+		 this.tracer = config.tracer;
+		 this.overflowPolicy = config.overflowPolicy;
+		 this.coalescing = config.coalescing;
+		 this.properties = ThreadLocal.withInitial(() -> new int[1]);
+		 this.enqueued = new LongAdder();
+		 this.dropped = new LongAdder();
+		 this.coalesced = new LongAdder();
+		 system = InputSystem.getInstance();
+		 processor = new KeyboardProcessor(this, config.threadFactory, config.mailbox, config.executor);
 		 processor.start();
 	}
 
 	/**
-	 * Chamado apenas pela DLL e deve inserir um novo evento a fila de eventos.
-	 * @param event referncia do evento detectado pelo teclado no sistema.
+	 * A tecla virtual ser traduzida e os modificadores do teclado atualizados.
+	 * O evento  inserido compactado, nenhum objeto  criado pelo apanhador.
+	 * Os modificadores so os da thread que chamou, cada thread produtora mantm os seus.
+	 * @param type qual o tipo de ao que foi detectada (<code>KT</code>).
+	 * @param vk cdigo da tecla virtual que gerou o evento (<code>VK</code>).
+	 * @param flags flags da tecla virtual recebidas do sistema operacional (<code>KF</code>).
+	 */
+
+	@Override
+	public void receiveKey(int type, int vk, int flags)
+	{
+		KeyTranslator translator = system.getKeyTranslator();
+
+		if (!isKeyCode(vk) || translator.isIgnored(vk))
+			return;
+
+		int modifiers = translator.getModifiers(vk) | KP_TRANSITION;
+		int state[] = this.properties.get();
+
+		if (type == KT_RELEASED)
+			state[0] &= ~modifiers;
+		else
+			state[0] |= modifiers;
+
+		int properties = state[0];
+		int key = translator.getKey(vk, flags);
+		char ch = type == KT_TYPED ? translator.getChar(vk, properties) : (char) CH_NULL;
+
+		receiveEvent(PackedKeyEvent.pack(type, vk, key, ch, properties));
+	}
+
+	/**
+	 * Insere um evento j compactado na fila de espera e sinaliza o processador.
+	 * Caso a fila esteja cheia ser aplicada a poltica de transbordo definida.
+	 * Se houver um dirio o evento ser gravado, mesmo que venha a ser descartado.
+	 * Se houver um barramento o evento ser publicado para os outros processos, mesmo que venha a ser descartado.
+	 * O momento do recebimento  armazenado junto do evento, usado pelos eventos, mtricas e rastros.
+	 * Se houver agrupamento a repetio ser somada ao evento que ainda estiver na fila.
+	 * @param event valor contendo o evento de tecla compactado.
 	 */
 
-	private void receiveKey(KeyEvent event)
+	@Override
+	public void receiveEvent(long event)
 	{
-		synchronized (buffer)
+		if (event == PackedKeyEvent.NONE)
+			return;
+
+		if (journal != null)
+			journal.record(event);
+
+		long timestamp = System.nanoTime();
+
+		if (bus != null)
+			bus.publish(event, timestamp);
+
+		if (coalescing && buffer.fold(event, timestamp))
+		{
+			coalesced.increment();
+			return;
+		}
+
+		long sequence = buffer.nextSequence();
+
+		if (buffer.offer(event, sequence, timestamp) || overflow(event, sequence, timestamp))
 		{
-			buffer.offer(event);
+			last = event;
+			enqueued.increment();
+			waitStrategy.signal();
 		}
+
+		else
+			dropped.increment();
 	}
 
 	/**
-	 * Deve ser chamado para fazer um novo registro desse objeto na DLL.
-	 * Ao ser chamado a Thread que o chamou ficar presa at o cancelamento do registro.
-	 * Assim  necessrio a existncia de duas thread, uma para fazer e outra para cancelar.
+	 * Aplica a poltica de transbordo em um evento que no coube na fila de espera.
+	 * Eventos mais antigos que forem descartados para abrir espao tambm so contabilizados.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @param sequence nmero de sequncia reservado para o evento.
+	 * @param timestamp momento em nanossegundos em que o evento foi recebido.
+	 * @return true se o evento tiver sido inserido ou false se tiver sido descartado.
 	 */
 
-	native void register();
+	private boolean overflow(long event, long sequence, long timestamp)
+	{
+		switch (overflowPolicy)
+		{
+			case KO_BLOCK:
+				Thread current = Thread.currentThread();
+				waitStrategy.signal();
+
+				for (int attempts = 1; !buffer.offer(event, sequence, timestamp); attempts++)
+				{
+					if (current.isInterrupted())
+						return false;
+
+					if (attempts <= BLOCK_YIELDS)
+						Thread.yield();
+					else
+						LockSupport.parkNanos(BLOCK_PARK);
+				}
+
+				return true;
+
+			case KO_COALESCE:
+				return event != last && dropOldest(event, sequence, timestamp);
+
+			case KO_DROP_OLDEST:
+				return dropOldest(event, sequence, timestamp);
+		}
+
+		return false;
+	}
 
 	/**
-	 * Deve ser chamado para cancelar um registro feito por esse objeto na DLL.
-	 * Assim que chamado ir cancelar qualquer recebimento de eventos para teclado.
+	 * Descarta os eventos mais antigos da fila de espera at que o evento recebido seja inserido.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @param sequence nmero de sequncia reservado para o evento.
+	 * @param timestamp momento em nanossegundos em que o evento foi recebido.
+	 * @return true sempre, j que o evento acaba sendo inserido.
 	 */
 
-	native void unregister();
-}
\ No newline at end of file
+	private boolean dropOldest(long event, long sequence, long timestamp)
+	{
+		do {
+
+			if (buffer.discard())
+				dropped.increment();
+
+		} while (!buffer.offer(event, sequence, timestamp));
+
+		return true;
+	}
+
+	/**
+	 * Eventos inseridos so todos os eventos recebidos que couberam na fila de espera.
+	 * @return aquisio da quantidade de eventos inseridos at o momento.
+	 */
+
+	long getEnqueued()
+	{
+		return enqueued.sum();
+	}
+
+	/**
+	 * Eventos so descartados apenas quando a fila de espera estiver cheia,
+	 * sendo tanto eventos recebidos quanto eventos antigos descartados para abrir espao.
+	 * @return aquisio da quantidade de eventos descartados at o momento.
+	 */
+
+	long getDropped()
+	{
+		return dropped.sum();
+	}
+
+	/**
+	 * Repeties agrupadas no so contadas como eventos inseridos.
+	 * @return aquisio da quantidade de repeties agrupadas em eventos da fila at o momento.
+	 */
+
+	long getCoalesced()
+	{
+		return coalesced.sum();
+	}
+
+	/**
+	 * Obtm o objeto de um evento compactado para um despachante para teclado, reciclado do conjunto
+	 * de eventos se houver um. Deve ser chamado por apenas uma thread de cada vez.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @param sequence nmero de sequncia do evento.
+	 * @param timestamp momento em nanossegundos em que o evento foi recebido.
+	 * @param lastTimestamp momento em nanossegundos da ltima repetio agrupada.
+	 * @param dequeuedTime momento em nanossegundos em que o evento foi retirado da fila.
+	 * @return aquisio do evento de tecla com uma nica referncia, que deve ser liberada aps o despache.
+	 */
+
+	KeyEvent newKeyEvent(long event, long sequence, long timestamp, long lastTimestamp, long dequeuedTime)
+	{
+		KeyEvent keyEvent = pool != null ? pool.acquire(event) : PackedKeyEvent.toKeyEvent(event);
+		keyEvent.setSequence(sequence);
+		keyEvent.setTimes(timestamp, lastTimestamp, dequeuedTime);
+
+		return keyEvent;
+	}
+
+	/**
+	 * Despacha na thread que o chamou os eventos que estavam na fila de espera no momento da chamada.
+	 * Vlido apenas sem a thread do processador, deve ser chamado sempre pela mesma thread.
+	 * @return aquisio da quantidade de eventos despachados.
+	 */
+
+	int drain()
+	{
+		return processor.drain();
+	}
+
+	/**
+	 * Interrompe o processador de teclado aguardando o fim da sua thread, os eventos ainda na fila no
+	 * sero despachados. Deve ser chamado apenas aps a fonte de eventos ter sido parada.
+	 */
+
+	void shutdown()
+	{
+		processor.shutdown();
+	}
+
+	/**
+	 * Cria uma fotografia das mtricas registradas, pode ser chamado por qualquer thread.
+	 * @return aquisio da fotografia das mtricas ou null se no forem registradas.
+	 */
+
+	KeyboardMetricsSnapshot getMetrics()
+	{
+		return metrics == null ? null : metrics.snapshot(enqueued.sum(), dropped.sum() + processor.getMailboxDropped(), coalesced.sum(), buffer.size());
+	}
+}
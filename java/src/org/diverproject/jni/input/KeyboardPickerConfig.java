@@ -0,0 +1,257 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.InputSystem.KO_DROP_NEWEST;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <h1>Configurao do Apanhador para Teclado</h1>
+ *
+ * <p>Rene a fila de espera e a estratgia de espera, obrigatrias, com os estgios opcionais do
+ * apanhador para teclado: reciclagem de eventos, dirio, barramento, pgina de estado, mtricas,
+ * estado do teclado, rastreador, poltica de transbordo, agrupamento de repeties, fbrica de
+ * threads do processador, caixas de mensagens e executor das caixas de mensagens.</p>
+ *
+ * <p>Os estgios opcionais comeam desativados, com a poltica de descartar o evento recebido e a
+ * fbrica de threads padro do processador. Os procedimentos de definio retornam a prpria
+ * configurao, para que apenas os estgios usados sejam definidos em uma nica expresso.</p>
+ *
+ * @see KeyboardPicker
+ *
+ * @author Andrew
+ */
+
+class KeyboardPickerConfig
+{
+	/**
+	 * Fila de espera que ser usada para os eventos recebidos.
+	 */
+	final KeyboardBuffer buffer;
+
+	/**
+	 * Estratgia usada pelo processador quando a fila estiver vazia.
+	 */
+	final KeyboardWaitStrategy waitStrategy;
+
+	/**
+	 * Conjunto de eventos reciclados ou null para no reciclar eventos.
+	 */
+	KeyEventPool pool;
+
+	/**
+	 * Dirio onde os eventos recebidos sero gravados ou null para no gravar.
+	 */
+	KeyboardJournal journal;
+
+	/**
+	 * Barramento onde os eventos recebidos sero publicados ou null para no publicar.
+	 */
+	KeyboardBus bus;
+
+	/**
+	 * Pgina onde o estado do teclado ser espelhado ou null para no espelhar.
+	 */
+	KeyboardStatePage statePage;
+
+	/**
+	 * Mtricas que sero registradas pelo processador ou null para no registrar.
+	 */
+	KeyboardMetrics metrics;
+
+	/**
+	 * Estado do teclado que ser atualizado pelo processador ou null para no manter.
+	 */
+	KeyboardState state;
+
+	/**
+	 * Rastreador dos eventos amostrados ou null para no rastrear.
+	 */
+	KeyboardTracer tracer;
+
+	/**
+	 * Poltica usada quando a fila de espera estiver cheia (<code>KO</code>).
+	 */
+	int overflowPolicy;
+
+	/**
+	 * Determina se as repeties de teclas mantidas abaixadas sero agrupadas na fila.
+	 */
+	boolean coalescing;
+
+	/**
+	 * Fbrica usada para criar a thread do processador ou null para despachar apenas atravs de <code>drain()</code>.
+	 */
+	ThreadFactory threadFactory;
+
+	/**
+	 * Determina se os despachantes sero chamados atravs das caixas de mensagens ou pelo processador.
+	 */
+	boolean mailbox;
+
+	/**
+	 * Executor das caixas de mensagens ou null para que cada caixa possua a sua thread.
+	 */
+	Executor executor;
+
+	/**
+	 * Constri uma nova configurao do apanhador para teclado sendo necessrio definir:
+	 * @param buffer fila de espera que ser usada para os eventos recebidos.
+	 * @param waitStrategy estratgia usada pelo processador quando a fila estiver vazia.
+	 */
+
+	KeyboardPickerConfig(KeyboardBuffer buffer, KeyboardWaitStrategy waitStrategy)
+	{
+		this.buffer = buffer;
+		this.waitStrategy = waitStrategy;
+		this.overflowPolicy = KO_DROP_NEWEST;
+		this.threadFactory = KeyboardProcessor.THREAD_FACTORY;
+	}
+
+	/**
+	 * Eventos reciclados so entregues ao despachante para teclado e devolvidos aps o despache.
+	 * @param pool conjunto de eventos reciclados ou null para no reciclar eventos.
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setPool(KeyEventPool pool)
+	{
+		this.pool = pool;
+		return this;
+	}
+
+	/**
+	 * O dirio deve estar aberto, os eventos so gravados mesmo que venham a ser descartados.
+	 * @param journal dirio onde os eventos recebidos sero gravados ou null para no gravar.
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setJournal(KeyboardJournal journal)
+	{
+		this.journal = journal;
+		return this;
+	}
+
+	/**
+	 * O barramento deve estar aberto, os eventos so publicados mesmo que venham a ser descartados.
+	 * @param bus barramento onde os eventos recebidos sero publicados ou null para no publicar.
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setBus(KeyboardBus bus)
+	{
+		this.bus = bus;
+		return this;
+	}
+
+	/**
+	 * A pgina deve estar aberta e  atualizada apenas pelo processador.
+	 * @param statePage pgina onde o estado do teclado ser espelhado ou null para no espelhar.
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setStatePage(KeyboardStatePage statePage)
+	{
+		this.statePage = statePage;
+		return this;
+	}
+
+	/**
+	 * As mtricas so registradas pelo processador e podem ser fotografadas por qualquer thread.
+	 * @param metrics mtricas que sero registradas pelo processador ou null para no registrar.
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setMetrics(KeyboardMetrics metrics)
+	{
+		this.metrics = metrics;
+		return this;
+	}
+
+	/**
+	 * O estado  atualizado pelo processador antes de cada lote ser despachado.
+	 * @param state estado do teclado que ser atualizado pelo processador ou null para no manter.
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setState(KeyboardState state)
+	{
+		this.state = state;
+		return this;
+	}
+
+	/**
+	 * Apenas os eventos amostrados pelo rastreador tm os seus momentos registrados.
+	 * @param tracer rastreador dos eventos amostrados ou null para no rastrear.
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setTracer(KeyboardTracer tracer)
+	{
+		this.tracer = tracer;
+		return this;
+	}
+
+	/**
+	 * Por padro o evento recebido  descartado quando a fila estiver cheia.
+	 * @param overflowPolicy poltica usada quando a fila de espera estiver cheia (<code>KO</code>).
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setOverflowPolicy(int overflowPolicy)
+	{
+		this.overflowPolicy = overflowPolicy;
+		return this;
+	}
+
+	/**
+	 * O agrupamento s  permitido com um nico produtor e sem descartes de eventos antigos.
+	 * @param coalescing true para agrupar as repeties de teclas mantidas abaixadas na fila.
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setCoalescing(boolean coalescing)
+	{
+		this.coalescing = coalescing;
+		return this;
+	}
+
+	/**
+	 * Por padro a thread do processador  criada pela fbrica de threads padro do processador.
+	 * @param threadFactory fbrica usada para criar a thread do processador para teclado
+	 * ou null para que os eventos sejam despachados apenas atravs de <code>drain()</code>.
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setThreadFactory(ThreadFactory threadFactory)
+	{
+		this.threadFactory = threadFactory;
+		return this;
+	}
+
+	/**
+	 * Com as caixas de mensagens cada despachante recebe os lotes atravs da sua prpria caixa,
+	 * despachada por uma thread prpria da caixa ou pelo executor, se houver.
+	 * No  suportado sem a fbrica de threads do processador.
+	 * @param mailbox true para despachar atravs das caixas de mensagens ou false para despachar no processador.
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setMailbox(boolean mailbox)
+	{
+		this.mailbox = mailbox;
+		return this;
+	}
+
+	/**
+	 * O executor  usado apenas com as caixas de mensagens, as threads das caixas so criadas apenas sem um executor.
+	 * @param executor executor das caixas de mensagens ou null para que cada caixa possua a sua thread.
+	 * @return aquisio da prpria configurao.
+	 */
+
+	KeyboardPickerConfig setExecutor(Executor executor)
+	{
+		this.executor = executor;
+		return this;
+	}
+}
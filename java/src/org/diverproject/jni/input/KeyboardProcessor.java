@@ -1,6 +1,7 @@
 package org.diverproject.jni.input;
 
-import org.diverproject.util.Util;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * <h1>Processador para Teclado</h1>
@@ -13,51 +14,438 @@ import org.diverproject.util.Util;
  * esse evento ser removido da lista de espera, evitando loop infinito.
  * Novos eventos sempre sero posicionados ao final da lista.</p>
  *
- * @see Thread
+ * <p>Quando a lista de espera estiver vazia o processador ir utilizar a estratgia
+ * de espera definida no sistema de entrada, at que um novo evento seja encontrado.
+ * Aps o despache de cada evento a referncia do mesmo ser liberada para reciclagem.</p>
+ *
+ * <p>Os eventos so retirados compactados da lista de espera e repassados desse modo
+ * ao despachante compactado, objetos de evento s so criados para o despachante comum.</p>
+ *
+ * <p>Caso o apanhador possua mtricas, o processador registra a latncia de cada evento retirado,
+ * a profundidade da fila de espera e o tempo gasto em cada despachante.</p>
+ *
+ * <p>Cada evento retirado recebe o momento da sua retirada da fila. Caso o apanhador possua um
+ * rastreador, os eventos amostrados so registrados na retirada e no retorno de cada despachante.</p>
+ *
+ * <p>Caso o apanhador possua um estado do teclado, este  atualizado com cada evento retirado
+ * antes do despache, mesmo que nenhum despachante tenha sido definido no sistema de entrada.</p>
+ *
+ * <p>Eventos com repeties agrupadas recebem os momentos da primeira e da ltima repetio,
+ * a latncia registrada pelas mtricas  sempre medida a partir da primeira repetio.</p>
+ *
+ * <p>A thread do processador  criada pela fbrica de threads definida no sistema de entrada.
+ * No modo de despache por caixas de mensagens o processador no chama os despachantes, apenas
+ * insere cada evento na caixa de mensagens do despachante, despachada pela thread prpria da caixa,
+ * criada pela mesma fbrica de threads, ou pelo executor definido no sistema de entrada. Quando o
+ * despachante para teclado for um despachante de leituras de tecla, cada leitura registrada possui a
+ * sua prpria caixa, criada ao ser registrada e encerrada ao ser removida.</p>
+ *
+ * <p>No modo de despache sncrono nenhuma thread  criada, os eventos so retirados em lote
+ * pela thread que chamar <code>drain()</code>, normalmente a cada atualizao do sistema de entrada.</p>
+ *
+ * <p>Todos os eventos disponveis na fila de espera, at o tamanho mximo de um lote, so retirados
+ * de uma nica vez e entregues em uma nica chamada de <code>dispatchBatch</code> a cada despachante.
+ * A ordem dos eventos de cada despachante  mantida, porm o despachante compactado recebe o lote
+ * inteiro antes do despachante para teclado.</p>
+ *
+ * @see KeyboardWaitStrategy
+ * @see KeyboardMailbox
  * @see KeyboardPicker
  *
  * @author Andrew
  */
 
-class KeyboardProcessor extends Thread
+class KeyboardProcessor implements Runnable
 {
+	/**
+	 * Fbrica de threads padro, cria threads daemon com o nome do processador para teclado.
+	 */
+	static final ThreadFactory THREAD_FACTORY = runnable ->
+	{
+		Thread thread = new Thread(runnable, "JNI KEventProcessor");
+		thread.setDaemon(true);
+
+		return thread;
+	};
+
+	/**
+	 * Tempo mximo em milissegundos aguardado pelo fim da thread do processador, antes e aps interromp-la.
+	 */
+	static final long SHUTDOWN_TIMEOUT = 1000;
+
 	/**
 	 * Apanhador para teclado que ser usado como receptor dos eventos.
 	 */
 	private KeyboardPicker picker;
 
+	/**
+	 * Determina se o processador deve continuar retirando eventos da fila de espera.
+	 */
+	private volatile boolean running;
+
+	/**
+	 * Thread criada pela fbrica de threads que executa o processador ou null se for sncrono.
+	 */
+	private final Thread thread;
+
+	/**
+	 * Lote reutilizado onde so reunidos os eventos retirados da fila de espera.
+	 */
+	private final KeyboardBatch batch;
+
+	/**
+	 * Caixa de mensagens do despachante compactado ou null se o despache for feito pelo processador.
+	 */
+	private final KeyboardMailbox packedMailbox;
+
+	/**
+	 * Caixa de mensagens do despachante para teclado ou null se o despache for feito pelo processador.
+	 */
+	private final KeyboardMailbox keyboardMailbox;
+
+	/**
+	 * Executor das caixas de mensagens ou null para que cada caixa possua a sua thread.
+	 */
+	private final Executor executor;
+
+	/**
+	 * Fbrica usada para criar as threads das caixas de mensagens das leituras de tecla.
+	 */
+	private final ThreadFactory threadFactory;
+
+	/**
+	 * Leituras de tecla que possuem caixas de mensagens, como obtidas do despachante de leituras de tecla.
+	 */
+	private KeyListener listeners[];
+
+	/**
+	 * Caixas de mensagens de cada leitura de tecla, na mesma ordem das leituras.
+	 */
+	private volatile KeyboardMailbox listenerMailboxes[];
+
+	/**
+	 * Quantidade de eventos descartados pelas caixas de mensagens das leituras j removidas.
+	 */
+	private volatile long retiredDropped;
+
 	/**
 	 * Constri um novo processador para teclado sendo necessrio definir:
 	 * @param picker apanhador para teclados que ser usado para fazer o despache.
+	 * @param threadFactory fbrica usada para criar a thread do processador
+	 * ou null para que os eventos sejam retirados apenas atravs de <code>drain()</code>.
+	 * @param mailbox true para despachar atravs das caixas de mensagens dos despachantes
+	 * ou false para que o prprio processador chame os despachantes.
+	 * @param executor executor das caixas de mensagens ou null para que cada caixa possua a sua thread.
 	 */
-	
-	KeyboardProcessor(KeyboardPicker picker)
+
+	KeyboardProcessor(KeyboardPicker picker, ThreadFactory threadFactory, boolean mailbox, Executor executor)
 	{
-		this.setDaemon(true);
-		this.setName("JNI KEventProcessor");
 		this.picker = picker;
+		this.running = true;
+		this.batch = new KeyboardBatch(picker.buffer.capacity());
+		this.executor = executor;
+		this.threadFactory = threadFactory;
+		this.listeners = new KeyListener[0];
+		this.listenerMailboxes = new KeyboardMailbox[0];
+		this.thread = threadFactory != null ? threadFactory.newThread(this) : null;
+
+		if (threadFactory != null && thread == null)
+			throw new InputRuntimeException("fbrica de threads no criou o processador para teclado");
+
+		if (mailbox && threadFactory == null)
+			throw new InputRuntimeException("caixas de mensagens no suportadas pelo processador sncrono");
+
+		if (mailbox)
+		{
+			int capacity = picker.buffer.capacity();
+
+			this.packedMailbox = new KeyboardMailbox(picker, executor, threadFactory, capacity, true, null);
+			this.keyboardMailbox = new KeyboardMailbox(picker, executor, threadFactory, capacity, false, null);
+		}
+
+		else
+		{
+			this.packedMailbox = null;
+			this.keyboardMailbox = null;
+		}
+	}
+
+	/**
+	 * Inicia a thread criada pela fbrica de threads e as threads das caixas de mensagens,
+	 * deve ser chamado uma nica vez. Um processador sncrono no possui thread, portanto nada ser feito.
+	 */
+
+	void start()
+	{
+		if (packedMailbox != null)
+		{
+			packedMailbox.start();
+			keyboardMailbox.start();
+		}
+
+		if (thread != null)
+			thread.start();
 	}
 
 	@Override
 	public void run()
 	{
 		InputSystem system = InputSystem.getInstance();
+		KeyboardWaitStrategy waitStrategy = picker.waitStrategy;
+		int attempts = 0;
 
-		while (true)
+		while (running)
 		{
-			synchronized (picker.buffer)
+			if (fill(Integer.MAX_VALUE) > 0)
 			{
-				if (!picker.buffer.isEmpty())
+				attempts = 0;
+				deliver(system);
+			}
+
+			else
+				waitStrategy.idle(attempts < Integer.MAX_VALUE ? ++attempts : attempts);
+		}
+	}
+
+	/**
+	 * Retira e despacha na thread que o chamou todos os eventos que estavam na fila de espera
+	 * no momento da chamada, eventos recebidos durante o despache ficam para a prxima chamada.
+	 * Deve ser chamado sempre pela mesma thread e apenas por um processador sncrono.
+	 * @return aquisio da quantidade de eventos despachados, zero se o processador possuir thread.
+	 */
+
+	int drain()
+	{
+		if (thread != null || !running)
+			return 0;
+
+		InputSystem system = InputSystem.getInstance();
+		int count = picker.buffer.size();
+		int drained = 0;
+
+		while (drained < count)
+		{
+			int size = fill(count - drained);
+
+			if (size == 0)
+				break;
+
+			deliver(system);
+			drained += size;
+		}
+
+		return drained;
+	}
+
+	/**
+	 * Retira os eventos disponveis na fila de espera para o lote, at que o lote esteja cheio,
+	 * atualizando o estado do teclado e registrando as mtricas e o rastro de cada evento retirado.
+	 * @param limit quantidade mxima de eventos que sero retirados.
+	 * @return aquisio da quantidade de eventos reunidos no lote.
+	 */
+
+	private int fill(int limit)
+	{
+		KeyboardBuffer buffer = picker.buffer;
+		KeyboardMetrics metrics = picker.metrics;
+		KeyboardTracer tracer = picker.tracer;
+		KeyboardState state = picker.state;
+		KeyboardStatePage statePage = picker.statePage;
+
+		batch.clear();
+
+		while (batch.size < limit && !batch.isFull())
+		{
+			long event = buffer.poll();
+
+			if (event == PackedKeyEvent.NONE)
+				break;
+
+			if (state != null)
+				state.apply(event);
+
+			if (statePage != null)
+				statePage.apply(event, buffer.getTimestamp());
+
+			long time = System.nanoTime();
+
+			if (metrics != null)
+				metrics.dequeued(time - buffer.getTimestamp(), buffer.size());
+
+			if (tracer != null)
+				tracer.dequeued(buffer.getSequence(), event, buffer.getTimestamp(), time);
+
+			batch.add(buffer, event, time);
+		}
+
+		return batch.size;
+	}
+
+	/**
+	 * Entrega o lote aos despachantes definidos no sistema de entrada, ou s suas caixas de mensagens.
+	 * Os objetos de evento s sero criados (ou reciclados) se houver um despachante para teclado.
+	 * @param system referncia do sistema de entrada com os despachantes definidos.
+	 */
+
+	private void deliver(InputSystem system)
+	{
+		if (packedMailbox != null)
+		{
+			post(system);
+			return;
+		}
+
+		PackedKeyboardDispatcher packed = system.getPackedKeyboardDispatcher();
+
+		if (packed != null)
+			batch.dispatch(packed, picker);
+
+		KeyboardDispatcher keyboard = system.getKeyboardDispatcher();
+
+		if (keyboard != null)
+			batch.dispatch(keyboard, picker);
+	}
+
+	/**
+	 * Insere os eventos do lote nas caixas de mensagens dos despachantes definidos no sistema de entrada,
+	 * ou nas caixas de cada leitura do despachante de leituras de tecla, sem chamar nenhum dos despachantes.
+	 * @param system referncia do sistema de entrada com os despachantes definidos.
+	 */
+
+	private void post(InputSystem system)
+	{
+		if (system.getPackedKeyboardDispatcher() != null)
+			post(packedMailbox);
+
+		KeyboardDispatcher keyboard = system.getKeyboardDispatcher();
+
+		if (keyboard instanceof KeyListenerDispatcher)
+		{
+			for (KeyboardMailbox mailbox : getListenerMailboxes((KeyListenerDispatcher) keyboard))
+				post(mailbox);
+		}
+
+		else if (keyboard != null)
+			post(keyboardMailbox);
+	}
+
+	/**
+	 * Insere todos os eventos do lote em uma nica caixa de mensagens.
+	 * @param mailbox caixa de mensagens que receber os eventos.
+	 */
+
+	private void post(KeyboardMailbox mailbox)
+	{
+		for (int i = 0; i < batch.size; i++)
+			mailbox.post(batch.events[i], batch.sequences[i], batch.timestamps[i], batch.lastTimestamps[i]);
+	}
+
+	/**
+	 * Obtm as caixas de mensagens das leituras registradas no despachante de leituras de tecla. Quando as
+	 * leituras forem alteradas, as caixas das leituras mantidas so reaproveitadas para manter a ordem dos
+	 * seus eventos, novas caixas so criadas e iniciadas para as novas leituras, e as caixas das leituras
+	 * removidas so encerradas aps despacharem os eventos que j possuam.
+	 * @param dispatcher despachante de leituras de tecla definido no sistema de entrada.
+	 * @return aquisio das caixas de mensagens de cada leitura registrada.
+	 */
+
+	private KeyboardMailbox[] getListenerMailboxes(KeyListenerDispatcher dispatcher)
+	{
+		KeyListener listeners[] = dispatcher.getListeners();
+
+		if (listeners == this.listeners)
+			return listenerMailboxes;
+
+		KeyboardMailbox previous[] = listenerMailboxes.clone();
+		KeyboardMailbox mailboxes[] = new KeyboardMailbox[listeners.length];
+
+		for (int i = 0; i < listeners.length; i++)
+		{
+			for (int j = 0; j < previous.length && mailboxes[i] == null; j++)
+				if (this.listeners[j] == listeners[i])
 				{
-					KeyEvent event = picker.buffer.poll();
-					KeyboardDispatcher keyboard = system.getKeyboardDispatcher();
-					keyboard.dispatch(event);
+					mailboxes[i] = previous[j];
+					previous[j] = null;
 				}
 
-				else
-					Util.sleep(1);
+			if (mailboxes[i] == null)
+			{
+				mailboxes[i] = new KeyboardMailbox(picker, executor, threadFactory, picker.buffer.capacity(), false, listeners[i]);
+				mailboxes[i].start();
 			}
 		}
+
+		for (KeyboardMailbox mailbox : previous)
+			if (mailbox != null)
+			{
+				mailbox.shutdown();
+				retiredDropped += mailbox.getDropped();
+			}
+
+		this.listeners = listeners;
+		this.listenerMailboxes = mailboxes;
+
+		return mailboxes;
 	}
-}
 
+	/**
+	 * Interrompe o processador aps o lote que estiver sendo despachado no momento e aguarda o fim da
+	 * sua thread, para que o dirio, o barramento e a pgina de estado possam ser fechados em seguida
+	 * sem que o processador ainda os esteja usando. A estratgia de espera  sinalizada para que o
+	 * processador no continue esperando. Eventos que ainda estiverem nas caixas de mensagens continuam
+	 * sendo despachados, as threads das caixas so encerradas apenas quando estiverem vazias.
+	 * Se a thread no terminar em <code>SHUTDOWN_TIMEOUT</code>, como em um despachante bloqueado, ela 
+	 * interrompida e aguardada pelo mesmo tempo, e ento abandonada para que o encerramento no fique
+	 * bloqueado. Uma pgina de estado fechada deixa de ser atualizada pelo processador abandonado.
+	 */
+
+	void shutdown()
+	{
+		running = false;
+		picker.waitStrategy.signal();
+
+		if (thread != null && thread != Thread.currentThread())
+		{
+			try {
+
+				thread.join(SHUTDOWN_TIMEOUT);
+
+				if (thread.isAlive())
+				{
+					thread.interrupt();
+					thread.join(SHUTDOWN_TIMEOUT);
+				}
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		if (packedMailbox != null)
+		{
+			packedMailbox.shutdown();
+			keyboardMailbox.shutdown();
+
+			for (KeyboardMailbox mailbox : listenerMailboxes)
+				mailbox.shutdown();
+		}
+	}
+
+	/**
+	 * Eventos descartados pelas caixas de mensagens no so despachados apenas para aquele despachante ou leitura.
+	 * @return aquisio da quantidade de eventos descartados pelas caixas de mensagens.
+	 */
+
+	long getMailboxDropped()
+	{
+		if (packedMailbox == null)
+			return 0;
+
+		long dropped = packedMailbox.getDropped() + keyboardMailbox.getDropped() + retiredDropped;
+
+		for (KeyboardMailbox mailbox : listenerMailboxes)
+			dropped += mailbox.getDropped();
+
+		return dropped;
+	}
+}
@@ -0,0 +1,42 @@
+package org.diverproject.jni.input;
+
+/**
+ * <h1>Receptor para Teclado</h1>
+ *
+ * <p>Ponto de entrada dos eventos de teclado gerados por uma fonte de eventos.
+ * Os eventos podem ser recebidos como teclas virtuais, que ainda sero traduzidas,
+ * ou ento como eventos j traduzidos e compactados, como em uma reproduo.</p>
+ *
+ * <p>Os eventos recebidos so apenas inseridos na fila de espera do processador e nenhum procedimento
+ * aloca objetos. A thread da fonte s  bloqueada quando a fila estiver cheia e a poltica de excesso
+ * for <code>KO_BLOCK</code>, at que o processador libere espao; nas demais polticas nunca  bloqueada.
+ * O receptor mantm o estado dos modificadores do teclado entre os eventos recebidos
+ * separado para cada thread, portanto cada fonte deve cham-lo sempre pela mesma thread.
+ * Apenas com a fila concorrente diversas threads podem cham-lo ao mesmo tempo.</p>
+ *
+ * @see KeyboardEventSource
+ * @see KeyboardPicker
+ *
+ * @author Andrew
+ */
+
+public interface KeyboardReceiver
+{
+	/**
+	 * Recebe uma tecla virtual que ser traduzida pelo tradutor de teclas do sistema de entrada.
+	 * Os modificadores do teclado da thread que chamou sero atualizados de acordo com a tecla virtual recebida.
+	 * @param type qual o tipo de ao que foi detectada (<code>KT</code>).
+	 * @param vk cdigo da tecla virtual que gerou o evento (<code>VK</code>).
+	 * @param flags flags da tecla virtual recebidas do sistema operacional (<code>KF</code>).
+	 */
+
+	void receiveKey(int type, int vk, int flags);
+
+	/**
+	 * Recebe um evento j traduzido, que ser inserido na fila de espera como est.
+	 * Os modificadores do teclado no so atualizados por eventos recebidos desse modo.
+	 * @param event valor contendo o evento de tecla compactado.
+	 */
+
+	void receiveEvent(long event);
+}
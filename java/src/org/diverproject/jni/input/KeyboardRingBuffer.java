@@ -0,0 +1,458 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.PackedKeyEvent.NONE;
+import static org.diverproject.jni.input.PackedKeyEvent.REPEAT_MASK;
+import static org.diverproject.jni.input.PackedKeyEvent.REPEAT_UNIT;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <h1>Buffer Circular para Teclado</h1>
+ *
+ * <p>Buffer de capacidade fixa onde todas as posies so alocadas na sua construo.
+ * Projetado para apenas uma thread inserindo (gancho) e uma thread removendo (processador).
+ * Nenhuma operao utiliza sincronizao, apenas leituras e escritas atmicas ordenadas.</p>
+ *
+ * <p>As posies de leitura e escrita apenas crescem, o ndice no vetor  obtido por mscara.
+ * Cada lado mantm uma cpia local da posio do outro lado, evitando leituras volteis
+ * enquanto ainda houver espao para inserir ou eventos conhecidos para serem removidos.</p>
+ *
+ * <p>Um buffer descartvel permite que o produtor avance a posio de leitura para descartar
+ * o evento mais antigo, portanto o consumidor passa a avanar a posio de leitura atravs de
+ * uma operao compare-and-set, descartando o evento lido caso o produtor tenha avanado antes.</p>
+ *
+ * <p>Um buffer com agrupamento de repeties permite que o produtor some repeties aos dois ltimos
+ * eventos inseridos (pressionamento e digitao de uma mesma tecla) atravs de uma operao
+ * compare-and-set na prpria posio. O consumidor ento retira os eventos trocando a posio por
+ * <code>NONE</code>, de modo que o produtor nunca agrupa em um evento que j foi retirado.
+ * Um buffer no pode ser descartvel e agrupar repeties ao mesmo tempo.</p>
+ *
+ * @see KeyboardBuffer
+ * @see KeyboardConcurrentRingBuffer
+ *
+ * @author Andrew
+ */
+
+class KeyboardRingBuffer implements KeyboardBuffer
+{
+	/**
+	 * Capacidade mxima que um buffer pode possuir (potncia de dois).
+	 */
+	public static final int MAX_CAPACITY = 1 << 30;
+
+	/**
+	 * Vetor contendo as posies do buffer, alocadas uma nica vez.
+	 */
+	final AtomicLongArray events;
+
+	/**
+	 * Momento em que o evento de cada posio foi inserido, publicado junto do evento.
+	 */
+	final long timestamps[];
+
+	/**
+	 * Nmero de sequncia do evento de cada posio, publicado junto do evento.
+	 */
+	final long sequences[];
+
+	/**
+	 * Momento em que a ltima repetio agrupada em cada posio foi recebida, com duas entradas por posio
+	 * alternadas pela paridade da quantidade de repeties, para que uma repetio recusada pelo compare-and-set
+	 * no sobrescreva o momento da ltima repetio de fato agrupada.
+	 */
+	final long lastTimestamps[];
+
+	/**
+	 * Determina se o produtor pode descartar o evento mais antigo do buffer.
+	 */
+	final boolean discardable;
+
+	/**
+	 * Determina se o produtor pode agrupar repeties nos ltimos eventos inseridos.
+	 */
+	final boolean coalescing;
+
+	/**
+	 * Mscara usada para converter uma posio no ndice do vetor.
+	 */
+	final int mask;
+
+	/**
+	 * Posio do prximo evento a ser removido pelo consumidor.
+	 */
+	final AtomicLong head;
+
+	/**
+	 * Posio onde o prximo evento ser inserido pelo produtor.
+	 */
+	final AtomicLong tail;
+
+	/**
+	 * ltima posio de leitura conhecida pelo produtor.
+	 */
+	private long headCache;
+
+	/**
+	 * ltima posio de escrita conhecida pelo consumidor.
+	 */
+	private long tailCache;
+
+	/**
+	 * ltimo nmero de sequncia reservado pelo produtor.
+	 */
+	private long lastSequence;
+
+	/**
+	 * Posio do ltimo evento inserido pelo produtor ou -1 se no puder receber repeties.
+	 */
+	private long lastPosition;
+
+	/**
+	 * Valor do ltimo evento inserido, incluindo as repeties j agrupadas pelo produtor.
+	 */
+	private long lastEvent;
+
+	/**
+	 * Posio do penltimo evento inserido pelo produtor ou -1 se no puder receber repeties.
+	 */
+	private long previousPosition;
+
+	/**
+	 * Valor do penltimo evento inserido, incluindo as repeties j agrupadas pelo produtor.
+	 */
+	private long previousEvent;
+
+	/**
+	 * Momento em que o ltimo evento removido pelo consumidor foi inserido.
+	 */
+	long timestamp;
+
+	/**
+	 * Momento em que a ltima repetio do ltimo evento removido pelo consumidor foi recebida.
+	 */
+	long lastTimestamp;
+
+	/**
+	 * Nmero de sequncia do ltimo evento removido pelo consumidor.
+	 */
+	long sequence;
+
+	/**
+	 * Constri um novo buffer circular para teclado onde nenhum evento pode ser descartado.
+	 * @param capacity quantidade mnima de eventos que o buffer dever suportar,
+	 * ser arredondada para a prxima potncia de dois se necessrio.
+	 */
+
+	KeyboardRingBuffer(int capacity)
+	{
+		this(capacity, false);
+	}
+
+	/**
+	 * Constri um novo buffer circular para teclado sendo necessrio definir:
+	 * @param capacity quantidade mnima de eventos que o buffer dever suportar,
+	 * ser arredondada para a prxima potncia de dois se necessrio.
+	 * @param discardable true para permitir que o produtor descarte o evento mais antigo.
+	 */
+
+	KeyboardRingBuffer(int capacity, boolean discardable)
+	{
+		this(capacity, discardable, false);
+	}
+
+	/**
+	 * Constri um novo buffer circular para teclado sendo necessrio definir:
+	 * @param capacity quantidade mnima de eventos que o buffer dever suportar,
+	 * ser arredondada para a prxima potncia de dois se necessrio.
+	 * @param discardable true para permitir que o produtor descarte o evento mais antigo.
+	 * @param coalescing true para permitir que o produtor agrupe repeties nos ltimos eventos.
+	 */
+
+	KeyboardRingBuffer(int capacity, boolean discardable, boolean coalescing)
+	{
+		if (capacity < 1 || capacity > MAX_CAPACITY)
+			throw new InputRuntimeException("capacidade invlida para o buffer (capacity: %d)", capacity);
+
+		if (discardable && coalescing)
+			throw new InputRuntimeException("buffer no pode ser descartvel e agrupar repeties");
+
+		int size = 1;
+
+		while (size < capacity)
+			size <<= 1;
+
+		this.events = new AtomicLongArray(size);
+		this.timestamps = new long[size];
+		this.sequences = new long[size];
+		this.lastTimestamps = new long[size << 1];
+		this.discardable = discardable;
+		this.coalescing = coalescing;
+		this.mask = size - 1;
+		this.head = new AtomicLong();
+		this.tail = new AtomicLong();
+		this.lastPosition = -1;
+		this.previousPosition = -1;
+	}
+
+	@Override
+	public long nextSequence()
+	{
+		return ++lastSequence;
+	}
+
+	@Override
+	public boolean offer(long event, long sequence, long timestamp)
+	{
+		return offer(event, sequence, timestamp, timestamp);
+	}
+
+	/**
+	 * Insere um novo evento ao final do buffer j com o momento da ltima repetio agrupada,
+	 * usado para repassar eventos j retirados de outro buffer sem perder esse momento.
+	 * @param event valor contendo o evento de tecla compactado, nunca <code>NONE</code>.
+	 * @param sequence nmero de sequncia reservado para o evento.
+	 * @param timestamp momento em nanossegundos em que o evento foi inserido ou zero.
+	 * @param lastTimestamp momento em nanossegundos da ltima repetio agrupada ou zero.
+	 * @return true se tiver sido inserido ou false se o buffer estiver cheio.
+	 */
+
+	boolean offer(long event, long sequence, long timestamp, long lastTimestamp)
+	{
+		long position = tail.get();
+
+		if (position - headCache > mask)
+		{
+			headCache = head.get();
+
+			if (position - headCache > mask)
+				return false;
+		}
+
+		timestamps[(int) position & mask] = timestamp;
+		lastTimestamps[lastIndex((int) position & mask, event)] = lastTimestamp;
+		sequences[(int) position & mask] = sequence;
+		events.lazySet((int) position & mask, event);
+		tail.lazySet(position + 1);
+
+		if (coalescing)
+		{
+			previousPosition = lastPosition;
+			previousEvent = lastEvent;
+			lastPosition = position;
+			lastEvent = event;
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean discard()
+	{
+		if (!discardable)
+			return false;
+
+		long position = head.get();
+
+		if (tail.get() - position <= mask || !head.compareAndSet(position, position + 1))
+			return false;
+
+		headCache = position + 1;
+
+		return true;
+	}
+
+	@Override
+	public boolean fold(long event, long timestamp)
+	{
+		if (!coalescing || (event & REPEAT_MASK) != 0 || PackedKeyEvent.getType(event) == KT_RELEASED)
+			return false;
+
+		if (lastPosition >= 0 && (lastEvent & ~REPEAT_MASK) == event)
+		{
+			if (add(lastPosition, lastEvent, timestamp))
+			{
+				lastEvent += REPEAT_UNIT;
+				return true;
+			}
+
+			lastPosition = -1;
+			previousPosition = -1;
+		}
+
+		else if (previousPosition >= 0 && (previousEvent & ~REPEAT_MASK) == event && isPartner(lastEvent & ~REPEAT_MASK, event))
+		{
+			if (add(previousPosition, previousEvent, timestamp))
+			{
+				previousEvent += REPEAT_UNIT;
+				return true;
+			}
+
+			previousPosition = -1;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Soma uma repetio ao evento de uma posio caso ainda no tenha sido retirado pelo consumidor.
+	 * O momento  escrito antes da operao compare-and-set na entrada da paridade da nova quantidade de
+	 * repeties, que o consumidor s l se retirar o evento com essa quantidade, ou seja, se a repetio
+	 * tiver sido agrupada; caso contrrio a entrada da repetio anterior continua intacta.
+	 * @param position posio do evento que receber a repetio.
+	 * @param expected valor do evento na posio, incluindo as repeties j agrupadas.
+	 * @param timestamp momento em nanossegundos em que a repetio foi recebida ou zero.
+	 * @return true se a repetio tiver sido agrupada ou false se o evento j foi retirado
+	 * ou atingiu a quantidade mxima de repeties.
+	 */
+
+	private boolean add(long position, long expected, long timestamp)
+	{
+		if ((expected & REPEAT_MASK) == REPEAT_MASK)
+			return false;
+
+		int index = (int) position & mask;
+		lastTimestamps[lastIndex(index, expected + REPEAT_UNIT)] = timestamp;
+
+		return events.compareAndSet(index, expected, expected + REPEAT_UNIT);
+	}
+
+	/**
+	 * Obtm a entrada do momento da ltima repetio de uma posio conforme as repeties do evento.
+	 * @param index ndice da posio no buffer.
+	 * @param event valor do evento de tecla compactado, incluindo as repeties agrupadas.
+	 * @return aquisio do ndice da entrada conforme a paridade da quantidade de repeties.
+	 */
+
+	private static int lastIndex(int index, long event)
+	{
+		return index << 1 | ((event & REPEAT_UNIT) != 0 ? 1 : 0);
+	}
+
+	/**
+	 * Verifica se dois eventos so o pressionamento e a digitao de uma mesma repetio automtica.
+	 * @param first valor do evento de tecla compactado, sem repeties agrupadas.
+	 * @param second valor do evento de tecla compactado, sem repeties agrupadas.
+	 * @return true se forem da mesma tecla e propriedades, um pressionado e outro digitado.
+	 */
+
+	private static boolean isPartner(long first, long second)
+	{
+		int firstType = PackedKeyEvent.getType(first);
+		int secondType = PackedKeyEvent.getType(second);
+
+		return firstType != secondType && firstType != KT_RELEASED && secondType != KT_RELEASED &&
+				PackedKeyEvent.getVirtualKey(first) == PackedKeyEvent.getVirtualKey(second) &&
+				PackedKeyEvent.getKey(first) == PackedKeyEvent.getKey(second) &&
+				PackedKeyEvent.getProperties(first) == PackedKeyEvent.getProperties(second);
+	}
+
+	@Override
+	public long poll()
+	{
+		if (coalescing)
+			return take();
+
+		long position = head.get();
+
+		while (true)
+		{
+			if (position >= tailCache)
+			{
+				tailCache = tail.get();
+
+				if (position >= tailCache)
+					return NONE;
+			}
+
+			int index = (int) position & mask;
+			long event = events.get(index);
+			long timestamp = timestamps[index];
+			long lastTimestamp = lastTimestamps[lastIndex(index, event)];
+			long sequence = sequences[index];
+
+			if (!discardable)
+				head.lazySet(position + 1);
+
+			else if (!head.compareAndSet(position, position + 1))
+			{
+				position = head.get();
+				continue;
+			}
+
+			this.timestamp = timestamp;
+			this.lastTimestamp = lastTimestamp;
+			this.sequence = sequence;
+
+			return event;
+		}
+	}
+
+	/**
+	 * Remove o evento mais antigo de um buffer com agrupamento de repeties, trocando a posio
+	 * por <code>NONE</code> para que o produtor no agrupe mais repeties no evento retirado.
+	 * @return aquisio do evento removido ou <code>NONE</code> se no houver nenhum disponvel.
+	 */
+
+	private long take()
+	{
+		long position = head.get();
+
+		if (position >= tailCache)
+		{
+			tailCache = tail.get();
+
+			if (position >= tailCache)
+				return NONE;
+		}
+
+		int index = (int) position & mask;
+		long event = events.getAndSet(index, NONE);
+
+		timestamp = timestamps[index];
+		lastTimestamp = lastTimestamps[lastIndex(index, event)];
+		sequence = sequences[index];
+		head.lazySet(position + 1);
+
+		return event;
+	}
+
+	@Override
+	public long getTimestamp()
+	{
+		return timestamp;
+	}
+
+	@Override
+	public long getLastTimestamp()
+	{
+		return lastTimestamp;
+	}
+
+	@Override
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return head.get() >= tail.get();
+	}
+
+	@Override
+	public int size()
+	{
+		long size = tail.get() - head.get();
+
+		return size < 0 ? 0 : (int) size;
+	}
+
+	@Override
+	public int capacity()
+	{
+		return mask + 1;
+	}
+}
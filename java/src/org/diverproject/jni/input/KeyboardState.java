@@ -0,0 +1,245 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KP_ALTERNATIVE;
+import static org.diverproject.jni.input.KeyEvent.KP_CAPITAL;
+import static org.diverproject.jni.input.KeyEvent.KP_CONTROL;
+import static org.diverproject.jni.input.KeyEvent.KP_SHIFT;
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_MAX;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <h1>Estado do Teclado</h1>
+ *
+ * <p>Mantm quais teclas esto abaixadas no momento e as propriedades (modificadores) atuais,
+ * permitindo consultar o teclado a qualquer momento ao invs de tratar cada evento despachado.
+ *  atualizado pelo processador de teclado antes do despache de cada evento, portanto funciona
+ * mesmo que nenhum despachante tenha sido definido no sistema de entrada.</p>
+ *
+ * <p>As teclas so indexadas pelo cdigo no JNI (<code>EnumKEY</code>), um bit para cada tecla
+ * em palavras de um vetor atmico. Apenas a thread do processador altera as teclas abaixadas,
+ * atravs de escritas ordenadas, e qualquer thread pode consult-las sem bloqueios.</p>
+ *
+ * <p>Alm das teclas abaixadas, o processador acumula as teclas pressionadas e soltas desde o
+ * ltimo quadro. A cada atualizao do sistema de entrada esses acmulos so zerados e publicados
+ * em um quadro, junto das teclas abaixadas, de modo que um toque mais rpido que um quadro
+ * ainda  percebido como pressionado e solto nesse quadro. Repeties automticas de uma tecla
+ * que j est abaixada no so consideradas um novo pressionamento.</p>
+ *
+ * <p>So usados apenas dois quadros, alternados a cada atualizao, nenhum objeto  criado.
+ * O quadro obtido  vlido at a prxima atualizao, portanto deve ser consultado pela mesma
+ * thread que chama <code>InputSystem.update(long)</code>, normalmente a thread do jogo.</p>
+ *
+ * @see KeyboardFrame
+ * @see KeyboardProcessor
+ * @see InputSystem#getKeyboardState()
+ *
+ * @author Andrew
+ */
+
+public class KeyboardState
+{
+	/**
+	 * Quantidade de palavras necessrias para um bit de cada tecla.
+	 */
+	static final int WORDS = (KEY_MAX + 63) >>> 6;
+
+	/**
+	 * ndice da primeira palavra das teclas abaixadas.
+	 */
+	private static final int DOWN = 0;
+
+	/**
+	 * ndice da primeira palavra das teclas pressionadas desde o ltimo quadro.
+	 */
+	private static final int PRESSED = WORDS;
+
+	/**
+	 * ndice da primeira palavra das teclas soltas desde o ltimo quadro.
+	 */
+	private static final int RELEASED = WORDS * 2;
+
+	/**
+	 * ndice das propriedades atuais do teclado.
+	 */
+	private static final int PROPERTIES = WORDS * 3;
+
+
+	/**
+	 * Vetor contendo as teclas abaixadas, os acmulos do quadro e as propriedades.
+	 */
+	private final AtomicLongArray values;
+
+	/**
+	 * Quadros alternados a cada atualizao, apenas um deles  publicado por vez.
+	 */
+	private final KeyboardFrame frames[];
+
+	/**
+	 * ltimo quadro publicado pela atualizao do sistema de entrada.
+	 */
+	private volatile KeyboardFrame frame;
+
+	/**
+	 * Constri um novo estado do teclado sem nenhuma tecla abaixada.
+	 */
+
+	KeyboardState()
+	{
+		values = new AtomicLongArray(WORDS * 3 + 1);
+		frames = new KeyboardFrame[] { new KeyboardFrame(), new KeyboardFrame() };
+		frame = frames[0];
+	}
+
+	/**
+	 * Atualiza o estado conforme um evento retirado da fila, deve ser chamado apenas pelo processador.
+	 * Apenas eventos de tecla pressionada ou solta alteram as teclas abaixadas.
+	 * @param event valor contendo o evento de tecla compactado.
+	 */
+
+	void apply(long event)
+	{
+		int key = PackedKeyEvent.getKey(event);
+
+		values.lazySet(PROPERTIES, PackedKeyEvent.getProperties(event));
+
+		if (key <= 0 || key >= KEY_MAX)
+			return;
+
+		int word = key >>> 6;
+		long bit = 1L << key;
+		long down = values.get(DOWN + word);
+
+		switch (PackedKeyEvent.getType(event))
+		{
+			case KT_PRESSED:
+				if ((down & bit) == 0)
+				{
+					values.lazySet(DOWN + word, down | bit);
+					or(PRESSED + word, bit);
+				}
+				break;
+
+			case KT_RELEASED:
+				if ((down & bit) != 0)
+				{
+					values.lazySet(DOWN + word, down & ~bit);
+					or(RELEASED + word, bit);
+				}
+				break;
+		}
+	}
+
+	/**
+	 * Acumula um bit em uma das palavras zeradas a cada quadro pela thread da atualizao.
+	 * @param index ndice da palavra no vetor de valores.
+	 * @param bit bit da tecla que ser acumulado.
+	 */
+
+	private void or(int index, long bit)
+	{
+		long value;
+
+		do {
+			value = values.get(index);
+		} while (!values.compareAndSet(index, value, value | bit));
+	}
+
+	/**
+	 * Publica um novo quadro com as teclas abaixadas e as pressionadas e soltas desde o ltimo quadro.
+	 * Deve ser chamado sempre pela mesma thread, atravs da atualizao do sistema de entrada.
+	 * @param delay tempo desde a ltima atualizao informado ao sistema de entrada.
+	 * @return aquisio do quadro publicado, vlido at a prxima atualizao.
+	 */
+
+	KeyboardFrame update(long delay)
+	{
+		KeyboardFrame previous = frame;
+		KeyboardFrame next = frames[previous == frames[0] ? 1 : 0];
+
+		for (int i = 0; i < WORDS; i++)
+		{
+			next.down[i] = values.get(DOWN + i);
+			next.pressed[i] = values.getAndSet(PRESSED + i, 0);
+			next.released[i] = values.getAndSet(RELEASED + i, 0);
+		}
+
+		next.set(previous.getNumber() + 1, System.nanoTime(), delay, (int) values.get(PROPERTIES));
+		frame = next;
+
+		return next;
+	}
+
+	/**
+	 * Consulta o estado atual da tecla, independente dos quadros publicados.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @return true se a tecla estiver abaixada ou false se estiver solta ou no for vlida.
+	 */
+
+	public boolean isDown(int key)
+	{
+		return key > 0 && key < KEY_MAX && (values.get(DOWN + (key >>> 6)) & 1L << key) != 0;
+	}
+
+	/**
+	 * As propriedades so as mesmas do ltimo evento de tecla retirado da fila (<code>KP</code>).
+	 * @return aquisio das propriedades atuais do teclado.
+	 */
+
+	public int getProperties()
+	{
+		return (int) values.get(PROPERTIES);
+	}
+
+	/**
+	 * Deve verificar se h uma tecla ALT abaixada no momento independente do lado.
+	 * @return true se houver qualquer uma das duas teclas ALT abaixadas.
+	 */
+
+	public boolean hasAlt()
+	{
+		return (getProperties() & KP_ALTERNATIVE) != 0;
+	}
+
+	/**
+	 * Deve verificar se h uma tecla CTRL abaixada no momento independente do lado.
+	 * @return true se houver qualquer uma das duas teclas CTRL abaixadas.
+	 */
+
+	public boolean hasCtrl()
+	{
+		return (getProperties() & KP_CONTROL) != 0;
+	}
+
+	/**
+	 * Deve verificar se h uma tecla SHIFT abaixada no momento independente do lado.
+	 * @return true se houver qualquer uma das duas teclas SHIFT abaixadas.
+	 */
+
+	public boolean hasShift()
+	{
+		return (getProperties() & KP_SHIFT) != 0;
+	}
+
+	/**
+	 * Deve verificar se o Caps Lock est ativado no momento.
+	 * @return true se o Caps Lock estiver ativado ou false caso contrrio.
+	 */
+
+	public boolean hasCapital()
+	{
+		return (getProperties() & KP_CAPITAL) != 0;
+	}
+
+	/**
+	 * O quadro  publicado a cada atualizao do sistema de entrada e no se altera at a prxima.
+	 * @return aquisio do ltimo quadro publicado, nunca null.
+	 */
+
+	public KeyboardFrame getFrame()
+	{
+		return frame;
+	}
+}
@@ -0,0 +1,355 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.enums.EnumKEY.KEY_MAX;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <h1>Pgina de Estado do Teclado</h1>
+ *
+ * <p>Espelha as teclas abaixadas e as propriedades (modificadores) atuais do teclado em uma pgina de
+ * um arquivo mapeado em memria, para que outros processos do mesmo computador consultem o estado do
+ * teclado atravs de <code>KeyboardStatePageReader</code>, sem receber e tratar cada evento. til para
+ * processos que precisam apenas do estado atual, como uma sobreposio que exibe as teclas abaixadas.</p>
+ *
+ * <p>A pgina  atualizada pelo processador de teclado a cada evento retirado da fila que altere as teclas
+ * abaixadas ou as propriedades, mesmo que o estado do teclado do sistema de entrada no seja mantido.
+ * Repeties de uma tecla que j est abaixada no alteram a pgina.</p>
+ *
+ * <p>O estado  protegido por um contador de verso (seqlock), que fica mpar enquanto o estado 
+ * alterado e volta a ser par aps a alterao. Um leitor que encontre o contador mpar ou alterado
+ * durante a leitura apenas l o estado novamente. O contador, as propriedades, o momento da alterao
+ * e as teclas abaixadas ficam na mesma linha de cache, portanto uma leitura consistente so poucas
+ * leituras da memria, sem bloqueios nem chamadas ao sistema operacional em nenhum dos lados.</p>
+ *
+ * <p>O arquivo  bloqueado enquanto a pgina estiver aberta, impedindo um segundo publicador. As teclas
+ * so soltas na pgina ao abrir e ao fechar, para que os leitores no mantenham teclas abaixadas de um
+ * publicador que j no existe, o que s acontece se o processo for encerrado sem fechar a pgina.</p>
+ *
+ * @see KeyboardStatePageReader
+ * @see KeyboardState
+ *
+ * @author Andrew
+ */
+
+public class KeyboardStatePage
+{
+	/**
+	 * Identificao de um arquivo de pgina de estado do teclado ("JIKS").
+	 */
+	public static final int MAGIC = 0x4A494B53;
+
+	/**
+	 * Verso atual do formato do arquivo de pgina de estado do teclado.
+	 */
+	public static final short VERSION = 1;
+
+	/**
+	 * Tamanho do arquivo, uma pgina de memria.
+	 */
+	public static final int PAGE_SIZE = 4096;
+
+	/**
+	 * Posio no cabealho da quantidade de palavras das teclas abaixadas.
+	 */
+	static final int WORDS_OFFSET = 6;
+
+	/**
+	 * Posio do contador de verso, par quando o estado estiver consistente.
+	 */
+	static final int SEQUENCE_OFFSET = 64;
+
+	/**
+	 * Posio das propriedades atuais do teclado (<code>KP</code>).
+	 */
+	static final int PROPERTIES_OFFSET = 72;
+
+	/**
+	 * Posio do momento em nanossegundos do recebimento do evento que alterou o estado.
+	 */
+	static final int TIMESTAMP_OFFSET = 80;
+
+	/**
+	 * Posio da primeira palavra das teclas abaixadas, um bit para cada tecla.
+	 */
+	static final int DOWN_OFFSET = 88;
+
+	/**
+	 * Quantidade mxima de palavras das teclas abaixadas que cabem na pgina.
+	 */
+	static final int MAX_WORDS = (PAGE_SIZE - DOWN_OFFSET) / 8;
+
+
+	/**
+	 * Arquivo onde o estado do teclado ser espelhado.
+	 */
+	private final File file;
+
+	/**
+	 * Teclas abaixadas atualmente espelhadas na pgina, um bit para cada tecla.
+	 */
+	private final long down[];
+
+	/**
+	 * Propriedades atualmente espelhadas na pgina.
+	 */
+	private int properties;
+
+	/**
+	 * Canal do arquivo, mantido aberto para manter o bloqueio do publicador.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Bloqueio do arquivo, obtido na abertura e liberado ao fechar a pgina.
+	 */
+	private FileLock lock;
+
+	/**
+	 * Arquivo mapeado em memria ou null se a pgina estiver fechada.
+	 */
+	private volatile MappedByteBuffer mapped;
+
+	/**
+	 * Valor atual do contador de verso da pgina.
+	 */
+	private volatile long sequence;
+
+	/**
+	 * Constri uma nova pgina de estado do teclado sendo necessrio definir:
+	 * @param file arquivo onde o estado do teclado ser espelhado.
+	 */
+
+	public KeyboardStatePage(File file)
+	{
+		this.file = file;
+		this.down = new long[KeyboardState.WORDS];
+	}
+
+	/**
+	 * Abre a pgina bloqueando e mapeando o arquivo, criado caso ainda no exista, com todas as teclas soltas.
+	 * Um arquivo com o mesmo formato continua a partir do seu contador de verso, para os leitores j abertos.
+	 * @throws InputException se j estiver aberta, o arquivo estiver bloqueado por outro publicador
+	 * ou no puder ser criado e mapeado.
+	 */
+
+	public synchronized void open() throws InputException
+	{
+		if (mapped != null)
+			throw new InputException("pgina de estado do teclado j aberta (file: %s)", file);
+
+		try {
+
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			lock = channel.tryLock();
+
+		} catch (OverlappingFileLockException e) {
+			lock = null;
+		} catch (IOException e) {
+			close();
+			throw new InputException(e, "falha ao abrir pgina de estado do teclado (file: %s)", file);
+		}
+
+		if (lock == null)
+		{
+			close();
+			throw new InputException("pgina de estado do teclado em uso por outro publicador (file: %s)", file);
+		}
+
+		MappedByteBuffer mapped;
+
+		try {
+			mapped = channel.map(MapMode.READ_WRITE, 0, PAGE_SIZE);
+		} catch (IOException e) {
+			close();
+			throw new InputException(e, "falha ao abrir pgina de estado do teclado (file: %s)", file);
+		}
+
+		boolean valid = isValid(mapped) && mapped.getShort(WORDS_OFFSET) == down.length;
+
+		sequence = valid ? (mapped.getLong(SEQUENCE_OFFSET) + 1) & ~1L : 0;
+		properties = 0;
+
+		for (int i = 0; i < down.length; i++)
+			down[i] = 0;
+
+		write(mapped, -1, System.nanoTime());
+
+		if (!valid)
+		{
+			mapped.putLong(16, System.currentTimeMillis());
+			mapped.putShort(WORDS_OFFSET, (short) down.length);
+			mapped.putShort(4, VERSION);
+			mapped.putInt(0, MAGIC);
+		}
+
+		this.mapped = mapped;
+	}
+
+	/**
+	 * Fecha a pgina liberando o bloqueio do arquivo, as teclas so soltas na pgina antes de fechar.
+	 * Deve ser chamado apenas aps o processador de teclado ter sido encerrado.
+	 */
+
+	public synchronized void close()
+	{
+		MappedByteBuffer mapped = this.mapped;
+
+		if (mapped != null)
+		{
+			this.mapped = null;
+
+			properties = 0;
+
+			for (int i = 0; i < down.length; i++)
+				down[i] = 0;
+
+			write(mapped, -1, System.nanoTime());
+		}
+
+		lock = null;
+
+		if (channel != null)
+		{
+			try {
+				channel.close();
+			} catch (IOException e) {
+			}
+
+			channel = null;
+		}
+	}
+
+	/**
+	 * Atualiza a pgina conforme um evento retirado da fila, deve ser chamado apenas pelo processador.
+	 * A pgina s  escrita se o evento alterar as teclas abaixadas ou as propriedades.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @param timestamp momento em nanossegundos em que o evento foi recebido.
+	 */
+
+	void apply(long event, long timestamp)
+	{
+		MappedByteBuffer mapped = this.mapped;
+
+		if (mapped == null)
+			return;
+
+		int key = PackedKeyEvent.getKey(event);
+		int properties = PackedKeyEvent.getProperties(event);
+		int word = -1;
+
+		if (key > 0 && key < KEY_MAX)
+		{
+			long bit = 1L << key;
+			long value = down[key >>> 6];
+
+			switch (PackedKeyEvent.getType(event))
+			{
+				case KT_PRESSED:
+					value |= bit;
+					break;
+
+				case KT_RELEASED:
+					value &= ~bit;
+					break;
+			}
+
+			if (value != down[key >>> 6])
+			{
+				word = key >>> 6;
+				down[word] = value;
+			}
+		}
+
+		if (word == -1 && properties == this.properties)
+			return;
+
+		this.properties = properties;
+
+		write(mapped, word, timestamp);
+	}
+
+	/**
+	 * Escreve o estado espelhado na pgina entre as duas alteraes do contador de verso.
+	 * @param mapped arquivo mapeado em memria.
+	 * @param word ndice da nica palavra alterada das teclas abaixadas ou -1 para escrever todas.
+	 * @param timestamp momento em nanossegundos do recebimento do evento que alterou o estado.
+	 */
+
+	private void write(MappedByteBuffer mapped, int word, long timestamp)
+	{
+		long sequence = this.sequence;
+
+		mapped.putLong(SEQUENCE_OFFSET, sequence + 1);
+		MemoryFence.store();
+		mapped.putInt(PROPERTIES_OFFSET, properties);
+		mapped.putLong(TIMESTAMP_OFFSET, timestamp);
+
+		if (word != -1)
+			mapped.putLong(DOWN_OFFSET + word * 8, down[word]);
+
+		else
+			for (int i = 0; i < down.length; i++)
+				mapped.putLong(DOWN_OFFSET + i * 8, down[i]);
+
+		MemoryFence.store();
+		mapped.putLong(SEQUENCE_OFFSET, sequence + 2);
+
+		this.sequence = sequence + 2;
+	}
+
+	/**
+	 * Verifica se o cabealho de um arquivo mapeado  de uma pgina de estado do teclado na verso atual.
+	 * @param mapped arquivo mapeado em memria, com pelo menos o tamanho de uma pgina.
+	 * @return true se a identificao, a verso e a quantidade de palavras forem vlidas.
+	 */
+
+	static boolean isValid(MappedByteBuffer mapped)
+	{
+		if (mapped.capacity() < PAGE_SIZE || mapped.getInt(0) != MAGIC || mapped.getShort(4) != VERSION)
+			return false;
+
+		int words = mapped.getShort(WORDS_OFFSET);
+
+		return words > 0 && words <= MAX_WORDS;
+	}
+
+	/**
+	 * O arquivo pode ser lido por qualquer quantidade de processos atravs de <code>KeyboardStatePageReader</code>.
+	 * @return aquisio do arquivo onde o estado do teclado  espelhado.
+	 */
+
+	public File getFile()
+	{
+		return file;
+	}
+
+	/**
+	 * A verso  incrementada a cada alterao do estado e continua do arquivo existente ao abrir.
+	 * @return aquisio da quantidade de alteraes do estado espelhado na pgina.
+	 */
+
+	public long getVersion()
+	{
+		return sequence >>> 1;
+	}
+
+	/**
+	 * A pgina s  atualizada enquanto estiver aberta.
+	 * @return true se a pgina estiver aberta ou false caso contrrio.
+	 */
+
+	public boolean isOpen()
+	{
+		return mapped != null;
+	}
+}
@@ -0,0 +1,315 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KP_ALTERNATIVE;
+import static org.diverproject.jni.input.KeyEvent.KP_CAPITAL;
+import static org.diverproject.jni.input.KeyEvent.KP_CONTROL;
+import static org.diverproject.jni.input.KeyEvent.KP_SHIFT;
+import static org.diverproject.jni.input.KeyboardStatePage.DOWN_OFFSET;
+import static org.diverproject.jni.input.KeyboardStatePage.PAGE_SIZE;
+import static org.diverproject.jni.input.KeyboardStatePage.PROPERTIES_OFFSET;
+import static org.diverproject.jni.input.KeyboardStatePage.SEQUENCE_OFFSET;
+import static org.diverproject.jni.input.KeyboardStatePage.TIMESTAMP_OFFSET;
+import static org.diverproject.jni.input.KeyboardStatePage.WORDS_OFFSET;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <h1>Leitor de Pgina de Estado do Teclado</h1>
+ *
+ * <p>Consulta o estado do teclado espelhado por outro processo em uma pgina de estado do teclado,
+ * sem receber nenhum evento. A pgina  mapeada em memria somente para leitura e copiada para o
+ * leitor a cada <code>refresh()</code>, que compara apenas o contador de verso quando o estado no
+ * tiver sido alterado, portanto pode ser chamado a cada quadro sem custo.</p>
+ *
+ * <p>A cpia  feita entre duas leituras do contador de verso e repetida enquanto o contador estiver
+ * mpar ou for diferente entre as leituras, de modo que as teclas abaixadas e as propriedades obtidas
+ * sempre pertencem  mesma alterao do estado. Se o publicador for interrompido pelo sistema durante
+ * uma alterao, o leitor cede o processador aps algumas repeties ao invs de ocup-lo at o fim da
+ * sua vez, e desiste da cpia aps uma quantidade mxima de repeties, j que o contador fica mpar
+ * para sempre se o processo do publicador for encerrado durante uma alterao. Nenhuma escrita  feita
+ * na pgina, a quantidade de leitores no altera o custo do publicador.</p>
+ *
+ * <p>As consultas usam apenas a ltima cpia e no so sincronizadas, o leitor deve ser usado por uma
+ * nica thread, ou um leitor para cada thread.</p>
+ *
+ * @see KeyboardStatePage
+ *
+ * @author Andrew
+ */
+
+public class KeyboardStatePageReader
+{
+	/**
+	 * Quantidade de cpias repetidas seguidas antes de ceder o processador ao publicador.
+	 */
+	private static final int SPINS = 64;
+
+	/**
+	 * Quantidade mxima de cpias repetidas em um nico <code>refresh()</code>.
+	 */
+	private static final int MAX_ATTEMPTS = 1024;
+
+
+	/**
+	 * Arquivo da pgina de estado do teclado que ser consultado.
+	 */
+	private final File file;
+
+	/**
+	 * Arquivo mapeado em memria ou null se o leitor estiver fechado.
+	 */
+	private MappedByteBuffer mapped;
+
+	/**
+	 * Teclas abaixadas na ltima cpia, um bit para cada tecla.
+	 */
+	private long down[];
+
+	/**
+	 * Propriedades do teclado na ltima cpia (<code>KP</code>).
+	 */
+	private int properties;
+
+	/**
+	 * Momento em nanossegundos do recebimento do evento da ltima cpia.
+	 */
+	private long timestamp;
+
+	/**
+	 * Contador de verso da pgina na ltima cpia.
+	 */
+	private long sequence;
+
+	/**
+	 * Quantidade de cpias repetidas por terem encontrado o estado sendo alterado.
+	 */
+	private long retries;
+
+	/**
+	 * Constri um novo leitor de pgina de estado do teclado sendo necessrio definir:
+	 * @param file arquivo da pgina de estado do teclado que ser consultado.
+	 */
+
+	public KeyboardStatePageReader(File file)
+	{
+		this.file = file;
+		this.down = new long[0];
+	}
+
+	/**
+	 * Abre o leitor mapeando o arquivo da pgina e faz a primeira cpia do estado.
+	 * @throws InputException se j estiver aberto ou o arquivo no puder ser lido ou no for uma pgina vlida.
+	 */
+
+	public void open() throws InputException
+	{
+		if (mapped != null)
+			throw new InputException("leitor de estado do teclado j aberto (file: %s)", file);
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			if (channel.size() < PAGE_SIZE)
+				throw new InputException("pgina de estado do teclado invlida (file: %s)", file);
+
+			MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, 0, PAGE_SIZE);
+
+			if (!KeyboardStatePage.isValid(mapped))
+				throw new InputException("pgina de estado do teclado invlida (file: %s)", file);
+
+			this.mapped = mapped;
+			this.down = new long[mapped.getShort(WORDS_OFFSET)];
+			this.sequence = -1;
+
+		} catch (IOException e) {
+			throw new InputException(e, "falha ao abrir pgina de estado do teclado (file: %s)", file);
+		}
+
+		refresh();
+	}
+
+	/**
+	 * Fecha o leitor, a ltima cpia do estado continua disponvel para consulta.
+	 */
+
+	public void close()
+	{
+		mapped = null;
+	}
+
+	/**
+	 * Copia o estado atual da pgina caso tenha sido alterado desde a ltima cpia. Se o estado continuar
+	 * sendo alterado aps algumas repeties, como quando o publicador foi encerrado durante uma alterao,
+	 * a ltima cpia  mantida e o chamador deve tentar novamente mais tarde, por exemplo no prximo quadro.
+	 * @return true se o estado tiver sido alterado e copiado ou false se no foi alterado ou no pde ser copiado.
+	 */
+
+	public boolean refresh()
+	{
+		MappedByteBuffer mapped = this.mapped;
+
+		if (mapped == null || mapped.getLong(SEQUENCE_OFFSET) == sequence)
+			return false;
+
+		for (int attempts = 1; attempts <= MAX_ATTEMPTS; attempts++)
+		{
+			long sequence = mapped.getLong(SEQUENCE_OFFSET);
+			MemoryFence.load();
+
+			if ((sequence & 1) == 0)
+			{
+				int properties = mapped.getInt(PROPERTIES_OFFSET);
+				long timestamp = mapped.getLong(TIMESTAMP_OFFSET);
+
+				for (int i = 0; i < down.length; i++)
+					down[i] = mapped.getLong(DOWN_OFFSET + i * 8);
+
+				MemoryFence.load();
+
+				if (mapped.getLong(SEQUENCE_OFFSET) == sequence)
+				{
+					this.sequence = sequence;
+					this.properties = properties;
+					this.timestamp = timestamp;
+
+					return true;
+				}
+			}
+
+			retries++;
+
+			if (attempts >= SPINS)
+				Thread.yield();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Consulta o estado da tecla na ltima cpia do estado.
+	 * @param key cdigo da tecla no JNI (<code>EnumKEY</code>).
+	 * @return true se a tecla estiver abaixada ou false se estiver solta ou no for vlida.
+	 */
+
+	public boolean isDown(int key)
+	{
+		return key > 0 && key < down.length << 6 && (down[key >>> 6] & 1L << key) != 0;
+	}
+
+	/**
+	 * Procura a prxima tecla abaixada na ltima cpia, usado para percorrer as teclas abaixadas.
+	 * @param key cdigo da tecla no JNI a partir do qual ser procurado, inclusive.
+	 * @return aquisio do cdigo da prxima tecla abaixada ou -1 se no houver.
+	 */
+
+	public int nextDown(int key)
+	{
+		if (key < 0)
+			key = 0;
+
+		for (int word = key >>> 6; word < down.length; word++)
+		{
+			long bits = word == key >>> 6 ? down[word] & -1L << key : down[word];
+
+			if (bits != 0)
+				return (word << 6) + Long.numberOfTrailingZeros(bits);
+		}
+
+		return -1;
+	}
+
+	/**
+	 * As propriedades so as do ltimo evento que alterou o estado na pgina (<code>KP</code>).
+	 * @return aquisio das propriedades do teclado na ltima cpia.
+	 */
+
+	public int getProperties()
+	{
+		return properties;
+	}
+
+	/**
+	 * Deve verificar se havia uma tecla ALT abaixada na ltima cpia independente do lado.
+	 * @return true se houver qualquer uma das duas teclas ALT abaixadas.
+	 */
+
+	public boolean hasAlt()
+	{
+		return (properties & KP_ALTERNATIVE) != 0;
+	}
+
+	/**
+	 * Deve verificar se havia uma tecla CTRL abaixada na ltima cpia independente do lado.
+	 * @return true se houver qualquer uma das duas teclas CTRL abaixadas.
+	 */
+
+	public boolean hasCtrl()
+	{
+		return (properties & KP_CONTROL) != 0;
+	}
+
+	/**
+	 * Deve verificar se havia uma tecla SHIFT abaixada na ltima cpia independente do lado.
+	 * @return true se houver qualquer uma das duas teclas SHIFT abaixadas.
+	 */
+
+	public boolean hasShift()
+	{
+		return (properties & KP_SHIFT) != 0;
+	}
+
+	/**
+	 * Deve verificar se o Caps Lock estava ativado na ltima cpia.
+	 * @return true se o Caps Lock estiver ativado ou false caso contrrio.
+	 */
+
+	public boolean hasCapital()
+	{
+		return (properties & KP_CAPITAL) != 0;
+	}
+
+	/**
+	 * O momento  o do recebimento pelo publicador, comparvel com <code>System.nanoTime()</code>
+	 * apenas em sistemas onde o relgio monotnico  compartilhado entre os processos.
+	 * @return aquisio do momento em nanossegundos do recebimento do evento da ltima cpia.
+	 */
+
+	public long getTimestamp()
+	{
+		return timestamp;
+	}
+
+	/**
+	 * A verso  incrementada pelo publicador a cada alterao do estado.
+	 * @return aquisio da verso do estado na ltima cpia.
+	 */
+
+	public long getVersion()
+	{
+		return sequence >>> 1;
+	}
+
+	/**
+	 * Cpias so repetidas apenas quando o publicador altera o estado durante a cpia.
+	 * @return aquisio da quantidade de cpias repetidas desde a criao do leitor.
+	 */
+
+	public long getRetries()
+	{
+		return retries;
+	}
+
+	/**
+	 * O leitor s copia o estado da pgina enquanto estiver aberto.
+	 * @return true se o leitor estiver aberto ou false caso contrrio.
+	 */
+
+	public boolean isOpen()
+	{
+		return mapped != null;
+	}
+}
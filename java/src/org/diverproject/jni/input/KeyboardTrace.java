@@ -0,0 +1,172 @@
+package org.diverproject.jni.input;
+
+import org.diverproject.util.ObjectDescription;
+
+/**
+ * <h1>Rastro de Evento de Teclado</h1>
+ *
+ * <p>Cpia imutvel dos momentos registrados para um evento de teclado amostrado pelo rastreador,
+ * desde o seu recebimento pelo apanhador at o retorno de cada despachante. Permite identificar
+ * se a latncia de uma entrada est na fila de espera ou em um dos despachantes.</p>
+ *
+ * <p>Todos os momentos so obtidos por <code>System.nanoTime()</code>, portanto s podem ser
+ * comparados entre si e com outros momentos do mesmo processo. Momentos iguais a zero indicam
+ * que a etapa ainda no ocorreu ou que o despachante no estava definido.</p>
+ *
+ * @see KeyboardTracer
+ * @see InputSystem#getKeyboardTraces()
+ *
+ * @author Andrew
+ */
+
+public final class KeyboardTrace
+{
+	/**
+	 * Nmero de sequncia do evento rastreado.
+	 */
+	private final long sequence;
+
+	/**
+	 * Valor do evento de tecla compactado.
+	 */
+	private final long event;
+
+	/**
+	 * Momento em nanossegundos em que o evento foi recebido pelo apanhador.
+	 */
+	private final long receivedTime;
+
+	/**
+	 * Momento em nanossegundos em que o evento foi retirado da fila de espera.
+	 */
+	private final long dequeuedTime;
+
+	/**
+	 * Momento em nanossegundos em que o despachante compactado retornou ou zero.
+	 */
+	private final long packedTime;
+
+	/**
+	 * Momento em nanossegundos em que o despachante para teclado retornou ou zero.
+	 */
+	private final long keyboardTime;
+
+	/**
+	 * Constri um novo rastro de evento, usado apenas pelo rastreador de teclado.
+	 * @param sequence nmero de sequncia do evento rastreado.
+	 * @param event valor do evento de tecla compactado.
+	 * @param receivedTime momento em nanossegundos em que o evento foi recebido.
+	 * @param dequeuedTime momento em nanossegundos em que o evento foi retirado da fila.
+	 * @param packedTime momento em nanossegundos em que o despachante compactado retornou ou zero.
+	 * @param keyboardTime momento em nanossegundos em que o despachante para teclado retornou ou zero.
+	 */
+
+	KeyboardTrace(long sequence, long event, long receivedTime, long dequeuedTime, long packedTime, long keyboardTime)
+	{
+		this.sequence = sequence;
+		this.event = event;
+		this.receivedTime = receivedTime;
+		this.dequeuedTime = dequeuedTime;
+		this.packedTime = packedTime;
+		this.keyboardTime = keyboardTime;
+	}
+
+	/**
+	 * Lacunas entre os rastros se devem  amostragem e aos eventos descartados.
+	 * @return aquisio do nmero de sequncia do evento rastreado.
+	 */
+
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+	/**
+	 * O evento deve ser lido atravs de <code>PackedKeyEvent</code>.
+	 * @return aquisio do valor do evento de tecla compactado.
+	 */
+
+	public long getEvent()
+	{
+		return event;
+	}
+
+	/**
+	 * Para repeties agrupadas  o momento em que a primeira repetio foi recebida.
+	 * @return aquisio do momento em nanossegundos em que o evento foi recebido pelo apanhador.
+	 */
+
+	public long getReceivedTime()
+	{
+		return receivedTime;
+	}
+
+	/**
+	 * No modo de despache por caixas de mensagens  a retirada da fila de espera do processador.
+	 * @return aquisio do momento em nanossegundos em que o evento foi retirado da fila de espera.
+	 */
+
+	public long getDequeuedTime()
+	{
+		return dequeuedTime;
+	}
+
+	/**
+	 * Eventos despachados em lote recebem o momento em que o lote inteiro retornou.
+	 * @return aquisio do momento em nanossegundos em que o despachante compactado retornou ou zero.
+	 */
+
+	public long getPackedTime()
+	{
+		return packedTime;
+	}
+
+	/**
+	 * Eventos despachados em lote recebem o momento em que o lote inteiro retornou.
+	 * @return aquisio do momento em nanossegundos em que o despachante para teclado retornou ou zero.
+	 */
+
+	public long getKeyboardTime()
+	{
+		return keyboardTime;
+	}
+
+	/**
+	 * Tempo em que o evento aguardou na fila de espera at ser retirado pelo processador.
+	 * @return aquisio da latncia da fila de espera em nanossegundos ou zero se no foi retirado.
+	 */
+
+	public long getQueueLatency()
+	{
+		return dequeuedTime == 0 ? 0 : dequeuedTime - receivedTime;
+	}
+
+	/**
+	 * Tempo entre o recebimento do evento e o retorno do ltimo despachante que o recebeu,
+	 * ou seja, a latncia entre a entrada e a ao correspondente no despachante.
+	 * @return aquisio da latncia total em nanossegundos ou zero se ainda no foi despachado.
+	 */
+
+	public long getLatency()
+	{
+		long end = Math.max(packedTime, keyboardTime);
+
+		return end == 0 ? 0 : end - receivedTime;
+	}
+
+	@Override
+	public String toString()
+	{
+		ObjectDescription description = new ObjectDescription(getClass());
+
+		description.append("sequence", sequence);
+		description.append("key", PackedKeyEvent.getKey(event));
+		description.append("type", PackedKeyEvent.getType(event));
+		description.append("queueLatency", getQueueLatency());
+		description.append("packedLatency", packedTime == 0 ? 0 : packedTime - receivedTime);
+		description.append("keyboardLatency", keyboardTime == 0 ? 0 : keyboardTime - receivedTime);
+		description.append("latency", getLatency());
+
+		return description.toString();
+	}
+}
@@ -0,0 +1,216 @@
+package org.diverproject.jni.input;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <h1>Rastreador para Teclado</h1>
+ *
+ * <p>Registra os momentos do caminho de uma amostra dos eventos de teclado: recebimento pelo apanhador,
+ * retirada da fila de espera e retorno de cada despachante. Um evento  amostrado quando o seu nmero
+ * de sequncia  mltiplo da taxa de amostragem, assim qualquer thread encontra a posio do rastro
+ * de um evento apenas pelo seu nmero de sequncia, sem nenhuma informao adicional.</p>
+ *
+ * <p>Os rastros ficam em um vetor circular de capacidade fixa, alocado na construo, onde os mais
+ * antigos so sobrescritos. Cada posio  invalidada antes de ser reutilizada e publicada aps
+ * todos os momentos serem escritos, de modo que uma leitura que encontre a posio sendo escrita
+ *  descartada. Nenhum objeto  criado ao registrar um momento, apenas ao obter os rastros.</p>
+ *
+ * @see KeyboardTrace
+ * @see KeyboardProcessor
+ *
+ * @author Andrew
+ */
+
+class KeyboardTracer
+{
+	/**
+	 * Quantidade de rastros mantidos, os mais antigos so sobrescritos.
+	 */
+	static final int CAPACITY = 1024;
+
+	/**
+	 * Deslocamento do nmero de sequncia na posio de um rastro, zero se estiver vazia.
+	 */
+	private static final int SEQUENCE = 0;
+
+	/**
+	 * Deslocamento do evento de tecla compactado na posio de um rastro.
+	 */
+	private static final int EVENT = 1;
+
+	/**
+	 * Deslocamento do momento de recebimento na posio de um rastro.
+	 */
+	private static final int RECEIVED = 2;
+
+	/**
+	 * Deslocamento do momento de retirada da fila na posio de um rastro.
+	 */
+	private static final int DEQUEUED = 3;
+
+	/**
+	 * Deslocamento do momento de retorno do despachante compactado na posio de um rastro.
+	 */
+	private static final int PACKED = 4;
+
+	/**
+	 * Deslocamento do momento de retorno do despachante para teclado na posio de um rastro.
+	 */
+	private static final int KEYBOARD = 5;
+
+	/**
+	 * Quantidade de valores em cada posio de rastro.
+	 */
+	private static final int FIELDS = 6;
+
+
+	/**
+	 * Vetor contendo os valores de todas as posies de rastro.
+	 */
+	private final AtomicLongArray values;
+
+	/**
+	 * Quantidade de nmeros de sequncia para cada evento amostrado.
+	 */
+	private final int sampling;
+
+	/**
+	 * Constri um novo rastreador com todas as posies vazias sendo necessrio definir:
+	 * @param sampling quantidade de nmeros de sequncia para cada evento amostrado,
+	 * sendo 1 para rastrear todos os eventos.
+	 */
+
+	KeyboardTracer(int sampling)
+	{
+		if (sampling < 1)
+			throw new InputRuntimeException("taxa de amostragem invlida (sampling: %d)", sampling);
+
+		this.values = new AtomicLongArray(CAPACITY * FIELDS);
+		this.sampling = sampling;
+	}
+
+	/**
+	 * Obtm a posio do rastro de um evento amostrado no vetor de valores.
+	 * @param sequence nmero de sequncia do evento amostrado.
+	 * @return aquisio do ndice do primeiro valor da posio do rastro.
+	 */
+
+	private int base(long sequence)
+	{
+		return (int) (sequence / sampling & (CAPACITY - 1)) * FIELDS;
+	}
+
+	/**
+	 * Inicia o rastro de um evento retirado da fila de espera caso seja amostrado.
+	 * Deve ser chamado apenas pela thread do processador para teclado.
+	 * @param sequence nmero de sequncia do evento.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @param received momento em nanossegundos em que o evento foi recebido.
+	 * @param dequeued momento em nanossegundos em que o evento foi retirado da fila.
+	 */
+
+	void dequeued(long sequence, long event, long received, long dequeued)
+	{
+		if (sequence % sampling != 0)
+			return;
+
+		int base = base(sequence);
+
+		values.set(base + SEQUENCE, 0);
+		values.set(base + EVENT, event);
+		values.set(base + RECEIVED, received);
+		values.set(base + DEQUEUED, dequeued);
+		values.set(base + PACKED, 0);
+		values.set(base + KEYBOARD, 0);
+		values.set(base + SEQUENCE, sequence);
+	}
+
+	/**
+	 * Registra o retorno de um despachante para os eventos amostrados de um lote.
+	 * Pode ser chamado por qualquer thread, inclusive pelas caixas de mensagens de cada leitura de tecla,
+	 * quando prevalece o ltimo retorno registrado.
+	 * @param batch lote de eventos que foi entregue ao despachante.
+	 * @param packed true para o despachante compactado ou false para o despachante para teclado.
+	 * @param time momento em nanossegundos em que o despachante retornou.
+	 */
+
+	void dispatched(KeyboardBatch batch, boolean packed, long time)
+	{
+		for (int i = 0; i < batch.size; i++)
+		{
+			long sequence = batch.sequences[i];
+
+			if (sequence % sampling == 0)
+				stamp(base(sequence), packed ? PACKED : KEYBOARD, sequence, time);
+		}
+	}
+
+	/**
+	 * Escreve um momento na posio de um rastro apenas enquanto ela mantiver o mesmo nmero de sequncia.
+	 * Como o processador pode reutilizar a posio a qualquer momento, o nmero de sequncia  conferido
+	 * antes e depois da escrita, que  desfeita se a posio tiver sido reutilizada nesse intervalo.
+	 * @param base ndice do primeiro valor da posio do rastro.
+	 * @param field deslocamento do momento na posio do rastro.
+	 * @param sequence nmero de sequncia do evento amostrado.
+	 * @param time momento em nanossegundos que ser escrito.
+	 */
+
+	private void stamp(int base, int field, long sequence, long time)
+	{
+		while (values.get(base + SEQUENCE) == sequence)
+		{
+			long previous = values.get(base + field);
+
+			if (!values.compareAndSet(base + field, previous, time))
+				continue;
+
+			if (values.get(base + SEQUENCE) != sequence)
+				values.compareAndSet(base + field, time, previous);
+
+			return;
+		}
+	}
+
+	/**
+	 * A taxa de amostragem  definida na inicializao do sistema de entrada.
+	 * @return aquisio da quantidade de nmeros de sequncia para cada evento amostrado.
+	 */
+
+	int getSampling()
+	{
+		return sampling;
+	}
+
+	/**
+	 * Obtm uma cpia dos rastros registrados, pode ser chamado por qualquer thread.
+	 * Rastros cuja posio estiver sendo reutilizada durante a leitura so ignorados.
+	 * @return aquisio dos rastros registrados em ordem de nmero de sequncia.
+	 */
+
+	KeyboardTrace[] getTraces()
+	{
+		KeyboardTrace traces[] = new KeyboardTrace[CAPACITY];
+		int size = 0;
+
+		for (int base = 0; base < values.length(); base += FIELDS)
+		{
+			long sequence = values.get(base + SEQUENCE);
+
+			if (sequence == 0)
+				continue;
+
+			KeyboardTrace trace = new KeyboardTrace(sequence, values.get(base + EVENT), values.get(base + RECEIVED),
+					values.get(base + DEQUEUED), values.get(base + PACKED), values.get(base + KEYBOARD));
+
+			if (values.get(base + SEQUENCE) == sequence)
+				traces[size++] = trace;
+		}
+
+		traces = Arrays.copyOf(traces, size);
+		Arrays.sort(traces, Comparator.comparingLong(KeyboardTrace::getSequence));
+
+		return traces;
+	}
+}
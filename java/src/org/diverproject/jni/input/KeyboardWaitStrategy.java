@@ -0,0 +1,39 @@
+package org.diverproject.jni.input;
+
+/**
+ * <h1>Estratgia de Espera para Teclado</h1>
+ *
+ * <p>Determina o que o processador para teclado dever fazer quando no houver eventos.
+ * A escolha da estratgia  uma troca entre latncia do despache e consumo da CPU.
+ * Deve ser definida no sistema de entrada antes que o mesmo seja inicializado.</p>
+ *
+ * <p>O apanhador para teclado ir sinalizar a estratgia sempre que inserir um evento,
+ * assim estratgias que suspendem a thread do processador podem acord-la imediatamente.
+ * A sinalizao  feita pela thread do gancho e portanto nunca dever bloque-la.</p>
+ *
+ * @see SpinWaitStrategy
+ * @see YieldWaitStrategy
+ * @see ParkWaitStrategy
+ * @see BlockingWaitStrategy
+ * @see BackoffWaitStrategy
+ *
+ * @author Andrew
+ */
+
+public interface KeyboardWaitStrategy
+{
+	/**
+	 * Chamado pelo processador sempre que no houver nenhum evento na fila de espera.
+	 * @param attempts quantidade de tentativas seguidas em que a fila estava vazia,
+	 * sendo sempre igual a um na primeira tentativa aps um evento ter sido despachado.
+	 */
+
+	void idle(int attempts);
+
+	/**
+	 * Chamado pelo apanhador sempre que um novo evento for inserido na fila de espera.
+	 * No deve bloquear a thread que o chamou, pois esta  a thread do gancho.
+	 */
+
+	void signal();
+}
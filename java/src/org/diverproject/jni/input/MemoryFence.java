@@ -0,0 +1,106 @@
+package org.diverproject.jni.input;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * <h1>Barreira de Memria</h1>
+ *
+ * <p>Barreiras usadas pelos seqlocks da pgina de estado e do barramento de teclado, que ordenam acessos
+ * comuns a um arquivo mapeado em memria compartilhado com outros processos. Um campo voltil s ordena
+ * os acessos em relao a ele mesmo no modelo de memria do Java, o que  suficiente em x86 mas no em
+ * processadores com ordem de memria mais fraca, como ARM.</p>
+ *
+ * <p>As barreiras so as de <code>sun.misc.Unsafe</code> (<code>loadFence</code> e <code>storeFence</code>),
+ * obtidas por reflexo e chamadas atravs de constantes, que a JVM substitui pela prpria instruo da
+ * barreira. Se no estiverem disponveis,  usado um campo voltil, que mantm a ordem apenas em x86.</p>
+ *
+ * @author Andrew
+ */
+
+final class MemoryFence
+{
+	/**
+	 * Barreira de leitura: <code>Unsafe.loadFence()</code> ou null se no estiver disponvel.
+	 */
+	private static final MethodHandle LOAD_FENCE = find("loadFence");
+
+	/**
+	 * Barreira de escrita: <code>Unsafe.storeFence()</code> ou null se no estiver disponvel.
+	 */
+	private static final MethodHandle STORE_FENCE = find("storeFence");
+
+
+	/**
+	 * Campo voltil usado quando as barreiras do <code>Unsafe</code> no esto disponveis.
+	 */
+	private static volatile int fallback;
+
+	/**
+	 * No deve ser instanciado, possui apenas procedimentos estticos.
+	 */
+
+	private MemoryFence()
+	{
+	}
+
+	/**
+	 * Impede que as leituras seguintes sejam feitas antes das leituras anteriores.
+	 */
+
+	static void load()
+	{
+		if (LOAD_FENCE != null)
+		{
+			try {
+				LOAD_FENCE.invokeExact();
+				return;
+			} catch (Throwable e) {
+			}
+		}
+
+		if (fallback != 0)
+			return;
+	}
+
+	/**
+	 * Impede que as escritas seguintes sejam vistas antes das escritas anteriores.
+	 */
+
+	static void store()
+	{
+		if (STORE_FENCE != null)
+		{
+			try {
+				STORE_FENCE.invokeExact();
+				return;
+			} catch (Throwable e) {
+			}
+		}
+
+		fallback = 0;
+	}
+
+	/**
+	 * Procura uma barreira do <code>sun.misc.Unsafe</code> j associada a sua instncia.
+	 * @param name nome do procedimento da barreira.
+	 * @return aquisio da barreira ou null se o <code>Unsafe</code> no estiver disponvel.
+	 */
+
+	private static MethodHandle find(String name)
+	{
+		try {
+
+			Class<?> type = Class.forName("sun.misc.Unsafe");
+			Field field = type.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+
+			return MethodHandles.lookup().findVirtual(type, name, MethodType.methodType(void.class)).bindTo(field.get(null));
+
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+}
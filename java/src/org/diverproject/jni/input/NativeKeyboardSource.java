@@ -0,0 +1,82 @@
+package org.diverproject.jni.input;
+
+import org.diverproject.util.service.LibrarySystem;
+
+/**
+ * <h1>Fonte Nativa para Teclado</h1>
+ *
+ * <p>Fonte de eventos padro do sistema de entrada, usa o gancho de teclado do Windows.
+ * A biblioteca (DLL) s  carregada quando a fonte for iniciada pela primeira vez,
+ * assim o sistema de entrada pode ser usado com outras fontes mesmo sem a DLL.</p>
+ *
+ * <p>Utiliza as seguintes informaes para carregar a biblioteca:<br>
+ * <b>Sistema para Carregar Bibliotecas:</b>: <class>LibrarySystem</class><br>
+ * <b>Nome da Biblioteca que ser carregada: <code>jniInput</code><br>
+ * <b>Caminho da Propriedade na JVM:</b> org.diverproject.librarypath.</p>
+ *
+ * @see KeyboardEventSource
+ * @see KeyboardHook
+ * @see LibrarySystem
+ *
+ * @author Andrew
+ */
+
+public class NativeKeyboardSource implements KeyboardEventSource
+{
+	/**
+	 * Nome da biblioteca (DLL) que possui o gancho de teclado.
+	 */
+	public static final String LIBRARY_NAME = "jniInput";
+
+	/**
+	 * Propriedade da JVM com o caminho onde se encontra a biblioteca.
+	 */
+	public static final String LIBRARY_PROPERTY = "org.diverproject.librarypath";
+
+	/**
+	 * Determina se a biblioteca j foi carregada.
+	 */
+	private static boolean loaded;
+
+	/**
+	 * Thread que mantm o registro com a DLL enquanto a fonte estiver iniciada.
+	 */
+	private KeyboardHook hook;
+
+	@Override
+	public synchronized void start(KeyboardReceiver receiver) throws InputException
+	{
+		if (hook != null)
+			throw new InputException("fonte nativa para teclado j iniciada");
+
+		load();
+
+		hook = new KeyboardHook(receiver);
+		hook.start();
+	}
+
+	@Override
+	public synchronized void stop()
+	{
+		if (hook != null)
+		{
+			hook.shutdown();
+			hook = null;
+		}
+	}
+
+	/**
+	 * Garante que a biblioteca (DLL) seja carregada uma nica vez.
+	 * O carregamento j possui um padro pr-definido e deve usar o mesmo.
+	 */
+
+	private static synchronized void load()
+	{
+		if (!loaded)
+		{
+			LibrarySystem ls = LibrarySystem.getInstance();
+			ls.load(LIBRARY_NAME, LIBRARY_PROPERTY);
+			loaded = true;
+		}
+	}
+}
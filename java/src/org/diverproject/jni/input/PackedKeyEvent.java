@@ -0,0 +1,262 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.*;
+
+/**
+ * <h1>Evento de Tecla Compactado</h1>
+ *
+ * <p>Utilitrio para representar um evento de tecla em um nico valor do tipo long.
+ * Esse  o formato usado internamente pela fila de espera entre o apanhador e o processador,
+ * como tambm o formato recebido pelos despachantes de eventos compactados.</p>
+ *
+ * <p>Os valores so distribudos da seguinte forma, do bit menos significativo ao mais:<br>
+ * <b>0 a 15:</b> caracter vinculado a tecla digitada (<code>CH</code>).<br>
+ * <b>16 a 23:</b> cdigo da tecla na biblioteca (<code>KEY</code>).<br>
+ * <b>24 a 31:</b> cdigo da tecla virtual (<code>VK</code>).<br>
+ * <b>32 a 47:</b> propriedades do teclado (<code>KP</code>).<br>
+ * <b>48 a 51:</b> tipo de ao do evento (<code>KT</code>).<br>
+ * <b>52 a 63:</b> repeties agrupadas no evento alm da primeira ocorrncia.</p>
+ *
+ * <p>Como o tipo de ao de um evento nunca  zero, nenhum evento compactado  zero.
+ * Assim o valor <code>NONE</code>  usado para indicar que no h nenhum evento.</p>
+ *
+ * @see KeyEvent
+ * @see PackedKeyboardDispatcher
+ *
+ * @author Andrew
+ */
+
+public final class PackedKeyEvent
+{
+	/**
+	 * Valor que indica a ausncia de um evento de tecla compactado.
+	 */
+	public static final long NONE = 0L;
+
+	/**
+	 * Deslocamento do cdigo da tecla na biblioteca.
+	 */
+	private static final int KEY_SHIFT = 16;
+
+	/**
+	 * Deslocamento do cdigo da tecla virtual.
+	 */
+	private static final int VK_SHIFT = 24;
+
+	/**
+	 * Deslocamento das propriedades do teclado.
+	 */
+	private static final int PROPERTIES_SHIFT = 32;
+
+	/**
+	 * Deslocamento do tipo de ao do evento.
+	 */
+	private static final int TYPE_SHIFT = 48;
+
+	/**
+	 * Deslocamento da quantidade de repeties agrupadas no evento.
+	 */
+	private static final int REPEAT_SHIFT = 52;
+
+	/**
+	 * Quantidade mxima de ocorrncias que podem ser agrupadas em um nico evento.
+	 */
+	public static final int MAX_REPEAT_COUNT = 0x1000;
+
+	/**
+	 * Valor somado ao evento compactado para agrupar mais uma repetio.
+	 */
+	static final long REPEAT_UNIT = 1L << REPEAT_SHIFT;
+
+	/**
+	 * Mscara dos bits que contm a quantidade de repeties agrupadas no evento.
+	 */
+	static final long REPEAT_MASK = 0xFFFL << REPEAT_SHIFT;
+
+	/**
+	 * Construtor privado, pois possui apenas procedimentos estticos.
+	 */
+
+	private PackedKeyEvent()
+	{
+		
+	}
+
+	/**
+	 * Compacta as informaes de um evento de tecla em um nico valor.
+	 * @param type qual o tipo de ao que ser usado (<code>KT</code>).
+	 * @param vk cdigo da tecla virtual que gerou o evento (<code>VK</code>).
+	 * @param key codigo na biblioteca da tecla que gerou o evento (<code>KEY</code>).
+	 * @param ch caracter que apareceu como digitao para o evento (<code>CH</code>).
+	 * @param properties valor contendo as propriedades do teclado (<code>KP</code>).
+	 * @return aquisio do valor contendo o evento de tecla compactado.
+	 */
+
+	public static long pack(int type, int vk, int key, char ch, int properties)
+	{
+		return	(long) ch |
+				(long) (key & 0xFF) << KEY_SHIFT |
+				(long) (vk & 0xFF) << VK_SHIFT |
+				(long) (properties & 0xFFFF) << PROPERTIES_SHIFT |
+				(long) (type & 0xF) << TYPE_SHIFT;
+	}
+
+	/**
+	 * Compacta as informaes de um evento de tecla j existente em um nico valor.
+	 * @param event referncia do evento de tecla do qual ser compactado.
+	 * @return aquisio do valor contendo o evento de tecla compactado.
+	 */
+
+	public static long pack(KeyEvent event)
+	{
+		return pack(event.getType(), event.getVirtualKey(), event.getKey(), event.getChar(), event.getProperties()) |
+				(long) (event.getRepeatCount() - 1) << REPEAT_SHIFT;
+	}
+
+	/**
+	 * Obtm o tipo de ao de um evento de tecla compactado.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return aquisio do tipo de ao do evento (<code>KT</code>).
+	 */
+
+	public static int getType(long event)
+	{
+		return (int) (event >>> TYPE_SHIFT) & 0xF;
+	}
+
+	/**
+	 * Obtm o cdigo da tecla virtual de um evento de tecla compactado.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return aquisio do cdigo da tecla virtual (<code>VK</code>).
+	 */
+
+	public static int getVirtualKey(long event)
+	{
+		return (int) (event >>> VK_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * Obtm o cdigo da tecla na biblioteca de um evento de tecla compactado.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return aquisio do cdigo da tecla na biblioteca (<code>KEY</code>).
+	 */
+
+	public static int getKey(long event)
+	{
+		return (int) (event >>> KEY_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * Obtm o caracter de um evento de tecla compactado, apenas digitaes possuem um.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return aquisio do caracter vinculado a tecla digitada (<code>CH</code>).
+	 */
+
+	public static char getChar(long event)
+	{
+		return (char) event;
+	}
+
+	/**
+	 * Obtm todas as propriedades do teclado de um evento de tecla compactado.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return aquisio das propriedades do teclado no evento (<code>KP</code>).
+	 */
+
+	public static int getProperties(long event)
+	{
+		return (int) (event >>> PROPERTIES_SHIFT) & 0xFFFF;
+	}
+
+	/**
+	 * Obtm a quantidade de ocorrncias agrupadas em um evento de tecla compactado.
+	 * Repeties automticas de uma tecla mantida abaixada podem ser agrupadas pelo apanhador.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return aquisio da quantidade de ocorrncias do evento, no mnimo 1.
+	 */
+
+	public static int getRepeatCount(long event)
+	{
+		return (int) (event >>> REPEAT_SHIFT) + 1;
+	}
+
+	/**
+	 * Deve verificar se h uma tecla ALT pressionada independente do lado.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return true se houver qualquer uma das duas teclas ALT pressionadas.
+	 */
+
+	public static boolean hasAlt(long event)
+	{
+		return (event & (long) KP_ALTERNATIVE << PROPERTIES_SHIFT) != 0;
+	}
+
+	/**
+	 * Deve verificar se h uma tecla CTRL pressionada independente do lado.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return true se houver qualquer uma das duas teclas CTRL pressionadas.
+	 */
+
+	public static boolean hasCtrl(long event)
+	{
+		return (event & (long) KP_CONTROL << PROPERTIES_SHIFT) != 0;
+	}
+
+	/**
+	 * Deve verificar se h uma tecla SHIFT pressionada independente do lado.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return true se houver qualquer uma das duas teclas SHIFT pressionadas.
+	 */
+
+	public static boolean hasShift(long event)
+	{
+		return (event & (long) KP_SHIFT << PROPERTIES_SHIFT) != 0;
+	}
+
+	/**
+	 * Deve verificar se a tecla de extenso usada  a do lado esquerdo.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return true se o evento for de uma tecla de extenso do lado esquerdo.
+	 */
+
+	public static boolean isLeft(long event)
+	{
+		return (event & (long) KP_LEFT << PROPERTIES_SHIFT) != 0;
+	}
+
+	/**
+	 * Deve verificar se a tecla de extenso usada  a do lado direito.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return true se o evento for de uma tecla de extenso do lado direito.
+	 */
+
+	public static boolean isRight(long event)
+	{
+		return (event & (long) KP_RIGHT << PROPERTIES_SHIFT) != 0;
+	}
+
+	/**
+	 * Deve verificar como se encontra o estado de transio do evento.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return true se a tecla estiver abaixada (digitar ou pressionar) ou false caso contrrio.
+	 */
+
+	public static boolean isTransition(long event)
+	{
+		return getType(event) != KT_RELEASED;
+	}
+
+	/**
+	 * Cria um novo evento de tecla a partir de um evento compactado, sempre alocando um objeto.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @return aquisio de um novo evento de tecla com as informaes do evento compactado.
+	 */
+
+	public static KeyEvent toKeyEvent(long event)
+	{
+		KeyEvent keyEvent = new KeyEvent(getType(event), getVirtualKey(event), getKey(event), getChar(event), getProperties(event));
+		keyEvent.setRepeatCount(getRepeatCount(event));
+
+		return keyEvent;
+	}
+}
@@ -0,0 +1,79 @@
+package org.diverproject.jni.input;
+
+import org.diverproject.util.service.Service;
+
+/**
+ * <h1>Despachante para Teclado Compactado</h1>
+ *
+ * <p>Alternativa ao despachante para teclado onde os eventos so recebidos compactados.
+ * Cada evento  um nico valor do tipo long, que deve ser lido atravs de
+ * <code>PackedKeyEvent</code>, sem que nenhum objeto seja criado para o evento.</p>
+ *
+ * <p>Recomendado para despachantes que verificam apenas cdigos de teclas e modificadores.
+ * Quando apenas despachantes compactados estiverem definidos no sistema de entrada,
+ * nenhum objeto <code>KeyEvent</code> ser criado durante o processamento dos eventos.</p>
+ *
+ * @see PackedKeyEvent
+ * @see KeyboardDispatcher
+ *
+ * @author Andrew
+ */
+
+public interface PackedKeyboardDispatcher extends Service
+{
+	/**
+	 * Chamado sempre que um evento de teclado for detectado no sistema.
+	 * Para que isso ocorra, dever ser definido no sistema de entrada,
+	 * como o responsvel por fazer o despache dos eventos compactados.
+	 * @param event valor contendo o evento de tecla compactado.
+	 */
+
+	void dispatch(long event);
+
+	/**
+	 * Chamado pelo processador para cada evento junto do seu nmero de sequncia.
+	 * Lacunas na sequncia indicam eventos descartados pela poltica de transbordo.
+	 * Por padro o nmero de sequncia  ignorado e apenas o evento  despachado.
+	 * @param event valor contendo o evento de tecla compactado.
+	 * @param sequence nmero de sequncia do evento, sempre maior que o anterior.
+	 */
+
+	default void dispatch(long event, long sequence)
+	{
+		dispatch(event);
+	}
+
+	/**
+	 * Chamado pelo processador com todos os eventos retirados de uma nica vez da fila de espera,
+	 * permitindo que o custo de cada chamada seja dividido entre os eventos de uma rajada.
+	 * Os vetores so reutilizados pelo processador e s so vlidos durante a chamada.
+	 * Por padro cada evento  despachado individualmente junto do seu nmero de sequncia.
+	 * @param events vetor contendo os valores dos eventos de tecla compactados.
+	 * @param sequences vetor contendo o nmero de sequncia de cada evento.
+	 * @param offset ndice do primeiro evento dos vetores que deve ser despachado.
+	 * @param count quantidade de eventos dos vetores que devem ser despachados.
+	 */
+
+	default void dispatchBatch(long events[], long sequences[], int offset, int count)
+	{
+		for (int i = offset; i < offset + count; i++)
+			dispatch(events[i], sequences[i]);
+	}
+
+	/**
+	 * Chamado pelo processador com todos os eventos retirados de uma nica vez da fila de espera, junto
+	 * do momento em que cada evento foi recebido pelo apanhador, para despachantes que medem o tempo entre
+	 * os eventos, j que o despache pode ocorrer bem depois do recebimento. Os vetores so reutilizados
+	 * pelo processador e s so vlidos durante a chamada. Por padro os momentos so ignorados.
+	 * @param events vetor contendo os valores dos eventos de tecla compactados.
+	 * @param sequences vetor contendo o nmero de sequncia de cada evento.
+	 * @param timestamps vetor contendo o momento em nanossegundos em que cada evento foi recebido.
+	 * @param offset ndice do primeiro evento dos vetores que deve ser despachado.
+	 * @param count quantidade de eventos dos vetores que devem ser despachados.
+	 */
+
+	default void dispatchBatch(long events[], long sequences[], long timestamps[], int offset, int count)
+	{
+		dispatchBatch(events, sequences, offset, count);
+	}
+}
@@ -0,0 +1,60 @@
+package org.diverproject.jni.input;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h1>Espera por Suspenso</h1>
+ *
+ * <p>Estratgia onde a thread do processador  suspensa at que um evento seja inserido.
+ * O apanhador ir acordar a thread do processador apenas quando esta estiver suspensa,
+ * dessa forma o consumo da CPU sem eventos de teclado ser praticamente nenhum.</p>
+ *
+ * <p>Para que nenhum sinal seja perdido o processador anuncia que ser suspenso antes
+ * de verificar se h um sinal pendente, enquanto o apanhador anuncia o sinal antes
+ * de verificar se o processador est suspenso, assim sempre um dos dois ir perceber.</p>
+ *
+ * <p>Uma interrupo apenas acorda o processador e  descartada, j que a suspenso no seria
+ * mais possvel enquanto a thread estivesse interrompida e o processador ocuparia a CPU.</p>
+ *
+ * @see KeyboardWaitStrategy
+ *
+ * @author Andrew
+ */
+
+public class ParkWaitStrategy implements KeyboardWaitStrategy
+{
+	/**
+	 * Thread do processador que est suspensa ou null se no houver uma.
+	 */
+	private volatile Thread waiter;
+
+	/**
+	 * Determina se h um evento inserido que ainda no foi percebido pelo processador.
+	 */
+	private volatile boolean pending;
+
+	@Override
+	public void idle(int attempts)
+	{
+		waiter = Thread.currentThread();
+
+		if (!pending)
+			LockSupport.park(this);
+
+		Thread.interrupted();
+
+		waiter = null;
+		pending = false;
+	}
+
+	@Override
+	public void signal()
+	{
+		pending = true;
+
+		Thread thread = waiter;
+
+		if (thread != null)
+			LockSupport.unpark(thread);
+	}
+}
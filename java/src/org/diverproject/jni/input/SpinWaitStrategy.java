@@ -0,0 +1,31 @@
+package org.diverproject.jni.input;
+
+/**
+ * <h1>Espera Ocupada</h1>
+ *
+ * <p>Estratgia que mantm a thread do processador sempre em execuo verificando a fila.
+ * Possui a menor latncia possvel entre a deteco e o despache do evento de teclado.
+ * Em contrapartida ir ocupar um ncleo da CPU durante todo o tempo que estiver ativa.</p>
+ *
+ * <p>Recomendado apenas para aplicaes que j ocupam a CPU, como laos de jogos,
+ * e em mquinas com ncleos disponveis para manter a thread do processador.</p>
+ *
+ * @see KeyboardWaitStrategy
+ *
+ * @author Andrew
+ */
+
+public class SpinWaitStrategy implements KeyboardWaitStrategy
+{
+	@Override
+	public void idle(int attempts)
+	{
+		
+	}
+
+	@Override
+	public void signal()
+	{
+		
+	}
+}
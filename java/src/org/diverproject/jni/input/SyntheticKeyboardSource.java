@@ -0,0 +1,167 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.KT_PRESSED;
+import static org.diverproject.jni.input.KeyEvent.KT_RELEASED;
+import static org.diverproject.jni.input.KeyEvent.KT_TYPED;
+import static org.diverproject.jni.input.enums.EnumVK.isKeyCode;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h1>Fonte Sinttica para Teclado</h1>
+ *
+ * <p>Fonte de eventos que gera teclas em memria, sem nenhum teclado ou biblioteca nativa.
+ * Permite executar e medir todo o despache de eventos em qualquer sistema operacional,
+ * como tambm testar a carga suportada pelos despachantes definidos.</p>
+ *
+ * <p>Cada tecla gerada segue a mesma sequncia de eventos da DLL: digitada, pressionada e solta.
+ * As teclas virtuais so usadas em ordem circular e traduzidas pelo tradutor de teclas,
+ * exatamente como uma tecla recebida do gancho nativo.</p>
+ *
+ * <p>O intervalo entre as teclas  controlado pelo relgio monotnico da JVM,
+ * sendo que um intervalo zero gera as teclas o mais rpido possvel.</p>
+ *
+ * @see KeyboardEventSource
+ *
+ * @author Andrew
+ */
+
+public class SyntheticKeyboardSource implements KeyboardEventSource
+{
+	/**
+	 * Teclas virtuais que sero geradas em ordem circular.
+	 */
+	private final int vks[];
+
+	/**
+	 * Quantidade de teclas que sero geradas ou zero para no haver limite.
+	 */
+	private final long strokes;
+
+	/**
+	 * Intervalo em nanossegundos entre o incio de cada tecla gerada.
+	 */
+	private final long interval;
+
+	/**
+	 * Receptor para o qual as teclas geradas sero repassadas.
+	 */
+	private volatile KeyboardReceiver receiver;
+
+	/**
+	 * Thread que gera as teclas enquanto a fonte estiver iniciada.
+	 */
+	private Thread thread;
+
+	/**
+	 * Quantidade de teclas geradas desde que a fonte foi iniciada.
+	 */
+	private volatile long generated;
+
+	/**
+	 * Constri uma nova fonte sinttica para teclado sendo necessrio definir:
+	 * @param strokes quantidade de teclas que sero geradas ou zero para no haver limite.
+	 * @param interval intervalo em nanossegundos entre cada tecla ou zero para no esperar.
+	 * @param vks cdigos das teclas virtuais que sero geradas em ordem circular (<code>VK</code>).
+	 */
+
+	public SyntheticKeyboardSource(long strokes, long interval, int... vks)
+	{
+		if (strokes < 0 || interval < 0 || vks.length == 0)
+			throw new InputRuntimeException("valores invlidos para fonte sinttica (strokes: %d, interval: %d, vks: %d)", strokes, interval, vks.length);
+
+		for (int vk : vks)
+			if (!isKeyCode(vk))
+				throw new InputRuntimeException("tecla virtual invlida para fonte sinttica (vk: %d)", vk);
+
+		this.vks = vks.clone();
+		this.strokes = strokes;
+		this.interval = interval;
+	}
+
+	@Override
+	public synchronized void start(KeyboardReceiver receiver) throws InputException
+	{
+		if (thread != null)
+			throw new InputException("fonte sinttica para teclado j iniciada");
+
+		this.receiver = receiver;
+		this.generated = 0;
+
+		thread = new Thread(this::generate, "JNI KSynthetic");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public synchronized void stop()
+	{
+		if (thread != null)
+		{
+			thread.interrupt();
+
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			thread = null;
+		}
+	}
+
+	/**
+	 * Procedimento executado pela thread da fonte, gera as teclas at o limite ou ser parada.
+	 */
+
+	private void generate()
+	{
+		KeyboardReceiver receiver = this.receiver;
+		Thread current = Thread.currentThread();
+		long deadline = System.nanoTime();
+
+		for (long stroke = 0; (strokes == 0 || stroke < strokes) && !current.isInterrupted(); stroke++)
+		{
+			if (interval > 0)
+			{
+				deadline += interval;
+
+				for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime())
+				{
+					if (current.isInterrupted())
+						return;
+
+					LockSupport.parkNanos(remaining);
+				}
+			}
+
+			int vk = vks[(int) (stroke % vks.length)];
+
+			receiver.receiveKey(KT_TYPED, vk, 0);
+			receiver.receiveKey(KT_PRESSED, vk, 0);
+			receiver.receiveKey(KT_RELEASED, vk, 0);
+
+			generated = stroke + 1;
+		}
+	}
+
+	/**
+	 * Cada tecla gerada corresponde a trs eventos: digitada, pressionada e solta.
+	 * @return aquisio da quantidade de teclas geradas desde que a fonte foi iniciada.
+	 */
+
+	public long getGenerated()
+	{
+		return generated;
+	}
+
+	/**
+	 * A fonte termina sozinha aps gerar a quantidade de teclas definida na sua construo.
+	 * @return true se ainda estiver gerando teclas ou false caso contrrio.
+	 */
+
+	public synchronized boolean isRunning()
+	{
+		return thread != null && thread.isAlive();
+	}
+}
@@ -0,0 +1,430 @@
+package org.diverproject.jni.input;
+
+import static org.diverproject.jni.input.KeyEvent.*;
+import static org.diverproject.jni.input.enums.EnumCH.*;
+import static org.diverproject.jni.input.enums.EnumKEY.*;
+import static org.diverproject.jni.input.enums.EnumVK.*;
+
+/**
+ * <h1>Tradutor de Teclas por Tabelas</h1>
+ *
+ * <p>Tradutor padro do sistema de entrada, onde toda a traduo  feita por vetores.
+ * Os vetores so preenchidos uma nica vez na construo, indexados pela tecla virtual,
+ * de modo que cada traduo seja apenas a leitura de uma posio em um vetor.</p>
+ *
+ * <p>Os caracteres possuem oito planos, um para cada combinao de shift, caps lock e alt.
+ * O plano  obtido diretamente das propriedades do teclado, sem nenhuma condio,
+ * e o caracter  obtido pelo plano e a tecla virtual em um nico vetor.</p>
+ *
+ * <p>As tabelas padres seguem o layout ABNT2 que era usado pela DLL nas verses anteriores.
+ * Novos layouts podem ser criados estendendo essa classe e usando os procedimentos
+ * de preenchimento das tabelas apenas durante a construo do tradutor,
+ * ou ento descritos em arquivos e carregados como um layout de teclado.</p>
+ *
+ * @see KeyTranslator
+ * @see KeyboardLayout
+ *
+ * @author Andrew
+ */
+
+public class TableKeyTranslator implements KeyTranslator
+{
+	/**
+	 * Quantidade de teclas virtuais que podem ser traduzidas.
+	 */
+	public static final int VK_COUNT = 256;
+
+	/**
+	 * Quantidade de planos de caracteres (combinaes de shift, caps lock e alt).
+	 */
+	public static final int PLANES = 8;
+
+	/**
+	 * Plano de caracteres quando o shift estiver pressionado.
+	 */
+	public static final int PLANE_SHIFT = 0x01;
+
+	/**
+	 * Plano de caracteres quando o caps lock estiver ativo.
+	 */
+	public static final int PLANE_CAPITAL = 0x02;
+
+	/**
+	 * Plano de caracteres quando o alt estiver pressionado.
+	 */
+	public static final int PLANE_ALTERNATIVE = 0x04;
+
+
+	/**
+	 * Vetor indicando quais teclas virtuais no geram eventos.
+	 */
+	private final boolean[] ignored;
+
+	/**
+	 * Vetor com o cdigo da tecla na biblioteca, indexado por tecla estendida e tecla virtual.
+	 */
+	private final int[] keys;
+
+	/**
+	 * Vetor com os caracteres digitados, indexado por plano e tecla virtual.
+	 */
+	private final char[] chars;
+
+	/**
+	 * Vetor com as propriedades ativadas por cada tecla virtual.
+	 */
+	private final int[] modifiers;
+
+	/**
+	 * Constri um novo tradutor de teclas usando as tabelas padres (ABNT2).
+	 */
+
+	public TableKeyTranslator()
+	{
+		this(true);
+	}
+
+	/**
+	 * Constri um novo tradutor de teclas podendo usar as tabelas padres ou vazias.
+	 * Tabelas vazias devem ser preenchidas pelo construtor da classe que a estender.
+	 * @param defaults true para usar as tabelas padres (ABNT2) ou false para vazias.
+	 */
+
+	protected TableKeyTranslator(boolean defaults)
+	{
+		this.ignored = new boolean[VK_COUNT];
+		this.keys = new int[VK_COUNT * 2];
+		this.chars = new char[VK_COUNT * PLANES];
+		this.modifiers = new int[VK_COUNT];
+
+		if (defaults)
+		{
+			fillDefault();
+			extend(VK_RETURN, KEY_NUMPAD_ENTER);
+		}
+	}
+
+	/**
+	 * Obtm o plano de caracteres de acordo com as propriedades do teclado.
+	 * @param properties propriedades do teclado no momento da digitao (<code>KP</code>).
+	 * @return aquisio do plano de caracteres (<code>PLANE</code>).
+	 */
+
+	public static int getPlane(int properties)
+	{
+		return ((properties >> 3) & (PLANE_SHIFT | PLANE_ALTERNATIVE)) | ((properties & KP_CAPITAL) << 1);
+	}
+
+	@Override
+	public boolean isIgnored(int vk)
+	{
+		return ignored[vk];
+	}
+
+	@Override
+	public int getKey(int vk, int flags)
+	{
+		return keys[(flags & KF_EXTENDED) << 8 | vk];
+	}
+
+	@Override
+	public char getChar(int vk, int properties)
+	{
+		return chars[getPlane(properties) << 8 | vk];
+	}
+
+	@Override
+	public int getModifiers(int vk)
+	{
+		return modifiers[vk];
+	}
+
+	/**
+	 * Define que as teclas virtuais no sero reconhecidas e no iro gerar eventos.
+	 * @param vks cdigos das teclas virtuais que sero ignoradas (<code>VK</code>).
+	 */
+
+	protected final void ignore(int... vks)
+	{
+		for (int vk : vks)
+			ignored[vk] = true;
+	}
+
+	/**
+	 * Define o cdigo da tecla na biblioteca de uma tecla virtual sem nenhum caracter.
+	 * @param vk cdigo da tecla virtual (<code>VK</code>).
+	 * @param key cdigo da tecla na biblioteca (<code>KEY</code>).
+	 */
+
+	protected final void key(int vk, int key)
+	{
+		key(vk, key, CH_NULL);
+	}
+
+	/**
+	 * Define o cdigo da tecla na biblioteca e o mesmo caracter para todos os planos.
+	 * @param vk cdigo da tecla virtual (<code>VK</code>).
+	 * @param key cdigo da tecla na biblioteca (<code>KEY</code>).
+	 * @param ch caracter digitado pela tecla (<code>CH</code>).
+	 */
+
+	protected final void key(int vk, int key, int ch)
+	{
+		keys[vk] = key;
+		keys[VK_COUNT + vk] = key;
+
+		for (int plane = 0; plane < PLANES; plane++)
+			chars[plane << 8 | vk] = (char) ch;
+	}
+
+	/**
+	 * Define o cdigo da tecla na biblioteca e os caracteres de acordo com shift e alt.
+	 * O caps lock no altera os caracteres de teclas definidas desse modo.
+	 * @param vk cdigo da tecla virtual (<code>VK</code>).
+	 * @param key cdigo da tecla na biblioteca (<code>KEY</code>).
+	 * @param first caracter digitado sem o shift pressionado (<code>CH</code>).
+	 * @param second caracter digitado com o shift pressionado (<code>CH</code>).
+	 * @param third caracter digitado com o shift e o alt pressionados (<code>CH</code>).
+	 */
+
+	protected final void alternative(int vk, int key, int first, int second, int third)
+	{
+		key(vk, key);
+
+		for (int plane = 0; plane < PLANES; plane++)
+		{
+			if ((plane & PLANE_SHIFT) == 0)
+				chars[plane << 8 | vk] = (char) first;
+			else if ((plane & PLANE_ALTERNATIVE) == 0)
+				chars[plane << 8 | vk] = (char) second;
+			else
+				chars[plane << 8 | vk] = (char) third;
+		}
+	}
+
+	/**
+	 * Define o cdigo da tecla na biblioteca e os caracteres de uma letra.
+	 * Shift e caps lock invertem a letra entre minscula e maiscula, o alt  ignorado.
+	 * @param vk cdigo da tecla virtual (<code>VK</code>).
+	 * @param key cdigo da tecla na biblioteca (<code>KEY</code>).
+	 * @param lower caracter da letra minscula (<code>CH</code>).
+	 * @param upper caracter da letra maiscula (<code>CH</code>).
+	 */
+
+	protected final void letter(int vk, int key, int lower, int upper)
+	{
+		key(vk, key);
+
+		for (int plane = 0; plane < PLANES; plane++)
+		{
+			boolean shift = (plane & PLANE_SHIFT) != 0;
+			boolean capital = (plane & PLANE_CAPITAL) != 0;
+
+			chars[plane << 8 | vk] = (char) (shift != capital ? upper : lower);
+		}
+	}
+
+	/**
+	 * Define o cdigo da tecla na biblioteca e os caracteres das quatro colunas de um layout.
+	 * O caps lock s inverte o shift em teclas onde o caracter com caps lock for diferente,
+	 * enquanto o alt (AltGr) sempre usa a ltima coluna, com ou sem o shift pressionado.
+	 * @param vk cdigo da tecla virtual (<code>VK</code>).
+	 * @param key cdigo da tecla na biblioteca (<code>KEY</code>).
+	 * @param plain caracter digitado sem nenhum modificador (<code>CH</code>).
+	 * @param shift caracter digitado com o shift pressionado (<code>CH</code>).
+	 * @param capital caracter digitado com o caps lock ativo (<code>CH</code>).
+	 * @param altgr caracter digitado com o alt pressionado (<code>CH</code>).
+	 */
+
+	protected final void layout(int vk, int key, int plain, int shift, int capital, int altgr)
+	{
+		key(vk, key);
+
+		for (int plane = 0; plane < PLANES; plane++)
+		{
+			int ch;
+
+			if ((plane & PLANE_ALTERNATIVE) != 0)
+				ch = altgr;
+			else if ((plane & PLANE_SHIFT) == 0)
+				ch = (plane & PLANE_CAPITAL) == 0 ? plain : capital;
+			else if ((plane & PLANE_CAPITAL) == 0 || capital == plain)
+				ch = shift;
+			else
+				ch = plain;
+
+			chars[plane << 8 | vk] = (char) ch;
+		}
+	}
+
+	/**
+	 * Define o cdigo da tecla na biblioteca e as propriedades ativadas pela tecla.
+	 * @param vk cdigo da tecla virtual (<code>VK</code>).
+	 * @param key cdigo da tecla na biblioteca (<code>KEY</code>).
+	 * @param properties propriedades ativadas enquanto a tecla estiver abaixada (<code>KP</code>).
+	 */
+
+	protected final void modifier(int vk, int key, int properties)
+	{
+		key(vk, key);
+
+		modifiers[vk] = properties;
+	}
+
+	/**
+	 * Define o cdigo da tecla na biblioteca quando a tecla virtual for estendida.
+	 * @param vk cdigo da tecla virtual (<code>VK</code>).
+	 * @param key cdigo da tecla na biblioteca quando estendida (<code>KEY</code>).
+	 */
+
+	protected final void extend(int vk, int key)
+	{
+		keys[VK_COUNT + vk] = key;
+	}
+
+	/**
+	 * Preenche as tabelas com o layout padro (ABNT2) usado nas verses anteriores pela DLL.
+	 */
+
+	private void fillDefault()
+	{
+		ignore(VK_CLEAR, VK_KANA, VK_JUNJA, VK_FINAL, VK_HANJA, VK_CONVERT, VK_NONCONVERT, VK_ACCEPT, VK_MODECHANGE,
+				VK_SELECT, VK_PRINT, VK_EXECUTE, VK_HELP, VK_SLEEP, VK_BROWSER_BACK, VK_BROWSER_FORWARD,
+				VK_BROWSER_REFRESH, VK_BROWSER_STOP, VK_BROWSER_SEARCH, VK_BROWSER_FAVORITES, VK_BROWSER_HOME,
+				VK_VOLUME_MUTE, VK_VOLUME_DOWN, VK_VOLUME_UP, VK_MEDIA_NEXT_TRACK, VK_MEDIA_PREV_TRACK, VK_MEDIA_STOP,
+				VK_MEDIA_PLAY_PAUSE, VK_LAUNCH_MAIL, VK_LAUNCH_MEDIA_SELECT, VK_LAUNCH_APP1, VK_LAUNCH_APP2,
+				VK_PROCESSKEY, VK_PACKET, VK_ATTN, VK_CRSEL, VK_EXSEL, VK_EREOF, VK_PLAY, VK_ZOOM, VK_NONAME, VK_PA1,
+				VK_OEM_8, VK_OEM_CLEAR);
+
+		key(VK_TAB, KEY_TAB, CH_HORIZONTAL_TABULATION);
+		key(VK_RETURN, KEY_ENTER, CH_NEW_LINE);
+		key(VK_SPACE, KEY_SPACE, CH_SPACE);
+
+		key(VK_SHIFT, KEY_LEFT_SHIFT);
+		key(VK_CONTROL, KEY_LEFT_CONTROL);
+		key(VK_MENU, KEY_LEFT_ALT);
+
+		key(VK_BACK, KEY_BACKSPACE);
+		key(VK_PAUSE, KEY_PAUSE_BREAK);
+		key(VK_ESCAPE, KEY_ESCAPE);
+		key(VK_PRIOR, KEY_PAGE_UP);
+		key(VK_NEXT, KEY_PAGE_DOWN);
+		key(VK_END, KEY_END);
+		key(VK_HOME, KEY_HOME);
+		key(VK_LEFT, KEY_LEFT);
+		key(VK_UP, KEY_UP);
+		key(VK_RIGHT, KEY_RIGHT);
+		key(VK_DOWN, KEY_DOWN);
+		key(VK_SNAPSHOT, KEY_PRINT_SCREEN);
+		key(VK_INSERT, KEY_INSERT);
+		key(VK_DELETE, KEY_DELETE);
+		key(VK_NUMLOCK, KEY_NUMLOCK);
+		key(VK_SCROLL, KEY_SCROLL_LOCK);
+		key(VK_LWIN, KEY_LEFT_WINDOW);
+		key(VK_RWIN, KEY_RIGHT_WINDOW);
+		key(VK_APPS, KEY_APPLICATIONS);
+
+		modifier(VK_CAPITAL, KEY_CAPSLOCK, KP_CAPITAL);
+		modifier(VK_LSHIFT, KEY_LEFT_SHIFT, KP_SHIFT | KP_LEFT);
+		modifier(VK_RSHIFT, KEY_RIGHT_SHIFT, KP_SHIFT | KP_RIGHT);
+		modifier(VK_LCONTROL, KEY_LEFT_CONTROL, KP_CONTROL | KP_LEFT);
+		modifier(VK_RCONTROL, KEY_RIGHT_CONTROL, KP_CONTROL | KP_RIGHT);
+		modifier(VK_LMENU, KEY_LEFT_ALT, KP_ALTERNATIVE | KP_LEFT);
+		modifier(VK_RMENU, KEY_RIGHT_ALT, KP_ALTERNATIVE | KP_RIGHT);
+
+		alternative(VK_0, KEY_0, CH_DIGIT_0, CH_RIGHT_PARENTHESIS, CH_NULL);
+		alternative(VK_1, KEY_1, CH_DIGIT_1, CH_EXCLAMATION_MARK, CH_SUPERSCRIPT_ONE);
+		alternative(VK_2, KEY_2, CH_DIGIT_2, CH_COMMERCIAL_AT, CH_SUPERSCRIPT_TWO);
+		alternative(VK_3, KEY_3, CH_DIGIT_3, CH_NUMBER_SIGN, CH_SUPERSCRIPT_THREE);
+		alternative(VK_4, KEY_4, CH_DIGIT_4, CH_DOLLAR_SIGN, CH_POUND_SIGN);
+		alternative(VK_5, KEY_5, CH_DIGIT_5, CH_PERCENT_SIGN, CH_CENT_SIGN);
+		alternative(VK_6, KEY_6, CH_DIGIT_6, CH_DIARESIS, CH_NOT_SIGN);
+		alternative(VK_7, KEY_7, CH_DIGIT_7, CH_AMPERSAND, CH_NULL);
+		alternative(VK_8, KEY_8, CH_DIGIT_8, CH_ASTERISK, CH_NULL);
+		alternative(VK_9, KEY_9, CH_DIGIT_9, CH_LEFT_PARENTHESIS, CH_NULL);
+
+		letter(VK_A, KEY_A, CH_SMALL_LETTER_A, CH_CAPITAL_LETTER_A);
+		letter(VK_B, KEY_B, CH_SMALL_LETTER_B, CH_CAPITAL_LETTER_B);
+		letter(VK_C, KEY_C, CH_SMALL_LETTER_C, CH_CAPITAL_LETTER_C);
+		letter(VK_D, KEY_D, CH_SMALL_LETTER_D, CH_CAPITAL_LETTER_D);
+		letter(VK_E, KEY_E, CH_SMALL_LETTER_E, CH_CAPITAL_LETTER_E);
+		letter(VK_F, KEY_F, CH_SMALL_LETTER_F, CH_CAPITAL_LETTER_F);
+		letter(VK_G, KEY_G, CH_SMALL_LETTER_G, CH_CAPITAL_LETTER_G);
+		letter(VK_H, KEY_H, CH_SMALL_LETTER_H, CH_CAPITAL_LETTER_H);
+		letter(VK_I, KEY_I, CH_SMALL_LETTER_I, CH_CAPITAL_LETTER_I);
+		letter(VK_J, KEY_J, CH_SMALL_LETTER_J, CH_CAPITAL_LETTER_J);
+		letter(VK_K, KEY_K, CH_SMALL_LETTER_K, CH_CAPITAL_LETTER_K);
+		letter(VK_L, KEY_L, CH_SMALL_LETTER_L, CH_CAPITAL_LETTER_L);
+		letter(VK_M, KEY_M, CH_SMALL_LETTER_M, CH_CAPITAL_LETTER_M);
+		letter(VK_N, KEY_N, CH_SMALL_LETTER_N, CH_CAPITAL_LETTER_N);
+		letter(VK_O, KEY_O, CH_SMALL_LETTER_O, CH_CAPITAL_LETTER_O);
+		letter(VK_P, KEY_P, CH_SMALL_LETTER_P, CH_CAPITAL_LETTER_P);
+		letter(VK_Q, KEY_Q, CH_SMALL_LETTER_Q, CH_CAPITAL_LETTER_Q);
+		letter(VK_R, KEY_R, CH_SMALL_LETTER_R, CH_CAPITAL_LETTER_R);
+		letter(VK_S, KEY_S, CH_SMALL_LETTER_S, CH_CAPITAL_LETTER_S);
+		letter(VK_T, KEY_T, CH_SMALL_LETTER_T, CH_CAPITAL_LETTER_T);
+		letter(VK_U, KEY_U, CH_SMALL_LETTER_U, CH_CAPITAL_LETTER_U);
+		letter(VK_V, KEY_V, CH_SMALL_LETTER_V, CH_CAPITAL_LETTER_V);
+		letter(VK_W, KEY_W, CH_SMALL_LETTER_W, CH_CAPITAL_LETTER_W);
+		letter(VK_X, KEY_X, CH_SMALL_LETTER_X, CH_CAPITAL_LETTER_X);
+		letter(VK_Y, KEY_Y, CH_SMALL_LETTER_Y, CH_CAPITAL_LETTER_Y);
+		letter(VK_Z, KEY_Z, CH_SMALL_LETTER_Z, CH_CAPITAL_LETTER_Z);
+
+		key(VK_NUMPAD0, KEY_NUMPAD_0, CH_DIGIT_0);
+		key(VK_NUMPAD1, KEY_NUMPAD_1, CH_DIGIT_1);
+		key(VK_NUMPAD2, KEY_NUMPAD_2, CH_DIGIT_2);
+		key(VK_NUMPAD3, KEY_NUMPAD_3, CH_DIGIT_3);
+		key(VK_NUMPAD4, KEY_NUMPAD_4, CH_DIGIT_4);
+		key(VK_NUMPAD5, KEY_NUMPAD_5, CH_DIGIT_5);
+		key(VK_NUMPAD6, KEY_NUMPAD_6, CH_DIGIT_6);
+		key(VK_NUMPAD7, KEY_NUMPAD_7, CH_DIGIT_7);
+		key(VK_NUMPAD8, KEY_NUMPAD_8, CH_DIGIT_8);
+		key(VK_NUMPAD9, KEY_NUMPAD_9, CH_DIGIT_9);
+
+		key(VK_MULTIPLY, KEY_MULTIPLY, CH_MULTIPLICATION_SIGN);
+		key(VK_ADD, KEY_ADD, CH_PLUS_SIGN);
+		key(VK_SEPARATOR, KEY_SEPARATOR, CH_FULL_STOP);
+		key(VK_SUBTRACT, KEY_SUB, CH_HYPHEN);
+		key(VK_DECIMAL, KEY_DECIMAL, CH_COMMA);
+		key(VK_DIVIDE, KEY_DIVIDE, CH_SOLIDUS);
+
+		key(VK_F1, KEY_F1);
+		key(VK_F2, KEY_F2);
+		key(VK_F3, KEY_F3);
+		key(VK_F4, KEY_F4);
+		key(VK_F5, KEY_F5);
+		key(VK_F6, KEY_F6);
+		key(VK_F7, KEY_F7);
+		key(VK_F8, KEY_F8);
+		key(VK_F9, KEY_F9);
+		key(VK_F10, KEY_F10);
+		key(VK_F11, KEY_F11);
+		key(VK_F12, KEY_F12);
+		key(VK_F13, KEY_F13);
+		key(VK_F14, KEY_F14);
+		key(VK_F15, KEY_F15);
+		key(VK_F16, KEY_F16);
+		key(VK_F17, KEY_F17);
+		key(VK_F18, KEY_F18);
+		key(VK_F19, KEY_F19);
+		key(VK_F20, KEY_F20);
+		key(VK_F21, KEY_F21);
+		key(VK_F22, KEY_F22);
+		key(VK_F23, KEY_F23);
+		key(VK_F24, KEY_F24);
+
+		letter(VK_OEM_1, KEY_CEDILLA, CH_SMALL_LETTER_CEDILLA, CH_CAPITAL_LETTER_CEDILLA);
+		key(VK_OEM_PLUS, KEY_PLUS, CH_PLUS_SIGN);
+		key(VK_OEM_COMMA, KEY_COMMA, CH_COMMA);
+		key(VK_OEM_MINUS, KEY_MINUS, CH_HYPHEN);
+		key(VK_OEM_PERIOD, KEY_PERIOD, CH_FULL_STOP);
+		alternative(VK_OEM_2, KEY_COLON, CH_SEMICOLON, CH_COLON, CH_NULL);
+		alternative(VK_OEM_3, KEY_QUOTE, CH_APORTROPHE, CH_QUOTATION_MARK, CH_NULL);
+		alternative(VK_OEM_4, KEY_ACUTE, CH_ACUTE_ACCENT, CH_GRAVE_ACCENT, CH_NULL);
+		alternative(VK_OEM_5, KEY_RIGHT_BRACKET, CH_RIGHT_SQUARE_BRACKET, CH_RIGHT_CURLY_BRACKET, CH_NULL);
+		alternative(VK_OEM_6, KEY_LEFT_BRACKET, CH_LEFT_SQUARE_BRACKET, CH_LEFT_CURLY_BRACKET, CH_NULL);
+		alternative(VK_OEM_7, KEY_TILDE, CH_TILDE, CH_CIRCUMFLEX_ACCENT, CH_NULL);
+		alternative(VK_OEM_9, KEY_SLASH, CH_SOLIDUS, CH_QUESTION_MARK, CH_NUMBER_SIGN);
+		alternative(VK_OEM_102, KEY_BACK_SLASH, CH_REVERSE_SOLIDUS, CH_VERTICAL_LINE, CH_NUMBER_SIGN);
+	}
+}
@@ -0,0 +1,28 @@
+package org.diverproject.jni.input;
+
+/**
+ * <h1>Espera por Cedncia</h1>
+ *
+ * <p>Estratgia onde a thread do processador cede a sua vez para outras threads.
+ * Mantm uma latncia baixa, porm permite que outras threads usem o mesmo ncleo.
+ * Quando no houver outras threads aguardando ainda ir ocupar a CPU por completo.</p>
+ *
+ * @see KeyboardWaitStrategy
+ *
+ * @author Andrew
+ */
+
+public class YieldWaitStrategy implements KeyboardWaitStrategy
+{
+	@Override
+	public void idle(int attempts)
+	{
+		Thread.yield();
+	}
+
+	@Override
+	public void signal()
+	{
+		
+	}
+}
@@ -159,6 +159,7 @@ public class EnumVK
 	public static final int VK_OEM_PERIOD = 0xBE;
 	public static final int VK_OEM_2 = 0xBF;
 	public static final int VK_OEM_3 = 0xC0;
+	public static final int VK_OEM_9 = 0xC1;
 	public static final int VK_OEM_4 = 0xDB;
 	public static final int VK_OEM_5 = 0xDC;
 	public static final int VK_OEM_6 = 0xDD;
@@ -182,7 +183,7 @@ public class EnumVK
 
 	public static final String VIRTUAL_KEY_NAME[] = new String[]
 	{
-		"UNDEFINED", "LBUTTON", "RBUTTON", "CANCEL", "MBUTTON", "XBUTTON1", "XBUTTON2", null, "BACK", "TAB", null, null, "CLEAR", "RETURN", null, null, "SHIFT", "CONTROL", "MENU", "PAUSE", "CAPITAL", "KANA", null, "JUNJA", "FINAL", "HANJA", null, "ESCAPE", "CONVERT", "NONCONVERT", "ACCEPT", "MODECHANGE", "SPACE", "PRIOR", "NEXT", "END", "HOME", "LEFT", "UP", "RIGHT", "DOWN", "SELECT", "PRINT", "EXECUTE", "SNAPSHOT", "INSERT", "DELETE", "HELP", "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", null, null, null, null, null, null, null, "A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M", "N", "O", "P", "Q", "R", "S", "T", "U", "V", "X", "W", "Y", "Z", "LWIN", "RWIN", "APPS", null, "SLEEP", "NUMPAD0", "NUMPAD1", "NUMPAD2", "NUMPAD3", "NUMPAD4", "NUMPAD5", "NUMPAD6", "NUMPAD7", "NUMPAD8", "NUMPAD9", "MULTIPLY", "ADD", "SEPARATOR", "SUBTRACT", "DECIMAL", "DIVIDE", "F1", "F2", "F3", "F4", "F5", "F6", "F7", "F8", "F9", "F10", "F11", "F12", "F13", "F14", "F15", "F16", "F17", "F18", "F19", "F20", "F21", "F22", "F23", "F24", null, null, null, null, null, null, null, null, "NUMLOCK", "SCROLL", null, null, null, null, null, null, null, null, null, null, null, null, null, null, "LSHIFT", "RSHIFT", "LCONTROL", "RCONTROL", "LMENU", "RMENU", "BROWSER_BACK", "BROWSER_FORWARD", "BROWSER_REFRESH", "BROWSER_STOP", "BROWSER_SEARCH", "BROWSER_FAVORITES", "BROWSER_HOME", "VOLUME_MUTE", "VOLUME_DOWN", "VOLUME_UP", "MEDIA_NEXT_TRACK", "MEDIA_PREV_TRACK", "MEDIA_STOP", "MEDIA_PLAY_PAUSE", "LAUNCH_MAIL", "LAUNCH_MEDIA_SELECT", "LAUNCH_APP1", "LAUNCH_APP2", null, null, "OEM_1", "OEM_PLUS", "OEM_COMMA", "OEM_MINUS", "OEM_PERIOD", "OEM_2", "OEM_3", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, "OEM_4", "OEM_5", "OEM_6", "OEM_7", "OEM_8", null, null, "OEM_102", null, null, "PROCESSKEY", null, "PACKET", null, null, null, null, null, null, null, null, null, null, null, null, null, "ATTN", "CRSEL", "EXSEL", "EREOF", "PLAY", "ZOOM", "NONAME", "PA1", "OEM_CLEAR", null
+		"UNDEFINED", "LBUTTON", "RBUTTON", "CANCEL", "MBUTTON", "XBUTTON1", "XBUTTON2", null, "BACK", "TAB", null, null, "CLEAR", "RETURN", null, null, "SHIFT", "CONTROL", "MENU", "PAUSE", "CAPITAL", "KANA", null, "JUNJA", "FINAL", "HANJA", null, "ESCAPE", "CONVERT", "NONCONVERT", "ACCEPT", "MODECHANGE", "SPACE", "PRIOR", "NEXT", "END", "HOME", "LEFT", "UP", "RIGHT", "DOWN", "SELECT", "PRINT", "EXECUTE", "SNAPSHOT", "INSERT", "DELETE", "HELP", "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", null, null, null, null, null, null, null, "A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M", "N", "O", "P", "Q", "R", "S", "T", "U", "V", "X", "W", "Y", "Z", "LWIN", "RWIN", "APPS", null, "SLEEP", "NUMPAD0", "NUMPAD1", "NUMPAD2", "NUMPAD3", "NUMPAD4", "NUMPAD5", "NUMPAD6", "NUMPAD7", "NUMPAD8", "NUMPAD9", "MULTIPLY", "ADD", "SEPARATOR", "SUBTRACT", "DECIMAL", "DIVIDE", "F1", "F2", "F3", "F4", "F5", "F6", "F7", "F8", "F9", "F10", "F11", "F12", "F13", "F14", "F15", "F16", "F17", "F18", "F19", "F20", "F21", "F22", "F23", "F24", null, null, null, null, null, null, null, null, "NUMLOCK", "SCROLL", null, null, null, null, null, null, null, null, null, null, null, null, null, null, "LSHIFT", "RSHIFT", "LCONTROL", "RCONTROL", "LMENU", "RMENU", "BROWSER_BACK", "BROWSER_FORWARD", "BROWSER_REFRESH", "BROWSER_STOP", "BROWSER_SEARCH", "BROWSER_FAVORITES", "BROWSER_HOME", "VOLUME_MUTE", "VOLUME_DOWN", "VOLUME_UP", "MEDIA_NEXT_TRACK", "MEDIA_PREV_TRACK", "MEDIA_STOP", "MEDIA_PLAY_PAUSE", "LAUNCH_MAIL", "LAUNCH_MEDIA_SELECT", "LAUNCH_APP1", "LAUNCH_APP2", null, null, "OEM_1", "OEM_PLUS", "OEM_COMMA", "OEM_MINUS", "OEM_PERIOD", "OEM_2", "OEM_3", "OEM_9", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, "OEM_4", "OEM_5", "OEM_6", "OEM_7", "OEM_8", null, null, "OEM_102", null, null, "PROCESSKEY", null, "PACKET", null, null, null, null, null, null, null, null, null, null, null, null, null, "ATTN", "CRSEL", "EXSEL", "EREOF", "PLAY", "ZOOM", "NONAME", "PA1", "OEM_CLEAR", null
 	};
 
 	public static boolean isKeyCode(int keyCode)
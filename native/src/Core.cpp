@@ -14,7 +14,7 @@ jmethodID processKeyMethod = NULL;	// M
 
 extern "C"
 
-#define DISPATCH_KV(env, key, transition, type) env->CallVoidMethod(keyboardHookObject, processKeyMethod, parseKeyEvent(env, key, transition, type));
+#define DISPATCH_KV(env, key, type) env->CallVoidMethod(keyboardHookObject, processKeyMethod, type, (jint) key->vkCode, (jint) key->flags);
 
 /**
  * Chamado no momento em que o sistema detectar a utilizao dessa DLL.
@@ -51,13 +51,13 @@ LRESULT CALLBACK LowLevelKeyboardProc(int code, WPARAM wParam, LPARAM lParam)
 		{
 			case WM_KEYDOWN:
 			case WM_SYSKEYDOWN:
-				DISPATCH_KV(env, key, true, KEY_TYPED);
-				DISPATCH_KV(env, key, true, KEY_PRESSED);
+				DISPATCH_KV(env, key, KEY_TYPED);
+				DISPATCH_KV(env, key, KEY_PRESSED);
 				break;
 
 			case WM_KEYUP:
 			case WM_SYSKEYUP:
-				DISPATCH_KV(env, key, false, KEY_RELEASED);
+				DISPATCH_KV(env, key, KEY_RELEASED);
 				break;
 		}
 	}
@@ -72,7 +72,7 @@ LRESULT CALLBACK LowLevelKeyboardProc(int code, WPARAM wParam, LPARAM lParam)
  * @param obj referncia do objeto no software que est tentando registrar.
  * @param listener referncia do objeto que ser a escuta dos eventos.
  */
-JNIEXPORT void JNICALL Java_org_diverproject_jni_input_KeyboardPicker_register(JNIEnv *env, jobject obj)
+JNIEXPORT void JNICALL Java_org_diverproject_jni_input_KeyboardHook_register(JNIEnv *env, jobject obj)
 {
 	HHOOK hookHandle = SetWindowsHookEx(WH_KEYBOARD_LL, LowLevelKeyboardProc, instance, 0);
 
@@ -82,7 +82,7 @@ JNIEXPORT void JNICALL Java_org_diverproject_jni_input_KeyboardPicker_register(J
 	keyboardHookObject = env->NewGlobalRef(obj);
 
 	jclass cls = env->GetObjectClass(keyboardHookObject);
-	processKeyMethod = env->GetMethodID(cls, "receiveKey", "(Lorg/diverproject/jni/input/KeyEvent;)V");
+	processKeyMethod = env->GetMethodID(cls, "receiveKey", "(III)V");
 
 	env->GetJavaVM(&jvm);
 	hookThreadId = GetCurrentThreadId();
@@ -102,7 +102,7 @@ JNIEXPORT void JNICALL Java_org_diverproject_jni_input_KeyboardPicker_register(J
  * @param env referncia do softwre do qual est chamando esse procedimento.
  * @param obj referncia do objeto no software que est tentando desfazer o registro.
  */
-JNIEXPORT void JNICALL Java_org_diverproject_jni_input_KeyboardPicker_unregister(JNIEnv * env, jobject obj)
+JNIEXPORT void JNICALL Java_org_diverproject_jni_input_KeyboardHook_unregister(JNIEnv * env, jobject obj)
 {
 	if (hookThreadId == 0)
 		return;
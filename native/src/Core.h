@@ -14,14 +14,14 @@ extern "C"
  * Method:    register
  * Signature: ()V
  */
-JNIEXPORT void JNICALL Java_org_diverproject_jni_input_KeyboardPicker_register(JNIEnv *, jobject);
+JNIEXPORT void JNICALL Java_org_diverproject_jni_input_KeyboardHook_register(JNIEnv *, jobject);
 
 /*
  * Class:     org_diverproject_jni_input_KeyboardHook
  * Method:    unregister
  * Signature: ()V
  */
-JNIEXPORT void JNICALL Java_org_diverproject_jni_input_KeyboardPicker_unregister(JNIEnv *, jobject);
+JNIEXPORT void JNICALL Java_org_diverproject_jni_input_KeyboardHook_unregister(JNIEnv *, jobject);
 
 #ifdef __cplusplus
 }